@@ -66,6 +66,8 @@ public class Constants {
   public static final String JDBC_NUM_PARTITIONS = JDBC_CONFIG_PREFIX + ".numPartitions";
   public static final String JDBC_LOW_BOUND = JDBC_CONFIG_PREFIX + ".lowerBound";
   public static final String JDBC_UPPER_BOUND = JDBC_CONFIG_PREFIX + ".upperBound";
+  public static final String JDBC_ROWS_PER_PARTITION = JDBC_CONFIG_PREFIX + ".rowsPerPartition";
+  public static final String JDBC_BALANCED_PARTITIONS = JDBC_CONFIG_PREFIX + ".balancedPartitions";
 
   public static final String HIVE_SERVER2_JOB_CREDSTORE_PASSWORD_ENVVAR = "HIVE_JOB_CREDSTORE_PASSWORD";
   public static final String HADOOP_CREDENTIAL_PASSWORD_ENVVAR = "HADOOP_CREDSTORE_PASSWORD";
@@ -85,6 +87,7 @@ public class Constants {
 
   public static final String COMPACTOR_INTIATOR_THREAD_NAME_FORMAT = "Initiator-executor-thread-%d";
   public static final String COMPACTOR_CLEANER_THREAD_NAME_FORMAT = "Cleaner-executor-thread-%d";
+  public static final String COMPACTOR_CLEANER_DELETE_THREAD_NAME_FORMAT = "Cleaner-delete-thread-%d";
 
   public static final String MODE = "mode";
 
@@ -436,6 +436,10 @@ private static void populateLlapDaemonVarsSet(Set<String> llapDaemonVarsSetLocal
     llapDaemonVarsSetLocal.add(ConfVars.LLAP_DAEMON_YARN_SHUFFLE_PORT.varname);
     llapDaemonVarsSetLocal.add(ConfVars.LLAP_DAEMON_YARN_CONTAINER_MB.varname);
     llapDaemonVarsSetLocal.add(ConfVars.LLAP_DAEMON_SHUFFLE_DIR_WATCHER_ENABLED.varname);
+    llapDaemonVarsSetLocal.add(ConfVars.LLAP_DAEMON_SHUFFLE_MERGE_ENABLED.varname);
+    llapDaemonVarsSetLocal.add(ConfVars.LLAP_DAEMON_CACHE_SUMMARY_INTERVAL.varname);
+    llapDaemonVarsSetLocal.add(ConfVars.LLAP_DAEMON_CACHE_SUMMARY_MAX_FILES.varname);
+    llapDaemonVarsSetLocal.add(ConfVars.LLAP_DAEMON_CACHE_SUMMARY_FPP.varname);
     llapDaemonVarsSetLocal.add(ConfVars.LLAP_DAEMON_AM_LIVENESS_HEARTBEAT_INTERVAL_MS.varname);
     llapDaemonVarsSetLocal.add(ConfVars.LLAP_DAEMON_AM_LIVENESS_CONNECTION_TIMEOUT_MS.varname);
     llapDaemonVarsSetLocal.add(ConfVars.LLAP_DAEMON_AM_LIVENESS_CONNECTION_SLEEP_BETWEEN_RETRIES_MS.varname);
@@ -453,6 +457,11 @@ private static void populateLlapDaemonVarsSet(Set<String> llapDaemonVarsSetLocal
     llapDaemonVarsSetLocal.add(ConfVars.LLAP_DAEMON_TASK_SCHEDULER_WAIT_QUEUE_SIZE.varname);
     llapDaemonVarsSetLocal.add(ConfVars.LLAP_DAEMON_WAIT_QUEUE_COMPARATOR_CLASS_NAME.varname);
     llapDaemonVarsSetLocal.add(ConfVars.LLAP_DAEMON_TASK_SCHEDULER_ENABLE_PREEMPTION.varname);
+    llapDaemonVarsSetLocal.add(ConfVars.LLAP_DAEMON_TASK_SCHEDULER_DIRECT_DISPATCH.varname);
+    llapDaemonVarsSetLocal.add(ConfVars.LLAP_DAEMON_TASK_SCHEDULER_MEMORY_ADMISSION.varname);
+    llapDaemonVarsSetLocal.add(ConfVars.LLAP_DAEMON_TASK_SCHEDULER_WM_POOL_FAIR_SHARING.varname);
+    llapDaemonVarsSetLocal.add(ConfVars.LLAP_DAEMON_TASK_SCHEDULER_WM_POOL_WEIGHTS.varname);
+    llapDaemonVarsSetLocal.add(ConfVars.LLAP_IO_WM_POOL_BANDWIDTH.varname);
     llapDaemonVarsSetLocal.add(ConfVars.LLAP_DAEMON_TASK_PREEMPTION_METRICS_INTERVALS.varname);
     llapDaemonVarsSetLocal.add(ConfVars.LLAP_DAEMON_WEB_PORT.varname);
     llapDaemonVarsSetLocal.add(ConfVars.LLAP_DAEMON_WEB_SSL.varname);
@@ -1935,6 +1944,23 @@ public static enum ConfVars {
         "Default file format for CREATE MATERIALIZED VIEW statement"),
     HIVE_MATERIALIZED_VIEW_SERDE("hive.materializedview.serde",
         "org.apache.hadoop.hive.ql.io.orc.OrcSerde", "Default SerDe used for materialized views"),
+    HIVE_MATERIALIZED_VIEW_ADVISOR_ENABLED("hive.materializedview.advisor.enabled", false,
+        "Whether to record the join and aggregate subplans of the compiled queries, and to recommend materialized\n" +
+        "views for the ones computed repeatedly, when their estimated benefit is positive."),
+    HIVE_MATERIALIZED_VIEW_ADVISOR_MIN_OCCURRENCES("hive.materializedview.advisor.min.occurrences", 3,
+        new RangeValidator(2, null),
+        "Number of times a subplan has to be computed by the recorded queries before a materialized view is\n" +
+        "recommended for it."),
+    HIVE_MATERIALIZED_VIEW_ADVISOR_MAX_CANDIDATES("hive.materializedview.advisor.max.candidates", 1000,
+        "Maximum number of distinct subplans remembered by the materialized view advisor."),
+    HIVE_MATERIALIZED_VIEW_ADVISOR_DATABASE("hive.materializedview.advisor.database", "default",
+        "Database of the materialized views recommended by the advisor."),
+    HIVE_MATERIALIZED_VIEW_ADVISOR_AUTO_CREATE("hive.materializedview.advisor.auto.create", false,
+        "Whether to create the materialized views recommended by the advisor in the background."),
+    HIVE_MATERIALIZED_VIEW_ADVISOR_AUTO_CREATE_BUDGET("hive.materializedview.advisor.auto.create.budget", "10Gb",
+        new SizeValidator(),
+        "Maximum total estimated size of the materialized views created by the advisor. The budget is tracked in\n" +
+        "memory by each HiveServer2 process, and starts over when the process restarts."),
 
     HIVE_ENABLE_JDBC_PUSHDOWN("hive.jdbc.pushdown.enable", true,
         "Flag to control enabling pushdown of operators into JDBC connection and subsequent SQL generation\n" +
@@ -2297,6 +2323,17 @@ public static enum ConfVars {
       "Hive streaming ingest has auto flush mechanism to flush all open record updaters under memory pressure.\n" +
         "When memory usage exceed hive.heap.memory.monitor.default.usage.threshold, the auto-flush mechanism will \n" +
         "wait until this size (default 100Mb) of records are ingested before triggering flush."),
+    HIVE_STREAMING_BATCHING_ENABLED("hive.streaming.batching.enabled", false,
+      "Whether streaming ingest should buffer records per partition and bucket in columnar batches and write\n" +
+      "them to ORC a batch at a time, instead of writing every record to the record updater on its own.\n" +
+      "Buffered records are written when a transaction is committed and dropped when it is aborted."),
+    HIVE_STREAMING_BATCHING_BATCH_SIZE("hive.streaming.batching.batch.size", 1024,
+      "Number of records buffered for a single partition and bucket before the batch is written.\n" +
+      "Only used when hive.streaming.batching.enabled is true."),
+    HIVE_STREAMING_BATCHING_MEMORY_BUDGET("hive.streaming.batching.memory.budget", "256Mb", new SizeValidator(),
+      "Maximum size of the batches of a streaming record writer in batching mode, estimated as the length of\n" +
+      "the buffered records plus the column vectors of the batches. When it is exceeded the largest batches\n" +
+      "are written and released first."),
     HIVE_CLASSLOADER_SHADE_PREFIX("hive.classloader.shade.prefix", "", "During reflective instantiation of a class\n" +
       "(input, output formats, serde etc.), when classloader throws ClassNotFoundException, as a fallback this\n" +
       "shade prefix will be used before class reference and retried."),
@@ -2314,10 +2351,20 @@ public static enum ConfVars {
         "How long, in ms, to wait to batch input directories for processing during ORC split\n" +
         "generation. 0 means process directories individually. This can increase the number of\n" +
         "metastore calls if metastore metadata cache is used."),
+    HIVE_ORC_SPLIT_BULK_LISTING_MIN_PATHS("hive.orc.splits.bulk.listing.min.paths", 0,
+        "Minimum number of input directories of a non-transactional table on blob storage for ORC\n" +
+        "split generation to list all of them with a single recursive listing of their common parent\n" +
+        "directory, instead of one listing per directory. The whole parent directory is listed, so\n" +
+        "this should only be reached by queries reading most of the partitions under it.\n" +
+        "0 disables bulk listing."),
     HIVE_ORC_INCLUDE_FILE_ID_IN_SPLITS("hive.orc.splits.include.fileid", true,
         "Include file ID in splits on file systems that support it."),
     HIVE_ORC_ALLOW_SYNTHETIC_FILE_ID_IN_SPLITS("hive.orc.splits.allow.synthetic.fileid", true,
         "Allow synthetic file ID in splits on file systems that don't have a native one."),
+    HIVE_ORC_SPLIT_PROJECTION_SIZE_ON_DISK("hive.orc.splits.projection.size.on.disk", true,
+        "Whether to estimate the size ORC splits are grouped by from the on disk size of the projected\n" +
+        "columns in the file footer, instead of their uncompressed size. The uncompressed size is used\n" +
+        "for files written without the on disk size of their columns."),
     HIVE_ORC_CACHE_STRIPE_DETAILS_MEMORY_SIZE("hive.orc.cache.stripe.details.mem.size", "256Mb",
         new SizeValidator(), "Maximum size of orc splits cached in the client."),
     /**
@@ -3177,6 +3224,18 @@ public static enum ConfVars {
         "Enables parallelization of the checkForCompaction operation, that includes many file metadata checks\n" +
         "and may be expensive"),
 
+    HIVE_COMPACTOR_INITIATOR_INCREMENTAL_CHECK("hive.compactor.initiator.incremental.check.enabled", false,
+        "Whether the Initiator should remember the delta count and sizes of tables/partitions that did not\n" +
+        "need compaction, and skip listing their directories in later checks as long as the number of\n" +
+        "writes committed since then cannot push them over hive.compactor.delta.num.threshold or\n" +
+        "hive.compactor.delta.pct.threshold. Useful on object stores, where directory listings are slow."),
+    HIVE_COMPACTOR_INITIATOR_INCREMENTAL_CHECK_MAX_AGE("hive.compactor.initiator.incremental.check.max.age",
+        "6h", new TimeValidator(TimeUnit.SECONDS),
+        "Maximum time the delta statistics remembered by hive.compactor.initiator.incremental.check.enabled\n" +
+        "are used before the directory of the table/partition is listed again. The growth of the deltas is\n" +
+        "estimated from their average size, so a major compaction needed after an unusually large write can\n" +
+        "be delayed by up to this time."),
+
     HIVE_COMPACTOR_DELTA_NUM_THRESHOLD("hive.compactor.delta.num.threshold", 10,
         "Number of delta directories in a table or partition that will trigger a minor\n" +
         "compaction."),
@@ -3242,6 +3301,10 @@ public static enum ConfVars {
     HIVE_COMPACTOR_CLEANER_THREADS_NUM("hive.compactor.cleaner.threads.num", 1,
       "Enables parallelization of the cleaning directories after compaction, that includes many file \n" +
       "related checks and may be expensive"),
+    HIVE_COMPACTOR_CLEANER_DELETE_THREADS_NUM("hive.compactor.cleaner.delete.threads.num", 1,
+      "Number of threads used to delete the obsolete directories of a compaction in parallel. Deleting a\n" +
+      "directory on object stores takes many slow calls, so raising this can speed up the cleaner considerably.\n" +
+      "The pool is shared by all hive.compactor.cleaner.threads.num cleaner threads."),
     COMPACTOR_JOB_QUEUE("hive.compactor.job.queue", "", "Used to specify name of Hadoop queue to which\n" +
       "Compaction jobs will be submitted.  Set to empty string to let Hadoop choose the queue."),
 
@@ -3253,6 +3316,11 @@ public static enum ConfVars {
     COMPACTOR_CRUD_QUERY_BASED("hive.compactor.crud.query.based", false,
         "Means compaction on full CRUD tables is done via queries. "
         + "Compactions on insert-only tables will always run via queries regardless of the value of this configuration."),
+    COMPACTOR_MINOR_IN_PROCESS_MAX_SIZE("hive.compactor.minor.in.process.max.size", "0",
+        new SizeValidator(),
+        "If query based compaction is enabled, minor compactions on full CRUD tables whose deltas are smaller\n" +
+        "than this size are done by merging the deltas in the Worker process instead of running a query.\n" +
+        "0 disables it."),
     SPLIT_GROUPING_MODE("hive.split.grouping.mode", "query", new StringSet("query", "compactor"),
         "This is set to compactor from within the query based compactor. This enables the Tez SplitGrouper "
         + "to group splits based on their bucket number, so that all rows from different bucket files "
@@ -3351,6 +3419,13 @@ public static enum ConfVars {
         "number of records of the query results is larger than this threshold, we split the query in\n" +
         "total number of rows/threshold parts across the time dimension. Note that we assume the\n" +
         "records to be split uniformly across the time dimension."),
+    HIVE_DRUID_SCAN_SPLIT_SIZE("hive.druid.scan.split.size", "512Mb", new SizeValidator(),
+        "Scan queries get one split per Druid segment. Segments larger than this are split further into\n" +
+        "segment size/split size parts across the time dimension, assuming the rows to be spread uniformly\n" +
+        "over the interval of the segment. 0 disables splitting segments."),
+    HIVE_DRUID_VECTORIZED_STREAMING_DECODE("hive.druid.vectorized.streaming.decode", true,
+        "Whether the vectorized reader decodes the results of Druid scan queries straight from the result\n" +
+        "stream into column vectors, instead of materializing every row first."),
     HIVE_DRUID_NUM_HTTP_CONNECTION("hive.druid.http.numConnection", 20, "Number of connections used by\n" +
         "the HTTP client."),
     HIVE_DRUID_HTTP_READ_TIMEOUT("hive.druid.http.read.timeout", "PT1M", "Read timeout period for the HTTP\n" +
@@ -3666,6 +3741,13 @@ public static enum ConfVars {
         "hive.exec.temporary.table.storage", "default", new StringSet("memory",
          "ssd", "default"), "Define the storage policy for temporary tables." +
          "Choices between memory, ssd and default"),
+    HIVE_TEMPORARY_TABLE_FILE_FORMAT("hive.exec.temporary.table.fileformat", "none",
+        new StringSet("none", "TextFile", "SequenceFile", "RCfile", "ORC", "parquet"),
+        "Default file format for CREATE TEMPORARY TABLE statements. Leaving this to none will result in using\n" +
+        "the format of the other tables. Setting it to ORC makes the intermediate tables of multi-statement\n" +
+        "scripts columnar: they are written with whole batches by the vectorized FileSink, and cached by LLAP IO\n" +
+        "when read. Combined with hive.exec.temporary.table.storage=memory, they are kept in memory on HDFS,\n" +
+        "with a fall back to disk."),
     HIVE_QUERY_LIFETIME_HOOKS("hive.query.lifetime.hooks", "",
         "A comma separated list of hooks which implement QueryLifeTimeHook. These will be triggered" +
             " before/after query compilation and before/after query execution, in the order specified." +
@@ -3877,6 +3959,15 @@ public static enum ConfVars {
     HIVE_SERVER2_TEZ_SESSION_LIFETIME_JITTER("hive.server2.tez.session.lifetime.jitter", "3h",
         new TimeValidator(TimeUnit.HOURS),
         "The jitter for Tez session lifetime; prevents all the sessions from restarting at once."),
+    HIVE_SERVER2_TEZ_SESSION_PRELAUNCH_MAX("hive.server2.tez.session.prelaunch.max", 0,
+        "The maximum number of spare Tez sessions HS2 keeps open, or is opening, for the users and\n" +
+        "queues that do not use the default sessions. When a query of such a user takes a spare\n" +
+        "session, another one is launched in the background for the next query of the same user and\n" +
+        "queue. The spare sessions are opened with the configuration of HS2, and are not used by the\n" +
+        "queries which change the settings of the Tez AM. Set to 0 to disable prelaunching."),
+    HIVE_SERVER2_TEZ_SESSION_PRELAUNCH_IDLE_TIMEOUT("hive.server2.tez.session.prelaunch.idle.timeout", "10m",
+        new TimeValidator(TimeUnit.SECONDS),
+        "The time after which a prelaunched Tez session that was not used by any query is closed."),
     HIVE_SERVER2_TEZ_SESSION_MAX_INIT_THREADS("hive.server2.tez.sessions.init.threads", 16,
         "If hive.server2.tez.initialize.default.sessions is enabled, the maximum number of\n" +
         "threads to use to initialize the default sessions."),
@@ -4507,6 +4598,16 @@ public static enum ConfVars {
         "This flag should be set to true to enable the native vectorization\n" +
         "of queries using the Arrow SerDe and FileSink.\n" +
         "The default value is false."),
+    HIVE_VECTORIZATION_FILESINK_ACID_DELETE_ENABLED(
+        "hive.vectorized.execution.filesink.acid.delete.enabled", true,
+        "This flag should be set to true to let the vectorized FileSink write the delete events of DELETE\n" +
+        "statements on full ACID tables straight from the ROW__ID column of the batch, instead of\n" +
+        "extracting every row first."),
+    HIVE_VECTORIZATION_FILESINK_ORC_BATCH_ENABLED(
+        "hive.vectorized.execution.filesink.orc.batch.enabled", true,
+        "This flag should be set to true to let the vectorized FileSink hand whole batches to the ORC writer\n" +
+        "for non-ACID, non-bucketed and not dynamically partitioned ORC tables whose columns are of a\n" +
+        "simple type, instead of extracting and converting every row first."),
     HIVE_TYPE_CHECK_ON_INSERT("hive.typecheck.on.insert", true, "This property has been extended to control "
         + "whether to check, convert, and normalize partition value to conform to its column type in "
         + "partition operations including but not limited to insert, such as alter, describe etc."),
@@ -4592,6 +4693,10 @@ public static enum ConfVars {
         "Time to wait for another thread to localize the same resource for hive-tez."),
     HIVE_LOCALIZE_RESOURCE_NUM_WAIT_ATTEMPTS("hive.localize.resource.num.wait.attempts", 5,
         "The number of attempts waiting for localizing a resource in hive-tez."),
+    HIVE_LOCALIZE_RESOURCE_JARS_BY_CONTENT("hive.localize.resource.jars.by.content", true,
+        "Whether to localize the added and auxiliary jars of hive-tez by content, to the Hive jar directory\n" +
+        "with their SHA-256 in the name, like hive-exec. When enabled, the sessions of a user share the\n" +
+        "uploaded jars instead of each session uploading them to its own resource directory."),
     TEZ_AUTO_REDUCER_PARALLELISM("hive.tez.auto.reducer.parallelism", false,
         "Turn on Tez' auto reducer parallelism feature. When enabled, Hive will still estimate data sizes\n" +
         "and set parallelism estimates. Tez will sample source vertices' output sizes and adjust the estimates at runtime as\n" +
@@ -4702,6 +4807,11 @@ public static enum ConfVars {
     LLAP_IO_ENABLED("hive.llap.io.enabled", null, "Whether the LLAP IO layer is enabled."),
     LLAP_IO_CACHE_ONLY("hive.llap.io.cache.only", false, "Whether the query should read from cache only. If set to " +
         "true and a cache miss happens during the read an exception will occur. Primarily used for testing."),
+    LLAP_IO_WM_POOL_BANDWIDTH("hive.llap.io.wm.pool.bandwidth", "",
+        "Comma-separated list of pool:bandwidth pairs, e.g. \"etl:100Mb\", limiting the bytes per\n" +
+        "second the IO elevator reads from the file system for the queries of each workload\n" +
+        "management pool, across all the fragments on the daemon. Pools which are not listed are\n" +
+        "not limited. Cache hits are never limited."),
     LLAP_IO_ROW_WRAPPER_ENABLED("hive.llap.io.row.wrapper.enabled", true, "Whether the LLAP IO row wrapper is enabled for non-vectorized queries."),
     LLAP_IO_ACID_ENABLED("hive.llap.io.acid", true, "Whether the LLAP IO layer is enabled for ACID."),
     LLAP_IO_TRACE_SIZE("hive.llap.io.trace.size", "2Mb",
@@ -4791,6 +4901,17 @@ public static enum ConfVars {
         "The class should implement org.apache.hadoop.hive.llap.LlapCacheHydration interface."),
     LLAP_CACHE_HYDRATION_SAVE_DIR("hive.llap.cache.hydration.save.dir", "/tmp/hive", "Directory to save the llap cache content\n"
         + "info on shutdown, if BasicLlapCacheHydration is used as the hive.llap.cache.hydration.strategy.class."),
+    LLAP_DAEMON_CACHE_SUMMARY_INTERVAL("hive.llap.daemon.cache.summary.interval", "0s",
+        new TimeValidator(TimeUnit.SECONDS),
+        "How often the daemon publishes a summary of the files in its cache to the registry, so that\n" +
+        "split locations can favor the daemons holding the data. Only the files with hot data buffers\n" +
+        "in the cache are included. 0 disables publishing."),
+    LLAP_DAEMON_CACHE_SUMMARY_MAX_FILES("hive.llap.daemon.cache.summary.max.files", 100000,
+        "Maximum number of cached files included in the summary published by the daemon."),
+    LLAP_DAEMON_CACHE_SUMMARY_FPP("hive.llap.daemon.cache.summary.fpp", 0.01f,
+        "False positive probability of the cache summary published by the daemon. A false positive\n" +
+        "may move a split whose file is not cached away from its consistent location. Lower values\n" +
+        "make the summary larger: about 10 bits per file for 0.01, 14 bits for 0.001."),
     LLAP_IO_USE_FILEID_PATH("hive.llap.io.use.fileid.path", true,
         "Whether LLAP should use fileId (inode)-based path to ensure better consistency for the\n" +
         "cases of file overwrites. This is supported on HDFS. Disabling this also turns off any\n" +
@@ -4873,6 +4994,14 @@ public static enum ConfVars {
     LLAP_EXECUTION_MODE("hive.llap.execution.mode", "none",
         new StringSet("auto", "none", "all", "map", "only"),
         "Chooses whether query fragments will run in container or in llap"),
+    LLAP_SHUFFLE_LOCAL_FETCH("hive.llap.shuffle.local.fetch", true,
+        "Whether the consumers of an edge between two LLAP vertices read the outputs produced on the same\n" +
+        "daemon directly from its local directories, instead of fetching them through the shuffle handler."),
+    LLAP_SHUFFLE_DATA_VIA_EVENTS_MAX_SIZE("hive.llap.shuffle.data.via.events.max.size", "2Kb",
+        new SizeValidator(0L, true, 1024L * 1024L, true),
+        "Maximum size of an unordered, single partition output of an edge between two LLAP vertices which\n" +
+        "is kept in memory and sent to the consumers within the data movement event, instead of being\n" +
+        "fetched. 0 disables sending data in events."),
     LLAP_IO_ETL_SKIP_FORMAT("hive.llap.io.etl.skip.format", "encode", new StringSet("none", "encode", "all"),
       "For ETL queries, determines whether to skip llap io cache. By default, hive.llap.io.encode.enabled " +
         "will be set to false which disables LLAP IO for text formats. Setting it to 'all' will disable LLAP IO for all" +
@@ -4977,6 +5106,13 @@ public static enum ConfVars {
         "Published to the llap registry. Should never be set by users"),
     LLAP_DAEMON_SHUFFLE_DIR_WATCHER_ENABLED("hive.llap.daemon.shuffle.dir.watcher.enabled", false,
       "TODO doc", "llap.daemon.shuffle.dir-watcher.enabled"),
+    LLAP_DAEMON_SHUFFLE_MERGE_ENABLED("hive.llap.daemon.shuffle.merge.enabled", false,
+      "Whether the shuffle handler appends the partitions of the completed map outputs on the daemon\n" +
+      "into one merged file per partition, so that fetchers asking for the outputs of many attempts\n" +
+      "are served with sequential reads of that file. Outputs that could not be merged are served from\n" +
+      "the map output files. The map outputs are kept as they are, so merging doubles the shuffle data\n" +
+      "written to the local disks, and the space used until the DAG completes. Requires\n" +
+      "hive.llap.daemon.shuffle.dir.watcher.enabled."),
     LLAP_DAEMON_AM_LIVENESS_HEARTBEAT_INTERVAL_MS(
       "hive.llap.daemon.am.liveness.heartbeat.interval.ms", "10000ms",
       new TimeValidator(TimeUnit.MILLISECONDS),
@@ -5132,6 +5268,14 @@ public static enum ConfVars {
             " to a location other than the ones requested. Set to -1 for an infinite delay, 0" +
             "for no delay."
     ),
+    LLAP_TASK_SCHEDULER_SPECULATION_ENABLED("hive.llap.task.scheduler.speculation.enabled", false,
+        "Whether Tez AMs of LLAP sessions launch backup attempts of fragments progressing much\n" +
+        "slower than the other fragments of their vertex. Backup attempts are never scheduled on a\n" +
+        "daemon running another attempt of the same fragment."),
+    LLAP_TASK_SCHEDULER_SPECULATION_MAX_RUNNING_FRACTION(
+        "hive.llap.task.scheduler.speculation.max.running.fraction", 0.1f,
+        "The fraction of the running fragments of a vertex which may have a backup attempt at any\n" +
+        "time, when hive.llap.task.scheduler.speculation.enabled is true."),
     LLAP_DAEMON_TASK_PREEMPTION_METRICS_INTERVALS(
         "hive.llap.daemon.task.preemption.metrics.intervals", "30,60,300",
         "Comma-delimited set of integers denoting the desired rollover intervals (in seconds)\n" +
@@ -5152,6 +5296,38 @@ public static enum ConfVars {
       "Whether non-finishable running tasks (e.g. a reducer waiting for inputs) should be\n" +
       "preempted by finishable tasks inside LLAP scheduler.",
       "llap.daemon.task.scheduler.enable.preemption"),
+    LLAP_DAEMON_TASK_SCHEDULER_DIRECT_DISPATCH(
+      "hive.llap.daemon.task.scheduler.direct.dispatch", false,
+      "Whether the threads submitting and completing fragments should start the queued fragments\n" +
+      "on free executors themselves, instead of handing them over to the single wait queue\n" +
+      "scheduler thread. This lowers the scheduling latency for high rates of short fragments.\n" +
+      "Preemption is still done by the wait queue scheduler thread."),
+    LLAP_DAEMON_TASK_SCHEDULER_MEMORY_ADMISSION(
+      "hive.llap.daemon.task.scheduler.memory.admission", false,
+      "Whether fragments should only be started when the sum of the memory estimates of the\n" +
+      "running fragments, including theirs, fits in the executor memory of the daemon. The\n" +
+      "estimates come from the map join hash table sizes in the plan. The fragments of a vertex\n" +
+      "share their hash tables in a daemon, so the estimate of a vertex is only counted once.\n" +
+      "A fragment is always started when no other fragment with an estimate is running. With\n" +
+      "preemption, a fragment waiting for memory preempts the running fragments it could\n" +
+      "preempt for an executor."),
+    LLAP_FRAGMENT_MEMORY_ESTIMATE("hive.llap.fragment.memory.estimate", 0L,
+      "internal usage only, set for each LLAP vertex to the memory estimate of its fragments,\n" +
+      "which is passed to the daemons for memory admission", true),
+    LLAP_DAEMON_TASK_SCHEDULER_WM_POOL_FAIR_SHARING(
+      "hive.llap.daemon.task.scheduler.wm.pool.fair.sharing", false,
+      "Whether the executors of the daemon are shared between the workload management pools of\n" +
+      "the waiting fragments in proportion to the pool weights. A fragment of a pool using more\n" +
+      "than its share is passed over for a fragment of another pool in the same scheduling\n" +
+      "class, i.e. with the same guaranteed and finishable state."),
+    LLAP_DAEMON_TASK_SCHEDULER_WM_POOL_WEIGHTS(
+      "hive.llap.daemon.task.scheduler.wm.pool.weights", "",
+      "Comma-separated list of pool:weight pairs, e.g. \"bi:3,etl:1\", used when\n" +
+      "hive.llap.daemon.task.scheduler.wm.pool.fair.sharing is true. Pools which are not listed,\n" +
+      "and queries outside workload management, have a weight of 1."),
+    LLAP_QUERY_WM_POOL("hive.llap.query.wm.pool", "",
+      "internal usage only, set to the workload management pool of the query, which is passed\n" +
+      "to the daemons for pool fair sharing and IO throttling", true),
     LLAP_DAEMON_METRICS_TIMED_WINDOW_AVERAGE_DATA_POINTS(
       "hive.llap.daemon.metrics.timed.window.average.data.points", 0,
       "The number of data points stored for calculating executor metrics timed averages.\n" +
@@ -5199,6 +5375,10 @@ public static enum ConfVars {
         "instead of using the locations provided by the split itself. If there is no llap daemon " +
         "running, fall back to locations provided by the split. This is effective only if " +
         "hive.execution.mode is llap"),
+    LLAP_CLIENT_CACHE_AWARE_SPLITS("hive.llap.client.cache.aware.splits", true,
+        "Whether consistent split locations prefer another daemon which has the file of the split\n" +
+        "in its cache, according to the summary it publishes in the registry (see\n" +
+        "hive.llap.daemon.cache.summary.interval), when the daemon the split hashes to does not."),
     LLAP_SPLIT_LOCATION_PROVIDER_CLASS("hive.llap.split.location.provider.class",
       "org.apache.hadoop.hive.ql.exec.tez.HostAffinitySplitLocationProvider",
       "Split location provider class to use during split generation for LLAP. This class should implement\n" +
@@ -5433,6 +5613,7 @@ public static enum ConfVars {
             "yarn.bin.path," +
             "spark.home," +
             "hive.driver.parallel.compilation.global.limit," +
+            "hive.llap.query.wm.pool," +
             "hive.zookeeper.ssl.keystore.location," +
             "hive.zookeeper.ssl.keystore.password," +
             "hive.zookeeper.ssl.truststore.location," +
@@ -6570,6 +6751,8 @@ private static String[] convertVarsToRegex(String[] paramList) {
       ConfVars.LLAP_CLIENT_CONSISTENT_SPLITS.varname,
       ConfVars.LLAP_ENABLE_GRACE_JOIN_IN_LLAP.varname,
       ConfVars.LLAP_ALLOW_PERMANENT_FNS.varname,
+      ConfVars.LLAP_SHUFFLE_LOCAL_FETCH.varname,
+      ConfVars.LLAP_SHUFFLE_DATA_VIA_EVENTS_MAX_SIZE.varname,
       ConfVars.MAXCREATEDFILES.varname,
       ConfVars.MAXREDUCERS.varname,
       ConfVars.NWAYJOINREORDER.varname,
@@ -18,6 +18,7 @@
 package org.apache.hadoop.hive.druid.io;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
 import org.apache.commons.lang3.StringEscapeUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -55,6 +56,7 @@
 import org.apache.hadoop.mapreduce.TaskAttemptContext;
 import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
 import org.jboss.netty.handler.codec.http.HttpMethod;
+import org.joda.time.Interval;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -62,7 +64,9 @@
 import java.io.InputStream;
 import java.net.URL;
 import java.net.URLEncoder;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -76,6 +80,8 @@ public class DruidQueryBasedInputFormat extends InputFormat<NullWritable, DruidW
 
   private static final Logger LOG = LoggerFactory.getLogger(DruidQueryBasedInputFormat.class);
 
+  private static final long MAX_SPLITS_PER_SEGMENT = 1000;
+
   public static DruidQueryRecordReader getDruidQueryReader(String druidQueryType) {
     switch (druidQueryType) {
     case Query.TIMESERIES:
@@ -146,7 +152,8 @@ protected HiveDruidSplit[] getInputSplits(Configuration conf) throws IOException
       return new HiveDruidSplit[] {new HiveDruidSplit(druidQuery, paths[0], new String[] {address})};
     case Query.SCAN:
       ScanQuery scanQuery = DruidStorageHandlerUtils.JSON_MAPPER.readValue(druidQuery, ScanQuery.class);
-      return distributeScanQuery(address, scanQuery, paths[0]);
+      return distributeScanQuery(address, scanQuery, paths[0],
+          HiveConf.getSizeVar(conf, HiveConf.ConfVars.HIVE_DRUID_SCAN_SPLIT_SIZE));
     default:
       throw new IOException("Druid query type not recognized");
     }
@@ -154,9 +161,10 @@ protected HiveDruidSplit[] getInputSplits(Configuration conf) throws IOException
 
   /* New method that distributes the Scan query by creating splits containing
    * information about different Druid nodes that have the data for the given
-   * query. */
-  private static HiveDruidSplit[] distributeScanQuery(String address, ScanQuery query, Path dummyPath)
-      throws IOException {
+   * query. Segments larger than splitSize get several splits, each scanning a
+   * part of the interval of the segment. */
+  private static HiveDruidSplit[] distributeScanQuery(String address, ScanQuery query, Path dummyPath,
+      long splitSize) throws IOException {
     // If it has a limit, we use it and we do not distribute the query
     final boolean isFetch = query.getScanRowsLimit() < Long.MAX_VALUE;
     if (isFetch) {
@@ -168,11 +176,9 @@ private static HiveDruidSplit[] distributeScanQuery(String address, ScanQuery qu
 
     final List<LocatedSegmentDescriptor> segmentDescriptors = fetchLocatedSegmentDescriptors(address, query);
 
-    // Create one input split for each segment
-    final int numSplits = segmentDescriptors.size();
-    final HiveDruidSplit[] splits = new HiveDruidSplit[segmentDescriptors.size()];
-    for (int i = 0; i < numSplits; i++) {
-      final LocatedSegmentDescriptor locatedSD = segmentDescriptors.get(i);
+    // Create one input split for each segment, or for each part of the large ones
+    final List<HiveDruidSplit> splits = new ArrayList<>(segmentDescriptors.size());
+    for (LocatedSegmentDescriptor locatedSD : segmentDescriptors) {
       final String[] hosts = new String[locatedSD.getLocations().size() + 1];
       for (int j = 0; j < locatedSD.getLocations().size(); j++) {
         hosts[j] = locatedSD.getLocations().get(j).getHost();
@@ -180,15 +186,44 @@ private static HiveDruidSplit[] distributeScanQuery(String address, ScanQuery qu
       // Default to broker if all other hosts fail.
       hosts[locatedSD.getLocations().size()] = address;
 
-      // Create partial Select query
-      final SegmentDescriptor
-          newSD =
-          new SegmentDescriptor(locatedSD.getInterval(), locatedSD.getVersion(), locatedSD.getPartitionNumber());
-      final Query partialQuery = query.withQuerySegmentSpec(new MultipleSpecificSegmentSpec(Lists.newArrayList(newSD)));
-      splits[i] =
-          new HiveDruidSplit(DruidStorageHandlerUtils.JSON_MAPPER.writeValueAsString(partialQuery), dummyPath, hosts);
+      // Create partial Select query, the interval of the descriptor restricts the rows scanned in the segment
+      for (Interval interval : splitInterval(locatedSD.getInterval(), locatedSD.getSize(), splitSize)) {
+        final SegmentDescriptor
+            newSD =
+            new SegmentDescriptor(interval, locatedSD.getVersion(), locatedSD.getPartitionNumber());
+        final Query partialQuery =
+            query.withQuerySegmentSpec(new MultipleSpecificSegmentSpec(Lists.newArrayList(newSD)));
+        splits.add(new HiveDruidSplit(DruidStorageHandlerUtils.JSON_MAPPER.writeValueAsString(partialQuery),
+            dummyPath, hosts));
+      }
+    }
+    if (splits.size() > segmentDescriptors.size()) {
+      LOG.info("Created {} splits for {} segments", splits.size(), segmentDescriptors.size());
+    }
+    return splits.toArray(new HiveDruidSplit[0]);
+  }
+
+  /**
+   * Splits the interval of a segment into size/splitSize contiguous intervals of the same duration, the rows
+   * being assumed to be spread uniformly over time.
+   */
+  @VisibleForTesting static List<Interval> splitInterval(Interval interval, long size, long splitSize) {
+    long duration = interval.toDurationMillis();
+    long numSplits = splitSize <= 0 ? 1 : Math.min(MAX_SPLITS_PER_SEGMENT, (size + splitSize - 1) / splitSize);
+    // Intervals have a granularity of a millisecond
+    numSplits = Math.max(1, Math.min(numSplits, duration));
+    if (numSplits == 1) {
+      return Collections.singletonList(interval);
+    }
+    List<Interval> intervals = new ArrayList<>((int) numSplits);
+    long step = duration / numSplits;
+    long start = interval.getStartMillis();
+    for (int i = 0; i < numSplits; i++) {
+      long end = i == numSplits - 1 ? interval.getEndMillis() : start + step;
+      intervals.add(new Interval(start, end, interval.getChronology()));
+      start = end;
     }
-    return splits;
+    return intervals;
   }
 
   private static List<LocatedSegmentDescriptor> fetchLocatedSegmentDescriptors(String address, BaseQuery query)
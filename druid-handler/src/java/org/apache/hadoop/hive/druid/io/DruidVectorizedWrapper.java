@@ -20,7 +20,10 @@
 
 import com.google.common.base.Preconditions;
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hive.conf.HiveConf;
+import org.apache.hadoop.hive.druid.serde.DruidColumnarDecoder;
 import org.apache.hadoop.hive.druid.serde.DruidQueryRecordReader;
+import org.apache.hadoop.hive.druid.serde.DruidScanQueryRecordReader;
 import org.apache.hadoop.hive.druid.serde.DruidSerDe;
 import org.apache.hadoop.hive.druid.serde.DruidWritable;
 import org.apache.hadoop.hive.ql.exec.Utilities;
@@ -55,6 +58,11 @@
 
   private final DruidWritable druidWritable;
 
+  /**
+   * Decoder filling the batches straight from the results of a scan query, null if the rows go through the SerDe.
+   */
+  private final DruidColumnarDecoder columnarDecoder;
+
   public DruidVectorizedWrapper(DruidQueryRecordReader reader, Configuration jobConf) {
     this.rbCtx = Utilities.getVectorizedRowBatchCtx(jobConf);
     if (rbCtx.getDataColumnNums() != null) {
@@ -78,10 +86,22 @@ public DruidVectorizedWrapper(DruidQueryRecordReader reader, Configuration jobCo
 
     druidWritable = baseReader.createValue();
     rowBoat = new Object[rbCtx.getDataColumnCount()];
+
+    if (baseReader instanceof DruidScanQueryRecordReader
+        && HiveConf.getBoolVar(jobConf, HiveConf.ConfVars.HIVE_DRUID_VECTORIZED_STREAMING_DECODE)) {
+      columnarDecoder = DruidColumnarDecoder.create(serDe.getColumnTypes(), projectedColumns);
+    } else {
+      columnarDecoder = null;
+    }
   }
 
   @Override public boolean next(NullWritable nullWritable, VectorizedRowBatch vectorizedRowBatch) throws IOException {
     vectorizedRowBatch.reset();
+    if (columnarDecoder != null) {
+      vectorizedRowBatch.size =
+          ((DruidScanQueryRecordReader) baseReader).nextBatch(vectorizedRowBatch, columnarDecoder);
+      return vectorizedRowBatch.size > 0;
+    }
     int rowsCount = 0;
     while (rowsCount < vectorizedRowBatch.getMaxSize() && baseReader.next(nullWritable, druidWritable)) {
       if (projectedColumns.length > 0) {
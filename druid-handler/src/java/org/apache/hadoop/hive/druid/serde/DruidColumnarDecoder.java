@@ -0,0 +1,210 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.hive.druid.serde;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.apache.hadoop.hive.ql.exec.vector.BytesColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.ColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.DoubleColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.LongColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.TimestampColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedBatchUtil;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
+import org.apache.hadoop.hive.serde2.objectinspector.PrimitiveObjectInspector.PrimitiveCategory;
+import org.apache.hadoop.hive.serde2.typeinfo.PrimitiveTypeInfo;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Decodes compacted rows of Druid scan query results straight from the JSON/Smile parser into the column vectors
+ * of a batch, without materializing every row as a list of objects first. The values are converted like
+ * {@link DruidSerDe#deserializeAsPrimitive} does.
+ */
+public final class DruidColumnarDecoder {
+
+  private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
+  private final PrimitiveTypeInfo[] types;
+  private final boolean[] projected;
+
+  private DruidColumnarDecoder(PrimitiveTypeInfo[] types, boolean[] projected) {
+    this.types = types;
+    this.projected = projected;
+  }
+
+  /**
+   * @param types types of the columns, in the order of the values of the rows
+   * @param projectedColumns indexes of the columns to decode, the other values are skipped
+   * @return the decoder, or null if the type of one of the projected columns is not supported
+   */
+  @Nullable public static DruidColumnarDecoder create(PrimitiveTypeInfo[] types, int[] projectedColumns) {
+    boolean[] projected = new boolean[types.length];
+    for (int column : projectedColumns) {
+      if (!isSupported(types[column].getPrimitiveCategory())) {
+        return null;
+      }
+      projected[column] = true;
+    }
+    return new DruidColumnarDecoder(types, projected);
+  }
+
+  private static boolean isSupported(PrimitiveCategory category) {
+    switch (category) {
+    case BOOLEAN:
+    case BYTE:
+    case SHORT:
+    case INT:
+    case LONG:
+    case FLOAT:
+    case DOUBLE:
+    case STRING:
+    case TIMESTAMP:
+    case DATE:
+      return true;
+    default:
+      return false;
+    }
+  }
+
+  /**
+   * Decodes the row the parser is positioned on into the given row of the batch. The parser has to be on the
+   * START_ARRAY token of the row, and is left on its END_ARRAY token.
+   */
+  public void decodeRow(JsonParser jp, VectorizedRowBatch batch, int row) throws IOException {
+    if (jp.getCurrentToken() != JsonToken.START_ARRAY) {
+      throw new IOException("Expected a compacted row but got " + jp.getCurrentToken());
+    }
+    int column = 0;
+    JsonToken token;
+    while ((token = jp.nextToken()) != JsonToken.END_ARRAY) {
+      if (token == null) {
+        throw new IOException("Unexpected end of the Druid results");
+      }
+      if (column < projected.length && projected[column]) {
+        decodeValue(jp, token, batch.cols[column], row, types[column]);
+      } else {
+        jp.skipChildren();
+      }
+      column++;
+    }
+    for (; column < projected.length; column++) {
+      if (projected[column]) {
+        VectorizedBatchUtil.setNullColIsNullValue(batch.cols[column], row);
+      }
+    }
+  }
+
+  private static void decodeValue(JsonParser jp, JsonToken token, ColumnVector vector, int row,
+      PrimitiveTypeInfo type) throws IOException {
+    if (token == JsonToken.VALUE_NULL) {
+      VectorizedBatchUtil.setNullColIsNullValue(vector, row);
+      return;
+    }
+    vector.isNull[row] = false;
+    PrimitiveCategory category = type.getPrimitiveCategory();
+    switch (category) {
+    case BOOLEAN:
+      boolean value = token.isNumeric() ? (int) getLong(jp, token, PrimitiveCategory.INT) != 0
+          : Boolean.parseBoolean(jp.getText());
+      ((LongColumnVector) vector).vector[row] = value ? 1 : 0;
+      break;
+    case BYTE:
+      ((LongColumnVector) vector).vector[row] = (byte) getLong(jp, token, category);
+      break;
+    case SHORT:
+      ((LongColumnVector) vector).vector[row] = (short) getLong(jp, token, category);
+      break;
+    case INT:
+      if (token == JsonToken.VALUE_STRING) {
+        // Extract of a time unit like day/month pushed as extraction function, see DruidSerDe
+        ((LongColumnVector) vector).vector[row] = Integer.parseInt(jp.getText());
+      } else {
+        ((LongColumnVector) vector).vector[row] = (int) getLong(jp, token, category);
+      }
+      break;
+    case LONG:
+      ((LongColumnVector) vector).vector[row] = getLong(jp, token, category);
+      break;
+    case FLOAT:
+      ((DoubleColumnVector) vector).vector[row] = token == JsonToken.VALUE_NUMBER_INT
+          ? (float) jp.getLongValue() : (float) getDouble(jp, token);
+      break;
+    case DOUBLE:
+      ((DoubleColumnVector) vector).vector[row] = token == JsonToken.VALUE_NUMBER_INT
+          ? (double) jp.getLongValue() : getDouble(jp, token);
+      break;
+    case STRING:
+      byte[] bytes = getText(jp, token).getBytes(StandardCharsets.UTF_8);
+      ((BytesColumnVector) vector).setVal(row, bytes, 0, bytes.length);
+      break;
+    case TIMESTAMP:
+      long millis = getMillis(jp, token);
+      ((TimestampColumnVector) vector).time[row] = millis;
+      ((TimestampColumnVector) vector).nanos[row] = (int) Math.floorMod(millis, 1000L) * 1000000;
+      break;
+    case DATE:
+      ((LongColumnVector) vector).vector[row] = Math.floorDiv(getMillis(jp, token), MILLIS_PER_DAY);
+      break;
+    default:
+      throw new IOException("Unsupported type: " + category);
+    }
+  }
+
+  /**
+   * Converts the number like the {@link Number} methods used by the SerDe do: floating point numbers are
+   * narrowed to int first for types smaller than long.
+   */
+  private static long getLong(JsonParser jp, JsonToken token, PrimitiveCategory category) throws IOException {
+    if (token == JsonToken.VALUE_NUMBER_INT) {
+      return jp.getLongValue();
+    }
+    double value = getDouble(jp, token);
+    return category == PrimitiveCategory.LONG ? (long) value : (int) value;
+  }
+
+  private static double getDouble(JsonParser jp, JsonToken token) throws IOException {
+    if (token != JsonToken.VALUE_NUMBER_FLOAT) {
+      throw new IOException("Expected a number but got " + token);
+    }
+    return jp.getDoubleValue();
+  }
+
+  private static long getMillis(JsonParser jp, JsonToken token) throws IOException {
+    if (token.isNumeric()) {
+      return getLong(jp, token, PrimitiveCategory.LONG);
+    }
+    return DruidSerDe.deserializeToMillis(jp.getText());
+  }
+
+  private static String getText(JsonParser jp, JsonToken token) throws IOException {
+    switch (token) {
+    case VALUE_NUMBER_INT:
+    case VALUE_NUMBER_FLOAT:
+      return jp.getNumberValue().toString();
+    case START_ARRAY:
+    case START_OBJECT:
+      // Multi-value dimension, read as a list like the SerDe does
+      return String.valueOf(jp.getCodec().readValue(jp, Object.class));
+    default:
+      return jp.getText();
+    }
+  }
+}
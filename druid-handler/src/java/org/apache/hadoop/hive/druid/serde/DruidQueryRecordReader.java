@@ -269,6 +269,14 @@ public void initialize(InputSplit split, Configuration conf) throws IOException
       throw new UnsupportedOperationException();
     }
 
+    /**
+     * @return the parser positioned on the first token of the next result, or on the END_ARRAY token closing
+     * the results
+     */
+    JsonParser getParser() {
+      return jp;
+    }
+
     private void init() {
       if (jp == null) {
         try {
@@ -20,8 +20,11 @@
 import org.apache.druid.query.scan.ScanResultValue;
 
 import org.apache.hadoop.hive.druid.DruidStorageHandlerUtils;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
 import org.apache.hadoop.io.NullWritable;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JavaType;
 
@@ -40,6 +43,11 @@ public class DruidScanQueryRecordReader extends DruidQueryRecordReader<ScanResul
 
   private Iterator<List<Object>> compactedValues = Collections.emptyIterator();
 
+  /**
+   * Whether the parser is within the events of a result, only used by {@link #nextBatch}.
+   */
+  private boolean inEvents = false;
+
   @Override protected JavaType getResultTypeDef() {
     return DruidStorageHandlerUtils.JSON_MAPPER.getTypeFactory().constructType(TYPE_REFERENCE);
   }
@@ -81,6 +89,68 @@ public class DruidScanQueryRecordReader extends DruidQueryRecordReader<ScanResul
     return false;
   }
 
+  /**
+   * Decodes the next rows straight from the result stream into the batch, without materializing the results as
+   * {@link ScanResultValue}s. Can not be mixed with the row by row methods of the reader.
+   * @return the number of rows added to the batch, 0 once all the results have been read
+   */
+  public int nextBatch(VectorizedRowBatch batch, DruidColumnarDecoder decoder) throws IOException {
+    JsonParserIterator<ScanResultValue> results = getQueryResultsIterator();
+    int rows = 0;
+    while (rows < batch.getMaxSize()) {
+      if (!inEvents) {
+        if (!results.hasNext()) {
+          break;
+        }
+        inEvents = moveToEvents(results.getParser());
+        continue;
+      }
+      JsonParser jp = results.getParser();
+      if (jp.getCurrentToken() == JsonToken.END_ARRAY) {
+        // All the events of this result have been read, move to the next one
+        moveToEndOfObject(jp);
+        jp.nextToken();
+        inEvents = false;
+        continue;
+      }
+      decoder.decodeRow(jp, batch, rows++);
+      jp.nextToken();
+    }
+    return rows;
+  }
+
+  /**
+   * Moves the parser from the start of a result to its first event.
+   * @return false if the result has no events, the parser is then on the next result
+   */
+  private static boolean moveToEvents(JsonParser jp) throws IOException {
+    while (jp.nextToken() == JsonToken.FIELD_NAME) {
+      String field = jp.getCurrentName();
+      if (jp.nextToken() == JsonToken.START_ARRAY && "events".equals(field)) {
+        jp.nextToken();
+        return true;
+      }
+      jp.skipChildren();
+    }
+    checkEndOfObject(jp);
+    jp.nextToken();
+    return false;
+  }
+
+  private static void moveToEndOfObject(JsonParser jp) throws IOException {
+    while (jp.nextToken() == JsonToken.FIELD_NAME) {
+      jp.nextToken();
+      jp.skipChildren();
+    }
+    checkEndOfObject(jp);
+  }
+
+  private static void checkEndOfObject(JsonParser jp) throws IOException {
+    if (jp.getCurrentToken() != JsonToken.END_OBJECT) {
+      throw new IOException("Malformed scan query result, unexpected token " + jp.getCurrentToken());
+    }
+  }
+
   @Override public float getProgress() {
     return getQueryResultsIterator().hasNext() || compactedValues.hasNext() ? 0 : 1;
   }
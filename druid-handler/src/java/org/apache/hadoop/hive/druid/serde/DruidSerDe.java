@@ -470,7 +470,7 @@ private static Object convertAsPrimitive(Object value, PrimitiveTypeInfo typeInf
     }
   }
 
-  private static long deserializeToMillis(Object value) {
+  static long deserializeToMillis(Object value) {
     long numberOfMillis;
     if (value instanceof Number) {
       numberOfMillis = ((Number) value).longValue();
@@ -491,6 +491,13 @@ private static long deserializeToMillis(Object value) {
     return inspector;
   }
 
+  /**
+   * @return the types of the columns, in the order of the values of compacted rows
+   */
+  public PrimitiveTypeInfo[] getColumnTypes() {
+    return types;
+  }
+
   @Override public boolean shouldStoreFieldsInMetastore(Map<String, String> tableParams) {
     return true;
   }
@@ -19,6 +19,8 @@
 
 import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.hive.conf.Constants;
@@ -27,7 +29,9 @@
 import org.apache.hadoop.hive.druid.io.HiveDruidSplit;
 import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
 
+import org.apache.druid.java.util.common.Intervals;
 import org.apache.druid.query.Query;
+import org.joda.time.Interval;
 import static org.junit.Assert.assertEquals;
 import org.junit.Test;
 
@@ -163,6 +167,25 @@ public void testTimeZone() throws Exception {
 
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testSplitInterval() throws Exception {
+    Method splitInterval = DruidQueryBasedInputFormat.class.getDeclaredMethod("splitInterval", Interval.class,
+        long.class, long.class);
+    splitInterval.setAccessible(true);
+    Interval interval = Intervals.of("2012-01-01T00:00:00.000Z/2012-01-02T00:00:00.000Z");
+
+    List<Interval> intervals = (List<Interval>) splitInterval.invoke(null, interval, 100L, 0L);
+    assertEquals(Collections.singletonList(interval), intervals);
+    intervals = (List<Interval>) splitInterval.invoke(null, interval, 100L, 100L);
+    assertEquals(Collections.singletonList(interval), intervals);
+
+    intervals = (List<Interval>) splitInterval.invoke(null, interval, 250L, 100L);
+    assertEquals(Arrays.asList(Intervals.of("2012-01-01T00:00:00.000Z/2012-01-01T08:00:00.000Z"),
+        Intervals.of("2012-01-01T08:00:00.000Z/2012-01-01T16:00:00.000Z"),
+        Intervals.of("2012-01-01T16:00:00.000Z/2012-01-02T00:00:00.000Z")), intervals);
+  }
+
   private static Configuration createPropertiesQuery(String dataSource, String queryType, String jsonQuery) {
     Configuration conf = new Configuration();
     // Set the configuration parameters
@@ -49,6 +49,10 @@
 import org.apache.hadoop.hive.druid.QTestDruidSerDe;
 import org.apache.hadoop.hive.druid.io.DruidQueryBasedInputFormat;
 import org.apache.hadoop.hive.druid.io.HiveDruidSplit;
+import org.apache.hadoop.hive.ql.exec.vector.BytesColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.DoubleColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.LongColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
 import org.apache.hadoop.hive.ql.exec.Utilities;
 import org.apache.hadoop.hive.serde.serdeConstants;
 import org.apache.hadoop.hive.serde2.SerDeException;
@@ -71,6 +75,7 @@
 import org.apache.hadoop.io.LongWritable;
 import org.apache.hadoop.io.NullWritable;
 import org.apache.hadoop.io.Text;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -635,6 +640,51 @@ public void testDruidDeserializer()
     deserializeQueryResults(serDe, Query.SCAN, SCAN_QUERY, scanQueryResults, SCAN_QUERY_RESULTS_RECORDS);
   }
 
+  @Test
+  public void testScanQueryColumnarDecoding() throws Exception {
+    QTestDruidSerDe serDe = new QTestDruidSerDe();
+    Properties tbl = createPropertiesQuery("wikipedia", Query.SCAN, SCAN_QUERY, SCAN_COLUMN_NAMES, SCAN_COLUMN_TYPES);
+    serDe.initialize(new Configuration(), tbl, null);
+    PrimitiveTypeInfo[] types = serDe.getColumnTypes();
+
+    // Timestamp with local time zone is not supported by the decoder
+    Assert.assertNull(DruidColumnarDecoder.create(types, new int[] {0, 1}));
+    int[] projectedColumns = new int[] {1, 2, 5, 9, 11};
+    DruidColumnarDecoder decoder = DruidColumnarDecoder.create(types, projectedColumns);
+
+    HttpClient httpClient = mock(HttpClient.class);
+    SettableFuture<InputStream> futureResult = SettableFuture.create();
+    futureResult.set(new ByteArrayInputStream(scanQueryResults));
+    when(httpClient.go(anyObject(), any(HttpResponseHandler.class))).thenReturn(futureResult);
+    DruidScanQueryRecordReader reader = new DruidScanQueryRecordReader();
+    reader.initialize(new HiveDruidSplit(SCAN_QUERY, new Path("empty"), new String[]{"testing_host"}),
+        DruidStorageHandlerUtils.JSON_MAPPER, DruidStorageHandlerUtils.SMILE_MAPPER, httpClient, new Configuration());
+
+    // Batches smaller than the results check that decoding resumes within the events
+    VectorizedRowBatch batch = new VectorizedRowBatch(types.length, 2);
+    batch.cols[1] = new LongColumnVector(2);
+    batch.cols[2] = new BytesColumnVector(2);
+    batch.cols[5] = new BytesColumnVector(2);
+    batch.cols[9] = new DoubleColumnVector(2);
+    batch.cols[11] = new DoubleColumnVector(2);
+    int pos = 0;
+    int rows;
+    do {
+      batch.reset();
+      rows = reader.nextBatch(batch, decoder);
+      for (int row = 0; row < rows; row++, pos++) {
+        Object[] expected = SCAN_QUERY_RESULTS_RECORDS[pos];
+        assertEquals(expected[1], ((LongColumnVector) batch.cols[1]).vector[row] == 1);
+        assertEquals(expected[2], ((BytesColumnVector) batch.cols[2]).toString(row));
+        assertEquals(expected[5], ((BytesColumnVector) batch.cols[5]).toString(row));
+        assertEquals((Double) expected[9], ((DoubleColumnVector) batch.cols[9]).vector[row], 0);
+        assertEquals((Float) expected[11], ((DoubleColumnVector) batch.cols[11]).vector[row], 0);
+      }
+    } while (rows > 0);
+    assertEquals(SCAN_QUERY_RESULTS_RECORDS.length, pos);
+    reader.close();
+  }
+
   private static Properties createPropertiesQuery(String dataSource,
                                                   String queryType,
                                                   String jsonQuery,
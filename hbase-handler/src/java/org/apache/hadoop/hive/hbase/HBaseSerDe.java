@@ -64,6 +64,10 @@
     HBaseSerDe.HBASE_SCAN_CACHE,
     HBaseSerDe.HBASE_SCAN_CACHEBLOCKS,
     HBaseSerDe.HBASE_SCAN_BATCH,
+    HBaseSerDe.HBASE_SCAN_CACHE_MAX_BYTES,
+    HBaseSerDe.HBASE_SCAN_CELL_SIZE,
+    HBaseSerDe.HBASE_FILTER_PUSHDOWN_COLUMNS,
+    HBaseSerDe.HBASE_FILTER_PUSHDOWN_MAX_KEYS,
     HBaseSerDe.HBASE_AUTOGENERATE_STRUCT})
 public class HBaseSerDe extends AbstractSerDe {
   public static final Logger LOG = LoggerFactory.getLogger(HBaseSerDe.class);
@@ -81,6 +85,25 @@ public class HBaseSerDe extends AbstractSerDe {
   public static final String HBASE_SCAN_CACHE = "hbase.scan.cache";
   public static final String HBASE_SCAN_CACHEBLOCKS = "hbase.scan.cacheblock";
   public static final String HBASE_SCAN_BATCH = "hbase.scan.batch";
+  /**
+   * When hbase.scan.cache is not set, the number of rows fetched per RPC is chosen so that they take
+   * about this many bytes, based on hbase.scan.cell.size. Defaults to 2MB, 0 or less disables it.
+   */
+  public static final String HBASE_SCAN_CACHE_MAX_BYTES = "hbase.scan.cache.max.bytes";
+  /**
+   * Estimated average size of a cell in bytes, including its key. Defaults to 128.
+   */
+  public static final String HBASE_SCAN_CELL_SIZE = "hbase.scan.cell.size";
+  /**
+   * Determines whether comparisons of qualifier mapped columns with constants are evaluated by HBase
+   * filters. Defaults to true.
+   */
+  public static final String HBASE_FILTER_PUSHDOWN_COLUMNS = "hbase.filter.pushdown.columns";
+  /**
+   * Maximum number of keys of an IN list on the row key for the scan to be restricted to those keys.
+   * Defaults to 10000.
+   */
+  public static final String HBASE_FILTER_PUSHDOWN_MAX_KEYS = "hbase.filter.pushdown.max.keys";
   public static final String HBASE_AUTOGENERATE_STRUCT = "hbase.struct.autogenerate";
   /**
    * Determines whether a regex matching should be done on the columns or not. Defaults to true.
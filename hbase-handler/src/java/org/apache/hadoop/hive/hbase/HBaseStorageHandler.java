@@ -20,6 +20,7 @@
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -47,7 +48,9 @@
 import org.apache.hadoop.hive.ql.index.IndexSearchCondition;
 import org.apache.hadoop.hive.ql.metadata.DefaultStorageHandler;
 import org.apache.hadoop.hive.ql.metadata.HiveStoragePredicateHandler;
+import org.apache.hadoop.hive.ql.plan.ExprNodeConstantDesc;
 import org.apache.hadoop.hive.ql.plan.ExprNodeDesc;
+import org.apache.hadoop.hive.ql.plan.ExprNodeDescUtils;
 import org.apache.hadoop.hive.ql.plan.ExprNodeGenericFuncDesc;
 import org.apache.hadoop.hive.ql.plan.TableDesc;
 import org.apache.hadoop.hive.ql.udf.generic.GenericUDFOPEqual;
@@ -196,6 +199,13 @@ public void configureTableJobProperties(
     if (scanBatch != null) {
       jobProperties.put(HBaseSerDe.HBASE_SCAN_BATCH, scanBatch);
     }
+    for (String key : new String[] {HBaseSerDe.HBASE_SCAN_CACHE_MAX_BYTES, HBaseSerDe.HBASE_SCAN_CELL_SIZE,
+        HBaseSerDe.HBASE_FILTER_PUSHDOWN_COLUMNS, HBaseSerDe.HBASE_FILTER_PUSHDOWN_MAX_KEYS}) {
+      String value = tableProperties.getProperty(key);
+      if (value != null) {
+        jobProperties.put(key, value);
+      }
+    }
 
     String tableName = tableProperties.getProperty(HBaseSerDe.HBASE_TABLE_NAME);
     if (tableName == null) {
@@ -386,13 +396,36 @@ public static DecomposedPredicate decomposePredicate(
     IndexPredicateAnalyzer analyzer = HiveHBaseTableInputFormat.newIndexPredicateAnalyzer(
         keyMapping.columnName, keyMapping.isComparable(),
         tsMapping == null ? null : tsMapping.columnName);
+    Set<String> filterColumns = new HashSet<String>();
+    if (jobConf == null || jobConf.getBoolean(HBaseSerDe.HBASE_FILTER_PUSHDOWN_COLUMNS, true)) {
+      for (ColumnMapping colMap : hBaseSerDe.getHBaseSerdeParam().getColumnMappings()) {
+        String[] ops = HiveHBaseInputFormatUtil.getPushableComparisonOps(colMap, colMap.columnType,
+            colMap.binaryStorage.get(0));
+        if (ops != null) {
+          analyzer.addComparisonOp(colMap.columnName, ops);
+          filterColumns.add(colMap.columnName);
+        }
+      }
+    }
     List<IndexSearchCondition> conditions = new ArrayList<IndexSearchCondition>();
     ExprNodeGenericFuncDesc pushedPredicate = null;
     ExprNodeGenericFuncDesc residualPredicate =
         (ExprNodeGenericFuncDesc)analyzer.analyzePredicate(predicate, conditions);
 
-    for (List<IndexSearchCondition> searchConditions:
-        HiveHBaseInputFormatUtil.decompose(conditions).values()) {
+    for (Map.Entry<String, List<IndexSearchCondition>> entry:
+        HiveHBaseInputFormatUtil.decompose(conditions).entrySet()) {
+      List<IndexSearchCondition> searchConditions = entry.getValue();
+      if (filterColumns.contains(entry.getKey())) {
+        // Comparisons of other columns are turned into HBase filters, which only skip the rows that
+        // can not match. Hive still has to evaluate them as they are not used for the key range.
+        if (sameTypeIndexSearchConditions(searchConditions)) {
+          pushedPredicate =
+                  extractStorageHandlerCondition(analyzer, searchConditions, pushedPredicate);
+        }
+        residualPredicate =
+                extractResidualCondition(analyzer, searchConditions, residualPredicate);
+        continue;
+      }
       int scSize = searchConditions.size();
       if (scSize < 1 || 2 < scSize) {
         // Either there was nothing which could be pushed down (size = 0),
@@ -466,6 +499,29 @@ public static DecomposedPredicate decomposePredicate(
               extractStorageHandlerCondition(analyzer, searchConditions, pushedPredicate);
     }
 
+    // An IN list on the row key restricts the scan to the listed keys, it stays in the residual as well
+    if (residualPredicate != null) {
+      int maxKeys = jobConf == null ? HiveHBaseInputFormatUtil.DEFAULT_FILTER_PUSHDOWN_MAX_KEYS
+          : jobConf.getInt(HBaseSerDe.HBASE_FILTER_PUSHDOWN_MAX_KEYS,
+              HiveHBaseInputFormatUtil.DEFAULT_FILTER_PUSHDOWN_MAX_KEYS);
+      for (ExprNodeDesc conjunct : ExprNodeDescUtils.split(residualPredicate)) {
+        List<ExprNodeConstantDesc> keys = HiveHBaseInputFormatUtil.getKeyInListConstants(conjunct,
+            keyMapping.columnName, keyMapping.binaryStorage.get(0));
+        if (keys != null && keys.size() <= maxKeys) {
+          if (pushedPredicate == null) {
+            pushedPredicate = (ExprNodeGenericFuncDesc) conjunct;
+          } else {
+            List<ExprNodeDesc> children = new ArrayList<ExprNodeDesc>();
+            children.add(conjunct);
+            children.add(pushedPredicate);
+            pushedPredicate = new ExprNodeGenericFuncDesc(TypeInfoFactory.booleanTypeInfo,
+                FunctionRegistry.getGenericUDFForAnd(), children);
+          }
+          break;
+        }
+      }
+    }
+
     DecomposedPredicate decomposedPredicate = new DecomposedPredicate();
     decomposedPredicate.pushedPredicate = pushedPredicate;
     decomposedPredicate.residualPredicate = residualPredicate;
@@ -23,19 +23,40 @@
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
 
 import org.apache.hadoop.hbase.HConstants;
 import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.filter.BinaryComparator;
+import org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
+import org.apache.hadoop.hbase.filter.Filter;
 import org.apache.hadoop.hbase.filter.FilterList;
 import org.apache.hadoop.hbase.filter.FirstKeyOnlyFilter;
 import org.apache.hadoop.hbase.filter.KeyOnlyFilter;
+import org.apache.hadoop.hbase.filter.MultiRowRangeFilter;
+import org.apache.hadoop.hbase.filter.MultiRowRangeFilter.RowRange;
+import org.apache.hadoop.hbase.filter.SingleColumnValueFilter;
 import org.apache.hadoop.hbase.util.Bytes;
 import org.apache.hadoop.hive.hbase.ColumnMappings.ColumnMapping;
 import org.apache.hadoop.hive.ql.exec.ExprNodeConstantEvaluator;
 import org.apache.hadoop.hive.ql.exec.SerializationUtilities;
+import org.apache.hadoop.hive.ql.index.IndexPredicateAnalyzer;
 import org.apache.hadoop.hive.ql.index.IndexSearchCondition;
 import org.apache.hadoop.hive.ql.metadata.HiveException;
+import org.apache.hadoop.hive.ql.plan.ExprNodeColumnDesc;
+import org.apache.hadoop.hive.ql.plan.ExprNodeConstantDesc;
+import org.apache.hadoop.hive.ql.plan.ExprNodeDesc;
+import org.apache.hadoop.hive.ql.plan.ExprNodeDescUtils;
+import org.apache.hadoop.hive.ql.plan.ExprNodeGenericFuncDesc;
 import org.apache.hadoop.hive.ql.plan.TableScanDesc;
+import org.apache.hadoop.hive.ql.udf.generic.GenericUDFIn;
+import org.apache.hadoop.hive.ql.udf.generic.GenericUDFOPEqual;
+import org.apache.hadoop.hive.ql.udf.generic.GenericUDFOPEqualOrGreaterThan;
+import org.apache.hadoop.hive.ql.udf.generic.GenericUDFOPEqualOrLessThan;
+import org.apache.hadoop.hive.ql.udf.generic.GenericUDFOPGreaterThan;
+import org.apache.hadoop.hive.ql.udf.generic.GenericUDFOPLessThan;
+import org.apache.hadoop.hive.serde.serdeConstants;
 import org.apache.hadoop.hive.serde2.ByteStream;
 import org.apache.hadoop.hive.serde2.ColumnProjectionUtils;
 import org.apache.hadoop.hive.serde2.SerDeException;
@@ -48,6 +69,9 @@
 import org.apache.hadoop.hive.serde2.objectinspector.PrimitiveObjectInspector.PrimitiveCategory;
 import org.apache.hadoop.hive.serde2.objectinspector.primitive.LongObjectInspector;
 import org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorUtils;
+import org.apache.hadoop.hive.serde2.typeinfo.PrimitiveTypeInfo;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfo;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoUtils;
 import org.apache.hadoop.io.BooleanWritable;
 import org.apache.hadoop.io.FloatWritable;
 import org.apache.hadoop.io.IntWritable;
@@ -64,6 +88,21 @@ class HiveHBaseInputFormatUtil {
 
   private static final Logger LOG = LoggerFactory.getLogger(HiveHBaseInputFormatUtil.class);
 
+  static final int DEFAULT_FILTER_PUSHDOWN_MAX_KEYS = 10000;
+  static final long DEFAULT_SCAN_CACHE_MAX_BYTES = 2 * 1024 * 1024;
+  static final int DEFAULT_SCAN_CELL_SIZE = 128;
+  // assumed number of cells per row returned for a column family mapped as a whole
+  private static final int CELLS_PER_FAMILY = 8;
+  private static final int MAX_SCAN_CACHE = 10000;
+
+  private static final String[] ALL_COMPARISON_OPS = {
+      GenericUDFOPEqual.class.getName(),
+      GenericUDFOPEqualOrGreaterThan.class.getName(),
+      GenericUDFOPEqualOrLessThan.class.getName(),
+      GenericUDFOPLessThan.class.getName(),
+      GenericUDFOPGreaterThan.class.getName()};
+  private static final String[] EQUAL_COMPARISON_OP = {GenericUDFOPEqual.class.getName()};
+
   /**
    * Parse {@code jobConf} to create a {@link Scan} instance.
    */
@@ -136,11 +175,6 @@ public static Scan getScan(JobConf jobConf) throws IOException {
       }
     }
 
-    String scanCache = jobConf.get(HBaseSerDe.HBASE_SCAN_CACHE);
-    if (scanCache != null) {
-      scan.setCaching(Integer.parseInt(scanCache));
-    }
-
     boolean scanCacheBlocks =
         jobConf.getBoolean(HBaseSerDe.HBASE_SCAN_CACHEBLOCKS, false);
     scan.setCacheBlocks(scanCacheBlocks);
@@ -154,11 +188,288 @@ public static Scan getScan(JobConf jobConf) throws IOException {
 
     if (filterObjectSerialized != null) {
       setupScanRange(scan, filterObjectSerialized, jobConf, true);
+    } else {
+      setupFilters(scan, jobConf, columnMappings);
+    }
+
+    // Done after the filters as those can change the columns returned by the scan
+    String scanCache = jobConf.get(HBaseSerDe.HBASE_SCAN_CACHE);
+    if (scanCache != null) {
+      scan.setCaching(Integer.parseInt(scanCache));
+    } else {
+      setupCaching(scan, jobConf);
     }
 
     return scan;
   }
 
+  /**
+   * Pushes the conjuncts of the pushed filter which HBase can evaluate itself into the scan: comparisons
+   * of qualifier mapped columns with constants become {@link SingleColumnValueFilter}s and an IN list on
+   * the row key becomes a {@link MultiRowRangeFilter}, so that rows which can not match are neither read
+   * nor shipped to Hive. The conjuncts are still evaluated by Hive as well.
+   */
+  static void setupFilters(Scan scan, JobConf jobConf, ColumnMappings columnMappings) throws IOException {
+    ExprNodeGenericFuncDesc filterExpr = getFilterExpr(jobConf);
+    if (filterExpr == null) {
+      return;
+    }
+
+    List<Filter> filters = new ArrayList<Filter>();
+    List<byte[]> rowKeys = getRowKeys(jobConf, columnMappings, filterExpr);
+    if (rowKeys != null && !rowKeys.isEmpty()) {
+      filters.add(new MultiRowRangeFilter(getRowRanges(rowKeys)));
+    }
+
+    // A value filter would drop the rows whose column got split across several batches
+    List<Filter> valueFilters = jobConf.get(HBaseSerDe.HBASE_SCAN_BATCH) == null
+        ? getColumnValueFilters(jobConf, columnMappings, filterExpr) : new ArrayList<Filter>();
+    if (!valueFilters.isEmpty()) {
+      // The filtered cells must be returned by the scan, thus a key only scan can not be used anymore
+      boolean readAllFamilies = !scan.hasFamilies();
+      for (Filter filter : valueFilters) {
+        SingleColumnValueFilter valueFilter = (SingleColumnValueFilter) filter;
+        Map<byte[], NavigableSet<byte[]>> familyMap = scan.getFamilyMap();
+        if (readAllFamilies || !familyMap.containsKey(valueFilter.getFamily())
+            || familyMap.get(valueFilter.getFamily()) != null) {
+          scan.addColumn(valueFilter.getFamily(), valueFilter.getQualifier());
+        }
+      }
+      filters.addAll(valueFilters);
+    } else if (scan.getFilter() != null) {
+      filters.add(scan.getFilter());
+    }
+
+    if (filters.size() == 1) {
+      scan.setFilter(filters.get(0));
+    } else if (filters.size() > 1) {
+      scan.setFilter(new FilterList(FilterList.Operator.MUST_PASS_ALL, filters));
+    }
+  }
+
+  /**
+   * Sets the number of rows fetched per RPC so that a batch of rows fits in the configured number of
+   * bytes, based on the number of cells the scan returns per row and their estimated size.
+   */
+  static void setupCaching(Scan scan, JobConf jobConf) {
+    long maxBytes = jobConf.getLong(HBaseSerDe.HBASE_SCAN_CACHE_MAX_BYTES, DEFAULT_SCAN_CACHE_MAX_BYTES);
+    if (maxBytes <= 0) {
+      return;
+    }
+    int cellsPerRow = 0;
+    if (!scan.hasFamilies()) {
+      // Key only scan
+      cellsPerRow = 1;
+    } else {
+      for (NavigableSet<byte[]> qualifiers : scan.getFamilyMap().values()) {
+        cellsPerRow += qualifiers == null || qualifiers.isEmpty() ? CELLS_PER_FAMILY : qualifiers.size();
+      }
+    }
+    long rowSize = (long) cellsPerRow * jobConf.getInt(HBaseSerDe.HBASE_SCAN_CELL_SIZE, DEFAULT_SCAN_CELL_SIZE);
+    int caching = (int) Math.max(1, Math.min(MAX_SCAN_CACHE, maxBytes / Math.max(1, rowSize)));
+    scan.setCaching(caching);
+    scan.setMaxResultSize(maxBytes);
+    LOG.debug("Using scan caching of {} rows for an estimated row size of {} bytes", caching, rowSize);
+  }
+
+  static ExprNodeGenericFuncDesc getFilterExpr(JobConf jobConf) {
+    String filterExprSerialized = jobConf.get(TableScanDesc.FILTER_EXPR_CONF_STR);
+    if (filterExprSerialized == null || jobConf.get(serdeConstants.LIST_COLUMNS) == null
+        || jobConf.get(serdeConstants.LIST_COLUMN_TYPES) == null) {
+      return null;
+    }
+    return SerializationUtilities.deserializeExpression(filterExprSerialized);
+  }
+
+  /**
+   * Returns the sorted and distinct row keys listed by an IN list on the row key among the conjuncts of
+   * the filter, or null if there is no such IN list.
+   */
+  static List<byte[]> getRowKeys(JobConf jobConf, ColumnMappings columnMappings,
+      ExprNodeGenericFuncDesc filterExpr) throws IOException {
+    String keyColName = jobConf.get(serdeConstants.LIST_COLUMNS).split(",")[columnMappings.getKeyIndex()];
+    boolean isKeyBinary = getStorageFormatOfKey(columnMappings.getKeyMapping().mappingSpec,
+        jobConf.get(HBaseSerDe.HBASE_TABLE_DEFAULT_STORAGE_TYPE, "string"));
+    int maxKeys = jobConf.getInt(HBaseSerDe.HBASE_FILTER_PUSHDOWN_MAX_KEYS, DEFAULT_FILTER_PUSHDOWN_MAX_KEYS);
+
+    for (ExprNodeDesc conjunct : ExprNodeDescUtils.split(filterExpr)) {
+      List<ExprNodeConstantDesc> constants = getKeyInListConstants(conjunct, keyColName, isKeyBinary);
+      if (constants == null || constants.size() > maxKeys) {
+        continue;
+      }
+      NavigableSet<byte[]> rowKeys = new TreeSet<byte[]>(Bytes.BYTES_COMPARATOR);
+      for (ExprNodeConstantDesc constant : constants) {
+        byte[] rowKey = getConstantVal(constant, isKeyBinary);
+        // HBase row keys are never empty, and null never matches
+        if (rowKey != null && rowKey.length > 0) {
+          rowKeys.add(rowKey);
+        }
+      }
+      return new ArrayList<byte[]>(rowKeys);
+    }
+    return null;
+  }
+
+  /**
+   * Returns the constants of an IN list on the row key, if the expression is one whose constants can be
+   * matched against the stored row keys byte-wise.
+   */
+  static List<ExprNodeConstantDesc> getKeyInListConstants(ExprNodeDesc expr, String keyColName,
+      boolean isKeyBinary) {
+    if (!(expr instanceof ExprNodeGenericFuncDesc)
+        || !(((ExprNodeGenericFuncDesc) expr).getGenericUDF() instanceof GenericUDFIn)) {
+      return null;
+    }
+    List<ExprNodeDesc> children = expr.getChildren();
+    ExprNodeDesc column = children.get(0);
+    if (!(column instanceof ExprNodeColumnDesc)
+        || !keyColName.equals(((ExprNodeColumnDesc) column).getColumn())
+        || !hasCanonicalEncoding(column.getTypeInfo(), isKeyBinary)) {
+      return null;
+    }
+    List<ExprNodeConstantDesc> constants = new ArrayList<ExprNodeConstantDesc>(children.size() - 1);
+    for (ExprNodeDesc child : children.subList(1, children.size())) {
+      if (!(child instanceof ExprNodeConstantDesc) || !column.getTypeInfo().equals(child.getTypeInfo())) {
+        return null;
+      }
+      constants.add((ExprNodeConstantDesc) child);
+    }
+    return constants;
+  }
+
+  static List<RowRange> getRowRanges(List<byte[]> rowKeys) {
+    List<RowRange> ranges = new ArrayList<RowRange>(rowKeys.size());
+    for (byte[] rowKey : rowKeys) {
+      ranges.add(new RowRange(rowKey, true, getNextBA(rowKey), false));
+    }
+    return ranges;
+  }
+
+  /**
+   * Converts the comparisons of qualifier mapped columns with constants among the conjuncts of the filter
+   * into {@link SingleColumnValueFilter}s.
+   */
+  static List<Filter> getColumnValueFilters(JobConf jobConf, ColumnMappings columnMappings,
+      ExprNodeGenericFuncDesc filterExpr) throws IOException {
+    List<Filter> filters = new ArrayList<Filter>();
+    if (!jobConf.getBoolean(HBaseSerDe.HBASE_FILTER_PUSHDOWN_COLUMNS, true)) {
+      return filters;
+    }
+    String[] columnNames = jobConf.get(serdeConstants.LIST_COLUMNS).split(",");
+    List<TypeInfo> columnTypes =
+        TypeInfoUtils.getTypeInfosFromTypeString(jobConf.get(serdeConstants.LIST_COLUMN_TYPES));
+    String defaultStorageType = jobConf.get(HBaseSerDe.HBASE_TABLE_DEFAULT_STORAGE_TYPE, "string");
+
+    IndexPredicateAnalyzer analyzer = new IndexPredicateAnalyzer();
+    Map<String, ColumnMapping> filterColumns = new HashMap<String, ColumnMapping>();
+    Map<String, Boolean> binaryStorage = new HashMap<String, Boolean>();
+    ColumnMapping[] columnsMapping = columnMappings.getColumnsMapping();
+    for (int i = 0; i < columnsMapping.length && i < columnNames.length && i < columnTypes.size(); i++) {
+      ColumnMapping colMap = columnsMapping[i];
+      TypeInfo typeInfo = columnTypes.get(i);
+      if (colMap.hbaseRowKey || colMap.hbaseTimestamp || colMap.qualifierName == null
+          || typeInfo.getCategory() != ObjectInspector.Category.PRIMITIVE) {
+        continue;
+      }
+      // string columns are always stored as strings, see ColumnMappings#parseColumnStorageTypes
+      boolean isBinary = !isCategory(typeInfo, PrimitiveCategory.STRING)
+          && getStorageFormatOfKey(colMap.mappingSpec, defaultStorageType);
+      String[] ops = getPushableComparisonOps(colMap, typeInfo, isBinary);
+      if (ops != null) {
+        analyzer.addComparisonOp(columnNames[i], ops);
+        filterColumns.put(columnNames[i], colMap);
+        binaryStorage.put(columnNames[i], isBinary);
+      }
+    }
+    if (filterColumns.isEmpty()) {
+      return filters;
+    }
+
+    List<IndexSearchCondition> conditions = new ArrayList<IndexSearchCondition>();
+    analyzer.analyzePredicate(filterExpr, conditions);
+    for (Map.Entry<String, List<IndexSearchCondition>> entry : decompose(conditions).entrySet()) {
+      ColumnMapping colMap = filterColumns.get(entry.getKey());
+      boolean isBinary = binaryStorage.get(entry.getKey());
+      List<Filter> columnFilters = new ArrayList<Filter>();
+      for (IndexSearchCondition sc : entry.getValue()) {
+        if (!sc.getColumnDesc().getTypeInfo().equals(sc.getConstantDesc().getTypeInfo())) {
+          columnFilters = null;
+          break;
+        }
+        byte[] constantVal = getConstantVal(sc.getConstantDesc(), isBinary);
+        if (constantVal == null) {
+          columnFilters = null;
+          break;
+        }
+        SingleColumnValueFilter filter = new SingleColumnValueFilter(colMap.familyNameBytes,
+            colMap.qualifierNameBytes, getCompareOp(sc.getComparisonOp()), new BinaryComparator(constantVal));
+        // A missing cell is read as null by Hive, which does not satisfy any comparison
+        filter.setFilterIfMissing(true);
+        columnFilters.add(filter);
+      }
+      if (columnFilters != null) {
+        filters.addAll(columnFilters);
+      }
+    }
+    return filters;
+  }
+
+  /**
+   * Returns the comparisons of a column with a constant which HBase can evaluate on the stored cell with
+   * the same result as Hive, or null if the column can not be filtered in HBase. Strings compare
+   * byte-wise in both, so any comparison can be pushed. Other types can only be tested for equality,
+   * and only if their encoding is canonical.
+   */
+  static String[] getPushableComparisonOps(ColumnMapping colMap, TypeInfo typeInfo, boolean isBinary) {
+    if (colMap.hbaseRowKey || colMap.hbaseTimestamp || colMap.qualifierName == null
+        || !hasCanonicalEncoding(typeInfo, isBinary)) {
+      return null;
+    }
+    return isCategory(typeInfo, PrimitiveCategory.STRING) ? ALL_COMPARISON_OPS : EQUAL_COMPARISON_OP;
+  }
+
+  /**
+   * Whether each value of the type has exactly one stored representation, so that values can be
+   * tested for equality on their bytes. The textual representation of numbers is not canonical
+   * ("07" is read as 7), neither are binary tinyints and booleans which getConstantVal encodes
+   * differently from the serializer.
+   */
+  static boolean hasCanonicalEncoding(TypeInfo typeInfo, boolean isBinary) {
+    if (typeInfo.getCategory() != ObjectInspector.Category.PRIMITIVE) {
+      return false;
+    }
+    switch (((PrimitiveTypeInfo) typeInfo).getPrimitiveCategory()) {
+    case STRING:
+      return true;
+    case SHORT:
+    case INT:
+    case LONG:
+      return isBinary;
+    default:
+      return false;
+    }
+  }
+
+  private static boolean isCategory(TypeInfo typeInfo, PrimitiveCategory category) {
+    return typeInfo.getCategory() == ObjectInspector.Category.PRIMITIVE
+        && ((PrimitiveTypeInfo) typeInfo).getPrimitiveCategory() == category;
+  }
+
+  private static CompareOp getCompareOp(String comparisonOp) throws IOException {
+    if (GenericUDFOPEqual.class.getName().equals(comparisonOp)) {
+      return CompareOp.EQUAL;
+    } else if (GenericUDFOPLessThan.class.getName().equals(comparisonOp)) {
+      return CompareOp.LESS;
+    } else if (GenericUDFOPEqualOrLessThan.class.getName().equals(comparisonOp)) {
+      return CompareOp.LESS_OR_EQUAL;
+    } else if (GenericUDFOPGreaterThan.class.getName().equals(comparisonOp)) {
+      return CompareOp.GREATER;
+    } else if (GenericUDFOPEqualOrGreaterThan.class.getName().equals(comparisonOp)) {
+      return CompareOp.GREATER_OR_EQUAL;
+    }
+    throw new IOException(comparisonOp + " is not a supported comparison operator");
+  }
+
   public static boolean getStorageFormatOfKey(String spec, String defaultFormat) throws IOException{
 
     String[] mapInfo = spec.split("#");
@@ -304,6 +615,27 @@ static long getTimestampVal(IndexSearchCondition sc) throws IOException {
     return timestamp;
   }
 
+  /**
+   * Returns the stored representation of the constant, or null if the constant is null.
+   */
+  static byte[] getConstantVal(ExprNodeConstantDesc constantDesc, boolean isBinary) throws IOException {
+    ExprNodeConstantEvaluator eval = new ExprNodeConstantEvaluator(constantDesc);
+    PrimitiveObjectInspector objInspector;
+    Object writable;
+
+    try {
+      objInspector = (PrimitiveObjectInspector) eval.initialize(null);
+      writable = eval.evaluate(null);
+    } catch (ClassCastException cce) {
+      throw new IOException("Currently only primitve types are supported. Found: "
+          + constantDesc.getTypeString());
+    } catch (HiveException e) {
+      throw new IOException(e);
+    }
+
+    return writable == null ? null : getConstantVal(writable, objInspector, isBinary);
+  }
+
   static byte[] getConstantVal(Object writable, PrimitiveObjectInspector poi, boolean isKeyBinary)
       throws IOException {
 
@@ -21,6 +21,7 @@
 import java.io.IOException;
 import java.security.PrivilegedExceptionAction;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -36,6 +37,7 @@
 import org.apache.hadoop.hbase.mapred.TableMapReduceUtil;
 import org.apache.hadoop.hbase.mapreduce.TableInputFormatBase;
 import org.apache.hadoop.hbase.mapreduce.TableSplit;
+import org.apache.hadoop.hbase.util.Bytes;
 import org.apache.hadoop.hive.hbase.ColumnMappings.ColumnMapping;
 import org.apache.hadoop.hive.ql.exec.SerializationUtilities;
 import org.apache.hadoop.hive.ql.index.IndexPredicateAnalyzer;
@@ -347,6 +349,22 @@ private InputSplit[] getSplitsInternal(JobConf jobConf, int numSplits) throws IO
           }
         }
       }
+
+      // An IN list on the row key is turned into a filter which seeks from one listed key to the next,
+      // see HiveHBaseInputFormatUtil#setupFilters. Only the regions holding one of the keys need a split.
+      List<byte[]> rowKeys = null;
+      ExprNodeGenericFuncDesc filterExpr = HiveHBaseInputFormatUtil.getFilterExpr(jobConf);
+      if (filterExpr != null && jobConf.get(TableScanDesc.FILTER_OBJECT_CONF_STR) == null) {
+        rowKeys = HiveHBaseInputFormatUtil.getRowKeys(jobConf, columnMappings, filterExpr);
+      }
+      if (rowKeys != null) {
+        rowKeys = getRowKeysInRange(rowKeys, scan.getStartRow(), scan.getStopRow());
+        if (rowKeys.isEmpty()) {
+          return new InputSplit[0];
+        }
+        scan.setStartRow(rowKeys.get(0));
+        scan.setStopRow(HiveHBaseInputFormatUtil.getNextBA(rowKeys.get(rowKeys.size() - 1)));
+      }
       setScan(scan);
 
       Job job = new Job(jobConf);
@@ -354,19 +372,49 @@ private InputSplit[] getSplitsInternal(JobConf jobConf, int numSplits) throws IO
       Path[] tablePaths = FileInputFormat.getInputPaths(jobContext);
 
       List<org.apache.hadoop.mapreduce.InputSplit> splits = super.getSplits(jobContext);
-      InputSplit[] results = new InputSplit[splits.size()];
+      List<InputSplit> results = new ArrayList<InputSplit>(splits.size());
 
-      for (int i = 0; i < splits.size(); i++) {
-        results[i] = new HBaseSplit((TableSplit) splits.get(i), tablePaths[0]);
+      for (org.apache.hadoop.mapreduce.InputSplit split : splits) {
+        TableSplit tableSplit = (TableSplit) split;
+        if (rowKeys == null || containsRowKey(rowKeys, tableSplit.getStartRow(), tableSplit.getEndRow())) {
+          results.add(new HBaseSplit(tableSplit, tablePaths[0]));
+        }
+      }
+      if (rowKeys != null) {
+        LOG.info("Scanning {} of {} splits for {} row keys", results.size(), splits.size(), rowKeys.size());
       }
 
-      return results;
+      return results.toArray(new InputSplit[results.size()]);
     } finally {
       closeTable();
       conn.close();
     }
   }
 
+  /**
+   * Returns the sorted row keys which are within [startRow, stopRow), an empty stop row meaning that
+   * the range has no upper bound.
+   */
+  static List<byte[]> getRowKeysInRange(List<byte[]> rowKeys, byte[] startRow, byte[] stopRow) {
+    List<byte[]> result = new ArrayList<byte[]>();
+    for (byte[] rowKey : rowKeys) {
+      if (Bytes.compareTo(rowKey, startRow) >= 0 && (stopRow.length == 0 || Bytes.compareTo(rowKey, stopRow) < 0)) {
+        result.add(rowKey);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Tells whether one of the sorted row keys is within [startRow, endRow), an empty end row meaning
+   * that the range has no upper bound.
+   */
+  static boolean containsRowKey(List<byte[]> rowKeys, byte[] startRow, byte[] endRow) {
+    int index = Collections.binarySearch(rowKeys, startRow, Bytes.BYTES_COMPARATOR);
+    int first = index >= 0 ? index : -index - 1;
+    return first < rowKeys.size() && (endRow.length == 0 || Bytes.compareTo(rowKeys.get(first), endRow) < 0);
+  }
+
   @Override protected void finalize() throws Throwable {
     try {
       closeTable();
@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.hive.hbase;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
+import org.apache.hadoop.hbase.filter.Filter;
+import org.apache.hadoop.hbase.filter.FilterList;
+import org.apache.hadoop.hbase.filter.MultiRowRangeFilter;
+import org.apache.hadoop.hbase.filter.SingleColumnValueFilter;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.hive.ql.exec.SerializationUtilities;
+import org.apache.hadoop.hive.ql.plan.ExprNodeColumnDesc;
+import org.apache.hadoop.hive.ql.plan.ExprNodeConstantDesc;
+import org.apache.hadoop.hive.ql.plan.ExprNodeDesc;
+import org.apache.hadoop.hive.ql.plan.ExprNodeGenericFuncDesc;
+import org.apache.hadoop.hive.ql.plan.TableScanDesc;
+import org.apache.hadoop.hive.ql.udf.generic.GenericUDF;
+import org.apache.hadoop.hive.ql.udf.generic.GenericUDFIn;
+import org.apache.hadoop.hive.ql.udf.generic.GenericUDFOPAnd;
+import org.apache.hadoop.hive.ql.udf.generic.GenericUDFOPEqual;
+import org.apache.hadoop.hive.ql.udf.generic.GenericUDFOPGreaterThan;
+import org.apache.hadoop.hive.serde.serdeConstants;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfo;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoFactory;
+import org.apache.hadoop.mapred.JobConf;
+import org.junit.Test;
+
+/**
+ * Tests the conversion of pushed filters into HBase scan filters.
+ */
+public class TestHiveHBaseInputFormatUtil {
+
+  private static JobConf createJobConf(ExprNodeGenericFuncDesc filterExpr) {
+    JobConf jobConf = new JobConf();
+    jobConf.set(HBaseSerDe.HBASE_COLUMNS_MAPPING, ":key,cf:a,cf:b#b,cf:c");
+    jobConf.set(serdeConstants.LIST_COLUMNS, "key,a,b,c");
+    jobConf.set(serdeConstants.LIST_COLUMN_TYPES, "string,string,int,int");
+    jobConf.set(TableScanDesc.FILTER_EXPR_CONF_STR, SerializationUtilities.serializeExpression(filterExpr));
+    return jobConf;
+  }
+
+  private static ExprNodeGenericFuncDesc func(GenericUDF udf, ExprNodeDesc... children) {
+    return new ExprNodeGenericFuncDesc(TypeInfoFactory.booleanTypeInfo, udf,
+        new ArrayList<ExprNodeDesc>(Arrays.asList(children)));
+  }
+
+  private static ExprNodeColumnDesc column(String name, TypeInfo typeInfo) {
+    return new ExprNodeColumnDesc(typeInfo, name, "t", false);
+  }
+
+  private static ExprNodeConstantDesc constant(Object value, TypeInfo typeInfo) {
+    return new ExprNodeConstantDesc(typeInfo, value);
+  }
+
+  @Test
+  public void testColumnAndKeyFilters() throws Exception {
+    ExprNodeGenericFuncDesc filterExpr = func(new GenericUDFOPAnd(),
+        func(new GenericUDFIn(), column("key", TypeInfoFactory.stringTypeInfo),
+            constant("r3", TypeInfoFactory.stringTypeInfo), constant("r1", TypeInfoFactory.stringTypeInfo),
+            constant("r3", TypeInfoFactory.stringTypeInfo)),
+        func(new GenericUDFOPAnd(),
+            func(new GenericUDFOPGreaterThan(), column("a", TypeInfoFactory.stringTypeInfo),
+                constant("x", TypeInfoFactory.stringTypeInfo)),
+            func(new GenericUDFOPEqual(), column("b", TypeInfoFactory.intTypeInfo),
+                constant(5, TypeInfoFactory.intTypeInfo))));
+    JobConf jobConf = createJobConf(filterExpr);
+
+    Scan scan = HiveHBaseInputFormatUtil.getScan(jobConf);
+    FilterList filterList = (FilterList) scan.getFilter();
+    List<Filter> filters = filterList.getFilters();
+    assertEquals(3, filters.size());
+    assertTrue(filters.get(0) instanceof MultiRowRangeFilter);
+
+    List<byte[]> rowKeys = HiveHBaseInputFormatUtil.getRowKeys(jobConf,
+        HBaseSerDe.parseColumnsMapping(jobConf.get(HBaseSerDe.HBASE_COLUMNS_MAPPING)), filterExpr);
+    assertEquals(2, rowKeys.size());
+    assertArrayEquals(Bytes.toBytes("r1"), rowKeys.get(0));
+    assertArrayEquals(Bytes.toBytes("r3"), rowKeys.get(1));
+
+    for (Filter filter : filters.subList(1, 3)) {
+      SingleColumnValueFilter valueFilter = (SingleColumnValueFilter) filter;
+      assertTrue(valueFilter.getFilterIfMissing());
+      if (Bytes.equals(Bytes.toBytes("a"), valueFilter.getQualifier())) {
+        assertEquals(CompareOp.GREATER, valueFilter.getOperator());
+        assertArrayEquals(Bytes.toBytes("x"), valueFilter.getComparator().getValue());
+      } else {
+        assertArrayEquals(Bytes.toBytes("b"), valueFilter.getQualifier());
+        assertEquals(CompareOp.EQUAL, valueFilter.getOperator());
+        assertArrayEquals(Bytes.toBytes(5), valueFilter.getComparator().getValue());
+      }
+    }
+  }
+
+  @Test
+  public void testNonCanonicalColumnIsNotFiltered() throws Exception {
+    // c is an int stored as a string, "05" would not be equal to "5"
+    ExprNodeGenericFuncDesc filterExpr = func(new GenericUDFOPEqual(), column("c", TypeInfoFactory.intTypeInfo),
+        constant(5, TypeInfoFactory.intTypeInfo));
+    JobConf jobConf = createJobConf(filterExpr);
+
+    Scan scan = HiveHBaseInputFormatUtil.getScan(jobConf);
+    assertNull(scan.getFilter());
+  }
+
+  @Test
+  public void testScanCaching() throws Exception {
+    ExprNodeGenericFuncDesc filterExpr = func(new GenericUDFOPEqual(), column("c", TypeInfoFactory.intTypeInfo),
+        constant(5, TypeInfoFactory.intTypeInfo));
+    JobConf jobConf = createJobConf(filterExpr);
+    jobConf.setLong(HBaseSerDe.HBASE_SCAN_CACHE_MAX_BYTES, 3 * 1000);
+    jobConf.setInt(HBaseSerDe.HBASE_SCAN_CELL_SIZE, 100);
+
+    // 3 columns of 100 bytes
+    assertEquals(10, HiveHBaseInputFormatUtil.getScan(jobConf).getCaching());
+
+    jobConf.setInt(HBaseSerDe.HBASE_SCAN_CACHE, 7);
+    assertEquals(7, HiveHBaseInputFormatUtil.getScan(jobConf).getCaching());
+  }
+
+  @Test
+  public void testContainsRowKey() {
+    List<byte[]> rowKeys = Arrays.asList(Bytes.toBytes("b"), Bytes.toBytes("d"));
+
+    assertTrue(HiveHBaseTableInputFormat.containsRowKey(rowKeys, HConstants.EMPTY_START_ROW,
+        HConstants.EMPTY_END_ROW));
+    assertTrue(HiveHBaseTableInputFormat.containsRowKey(rowKeys, Bytes.toBytes("b"), Bytes.toBytes("c")));
+    assertFalse(HiveHBaseTableInputFormat.containsRowKey(rowKeys, Bytes.toBytes("a"), Bytes.toBytes("b")));
+    assertFalse(HiveHBaseTableInputFormat.containsRowKey(rowKeys, Bytes.toBytes("ba"), Bytes.toBytes("d")));
+    assertTrue(HiveHBaseTableInputFormat.containsRowKey(rowKeys, Bytes.toBytes("c"), HConstants.EMPTY_END_ROW));
+    assertFalse(HiveHBaseTableInputFormat.containsRowKey(rowKeys, Bytes.toBytes("e"), HConstants.EMPTY_END_ROW));
+
+    assertEquals(1, HiveHBaseTableInputFormat.getRowKeysInRange(rowKeys, Bytes.toBytes("c"),
+        HConstants.EMPTY_END_ROW).size());
+  }
+}
@@ -43,6 +43,9 @@ private InputFormatConfig() {
   public static final String READ_SCHEMA = "iceberg.mr.read.schema";
   public static final String SNAPSHOT_ID = "iceberg.mr.snapshot.id";
   public static final String SPLIT_SIZE = "iceberg.mr.split.size";
+  public static final String PLAN_CACHE_ENABLED = "iceberg.mr.plan.cache.enabled";
+  public static final String PLAN_CACHE_MAX_TASKS = "iceberg.mr.plan.cache.max.tasks";
+  public static final long PLAN_CACHE_MAX_TASKS_DEFAULT = 100_000L;
   public static final String SCHEMA_AUTO_CONVERSION = "iceberg.mr.schema.auto.conversion";
   public static final String TABLE_IDENTIFIER = "iceberg.mr.table.identifier";
   public static final String TABLE_LOCATION = "iceberg.mr.table.location";
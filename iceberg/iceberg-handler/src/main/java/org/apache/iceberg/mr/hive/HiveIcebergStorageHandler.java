@@ -21,8 +21,11 @@
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.ListIterator;
@@ -36,7 +39,12 @@
 import org.apache.hadoop.hive.common.type.Timestamp;
 import org.apache.hadoop.hive.conf.HiveConf;
 import org.apache.hadoop.hive.metastore.HiveMetaHook;
+import org.apache.hadoop.hive.metastore.api.ColumnStatisticsData;
+import org.apache.hadoop.hive.metastore.api.ColumnStatisticsObj;
+import org.apache.hadoop.hive.metastore.api.DateColumnStatsData;
+import org.apache.hadoop.hive.metastore.api.FieldSchema;
 import org.apache.hadoop.hive.metastore.api.LockType;
+import org.apache.hadoop.hive.metastore.api.LongColumnStatsData;
 import org.apache.hadoop.hive.ql.ddl.table.AlterTableType;
 import org.apache.hadoop.hive.ql.exec.Utilities;
 import org.apache.hadoop.hive.ql.hooks.WriteEntity;
@@ -67,19 +75,27 @@
 import org.apache.hadoop.mapred.JobStatus;
 import org.apache.hadoop.mapred.OutputCommitter;
 import org.apache.hadoop.mapred.OutputFormat;
+import org.apache.iceberg.DataFile;
+import org.apache.iceberg.FileScanTask;
 import org.apache.iceberg.PartitionSpecParser;
 import org.apache.iceberg.Schema;
 import org.apache.iceberg.SchemaParser;
+import org.apache.iceberg.Snapshot;
 import org.apache.iceberg.SnapshotSummary;
 import org.apache.iceberg.Table;
 import org.apache.iceberg.TableProperties;
+import org.apache.iceberg.io.CloseableIterable;
 import org.apache.iceberg.mr.Catalogs;
 import org.apache.iceberg.mr.InputFormatConfig;
 import org.apache.iceberg.relocated.com.google.common.annotations.VisibleForTesting;
 import org.apache.iceberg.relocated.com.google.common.base.Preconditions;
 import org.apache.iceberg.relocated.com.google.common.base.Splitter;
 import org.apache.iceberg.relocated.com.google.common.base.Throwables;
+import org.apache.iceberg.relocated.com.google.common.collect.Lists;
 import org.apache.iceberg.relocated.com.google.common.collect.Maps;
+import org.apache.iceberg.types.Conversions;
+import org.apache.iceberg.types.Type;
+import org.apache.iceberg.types.Types;
 import org.apache.iceberg.util.SerializationUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -260,6 +276,144 @@ public Map<String, String> getBasicStatistics(Partish partish) {
     return stats;
   }
 
+  /**
+   * Queries can be answered from the metadata of the snapshot the query reads only if the snapshot has no delete files,
+   * as the rows these remove are unknown without scanning the table.
+   */
+  @Override
+  public boolean canComputeQueryUsingStats(org.apache.hadoop.hive.ql.metadata.Table hmsTable) {
+    return getRowCount(hmsTable) != null;
+  }
+
+  /**
+   * Returns the total-records of the summary of the snapshot the query reads, if the snapshot has no delete files.
+   */
+  @Override
+  public Long getRowCount(org.apache.hadoop.hive.ql.metadata.Table hmsTable) {
+    // the query reads the table instance stored in the query state, which is not refreshed during the query
+    Table table = IcebergTableUtil.getTable(conf, Utilities.getTableDesc(hmsTable).getProperties());
+    Snapshot snapshot = table.currentSnapshot();
+    if (snapshot == null) {
+      return 0L;
+    }
+    Map<String, String> summary = snapshot.summary();
+    if (summary == null || !summary.containsKey(SnapshotSummary.TOTAL_RECORDS_PROP) ||
+        !snapshot.deleteManifests().isEmpty()) {
+      return null;
+    }
+    return Long.parseLong(summary.get(SnapshotSummary.TOTAL_RECORDS_PROP));
+  }
+
+  /**
+   * Computes the null counts and the low/high values of integer, bigint and date columns from the column metrics of the
+   * data files in the manifests. Returns nothing for tables with delete files, as the deleted rows may hold the bounds,
+   * and leaves out columns which do not have metrics in every data file.
+   */
+  @Override
+  public List<ColumnStatisticsObj> getColumnStatistics(org.apache.hadoop.hive.ql.metadata.Table hmsTable,
+      List<String> colNames) {
+    Table table = IcebergTableUtil.getTable(conf, Utilities.getTableDesc(hmsTable).getProperties());
+    Snapshot snapshot = table.currentSnapshot();
+    if (snapshot == null || !snapshot.deleteManifests().isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    List<ColumnBounds> columns = Lists.newArrayList();
+    for (FieldSchema fieldSchema : hmsTable.getCols()) {
+      if (colNames.stream().noneMatch(fieldSchema.getName()::equalsIgnoreCase)) {
+        continue;
+      }
+      Types.NestedField field = table.schema().caseInsensitiveFindField(fieldSchema.getName());
+      if (field != null && (field.type().typeId() == Type.TypeID.INTEGER ||
+          field.type().typeId() == Type.TypeID.LONG || field.type().typeId() == Type.TypeID.DATE)) {
+        columns.add(new ColumnBounds(fieldSchema, field));
+      }
+    }
+    if (columns.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    try (CloseableIterable<FileScanTask> tasks =
+        table.newScan().useSnapshot(snapshot.snapshotId()).includeColumnStats().planFiles()) {
+      for (FileScanTask task : tasks) {
+        for (ColumnBounds column : columns) {
+          column.update(task.file());
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(String.format("Failed to close table scan of: %s", table), e);
+    }
+    return columns.stream().filter(column -> column.valid).map(ColumnBounds::toColumnStatisticsObj)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Null count and value range of a column, aggregated over the data files.
+   */
+  private static final class ColumnBounds {
+    private final FieldSchema fieldSchema;
+    private final Types.NestedField field;
+    private boolean valid = true;
+    private long numNulls = 0;
+    private Long low = null;
+    private Long high = null;
+
+    ColumnBounds(FieldSchema fieldSchema, Types.NestedField field) {
+      this.fieldSchema = fieldSchema;
+      this.field = field;
+    }
+
+    void update(DataFile file) {
+      if (!valid) {
+        return;
+      }
+      int id = field.fieldId();
+      Long nulls = file.nullValueCounts() == null ? null : file.nullValueCounts().get(id);
+      if (nulls == null) {
+        valid = false;
+        return;
+      }
+      numNulls += nulls;
+      Long values = file.valueCounts() == null ? null : file.valueCounts().get(id);
+      if (nulls.equals(values) || nulls == file.recordCount()) {
+        // no bounds are written if the file only has nulls in the column
+        return;
+      }
+      ByteBuffer lower = file.lowerBounds() == null ? null : file.lowerBounds().get(id);
+      ByteBuffer upper = file.upperBounds() == null ? null : file.upperBounds().get(id);
+      if (lower == null || upper == null) {
+        valid = false;
+        return;
+      }
+      long fileLow = ((Number) Conversions.fromByteBuffer(field.type(), lower)).longValue();
+      long fileHigh = ((Number) Conversions.fromByteBuffer(field.type(), upper)).longValue();
+      low = low == null ? fileLow : Math.min(low, fileLow);
+      high = high == null ? fileHigh : Math.max(high, fileHigh);
+    }
+
+    ColumnStatisticsObj toColumnStatisticsObj() {
+      ColumnStatisticsData data = new ColumnStatisticsData();
+      if (field.type().typeId() == Type.TypeID.DATE) {
+        DateColumnStatsData dateStats = new DateColumnStatsData();
+        dateStats.setNumNulls(numNulls);
+        if (low != null) {
+          dateStats.setLowValue(new org.apache.hadoop.hive.metastore.api.Date(low));
+          dateStats.setHighValue(new org.apache.hadoop.hive.metastore.api.Date(high));
+        }
+        data.setDateStats(dateStats);
+      } else {
+        LongColumnStatsData longStats = new LongColumnStatsData();
+        longStats.setNumNulls(numNulls);
+        if (low != null) {
+          longStats.setLowValue(low);
+          longStats.setHighValue(high);
+        }
+        data.setLongStats(longStats);
+      }
+      return new ColumnStatisticsObj(fieldSchema.getName(), fieldSchema.getType(), data);
+    }
+  }
+
   /**
    * No need for exclusive locks when writing, since Iceberg tables use optimistic concurrency when writing
    * and only lock the table during the commit operation.
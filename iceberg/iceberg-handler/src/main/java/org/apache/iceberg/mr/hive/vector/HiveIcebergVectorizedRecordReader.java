@@ -50,6 +50,7 @@ public boolean next(Void key, VectorizedRowBatch value) throws IOException {
         value.cols = newBatch.cols;
         value.endOfFile = newBatch.endOfFile;
         value.selectedInUse = newBatch.selectedInUse;
+        value.selected = newBatch.selected;
         value.size = newBatch.size;
         return true;
       } else {
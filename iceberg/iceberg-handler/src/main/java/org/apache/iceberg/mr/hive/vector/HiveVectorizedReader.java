@@ -22,12 +22,18 @@
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hive.llap.LlapHiveUtils;
 import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
 import org.apache.hadoop.hive.ql.io.orc.OrcSplit;
 import org.apache.hadoop.hive.ql.io.orc.VectorizedOrcInputFormat;
+import org.apache.hadoop.hive.ql.io.sarg.ConvertAstToSearchArg;
+import org.apache.hadoop.hive.ql.metadata.HiveException;
+import org.apache.hadoop.hive.ql.plan.TableScanDesc;
 import org.apache.hadoop.hive.serde2.ColumnProjectionUtils;
+import org.apache.hadoop.hive.serde2.objectinspector.StructObjectInspector;
 import org.apache.hadoop.io.NullWritable;
 import org.apache.hadoop.mapred.InputSplit;
 import org.apache.hadoop.mapred.JobConf;
@@ -37,20 +43,33 @@
 import org.apache.hive.iceberg.org.apache.orc.OrcConf;
 import org.apache.iceberg.FileFormat;
 import org.apache.iceberg.FileScanTask;
+import org.apache.iceberg.MetadataColumns;
 import org.apache.iceberg.PartitionField;
 import org.apache.iceberg.PartitionSpec;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.data.GenericDeleteFilter;
+import org.apache.iceberg.data.IdentityPartitionConverters;
+import org.apache.iceberg.data.Record;
+import org.apache.iceberg.data.orc.GenericOrcReader;
 import org.apache.iceberg.io.CloseableIterable;
 import org.apache.iceberg.io.CloseableIterator;
+import org.apache.iceberg.io.FileIO;
 import org.apache.iceberg.io.InputFile;
+import org.apache.iceberg.mr.hive.serde.objectinspector.IcebergObjectInspector;
 import org.apache.iceberg.mr.mapred.MapredIcebergInputFormat;
+import org.apache.iceberg.orc.ORC;
 import org.apache.iceberg.orc.VectorizedReadUtils;
 import org.apache.iceberg.relocated.com.google.common.collect.Lists;
+import org.apache.iceberg.relocated.com.google.common.collect.Sets;
+import org.apache.iceberg.types.TypeUtil;
 import org.apache.iceberg.types.Types;
+import org.apache.iceberg.util.PartitionUtil;
 
 /**
  * Utility class to create vectorized readers for Hive.
  * As per the file format of the task, it will create a matching vectorized record reader that is already implemented
- * in Hive. It will also do some tweaks on the produced vectors for Iceberg's use e.g. partition column handling.
+ * in Hive. It will also do some tweaks on the produced vectors for Iceberg's use e.g. partition column handling and
+ * applying the delete files of the task.
  */
 public class HiveVectorizedReader {
 
@@ -60,13 +79,17 @@ private HiveVectorizedReader() {
   }
 
   public static <D> CloseableIterable<D> reader(InputFile inputFile, FileScanTask task, Map<Integer, ?> idToConstant,
-      TaskAttemptContext context) {
+      TaskAttemptContext context, FileIO io) {
     // Tweaks on jobConf here are relevant for this task only, so we need to copy it first as context's conf is reused..
     JobConf job = new JobConf((JobConf) context.getConfiguration());
     Path path = new Path(inputFile.location());
     FileFormat format = task.file().format();
     Reporter reporter = ((MapredIcebergInputFormat.CompatibilityTaskAttemptContextImpl) context).getLegacyReporter();
 
+    if (!VectorizedDeleteFilter.isSupported(task)) {
+      return recordBatchIterable(inputFile, task, job, io);
+    }
+
     // Hive by default requires partition columns to be read too. This is not required for identity partition
     // columns, as we will add this as constants later.
 
@@ -74,6 +97,18 @@ public static <D> CloseableIterable<D> reader(InputFile inputFile, FileScanTask
     Object[] partitionValues = null;
     PartitionSpec partitionSpec = task.spec();
 
+    // Equality deletes are evaluated on the batch, so the equality columns have to be read even if not projected
+    Set<Integer> equalityColIndices = VectorizedDeleteFilter.equalityColumnIndices(task);
+    if (!equalityColIndices.isEmpty()) {
+      List<Integer> readColumnIds = ColumnProjectionUtils.getReadColumnIDs(job);
+      for (Integer colIdx : equalityColIndices) {
+        if (!readColumnIds.contains(colIdx)) {
+          readColumnIds.add(colIdx);
+        }
+      }
+      ColumnProjectionUtils.setReadColumns(job, readColumnIds);
+    }
+
     if (!partitionSpec.isUnpartitioned()) {
       List<Integer> readColumnIds = ColumnProjectionUtils.getReadColumnIDs(job);
 
@@ -114,12 +149,22 @@ public static <D> CloseableIterable<D> reader(InputFile inputFile, FileScanTask
           job.setBoolean(OrcConf.FORCE_POSITIONAL_EVOLUTION.getHiveConfName(), false);
           VectorizedReadUtils.handleIcebergProjection(inputFile, task, job);
 
+          long firstRowPosition = 0;
+          if (VectorizedDeleteFilter.hasPositionDeletes(task)) {
+            // Row positions are counted from the start of the split, so no row groups may be skipped by the reader
+            job.unset(TableScanDesc.FILTER_EXPR_CONF_STR);
+            job.unset(ConvertAstToSearchArg.SARG_PUSHDOWN);
+            firstRowPosition = VectorizedReadUtils.firstRowPosition(inputFile, task, job);
+          }
+          VectorizedDeleteFilter deleteFilter = VectorizedDeleteFilter.create(task, io, firstRowPosition);
+
           InputSplit split = new OrcSplit(path, null, task.start(), task.length(), (String[]) null, null,
               false, false, com.google.common.collect.Lists.newArrayList(), 0, task.length(), path.getParent(), null);
           RecordReader<NullWritable, VectorizedRowBatch> recordReader = null;
 
           recordReader = new VectorizedOrcInputFormat().getRecordReader(split, job, reporter);
-          return createVectorizedRowBatchIterable(recordReader, job, partitionColIndices, partitionValues);
+          return createVectorizedRowBatchIterable(recordReader, job, partitionColIndices, partitionValues,
+              deleteFilter, equalityColIndices);
 
         default:
           throw new UnsupportedOperationException("Vectorized Hive reading unimplemented for format: " + format);
@@ -130,12 +175,64 @@ public static <D> CloseableIterable<D> reader(InputFile inputFile, FileScanTask
     }
   }
 
+  /**
+   * Reads the rows of the task with Iceberg's generic reader, which applies every kind of delete file, and packs them
+   * into batches. This is much slower than the vectorized readers, so it is only used for the tasks of which the delete
+   * files cannot be applied on the batches.
+   */
+  private static <D> CloseableIterable<D> recordBatchIterable(InputFile inputFile, FileScanTask task, JobConf job,
+      FileIO io) {
+    FileFormat format = task.file().format();
+    if (format != FileFormat.ORC) {
+      throw new UnsupportedOperationException("Vectorized Hive reading unimplemented for format: " + format);
+    }
+
+    Schema tableSchema = task.spec().schema();
+    List<Integer> readColumnIds = ColumnProjectionUtils.getReadColumnIDs(job);
+    List<Types.NestedField> readColumns = Lists.newArrayList();
+    for (Integer colIdx : readColumnIds) {
+      readColumns.add(tableSchema.columns().get(colIdx));
+    }
+    Schema readSchema = new Schema(readColumns);
+    GenericDeleteFilter deletes = new GenericDeleteFilter(io, task, tableSchema, readSchema);
+    Schema requiredSchema = deletes.requiredSchema();
+    Map<Integer, ?> idToConstant = PartitionUtil.constantsMap(task, IdentityPartitionConverters::convertConstant);
+
+    CloseableIterable<Record> records = ORC.read(inputFile)
+        .project(TypeUtil.selectNot(requiredSchema,
+            Sets.union(idToConstant.keySet(), MetadataColumns.metadataFieldIds())))
+        .split(task.start(), task.length())
+        .createReaderFunc(fileSchema -> GenericOrcReader.buildReader(requiredSchema, fileSchema, idToConstant))
+        .build();
+
+    try {
+      // The rows start with the read columns, followed by the ones only needed for applying the deletes
+      RecordBatchIterator iterator = new RecordBatchIterator(deletes.filter(records),
+          (StructObjectInspector) IcebergObjectInspector.create(readSchema), readColumnIds,
+          LlapHiveUtils.findMapWork(job).getVectorizedRowBatchCtx());
+      return new CloseableIterable<D>() {
+
+        @Override
+        public CloseableIterator iterator() {
+          return iterator;
+        }
+
+        @Override
+        public void close() throws IOException {
+          iterator.close();
+        }
+      };
+    } catch (HiveException e) {
+      throw new RuntimeException("Error creating record reader for " + inputFile, e);
+    }
+  }
+
   private static <D> CloseableIterable<D> createVectorizedRowBatchIterable(
       RecordReader<NullWritable, VectorizedRowBatch> hiveRecordReader, JobConf job, int[] partitionColIndices,
-      Object[] partitionValues) {
+      Object[] partitionValues, VectorizedDeleteFilter deleteFilter, Set<Integer> extraColIndices) {
 
-    VectorizedRowBatchIterator iterator =
-        new VectorizedRowBatchIterator(hiveRecordReader, job, partitionColIndices, partitionValues);
+    VectorizedRowBatchIterator iterator = new VectorizedRowBatchIterator(hiveRecordReader, job, partitionColIndices,
+        partitionValues, deleteFilter, extraColIndices);
 
     return new CloseableIterable<D>() {
 
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iceberg.mr.hive.vector;
+
+import java.io.IOException;
+import java.util.List;
+import org.apache.hadoop.hive.ql.exec.vector.VectorAssignRow;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedBatchUtil;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatchCtx;
+import org.apache.hadoop.hive.ql.metadata.HiveException;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorUtils;
+import org.apache.hadoop.hive.serde2.objectinspector.StructObjectInspector;
+import org.apache.iceberg.data.Record;
+import org.apache.iceberg.io.CloseableIterable;
+import org.apache.iceberg.io.CloseableIterator;
+
+/**
+ * Iterator that packs the rows read by Iceberg's generic readers into VectorizedRowBatch instances. Used for the tasks
+ * of which {@link VectorizedDeleteFilter} cannot apply the delete files, so that these are applied on the rows instead.
+ */
+final class RecordBatchIterator implements CloseableIterator<VectorizedRowBatch> {
+
+  private final CloseableIterable<Record> records;
+  private final CloseableIterator<Record> recordIterator;
+  private final VectorizedRowBatch batch;
+  private final StructObjectInspector inspector;
+  private final VectorAssignRow assignRow = new VectorAssignRow();
+  private boolean advanced = false;
+
+  /**
+   * @param records the rows to pack, of which the leading columns are the ones described by the inspector
+   * @param inspector object inspector of the columns to put into the batches
+   * @param columnIndices the batch column index of each column of the inspector
+   * @param vrbCtx context to create the batch with
+   */
+  RecordBatchIterator(CloseableIterable<Record> records, StructObjectInspector inspector, List<Integer> columnIndices,
+      VectorizedRowBatchCtx vrbCtx) throws HiveException {
+    this.records = records;
+    this.recordIterator = records.iterator();
+    this.batch = vrbCtx.createVectorizedRowBatch();
+    this.inspector = inspector;
+    assignRow.init(inspector, columnIndices);
+    // Columns read only for applying deletes are not part of the projection, so the batch has no CV for them yet
+    for (Integer colIdx : columnIndices) {
+      if (batch.cols[colIdx] == null) {
+        batch.cols[colIdx] = VectorizedBatchUtil.createColumnVector(vrbCtx.getRowColumnTypeInfos()[colIdx]);
+      }
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    recordIterator.close();
+    records.close();
+  }
+
+  @SuppressWarnings("unchecked")
+  private void advance() {
+    if (!advanced) {
+      batch.reset();
+      int columnCount = inspector.getAllStructFieldRefs().size();
+      while (batch.size < batch.getMaxSize() && recordIterator.hasNext()) {
+        // The generic readers produce Iceberg's Java objects, these are converted to the writables Hive expects
+        List<Object> row = (List<Object>) ObjectInspectorUtils.copyToStandardObject(recordIterator.next(), inspector,
+            ObjectInspectorUtils.ObjectInspectorCopyOption.WRITABLE);
+        assignRow.assignRow(batch, batch.size, row, columnCount);
+        ++batch.size;
+      }
+      advanced = true;
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    advance();
+    return batch.size > 0;
+  }
+
+  @Override
+  public VectorizedRowBatch next() {
+    advance();
+    advanced = false;
+    return batch;
+  }
+}
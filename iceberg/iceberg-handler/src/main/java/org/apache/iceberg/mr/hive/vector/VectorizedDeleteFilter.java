@@ -0,0 +1,358 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iceberg.mr.hive.vector;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.hadoop.hive.ql.exec.vector.BytesColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.ColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.Decimal64ColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.DecimalColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.DoubleColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.LongColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
+import org.apache.iceberg.DeleteFile;
+import org.apache.iceberg.FileContent;
+import org.apache.iceberg.FileScanTask;
+import org.apache.iceberg.MetadataColumns;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.avro.Avro;
+import org.apache.iceberg.data.GenericRecord;
+import org.apache.iceberg.data.Record;
+import org.apache.iceberg.data.avro.DataReader;
+import org.apache.iceberg.data.orc.GenericOrcReader;
+import org.apache.iceberg.data.parquet.GenericParquetReaders;
+import org.apache.iceberg.deletes.Deletes;
+import org.apache.iceberg.expressions.Expressions;
+import org.apache.iceberg.io.CloseableIterable;
+import org.apache.iceberg.io.FileIO;
+import org.apache.iceberg.io.InputFile;
+import org.apache.iceberg.orc.ORC;
+import org.apache.iceberg.parquet.Parquet;
+import org.apache.iceberg.relocated.com.google.common.collect.Lists;
+import org.apache.iceberg.relocated.com.google.common.collect.Maps;
+import org.apache.iceberg.relocated.com.google.common.collect.Sets;
+import org.apache.iceberg.types.Type;
+import org.apache.iceberg.types.TypeUtil;
+import org.apache.iceberg.types.Types;
+import org.apache.iceberg.util.StructLikeSet;
+
+/**
+ * Applies the position and equality delete files of an Iceberg task on the VectorizedRowBatch instances read from its
+ * data file, by removing the deleted rows from the selected vector of each batch.
+ * Position deletes are kept as a sorted array of row positions that is walked together with the batches, equality
+ * deletes as hash sets keyed on the equality columns.
+ */
+final class VectorizedDeleteFilter {
+
+  private static final Schema POSITION_DELETE_SCHEMA =
+      new Schema(MetadataColumns.DELETE_FILE_PATH, MetadataColumns.DELETE_FILE_POS);
+
+  private final long[] deletedPositions;
+  private final List<EqualityDeletes> equalityDeletes;
+  private int positionCursor = 0;
+  private long nextRowPosition;
+
+  private VectorizedDeleteFilter(long[] deletedPositions, List<EqualityDeletes> equalityDeletes,
+      long firstRowPosition) {
+    this.deletedPositions = deletedPositions;
+    this.equalityDeletes = equalityDeletes;
+    this.nextRowPosition = firstRowPosition;
+  }
+
+  /**
+   * Equality deletes sharing the same equality field ids.
+   */
+  private static final class EqualityDeletes {
+    private final int[] columnIndices;
+    private final Type[] types;
+    private final StructLikeSet deleteSet;
+    private final GenericRecord probe;
+
+    EqualityDeletes(int[] columnIndices, Schema deleteSchema, StructLikeSet deleteSet) {
+      this.columnIndices = columnIndices;
+      this.types = deleteSchema.columns().stream().map(Types.NestedField::type).toArray(Type[]::new);
+      this.deleteSet = deleteSet;
+      this.probe = GenericRecord.create(deleteSchema);
+    }
+
+    boolean isDeleted(VectorizedRowBatch batch, int row) {
+      for (int i = 0; i < columnIndices.length; ++i) {
+        probe.set(i, value(batch.cols[columnIndices[i]], types[i], row));
+      }
+      return deleteSet.contains(probe);
+    }
+  }
+
+  /**
+   * Returns the top level column indices (in table schema order) that need to be read to apply the equality deletes
+   * of the task.
+   */
+  static Set<Integer> equalityColumnIndices(FileScanTask task) {
+    Set<Integer> result = Sets.newHashSet();
+    for (DeleteFile delete : task.deletes()) {
+      if (delete.content() == FileContent.EQUALITY_DELETES) {
+        for (int fieldId : delete.equalityFieldIds()) {
+          result.add(columnIndex(task.spec().schema(), fieldId));
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Checks whether the delete files of the task can be applied on the batches. Equality deletes are only supported
+   * on top level columns of the types that {@link #value(ColumnVector, Type, int)} can convert.
+   * @param task the task to check
+   * @return true if every delete file of the task is supported
+   */
+  static boolean isSupported(FileScanTask task) {
+    Schema tableSchema = task.spec().schema();
+    for (DeleteFile delete : task.deletes()) {
+      switch (delete.format()) {
+        case AVRO:
+        case PARQUET:
+        case ORC:
+          break;
+        default:
+          return false;
+      }
+      switch (delete.content()) {
+        case POSITION_DELETES:
+          break;
+        case EQUALITY_DELETES:
+          for (int fieldId : delete.equalityFieldIds()) {
+            if (tableSchema.columns().stream().noneMatch(column -> column.fieldId() == fieldId) ||
+                !isSupportedType(tableSchema.findType(fieldId))) {
+              return false;
+            }
+          }
+          break;
+        default:
+          return false;
+      }
+    }
+    return true;
+  }
+
+  static boolean hasPositionDeletes(FileScanTask task) {
+    return task.deletes().stream().anyMatch(delete -> delete.content() == FileContent.POSITION_DELETES);
+  }
+
+  /**
+   * Reads the delete files of the task, which are expected to be supported as per {@link #isSupported(FileScanTask)}.
+   * @param task the task to read the delete files of
+   * @param io FileIO to open the delete files with
+   * @param firstRowPosition file position of the first row the data file reader will return for this task
+   * @return the filter, or null if the task has no delete files
+   */
+  static VectorizedDeleteFilter create(FileScanTask task, FileIO io, long firstRowPosition) {
+    if (task.deletes().isEmpty()) {
+      return null;
+    }
+    Schema tableSchema = task.spec().schema();
+    CharSequence dataLocation = task.file().path();
+
+    List<CloseableIterable<Record>> positionDeletes = Lists.newArrayList();
+    Map<Set<Integer>, List<DeleteFile>> deletesByFieldIds = Maps.newHashMap();
+    for (DeleteFile delete : task.deletes()) {
+      switch (delete.content()) {
+        case POSITION_DELETES:
+          positionDeletes.add(openDeletes(io, delete, POSITION_DELETE_SCHEMA, dataLocation));
+          break;
+        case EQUALITY_DELETES:
+          deletesByFieldIds.computeIfAbsent(Sets.newHashSet(delete.equalityFieldIds()), ids -> Lists.newArrayList())
+              .add(delete);
+          break;
+        default:
+          throw new UnsupportedOperationException("Unknown delete file content: " + delete.content());
+      }
+    }
+
+    long[] deletedPositions = null;
+    if (!positionDeletes.isEmpty()) {
+      deletedPositions = Deletes.toPositionSet(dataLocation, positionDeletes).stream()
+          .mapToLong(Long::longValue)
+          .toArray();
+      Arrays.sort(deletedPositions);
+    }
+
+    List<EqualityDeletes> equalityDeletes = Lists.newArrayList();
+    for (Map.Entry<Set<Integer>, List<DeleteFile>> entry : deletesByFieldIds.entrySet()) {
+      Schema deleteSchema = TypeUtil.select(tableSchema, entry.getKey());
+      int[] columnIndices = new int[deleteSchema.columns().size()];
+      for (int i = 0; i < columnIndices.length; ++i) {
+        columnIndices[i] = columnIndex(tableSchema, deleteSchema.columns().get(i).fieldId());
+      }
+      List<CloseableIterable<Record>> records = Lists.transform(entry.getValue(),
+          delete -> openDeletes(io, delete, deleteSchema, dataLocation));
+      // copy the delete records because the readers reuse them and they will be held in a set
+      StructLikeSet deleteSet = Deletes.toEqualitySet(
+          CloseableIterable.transform(CloseableIterable.concat(records), Record::copy), deleteSchema.asStruct());
+      equalityDeletes.add(new EqualityDeletes(columnIndices, deleteSchema, deleteSet));
+    }
+
+    return new VectorizedDeleteFilter(deletedPositions, equalityDeletes, firstRowPosition);
+  }
+
+  /**
+   * Removes the deleted rows of the batch from its selected vector. The batch is expected to be freshly read from the
+   * data file, i.e. its rows are the next consecutive rows of the file.
+   * @param batch the batch to filter, its size can be 0 afterwards
+   */
+  void filter(VectorizedRowBatch batch) {
+    long batchStartPosition = nextRowPosition;
+    nextRowPosition += batch.size;
+
+    int[] selected = batch.selected;
+    int newSize = 0;
+    for (int i = 0; i < batch.size; ++i) {
+      int row = batch.selectedInUse ? selected[i] : i;
+      if (!isDeleted(batch, row, batchStartPosition + row)) {
+        selected[newSize++] = row;
+      }
+    }
+    if (newSize < batch.size) {
+      batch.size = newSize;
+      batch.selectedInUse = true;
+    }
+  }
+
+  private boolean isDeleted(VectorizedRowBatch batch, int row, long position) {
+    if (deletedPositions != null) {
+      // positions only grow, so the cursor never has to move backwards
+      while (positionCursor < deletedPositions.length && deletedPositions[positionCursor] < position) {
+        ++positionCursor;
+      }
+      if (positionCursor < deletedPositions.length && deletedPositions[positionCursor] == position) {
+        return true;
+      }
+    }
+    for (EqualityDeletes deletes : equalityDeletes) {
+      if (deletes.isDeleted(batch, row)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static int columnIndex(Schema tableSchema, int fieldId) {
+    List<Types.NestedField> columns = tableSchema.columns();
+    for (int colIdx = 0; colIdx < columns.size(); ++colIdx) {
+      if (columns.get(colIdx).fieldId() == fieldId) {
+        return colIdx;
+      }
+    }
+    throw new UnsupportedOperationException(
+        "Vectorized read of equality deletes on nested field is unsupported: " + tableSchema.findColumnName(fieldId));
+  }
+
+  private static boolean isSupportedType(Type type) {
+    switch (type.typeId()) {
+      case BOOLEAN:
+      case INTEGER:
+      case LONG:
+      case FLOAT:
+      case DOUBLE:
+      case DATE:
+      case STRING:
+      case DECIMAL:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Converts a value of a column vector to the Java object the generic Iceberg readers produce for the type, so that
+   * it can be compared with the values read from the equality delete files.
+   */
+  private static Object value(ColumnVector vector, Type type, int row) {
+    int idx = vector.isRepeating ? 0 : row;
+    if (!vector.noNulls && vector.isNull[idx]) {
+      return null;
+    }
+    switch (type.typeId()) {
+      case BOOLEAN:
+        return ((LongColumnVector) vector).vector[idx] != 0;
+      case INTEGER:
+        return (int) ((LongColumnVector) vector).vector[idx];
+      case LONG:
+        return ((LongColumnVector) vector).vector[idx];
+      case FLOAT:
+        return (float) ((DoubleColumnVector) vector).vector[idx];
+      case DOUBLE:
+        return ((DoubleColumnVector) vector).vector[idx];
+      case DATE:
+        return LocalDate.ofEpochDay(((LongColumnVector) vector).vector[idx]);
+      case STRING:
+        BytesColumnVector bytes = (BytesColumnVector) vector;
+        return new String(bytes.vector[idx], bytes.start[idx], bytes.length[idx], StandardCharsets.UTF_8);
+      case DECIMAL:
+        int scale = ((Types.DecimalType) type).scale();
+        if (vector instanceof Decimal64ColumnVector) {
+          return BigDecimal.valueOf(((Decimal64ColumnVector) vector).vector[idx], scale);
+        }
+        return ((DecimalColumnVector) vector).vector[idx].getHiveDecimal().bigDecimalValue().setScale(scale);
+      default:
+        throw new UnsupportedOperationException("Unsupported equality delete type: " + type);
+    }
+  }
+
+  private static CloseableIterable<Record> openDeletes(FileIO io, DeleteFile deleteFile, Schema deleteSchema,
+      CharSequence dataLocation) {
+    InputFile input = io.newInputFile(deleteFile.path().toString());
+    boolean positionDeletes = deleteFile.content() == FileContent.POSITION_DELETES;
+    switch (deleteFile.format()) {
+      case AVRO:
+        return Avro.read(input)
+            .project(deleteSchema)
+            .reuseContainers()
+            .createReaderFunc(DataReader::create)
+            .build();
+      case PARQUET:
+        Parquet.ReadBuilder parquetReadBuilder = Parquet.read(input)
+            .project(deleteSchema)
+            .reuseContainers()
+            .createReaderFunc(fileSchema -> GenericParquetReaders.buildReader(deleteSchema, fileSchema));
+        if (positionDeletes) {
+          parquetReadBuilder.filter(Expressions.equal(MetadataColumns.DELETE_FILE_PATH.name(), dataLocation));
+        }
+        return parquetReadBuilder.build();
+      case ORC:
+        ORC.ReadBuilder orcReadBuilder = ORC.read(input)
+            .project(deleteSchema)
+            .createReaderFunc(fileSchema -> GenericOrcReader.buildReader(deleteSchema, fileSchema));
+        if (positionDeletes) {
+          orcReadBuilder.filter(Expressions.equal(MetadataColumns.DELETE_FILE_PATH.name(), dataLocation));
+        }
+        return orcReadBuilder.build();
+      default:
+        throw new UnsupportedOperationException(
+            String.format("Cannot read deletes, %s is not a supported format: %s", deleteFile.format().name(),
+                deleteFile.path()));
+    }
+  }
+}
@@ -19,13 +19,16 @@
 package org.apache.iceberg.mr.hive.vector;
 
 import java.io.IOException;
+import java.util.Set;
 import org.apache.hadoop.hive.llap.LlapHiveUtils;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedBatchUtil;
 import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
 import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatchCtx;
 import org.apache.hadoop.io.NullWritable;
 import org.apache.hadoop.mapred.JobConf;
 import org.apache.hadoop.mapred.RecordReader;
 import org.apache.iceberg.io.CloseableIterator;
+import org.apache.iceberg.relocated.com.google.common.annotations.VisibleForTesting;
 
 /**
  * Iterator wrapper around Hive's VectorizedRowBatch producer (MRv1 implementing) record readers.
@@ -38,16 +41,33 @@ public final class VectorizedRowBatchIterator implements CloseableIterator<Vecto
   private final VectorizedRowBatchCtx vrbCtx;
   private final int[] partitionColIndices;
   private final Object[] partitionValues;
+  private final VectorizedDeleteFilter deleteFilter;
   private boolean advanced = false;
 
   VectorizedRowBatchIterator(RecordReader<NullWritable, VectorizedRowBatch> recordReader, JobConf job,
-      int[] partitionColIndices, Object[] partitionValues) {
+      int[] partitionColIndices, Object[] partitionValues, VectorizedDeleteFilter deleteFilter,
+      Set<Integer> extraColIndices) {
+    this(recordReader, LlapHiveUtils.findMapWork(job).getVectorizedRowBatchCtx(), partitionColIndices, partitionValues,
+        deleteFilter, extraColIndices);
+  }
+
+  @VisibleForTesting
+  VectorizedRowBatchIterator(RecordReader<NullWritable, VectorizedRowBatch> recordReader,
+      VectorizedRowBatchCtx vrbCtx, int[] partitionColIndices, Object[] partitionValues,
+      VectorizedDeleteFilter deleteFilter, Set<Integer> extraColIndices) {
     this.recordReader = recordReader;
     this.key = recordReader.createKey();
     this.batch = recordReader.createValue();
-    this.vrbCtx = LlapHiveUtils.findMapWork(job).getVectorizedRowBatchCtx();
+    this.vrbCtx = vrbCtx;
     this.partitionColIndices = partitionColIndices;
     this.partitionValues = partitionValues;
+    this.deleteFilter = deleteFilter;
+    // Columns read only for applying deletes are not part of the projection, so the batch has no CV for them yet
+    for (Integer colIdx : extraColIndices) {
+      if (batch.cols[colIdx] == null) {
+        batch.cols[colIdx] = VectorizedBatchUtil.createColumnVector(vrbCtx.getRowColumnTypeInfos()[colIdx]);
+      }
+    }
   }
 
   @Override
@@ -59,18 +79,22 @@ private void advance() {
     if (!advanced) {
       try {
 
-        if (!recordReader.next(key, batch)) {
-          batch.size = 0;
-        }
-        // Fill partition values
-        if (partitionColIndices != null) {
-          for (int i = 0; i < partitionColIndices.length; ++i) {
-            int colIdx = partitionColIndices[i];
-            // The partition column might not be part of the current projection - in which case no CV is inited
-            if (batch.cols[colIdx] != null) {
-              vrbCtx.addPartitionColsToBatch(batch.cols[colIdx], partitionValues[i], partitionColIndices[i]);
+        boolean hasNext;
+        do {
+          // The delete filter might have left a selected vector behind which the record reader is not aware of
+          batch.selectedInUse = false;
+          hasNext = recordReader.next(key, batch);
+          if (hasNext) {
+            // Partition values have to be there before applying the equality deletes, which might be on them too
+            fillPartitionValues();
+            if (deleteFilter != null) {
+              deleteFilter.filter(batch);
             }
           }
+          // Skip the batches of which every row got deleted, an empty batch would signal the end of the data
+        } while (hasNext && batch.size == 0);
+        if (!hasNext) {
+          batch.size = 0;
         }
       } catch (IOException ioe) {
         throw new RuntimeException(ioe);
@@ -79,6 +103,18 @@ private void advance() {
     }
   }
 
+  private void fillPartitionValues() {
+    if (partitionColIndices != null) {
+      for (int i = 0; i < partitionColIndices.length; ++i) {
+        int colIdx = partitionColIndices[i];
+        // The partition column might not be part of the current projection - in which case no CV is inited
+        if (batch.cols[colIdx] != null) {
+          vrbCtx.addPartitionColsToBatch(batch.cols[colIdx], partitionValues[i], partitionColIndices[i]);
+        }
+      }
+    }
+  }
+
   @Override
   public boolean hasNext() {
     advance();
@@ -20,7 +20,6 @@
 package org.apache.iceberg.mr.mapreduce;
 
 import java.io.IOException;
-import java.io.UncheckedIOException;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
@@ -134,18 +133,15 @@ public List<InputSplit> getSplits(JobContext context) {
     boolean applyResidual = !conf.getBoolean(InputFormatConfig.SKIP_RESIDUAL_FILTERING, false);
     InputFormatConfig.InMemoryDataModel model = conf.getEnum(InputFormatConfig.IN_MEMORY_DATA_MODEL,
         InputFormatConfig.InMemoryDataModel.GENERIC);
-    try (CloseableIterable<CombinedScanTask> tasksIterable = scan.planTasks()) {
-      tasksIterable.forEach(task -> {
-        if (applyResidual && (model == InputFormatConfig.InMemoryDataModel.HIVE ||
-            model == InputFormatConfig.InMemoryDataModel.PIG)) {
-          // TODO: We do not support residual evaluation for HIVE and PIG in memory data model yet
-          checkResiduals(task);
-        }
-        splits.add(new IcebergSplit(conf, task, table.io(), table.encryption()));
-      });
-    } catch (IOException e) {
-      throw new UncheckedIOException(String.format("Failed to close table scan: %s", scan), e);
-    }
+    // Manifests are read by Iceberg's worker pool during planning, the planned tasks are cached per snapshot if enabled
+    ScanTaskCache.planTasks(conf, table, scan).forEach(task -> {
+      if (applyResidual && (model == InputFormatConfig.InMemoryDataModel.HIVE ||
+          model == InputFormatConfig.InMemoryDataModel.PIG)) {
+        // TODO: We do not support residual evaluation for HIVE and PIG in memory data model yet
+        checkResiduals(task);
+      }
+      splits.add(new IcebergSplit(conf, task, table.io(), table.encryption()));
+    });
 
     return splits;
   }
@@ -179,7 +175,8 @@ public RecordReader<Void, T> createRecordReader(InputSplit split, TaskAttemptCon
                 InputFile.class,
                 FileScanTask.class,
                 Map.class,
-                TaskAttemptContext.class)
+                TaskAttemptContext.class,
+                FileIO.class)
             .buildStatic();
       } else {
         HIVE_VECTORIZED_READER_BUILDER = null;
@@ -374,7 +371,7 @@ private CloseableIterable<T> newOrcIterable(InputFile inputFile, FileScanTask ta
           throw new UnsupportedOperationException("ORC support not yet supported for Pig and Hive");
         case HIVE:
           if (MetastoreUtil.hive3PresentOnClasspath()) {
-            orcIterator = HIVE_VECTORIZED_READER_BUILDER.invoke(inputFile, task, idToConstant, context);
+            orcIterator = HIVE_VECTORIZED_READER_BUILDER.invoke(inputFile, task, idToConstant, context, io);
           } else {
             throw new UnsupportedOperationException("Vectorized read is unsupported for Hive 2 integration.");
           }
@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iceberg.mr.mapreduce;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Objects;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.iceberg.CombinedScanTask;
+import org.apache.iceberg.Snapshot;
+import org.apache.iceberg.Table;
+import org.apache.iceberg.TableProperties;
+import org.apache.iceberg.TableScan;
+import org.apache.iceberg.io.CloseableIterable;
+import org.apache.iceberg.mr.InputFormatConfig;
+import org.apache.iceberg.relocated.com.google.common.collect.ImmutableList;
+
+/**
+ * Process wide cache of the planned tasks of table scans. Snapshots are immutable, so the tasks planned for a scan of
+ * a given snapshot with the same filter, projection and split settings can be reused by subsequent queries instead of
+ * reading all the manifests again.
+ */
+final class ScanTaskCache {
+
+  private static volatile Cache<Key, List<CombinedScanTask>> cache;
+
+  private ScanTaskCache() {
+  }
+
+  /**
+   * Returns the planned tasks of the scan, from the cache if the scan was already planned before.
+   * @param conf the job configuration which tells if the cache is enabled and its size
+   * @param table the table to scan
+   * @param scan the fully configured scan of the table
+   * @return the planned tasks
+   */
+  static List<CombinedScanTask> planTasks(Configuration conf, Table table, TableScan scan) {
+    Snapshot snapshot = scan.snapshot();
+    if (snapshot == null || !conf.getBoolean(InputFormatConfig.PLAN_CACHE_ENABLED, false)) {
+      return plan(scan);
+    }
+    Key key = new Key(table, snapshot.snapshotId(), scan, conf.getLong(InputFormatConfig.SPLIT_SIZE, 0));
+    return cache(conf).get(key, k -> plan(scan));
+  }
+
+  private static List<CombinedScanTask> plan(TableScan scan) {
+    try (CloseableIterable<CombinedScanTask> tasksIterable = scan.planTasks()) {
+      return ImmutableList.copyOf(tasksIterable);
+    } catch (IOException e) {
+      throw new UncheckedIOException(String.format("Failed to close table scan: %s", scan), e);
+    }
+  }
+
+  private static Cache<Key, List<CombinedScanTask>> cache(Configuration conf) {
+    if (cache == null) {
+      synchronized (ScanTaskCache.class) {
+        if (cache == null) {
+          // the weight of the entries is their number of tasks, which is what the memory usage is proportional to
+          cache = Caffeine.newBuilder()
+              .maximumWeight(conf.getLong(InputFormatConfig.PLAN_CACHE_MAX_TASKS,
+                  InputFormatConfig.PLAN_CACHE_MAX_TASKS_DEFAULT))
+              .<Key, List<CombinedScanTask>>weigher((key, tasks) -> Math.max(1, tasks.size()))
+              .build();
+        }
+      }
+    }
+    return cache;
+  }
+
+  private static final class Key {
+    private final String location;
+    private final long snapshotId;
+    private final String filter;
+    private final String schema;
+    private final boolean caseSensitive;
+    private final long scanSplitSize;
+    private final String splitSize;
+    private final String splitLookback;
+    private final String splitOpenFileCost;
+
+    Key(Table table, long snapshotId, TableScan scan, long scanSplitSize) {
+      this.location = table.location();
+      this.snapshotId = snapshotId;
+      this.filter = String.valueOf(scan.filter());
+      this.schema = scan.schema().asStruct().toString();
+      this.caseSensitive = scan.isCaseSensitive();
+      this.scanSplitSize = scanSplitSize;
+      // split settings can be set on the scan or on the table, which can change without a new snapshot
+      this.splitSize = table.properties().get(TableProperties.SPLIT_SIZE);
+      this.splitLookback = table.properties().get(TableProperties.SPLIT_LOOKBACK);
+      this.splitOpenFileCost = table.properties().get(TableProperties.SPLIT_OPEN_FILE_COST);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key other = (Key) o;
+      return snapshotId == other.snapshotId &&
+          caseSensitive == other.caseSensitive &&
+          scanSplitSize == other.scanSplitSize &&
+          location.equals(other.location) &&
+          filter.equals(other.filter) &&
+          schema.equals(other.schema) &&
+          Objects.equals(splitSize, other.splitSize) &&
+          Objects.equals(splitLookback, other.splitLookback) &&
+          Objects.equals(splitOpenFileCost, other.splitOpenFileCost);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(location, snapshotId, filter, schema, caseSensitive, scanSplitSize, splitSize,
+          splitLookback, splitOpenFileCost);
+    }
+  }
+}
@@ -25,6 +25,7 @@
 import org.apache.hadoop.hive.serde2.ColumnProjectionUtils;
 import org.apache.hadoop.mapred.JobConf;
 import org.apache.hive.iceberg.org.apache.orc.Reader;
+import org.apache.hive.iceberg.org.apache.orc.StripeInformation;
 import org.apache.hive.iceberg.org.apache.orc.TypeDescription;
 import org.apache.iceberg.FileScanTask;
 import org.apache.iceberg.Schema;
@@ -89,4 +90,33 @@ public static void handleIcebergProjection(InputFile inputFile, FileScanTask tas
       orcFileReader.close();
     }
   }
+
+  /**
+   * Returns the position (within the file) of the first row that a reader of the task's split will produce. The ORC
+   * readers read the stripes that start inside the split, so this is the number of rows in the preceding stripes.
+   * @param inputFile - the ORC file of the task
+   * @param task - Iceberg task whose start offset is used
+   * @param job - JobConf instance
+   * @return the file position of the first row of the split
+   * @throws IOException - errors relating to accessing the ORC file
+   */
+  public static long firstRowPosition(InputFile inputFile, FileScanTask task, JobConf job) throws IOException {
+    if (task.start() == 0) {
+      return 0;
+    }
+    Reader orcFileReader = ORC.newFileReader(inputFile, job);
+
+    try {
+      long rows = 0;
+      for (StripeInformation stripe : orcFileReader.getStripes()) {
+        if (stripe.getOffset() >= task.start()) {
+          break;
+        }
+        rows += stripe.getNumberOfRows();
+      }
+      return rows;
+    } finally {
+      orcFileReader.close();
+    }
+  }
 }
@@ -329,6 +329,37 @@ public void testSnapshotReads() throws Exception {
     testInputFormat.create(builder.conf()).validate(expectedRecords);
   }
 
+  @Test
+  public void testPlanCache() throws Exception {
+    conf.setBoolean(InputFormatConfig.PLAN_CACHE_ENABLED, true);
+    helper.createUnpartitionedTable();
+
+    List<Record> expectedRecords = helper.generateRandomRecords(1, 0L);
+    helper.appendToTable(null, expectedRecords);
+    long snapshotId = helper.table().currentSnapshot().snapshotId();
+    TestInputFormat<Record> first = testInputFormat.create(builder.conf());
+    first.validate(expectedRecords);
+
+    // the second scan of the same snapshot is served from the cache, so it gets the very same planned tasks
+    TestInputFormat<Record> second = testInputFormat.create(builder.conf());
+    second.validate(expectedRecords);
+    Assert.assertSame(first.getSplits().get(0).task(), second.getSplits().get(0).task());
+
+    // a new snapshot must not be served from the cache
+    List<Record> newRecords = helper.generateRandomRecords(1, 0L);
+    helper.appendToTable(null, newRecords);
+    List<Record> allRecords = new ArrayList<>(expectedRecords);
+    allRecords.addAll(newRecords);
+    TestInputFormat<Record> third = testInputFormat.create(builder.conf());
+    Assert.assertEquals(Sets.newHashSet(allRecords), Sets.newHashSet(third.getRecords()));
+    Assert.assertNotSame(first.getSplits().get(0).task(), third.getSplits().get(0).task());
+
+    builder.snapshotId(snapshotId);
+    TestInputFormat<Record> fourth = testInputFormat.create(builder.conf());
+    fourth.validate(expectedRecords);
+    Assert.assertSame(first.getSplits().get(0).task(), fourth.getSplits().get(0).task());
+  }
+
   @Test
   public void testLocality() throws Exception {
     helper.createUnpartitionedTable();
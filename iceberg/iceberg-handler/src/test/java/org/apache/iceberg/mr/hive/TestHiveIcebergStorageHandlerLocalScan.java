@@ -26,14 +26,21 @@
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import org.apache.iceberg.BaseTable;
+import org.apache.iceberg.DataFile;
+import org.apache.iceberg.DeleteFile;
 import org.apache.iceberg.FileFormat;
+import org.apache.iceberg.Files;
 import org.apache.iceberg.PartitionSpec;
 import org.apache.iceberg.PartitionSpecParser;
 import org.apache.iceberg.Schema;
 import org.apache.iceberg.SchemaParser;
 import org.apache.iceberg.StructLike;
+import org.apache.iceberg.Table;
+import org.apache.iceberg.TableOperations;
 import org.apache.iceberg.TestHelpers.Row;
 import org.apache.iceberg.catalog.TableIdentifier;
+import org.apache.iceberg.data.FileHelpers;
 import org.apache.iceberg.data.GenericRecord;
 import org.apache.iceberg.data.Record;
 import org.apache.iceberg.mr.Catalogs;
@@ -42,6 +49,7 @@
 import org.apache.iceberg.relocated.com.google.common.collect.ImmutableMap;
 import org.apache.iceberg.relocated.com.google.common.collect.Lists;
 import org.apache.iceberg.types.Types;
+import org.apache.iceberg.util.Pair;
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Assert;
@@ -137,6 +145,43 @@ public void testScanTable() throws IOException {
     Assert.assertArrayEquals(new Object[] {2L, "Trudy", "Pink"}, rows.get(2));
   }
 
+  @Test
+  public void testAggregatesComputedUsingStats() throws IOException {
+    testTables.createTable(shell, "customers", HiveIcebergStorageHandlerTestUtils.CUSTOMER_SCHEMA, fileFormat,
+        HiveIcebergStorageHandlerTestUtils.CUSTOMER_RECORDS);
+    shell.setHiveSessionValue("hive.compute.query.using.stats", true);
+
+    // count(*) is answered from the snapshot summary, no scan is needed
+    List<Object[]> plan = shell.executeStatement("EXPLAIN SELECT count(*) FROM default.customers");
+    Assert.assertTrue(plan.stream().noneMatch(row -> String.valueOf(row[0]).contains("TableScan")));
+    Assert.assertArrayEquals(new Object[] {3L},
+        shell.executeStatement("SELECT count(*) FROM default.customers").get(0));
+
+    // min/max are answered from the column bounds in the manifests if the file format provides them
+    List<Object[]> rows = shell.executeStatement(
+        "SELECT count(customer_id), min(customer_id), max(customer_id) FROM default.customers");
+    Assert.assertArrayEquals(new Object[] {3L, 0L, 2L}, rows.get(0));
+  }
+
+  @Test
+  public void testAggregatesNotComputedUsingStatsWithDeletes() throws IOException {
+    Table table = testTables.createTable(shell, "customers", HiveIcebergStorageHandlerTestUtils.CUSTOMER_SCHEMA,
+        fileFormat, HiveIcebergStorageHandlerTestUtils.CUSTOMER_RECORDS);
+    TableOperations ops = ((BaseTable) table).operations();
+    ops.commit(ops.current(), ops.current().upgradeToFormatVersion(2));
+    DataFile dataFile = table.currentSnapshot().addedFiles().iterator().next();
+    DeleteFile deleteFile = FileHelpers.writeDeleteFile(table, Files.localOutput(temp.newFile()),
+        ImmutableList.of(Pair.of(dataFile.path(), 0L))).first();
+    table.newRowDelta().addDeletes(deleteFile).commit();
+    shell.setHiveSessionValue("hive.compute.query.using.stats", true);
+
+    // the snapshot summary does not tell which rows are deleted, so the table has to be scanned
+    List<Object[]> plan = shell.executeStatement("EXPLAIN SELECT count(*) FROM default.customers");
+    Assert.assertTrue(plan.stream().anyMatch(row -> String.valueOf(row[0]).contains("TableScan")));
+    Assert.assertArrayEquals(new Object[] {2L},
+        shell.executeStatement("SELECT count(*) FROM default.customers").get(0));
+  }
+
   @Test
   public void testColumnSelection() throws IOException {
     testTables.createTable(shell, "customers", HiveIcebergStorageHandlerTestUtils.CUSTOMER_SCHEMA, fileFormat,
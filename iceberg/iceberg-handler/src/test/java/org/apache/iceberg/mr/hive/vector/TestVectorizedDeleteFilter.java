@@ -0,0 +1,284 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iceberg.mr.hive.vector;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hive.ql.exec.vector.BytesColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.LongColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatchCtx;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfo;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoFactory;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.mapred.RecordReader;
+import org.apache.iceberg.BaseTable;
+import org.apache.iceberg.DataFile;
+import org.apache.iceberg.DeleteFile;
+import org.apache.iceberg.FileScanTask;
+import org.apache.iceberg.Files;
+import org.apache.iceberg.PartitionSpec;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.Table;
+import org.apache.iceberg.TableMetadata;
+import org.apache.iceberg.TableOperations;
+import org.apache.iceberg.TestHelpers.Row;
+import org.apache.iceberg.data.FileHelpers;
+import org.apache.iceberg.data.GenericRecord;
+import org.apache.iceberg.data.Record;
+import org.apache.iceberg.hadoop.HadoopTables;
+import org.apache.iceberg.io.CloseableIterable;
+import org.apache.iceberg.relocated.com.google.common.collect.ImmutableMap;
+import org.apache.iceberg.relocated.com.google.common.collect.Iterables;
+import org.apache.iceberg.relocated.com.google.common.collect.Lists;
+import org.apache.iceberg.types.Types;
+import org.apache.iceberg.util.Pair;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestVectorizedDeleteFilter {
+  private static final Schema SCHEMA = new Schema(
+      Types.NestedField.required(1, "id", Types.LongType.get()),
+      Types.NestedField.optional(2, "data", Types.StringType.get()),
+      Types.NestedField.optional(3, "part", Types.StringType.get()),
+      Types.NestedField.optional(4, "payload", Types.BinaryType.get())
+  );
+
+  private static final PartitionSpec SPEC = PartitionSpec.builderFor(SCHEMA)
+      .identity("part")
+      .build();
+
+  private static final VectorizedRowBatchCtx VRB_CTX = new VectorizedRowBatchCtx(
+      new String[] { "id", "data", "part", "payload" },
+      new TypeInfo[] { TypeInfoFactory.longTypeInfo, TypeInfoFactory.stringTypeInfo, TypeInfoFactory.stringTypeInfo,
+          TypeInfoFactory.binaryTypeInfo },
+      null, null, 0, 0, null, new String[0], null);
+
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  private Table table;
+  private DataFile dataFile;
+
+  @Before
+  public void createTable() throws IOException {
+    File location = temp.newFolder();
+    Assert.assertTrue(location.delete());
+    table = new HadoopTables(new Configuration()).create(SCHEMA, SPEC, location.toString());
+    TableOperations ops = ((BaseTable) table).operations();
+    TableMetadata meta = ops.current();
+    ops.commit(meta, meta.upgradeToFormatVersion(2));
+
+    // The rows of the data file are not read by the filter, the batches are made up by the tests
+    GenericRecord record = GenericRecord.create(SCHEMA);
+    dataFile = FileHelpers.writeDataFile(table, Files.localOutput(temp.newFile()), Row.of("p1"),
+        Collections.singletonList(record.copy(ImmutableMap.<String, Object>of("id", 0L, "part", "p1"))));
+    table.newAppend().appendFile(dataFile).commit();
+  }
+
+  @Test
+  public void testPositionDeletesFromSplitOffset() throws IOException {
+    addPositionDeletes(3L, 1025L, 1030L, 2047L, 2050L);
+    FileScanTask task = task();
+    Assert.assertTrue(VectorizedDeleteFilter.isSupported(task));
+
+    // The split starts at row 1024 of the file, so the delete of row 3 belongs to another split
+    VectorizedDeleteFilter filter = VectorizedDeleteFilter.create(task, table.io(), 1024L);
+
+    VectorizedRowBatch batch = batch(1024, 1024);
+    filter.filter(batch);
+    Assert.assertArrayEquals(new long[] { 1024, 1026, 1027, 1028, 1029, 1031 }, selectedIds(batch, 6));
+    Assert.assertEquals(1021, batch.size);
+
+    batch = batch(10, 2048);
+    filter.filter(batch);
+    Assert.assertArrayEquals(new long[] { 2048, 2049, 2051, 2052, 2053, 2054, 2055, 2056, 2057 },
+        selectedIds(batch, batch.size));
+  }
+
+  @Test
+  public void testEqualityDeletes() throws IOException {
+    Schema deleteSchema = SCHEMA.select("data");
+    Record delete = GenericRecord.create(deleteSchema);
+    addEqualityDeletes(deleteSchema, delete.copy("data", "row1"), delete.copy("data", "row3"));
+    FileScanTask task = task();
+    Assert.assertTrue(VectorizedDeleteFilter.isSupported(task));
+    Assert.assertEquals(Collections.singleton(1), VectorizedDeleteFilter.equalityColumnIndices(task));
+
+    VectorizedDeleteFilter filter = VectorizedDeleteFilter.create(task, table.io(), 0L);
+    VectorizedRowBatch batch = batch(5, 0);
+    filter.filter(batch);
+    Assert.assertArrayEquals(new long[] { 0, 2, 4 }, selectedIds(batch, batch.size));
+  }
+
+  @Test
+  public void testEqualityDeletesOnIdentityPartitionColumn() throws IOException {
+    Schema deleteSchema = SCHEMA.select("id", "part");
+    Record delete = GenericRecord.create(deleteSchema);
+    addEqualityDeletes(deleteSchema, delete.copy(ImmutableMap.<String, Object>of("id", 2L, "part", "p1")),
+        delete.copy(ImmutableMap.<String, Object>of("id", 3L, "part", "p2")));
+    FileScanTask task = task();
+
+    // The partition column is not read from the file, the iterator has to fill it before applying the deletes
+    VectorizedRowBatchIterator iterator = new VectorizedRowBatchIterator(new BatchReader(5), VRB_CTX,
+        new int[] { 2 }, new Object[] { "p1" }, VectorizedDeleteFilter.create(task, table.io(), 0L),
+        VectorizedDeleteFilter.equalityColumnIndices(task));
+
+    Assert.assertTrue(iterator.hasNext());
+    VectorizedRowBatch batch = iterator.next();
+    Assert.assertArrayEquals(new long[] { 0, 1, 3, 4 }, selectedIds(batch, batch.size));
+    Assert.assertFalse(iterator.hasNext());
+  }
+
+  @Test
+  public void testFullyDeletedBatchesAreSkipped() throws IOException {
+    addPositionDeletes(0L, 1L, 2L, 3L, 4L, 6L, 10L, 11L, 12L, 13L, 14L);
+    FileScanTask task = task();
+
+    VectorizedRowBatchIterator iterator = new VectorizedRowBatchIterator(new BatchReader(5, 5, 5), VRB_CTX,
+        null, null, VectorizedDeleteFilter.create(task, table.io(), 0L), Collections.emptySet());
+
+    Assert.assertTrue(iterator.hasNext());
+    VectorizedRowBatch batch = iterator.next();
+    Assert.assertArrayEquals(new long[] { 5, 7, 8, 9 }, selectedIds(batch, batch.size));
+    // The last batch is deleted entirely, which has to end the iteration instead of returning an empty batch
+    Assert.assertFalse(iterator.hasNext());
+  }
+
+  @Test
+  public void testUnsupportedEqualityDeletes() throws IOException {
+    Schema deleteSchema = SCHEMA.select("payload");
+    Record delete = GenericRecord.create(deleteSchema);
+    addEqualityDeletes(deleteSchema,
+        delete.copy("payload", ByteBuffer.wrap("row1".getBytes(StandardCharsets.UTF_8))));
+
+    // Tasks like this are read by the generic readers instead
+    Assert.assertFalse(VectorizedDeleteFilter.isSupported(task()));
+  }
+
+  private void addPositionDeletes(Long... positions) throws IOException {
+    List<Pair<CharSequence, Long>> deletes = Lists.newArrayList();
+    for (Long position : positions) {
+      deletes.add(Pair.of(dataFile.path(), position));
+    }
+    DeleteFile deleteFile = FileHelpers.writeDeleteFile(table, Files.localOutput(temp.newFile()), Row.of("p1"),
+        deletes).first();
+    table.newRowDelta().addDeletes(deleteFile).commit();
+  }
+
+  private void addEqualityDeletes(Schema deleteSchema, Record... deletes) throws IOException {
+    DeleteFile deleteFile = FileHelpers.writeDeleteFile(table, Files.localOutput(temp.newFile()), Row.of("p1"),
+        Lists.newArrayList(deletes), deleteSchema);
+    table.newRowDelta().addDeletes(deleteFile).commit();
+  }
+
+  private FileScanTask task() throws IOException {
+    try (CloseableIterable<FileScanTask> tasks = table.newScan().planFiles()) {
+      return Iterables.getOnlyElement(tasks);
+    }
+  }
+
+  /**
+   * Creates a batch of consecutive rows, with the id and the data column holding the position of the row in the file.
+   */
+  private static VectorizedRowBatch batch(int size, long firstPosition) {
+    VectorizedRowBatch batch = VRB_CTX.createVectorizedRowBatch();
+    fill(batch, size, firstPosition);
+    return batch;
+  }
+
+  private static void fill(VectorizedRowBatch batch, int size, long firstPosition) {
+    batch.reset();
+    LongColumnVector ids = (LongColumnVector) batch.cols[0];
+    BytesColumnVector data = (BytesColumnVector) batch.cols[1];
+    data.initBuffer();
+    for (int i = 0; i < size; ++i) {
+      ids.vector[i] = firstPosition + i;
+      byte[] bytes = ("row" + (firstPosition + i)).getBytes(StandardCharsets.UTF_8);
+      data.setVal(i, bytes, 0, bytes.length);
+    }
+    batch.size = size;
+  }
+
+  private static long[] selectedIds(VectorizedRowBatch batch, int count) {
+    long[] ids = new long[count];
+    for (int i = 0; i < count; ++i) {
+      ids[i] = ((LongColumnVector) batch.cols[0]).vector[batch.selectedInUse ? batch.selected[i] : i];
+    }
+    return ids;
+  }
+
+  /**
+   * Record reader returning batches of the given sizes with consecutive rows, like the ORC reader does.
+   */
+  private static final class BatchReader implements RecordReader<NullWritable, VectorizedRowBatch> {
+    private final Deque<Integer> batchSizes = new ArrayDeque<>();
+    private long position = 0;
+
+    BatchReader(Integer... batchSizes) {
+      Collections.addAll(this.batchSizes, batchSizes);
+    }
+
+    @Override
+    public boolean next(NullWritable key, VectorizedRowBatch value) {
+      if (batchSizes.isEmpty()) {
+        return false;
+      }
+      int size = batchSizes.poll();
+      fill(value, size, position);
+      position += size;
+      return true;
+    }
+
+    @Override
+    public NullWritable createKey() {
+      return NullWritable.get();
+    }
+
+    @Override
+    public VectorizedRowBatch createValue() {
+      return VRB_CTX.createVectorizedRowBatch();
+    }
+
+    @Override
+    public long getPos() {
+      return position;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public float getProgress() {
+      return batchSizes.isEmpty() ? 1.0f : 0.0f;
+    }
+  }
+}
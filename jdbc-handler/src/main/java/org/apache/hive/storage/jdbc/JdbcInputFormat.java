@@ -31,6 +31,7 @@
 import org.apache.hadoop.mapred.JobConf;
 import org.apache.hadoop.mapred.RecordReader;
 import org.apache.hadoop.mapred.Reporter;
+import org.apache.hive.storage.jdbc.exception.HiveJdbcDatabaseAccessException;
 import org.apache.hive.storage.jdbc.spitter.IntervalSplitter;
 import org.apache.hive.storage.jdbc.spitter.IntervalSplitterFactory;
 import org.slf4j.Logger;
@@ -40,6 +41,7 @@
 import org.apache.hive.storage.jdbc.dao.DatabaseAccessorFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 public class JdbcInputFormat extends HiveInputFormat<LongWritable, MapWritable> {
@@ -74,15 +76,17 @@ public InputSplit[] getSplits(JobConf job, int numSplits) throws IOException {
       int numPartitions = job.getInt(Constants.JDBC_NUM_PARTITIONS, -1);
       String lowerBound = job.get(Constants.JDBC_LOW_BOUND);
       String upperBound = job.get(Constants.JDBC_UPPER_BOUND);
+      long rowsPerPartition = job.getLong(Constants.JDBC_ROWS_PER_PARTITION, -1);
+      boolean estimatePartitions = numPartitions == -1 && rowsPerPartition > 0;
 
       InputSplit[] splits;
 
-      if (!job.getBoolean(Constants.JDBC_SPLIT_QUERY, true) || numPartitions <= 1) {
+      if (!job.getBoolean(Constants.JDBC_SPLIT_QUERY, true) || (numPartitions <= 1 && !estimatePartitions)) {
         // We will not split this query if:
         // 1. hive.sql.query.split is set to false (either manually or automatically by calcite
         // 2. numPartitions == 1
-        splits = new InputSplit[1];
-        splits[0] = new JdbcInputSplit(FileInputFormat.getInputPaths(job)[0]);
+        // 3. numPartitions is not set and there is no hive.sql.rowsPerPartition to derive it from
+        splits = createSingleSplit(job);
         LOGGER.info("Creating 1 input split " + splits[0]);
         return splits;
       }
@@ -90,6 +94,19 @@ public InputSplit[] getSplits(JobConf job, int numSplits) throws IOException {
       dbAccessor = DatabaseAccessorFactory.getAccessor(job);
       Path[] tablePaths = FileInputFormat.getInputPaths(job);
 
+      int numRecords = -1;
+      if (estimatePartitions) {
+        // Size the splits by the number of rows instead of a fixed number of partitions
+        numRecords = dbAccessor.getTotalNumberOfRecords(job);
+        numPartitions = (int) Math.min(Integer.MAX_VALUE, (numRecords + rowsPerPartition - 1) / rowsPerPartition);
+        LOGGER.info("Num records = {}, creating up to {} input splits of {} records", numRecords, numPartitions,
+            rowsPerPartition);
+        if (numPartitions <= 1) {
+          dbAccessor = null;
+          return createSingleSplit(job);
+        }
+      }
+
       // We will split this query into n splits
       LOGGER.debug("Creating {} input splits", numPartitions);
 
@@ -103,30 +120,35 @@ public InputSplit[] getSplits(JobConf job, int numSplits) throws IOException {
         if (!(typeInfo instanceof PrimitiveTypeInfo)) {
           throw new IOException(partitionColumn + " is a complex type, only primitive type can be a partition column");
         }
-        if (lowerBound == null || upperBound == null) {
-          Pair<String, String> boundary = dbAccessor.getBounds(job, partitionColumn, lowerBound == null,
-                  upperBound == null);
+        List<MutablePair<String, String>> intervals = null;
+        if (job.getBoolean(Constants.JDBC_BALANCED_PARTITIONS, false) && lowerBound == null && upperBound == null
+            && isNumeric((PrimitiveTypeInfo) typeInfo)) {
+          intervals = getBalancedIntervals(job, partitionColumn, numPartitions);
+        }
+        if (intervals == null) {
+          if (lowerBound == null || upperBound == null) {
+            Pair<String, String> boundary = dbAccessor.getBounds(job, partitionColumn, lowerBound == null,
+                    upperBound == null);
+            if (lowerBound == null) {
+              lowerBound = boundary.getLeft();
+            }
+            if (upperBound == null) {
+              upperBound = boundary.getRight();
+            }
+          }
           if (lowerBound == null) {
-            lowerBound = boundary.getLeft();
+            throw new IOException("lowerBound of " + partitionColumn + " cannot be null");
           }
           if (upperBound == null) {
-            upperBound = boundary.getRight();
+            throw new IOException("upperBound of " + partitionColumn + " cannot be null");
           }
+          IntervalSplitter intervalSplitter = IntervalSplitterFactory.newIntervalSpitter(typeInfo);
+          intervals = intervalSplitter.getIntervals(lowerBound, upperBound, numPartitions, typeInfo);
         }
-        if (lowerBound == null) {
-          throw new IOException("lowerBound of " + partitionColumn + " cannot be null");
-        }
-        if (upperBound == null) {
-          throw new IOException("upperBound of " + partitionColumn + " cannot be null");
-        }
-        IntervalSplitter intervalSplitter = IntervalSplitterFactory.newIntervalSpitter(typeInfo);
-        List<MutablePair<String, String>> intervals = intervalSplitter.getIntervals(lowerBound, upperBound, numPartitions,
-                typeInfo);
         if (intervals.size()<=1) {
           LOGGER.debug("Creating 1 input splits");
-          splits = new InputSplit[1];
-          splits[0] = new JdbcInputSplit(FileInputFormat.getInputPaths(job)[0]);
-          return splits;
+          dbAccessor = null;
+          return createSingleSplit(job);
         }
         intervals.get(0).setLeft(null);
         intervals.get(intervals.size()-1).setRight(null);
@@ -135,7 +157,9 @@ public InputSplit[] getSplits(JobConf job, int numSplits) throws IOException {
           splits[i] = new JdbcInputSplit(partitionColumn, intervals.get(i).getLeft(), intervals.get(i).getRight(), tablePaths[0]);
         }
       } else {
-        int numRecords = dbAccessor.getTotalNumberOfRecords(job);
+        if (numRecords < 0) {
+          numRecords = dbAccessor.getTotalNumberOfRecords(job);
+        }
 
         if (numRecords < numPartitions) {
           numPartitions = numRecords;
@@ -173,6 +197,56 @@ public InputSplit[] getSplits(JobConf job, int numSplits) throws IOException {
   }
 
 
+  private static InputSplit[] createSingleSplit(JobConf job) {
+    return new InputSplit[] { new JdbcInputSplit(FileInputFormat.getInputPaths(job)[0]) };
+  }
+
+  private static boolean isNumeric(PrimitiveTypeInfo typeInfo) {
+    switch (typeInfo.getPrimitiveCategory()) {
+      case BYTE:
+      case SHORT:
+      case INT:
+      case LONG:
+      case FLOAT:
+      case DOUBLE:
+      case DECIMAL:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Computes intervals holding roughly the same number of rows from the quantiles of the partition column, so that
+   * skewed values do not end up in a few large splits like with equal width intervals.
+   *
+   * @return the intervals, or null if the database cannot compute the quantiles
+   */
+  private List<MutablePair<String, String>> getBalancedIntervals(JobConf job, String partitionColumn,
+      int numPartitions) {
+    List<String> boundaries;
+    try {
+      boundaries = dbAccessor.getPartitionBoundaries(job, partitionColumn, numPartitions);
+    } catch (HiveJdbcDatabaseAccessException e) {
+      LOGGER.warn("Cannot compute balanced boundaries of " + partitionColumn + ", using equal width intervals", e);
+      return null;
+    }
+    // Buckets can start with the same value if it is very frequent, such buckets are merged
+    List<String> distinctBoundaries = new ArrayList<>(boundaries.size());
+    for (String boundary : boundaries) {
+      if (boundary != null && (distinctBoundaries.isEmpty()
+          || !boundary.equals(distinctBoundaries.get(distinctBoundaries.size() - 1)))) {
+        distinctBoundaries.add(boundary);
+      }
+    }
+    List<MutablePair<String, String>> intervals = new ArrayList<>(distinctBoundaries.size());
+    for (int i = 0; i < distinctBoundaries.size(); i++) {
+      intervals.add(new MutablePair<>(distinctBoundaries.get(i),
+          i + 1 < distinctBoundaries.size() ? distinctBoundaries.get(i + 1) : null));
+    }
+    return intervals;
+  }
+
   /**
    * For testing purposes only
    *
@@ -42,5 +42,13 @@ RecordWriter getRecordWriter(TaskAttemptContext context)
   Pair<String, String> getBounds(Configuration conf, String partitionColumn, boolean lower, boolean upper) throws
           HiveJdbcDatabaseAccessException;
 
+  /**
+   * Returns the smallest value of each of numPartitions equally populated buckets of the partition column, in
+   * ascending order. Used to split the query into ranges with a similar number of rows even if the values of the
+   * column are skewed.
+   */
+  List<String> getPartitionBoundaries(Configuration conf, String partitionColumn, int numPartitions) throws
+          HiveJdbcDatabaseAccessException;
+
   boolean needColumnQuote();
 }
@@ -57,6 +57,8 @@ public class GenericJdbcDatabaseAccessor implements DatabaseAccessor {
   protected static final int DEFAULT_FETCH_SIZE = 1000;
   protected static final Logger LOGGER = LoggerFactory.getLogger(GenericJdbcDatabaseAccessor.class);
   protected DataSource dbcpDataSource = null;
+  // Random column name to reduce the chance of conflict
+  static final String TILE_COLUMN_NAME = "dummy_tile_col_tl4719305";
   static final Pattern fromPattern = Pattern.compile("(.*?\\sfrom\\s)(.*+)", Pattern.CASE_INSENSITIVE|Pattern.DOTALL);
 
 
@@ -156,13 +158,21 @@ public int getTotalNumberOfRecords(Configuration conf) throws HiveJdbcDatabaseAc
       String sql = JdbcStorageConfigManager.getQueryToExecute(conf);
       String partitionQuery;
       if (partitionColumn != null) {
-        partitionQuery = addBoundaryToQuery(tableName, sql, partitionColumn, lowerBound, upperBound);
+        String outputColumn = getPushedQueryOutputColumn(conf, partitionColumn);
+        if (outputColumn != null) {
+          // The query pushed down by Hive may aggregate the table, so the ranges are applied to
+          // its output rather than to the table itself
+          partitionQuery = addBoundaryToQuery(null, sql, outputColumn, lowerBound, upperBound);
+        } else {
+          partitionQuery = addBoundaryToQuery(tableName, sql, partitionColumn, lowerBound, upperBound);
+        }
       } else {
         partitionQuery = addLimitAndOffsetToQuery(sql, limit, offset);
       }
       LOGGER.info("Query to execute is [{}]", partitionQuery);
 
       conn = dbcpDataSource.getConnection();
+      prepareConnectionForRead(conn);
       ps = conn.prepareStatement(partitionQuery, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
       ps.setFetchSize(getFetchSize(conf));
       rs = ps.executeQuery();
@@ -254,6 +264,23 @@ protected String addLimitToQuery(String sql, int limit) {
     return sql + " {LIMIT " + limit + "}";
   }
 
+  /*
+   * Returns the name of the partition column in the output of the query pushed down by Hive on
+   * a table given by name, or null if there is no such query or it does not output the column
+   */
+  private static String getPushedQueryOutputColumn(Configuration conf, String partitionColumn) {
+    String fieldNames = conf.get(Constants.JDBC_QUERY_FIELD_NAMES);
+    if (conf.get(Constants.JDBC_TABLE) == null || conf.get(Constants.JDBC_QUERY) == null || fieldNames == null) {
+      return null;
+    }
+    for (String fieldName : fieldNames.trim().split(",")) {
+      if (fieldName.equalsIgnoreCase(partitionColumn)) {
+        return fieldName;
+      }
+    }
+    return null;
+  }
+
   protected String addBoundaryToQuery(String tableName, String sql, String partitionColumn, String lowerBound,
           String upperBound) {
     String boundaryQuery;
@@ -391,6 +418,48 @@ protected int getFetchSize(Configuration conf) {
     return conf.getInt(JdbcStorageConfig.JDBC_FETCH_SIZE.getPropertyName(), DEFAULT_FETCH_SIZE);
   }
 
+  /**
+   * Hook to set up the connection before the query of a split is executed, e.g. so that the driver
+   * fetches the rows in batches of the fetch size instead of loading the whole result set into memory.
+   */
+  protected void prepareConnectionForRead(Connection conn) throws SQLException {
+  }
+
+  @Override
+  public List<String> getPartitionBoundaries(Configuration conf, String partitionColumn, int numPartitions) throws
+          HiveJdbcDatabaseAccessException {
+    Connection conn = null;
+    PreparedStatement ps = null;
+    ResultSet rs = null;
+
+    try {
+      initializeDatabaseConnection(conf);
+      String sql = JdbcStorageConfigManager.getOrigQueryToExecute(conf);
+      String column = quote() + partitionColumn + quote();
+      String boundaryQuery = "SELECT MIN(" + column + ") FROM (SELECT " + column + ", NTILE(" + numPartitions
+          + ") OVER (ORDER BY " + column + ") AS " + TILE_COLUMN_NAME + " FROM (" + sql + ") tmptable WHERE "
+          + column + " IS NOT NULL) tiles GROUP BY " + TILE_COLUMN_NAME + " ORDER BY " + TILE_COLUMN_NAME;
+
+      LOGGER.debug("Boundary query to execute is [{}]", boundaryQuery);
+
+      conn = dbcpDataSource.getConnection();
+      ps = conn.prepareStatement(boundaryQuery);
+      rs = ps.executeQuery();
+      List<String> boundaries = new ArrayList<>(numPartitions);
+      while (rs.next()) {
+        boundaries.add(rs.getString(1));
+      }
+      return boundaries;
+    }
+    catch (Exception e) {
+      LOGGER.error("Caught exception while trying to get the partition boundaries of " + partitionColumn, e);
+      throw new HiveJdbcDatabaseAccessException(e);
+    }
+    finally {
+      cleanupResources(conn, ps, rs);
+    }
+  }
+
   @Override
   public Pair<String, String> getBounds(Configuration conf, String partitionColumn, boolean retrieveMin, boolean
           retrieveMax) throws HiveJdbcDatabaseAccessException {
@@ -14,6 +14,9 @@
  */
 package org.apache.hive.storage.jdbc.dao;
 
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hive.storage.jdbc.conf.JdbcStorageConfig;
+
 /**
  * MySQL specific data accessor. This is needed because MySQL JDBC drivers do not support generic LIMIT and OFFSET
  * escape functions
@@ -44,6 +47,13 @@ protected String addLimitToQuery(String sql, int limit) {
     }
   }
 
+  @Override
+  protected int getFetchSize(Configuration conf) {
+    // Connector/J reads the whole result set into memory for any other fetch size unless cursor fetch is enabled in
+    // the connection url, hence stream the rows one by one by default
+    return conf.getInt(JdbcStorageConfig.JDBC_FETCH_SIZE.getPropertyName(), Integer.MIN_VALUE);
+  }
+
   @Override
   public boolean needColumnQuote() {
     return false;
@@ -17,6 +17,9 @@
  */
 package org.apache.hive.storage.jdbc.dao;
 
+import java.sql.Connection;
+import java.sql.SQLException;
+
 /**
  * Postgres specific data accessor. Postgres JDBC drivers do not support generic LIMIT and OFFSET
  * escape functions
@@ -35,6 +38,12 @@ protected String addLimitAndOffsetToQuery(String sql, int limit, int offset) {
     }
   }
 
+  @Override
+  protected void prepareConnectionForRead(Connection conn) throws SQLException {
+    // The driver only uses a cursor, and so honors the fetch size, outside of auto-commit mode
+    conn.setAutoCommit(false);
+  }
+
   @Override
   protected String addLimitToQuery(String sql, int limit) {
     if (limit == -1) {
@@ -41,6 +41,7 @@
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.when;
 
 @RunWith(PowerMockRunner.class)
@@ -280,4 +281,53 @@ public void testIntervalSplit_NoSplit() throws HiveJdbcDatabaseAccessException,
 
     assertNull(((JdbcInputSplit)splits[0]).getPartitionColumn());
   }
+
+  @Test
+  public void testLimitSplit_rowsPerPartition() throws HiveJdbcDatabaseAccessException, IOException {
+    PowerMockito.mockStatic(DatabaseAccessorFactory.class);
+    BDDMockito.given(DatabaseAccessorFactory.getAccessor(any(Configuration.class))).willReturn(mockDatabaseAccessor);
+    JdbcInputFormat f = new JdbcInputFormat();
+    when(mockDatabaseAccessor.getTotalNumberOfRecords(any(Configuration.class))).thenReturn(15);
+
+    JobConf conf = new JobConf();
+    conf.set("mapred.input.dir", "/temp");
+    conf.set("hive.sql.rowsPerPartition", "4");
+    InputSplit[] splits = f.getSplits(conf, -1);
+
+    assertThat(splits, is(notNullValue()));
+    assertThat(splits.length, is(4));
+
+    for (int i = 0; i < 3; i++) {
+      assertThat(splits[i].getLength(), is(4L));
+    }
+    assertThat(splits[3].getLength(), is(3L));
+  }
+
+  @Test
+  public void testIntervalSplit_Balanced() throws HiveJdbcDatabaseAccessException, IOException {
+    PowerMockito.mockStatic(DatabaseAccessorFactory.class);
+    BDDMockito.given(DatabaseAccessorFactory.getAccessor(any(Configuration.class))).willReturn(mockDatabaseAccessor);
+    JdbcInputFormat f = new JdbcInputFormat();
+    when(mockDatabaseAccessor.getColumnNames(any(Configuration.class))).thenReturn(Lists.newArrayList("a"));
+    when(mockDatabaseAccessor.getPartitionBoundaries(any(Configuration.class), any(), anyInt()))
+        .thenReturn(Lists.newArrayList("1", "2", "2", "100"));
+
+    JobConf conf = new JobConf();
+    conf.set("mapred.input.dir", "/temp");
+    conf.set(serdeConstants.LIST_COLUMN_TYPES, "int");
+    conf.set("hive.sql.partitionColumn", "a");
+    conf.set("hive.sql.numPartitions", "4");
+    conf.set("hive.sql.balancedPartitions", "true");
+    InputSplit[] splits = f.getSplits(conf, -1);
+
+    assertThat(splits, is(notNullValue()));
+    assertThat(splits.length, is(3));
+
+    assertNull(((JdbcInputSplit)splits[0]).getLowerBound());
+    assertEquals(((JdbcInputSplit)splits[0]).getUpperBound(), "2");
+    assertEquals(((JdbcInputSplit)splits[1]).getLowerBound(), "2");
+    assertEquals(((JdbcInputSplit)splits[1]).getUpperBound(), "100");
+    assertEquals(((JdbcInputSplit)splits[2]).getLowerBound(), "100");
+    assertNull(((JdbcInputSplit)splits[2]).getUpperBound());
+  }
 }
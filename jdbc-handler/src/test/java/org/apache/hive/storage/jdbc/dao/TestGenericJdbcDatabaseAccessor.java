@@ -15,11 +15,13 @@
 package org.apache.hive.storage.jdbc.dao;
 
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hive.conf.Constants;
 import org.apache.hadoop.hive.serde.serdeConstants;
 import org.apache.hive.storage.jdbc.conf.JdbcStorageConfig;
 import org.apache.hive.storage.jdbc.exception.HiveJdbcDatabaseAccessException;
 import org.junit.Test;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -179,6 +181,41 @@ public void testGetRecordIterator_largeOffset() throws HiveJdbcDatabaseAccessExc
   }
 
 
+  @Test
+  public void testGetRecordIterator_aggregateSplits() throws HiveJdbcDatabaseAccessException {
+    Configuration conf = buildConfiguration();
+    conf.set(Constants.JDBC_TABLE, "test_strategy");
+    conf.set(JdbcStorageConfig.QUERY.getPropertyName(),
+        "select priority as \"priority\", count(*) as \"cnt\" from test_strategy group by priority");
+    conf.set(Constants.JDBC_QUERY_FIELD_NAMES, "priority,cnt");
+    conf.set(Constants.JDBC_QUERY_FIELD_TYPES, "int,bigint");
+    DatabaseAccessor accessor = DatabaseAccessorFactory.getAccessor(conf);
+
+    Map<Integer, Long> counts = new HashMap<>();
+    JdbcRecordIterator iterator = accessor.getRecordIterator(conf, "priority", null, "990", 0, 0);
+    while (iterator.hasNext()) {
+      Map<String, Object> record = iterator.next();
+      counts.put((Integer) record.get("priority"), (Long) record.get("cnt"));
+    }
+    iterator.close();
+    assertThat(counts.size(), is(equalTo(2)));
+    assertThat(counts.get(980), is(equalTo(1L)));
+    assertThat(counts.get(null), is(equalTo(1L)));
+
+    counts.clear();
+    iterator = accessor.getRecordIterator(conf, "priority", "990", null, 0, 0);
+    while (iterator.hasNext()) {
+      Map<String, Object> record = iterator.next();
+      counts.put((Integer) record.get("priority"), (Long) record.get("cnt"));
+    }
+    iterator.close();
+    // The groups of the pushed query are kept within each split
+    assertThat(counts.size(), is(equalTo(2)));
+    assertThat(counts.get(990), is(equalTo(1L)));
+    assertThat(counts.get(1000), is(equalTo(2L)));
+  }
+
+
   @Test(expected = HiveJdbcDatabaseAccessException.class)
   public void testGetRecordIterator_invalidQuery() throws HiveJdbcDatabaseAccessException {
     Configuration conf = buildConfiguration();
@@ -0,0 +1,384 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.hive.kafka;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.util.Utf8;
+import org.apache.hadoop.hive.ql.exec.vector.BytesColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.ColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.DoubleColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.LongColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
+import org.apache.hadoop.hive.serde2.AbstractSerDe;
+import org.apache.hadoop.hive.serde2.JsonSerDe;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.PrimitiveObjectInspector.PrimitiveCategory;
+import org.apache.hadoop.hive.serde2.typeinfo.PrimitiveTypeInfo;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfo;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.regex.Pattern;
+
+/**
+ * Decodes the payload of Kafka records straight into the column vectors of a batch, skipping the delegate SerDe and
+ * the row of writables it builds for every record.
+ * Only flat payloads read into primitive columns are handled, JSON documents read by {@link JsonSerDe} and Avro
+ * records read by {@link org.apache.hadoop.hive.serde2.avro.AvroSerDe}.
+ *
+ * <p>
+ * A record that does not have the expected shape, e.g. a JSON string where a number is expected, is rejected and has
+ * to go through the delegate SerDe instead, thus both paths always produce the same values.
+ */
+abstract class KafkaColumnarDecoder {
+
+  /**
+   * Batch column index of each decoded column.
+   */
+  final int[] columns;
+
+  /**
+   * Type of each decoded column.
+   */
+  final PrimitiveCategory[] categories;
+
+  private KafkaColumnarDecoder(int[] columns, PrimitiveCategory[] categories) {
+    this.columns = columns;
+    this.categories = categories;
+  }
+
+  /**
+   * Decodes the payload of one record into a row of the batch.
+   *
+   * @param value    record payload.
+   * @param batch    batch to fill.
+   * @param rowIndex row of the batch to fill.
+   *
+   * @return true if the record has been decoded, false if it has to be decoded by the delegate SerDe, in which case
+   * the decoded columns of the row are left in an undefined state.
+   */
+  abstract boolean decode(byte[] value, VectorizedRowBatch batch, int rowIndex);
+
+  /**
+   * Builds a decoder for the given payload columns.
+   *
+   * @param serDe           initialized Kafka SerDe.
+   * @param tableProperties table properties.
+   * @param columnNames     names of the row columns.
+   * @param columnTypes     types of the row columns.
+   * @param payloadColumns  projected columns coming from the payload.
+   *
+   * @return decoder or null if the payload format or one of the column types is not supported.
+   */
+  @Nullable static KafkaColumnarDecoder create(KafkaSerDe serDe,
+      Properties tableProperties,
+      String[] columnNames,
+      TypeInfo[] columnTypes,
+      int[] payloadColumns) {
+    final PrimitiveCategory[] categories = new PrimitiveCategory[payloadColumns.length];
+    for (int i = 0; i < payloadColumns.length; i++) {
+      TypeInfo typeInfo = columnTypes[payloadColumns[i]];
+      if (typeInfo.getCategory() != ObjectInspector.Category.PRIMITIVE) {
+        return null;
+      }
+      categories[i] = ((PrimitiveTypeInfo) typeInfo).getPrimitiveCategory();
+      switch (categories[i]) {
+      case BOOLEAN:
+      case BYTE:
+      case SHORT:
+      case INT:
+      case LONG:
+      case FLOAT:
+      case DOUBLE:
+      case STRING:
+        break;
+      default:
+        return null;
+      }
+    }
+
+    final AbstractSerDe delegate = serDe.getDelegateSerDe();
+    if (delegate.getClass() == JsonSerDe.class) {
+      // documents with fields that are not table columns are rejected by the SerDe unless told otherwise
+      if (!Boolean.parseBoolean(tableProperties.getProperty(JsonSerDe.IGNORE_EXTRA, "true"))) {
+        return null;
+      }
+      final String[] names = new String[payloadColumns.length];
+      for (int i = 0; i < payloadColumns.length; i++) {
+        names[i] = columnNames[payloadColumns[i]].toLowerCase();
+      }
+      return new JsonDecoder(payloadColumns, categories, names);
+    }
+
+    final KafkaSerDe.AvroBytesConverter avroBytesConverter = serDe.getAvroBytesConverter();
+    if (avroBytesConverter != null) {
+      final Schema schema = avroBytesConverter.getSchema();
+      final int[] fieldPositions = new int[payloadColumns.length];
+      for (int i = 0; i < payloadColumns.length; i++) {
+        final String columnName = columnNames[payloadColumns[i]];
+        final Schema.Field field = schema.getFields()
+            .stream()
+            .filter(f -> f.name().equalsIgnoreCase(columnName))
+            .findFirst()
+            .orElse(null);
+        if (field == null) {
+          return null;
+        }
+        fieldPositions[i] = field.pos();
+      }
+      return new AvroDecoder(payloadColumns, categories, avroBytesConverter, fieldPositions);
+    }
+    return null;
+  }
+
+  static void setNull(ColumnVector columnVector, int rowIndex) {
+    columnVector.isNull[rowIndex] = true;
+    columnVector.noNulls = false;
+  }
+
+  static void setLong(ColumnVector columnVector, int rowIndex, long value) {
+    ((LongColumnVector) columnVector).vector[rowIndex] = value;
+    columnVector.isNull[rowIndex] = false;
+  }
+
+  static void setDouble(ColumnVector columnVector, int rowIndex, double value) {
+    ((DoubleColumnVector) columnVector).vector[rowIndex] = value;
+    columnVector.isNull[rowIndex] = false;
+  }
+
+  static void setBytes(ColumnVector columnVector, int rowIndex, byte[] value, int length) {
+    ((BytesColumnVector) columnVector).setVal(rowIndex, value, 0, length);
+    columnVector.isNull[rowIndex] = false;
+  }
+
+  /**
+   * Streams over the top level fields of a JSON document and only materializes the values of the projected columns.
+   */
+  private static final class JsonDecoder extends KafkaColumnarDecoder {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    /**
+     * Internal column names are resolved by position by the SerDe.
+     */
+    private static final Pattern INTERNAL_COLUMN_NAME = Pattern.compile("^_col([0-9]+)$");
+
+    private final Map<String, Integer> columnIndexByName = new HashMap<>();
+    private final boolean[] decoded;
+
+    private JsonDecoder(int[] columns, PrimitiveCategory[] categories, String[] names) {
+      super(columns, categories);
+      for (int i = 0; i < names.length; i++) {
+        columnIndexByName.put(names[i], i);
+      }
+      decoded = new boolean[columns.length];
+    }
+
+    @Override boolean decode(byte[] value, VectorizedRowBatch batch, int rowIndex) {
+      Arrays.fill(decoded, false);
+      try (JsonParser parser = JSON_FACTORY.createParser(value)) {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+          return false;
+        }
+        JsonToken token;
+        while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+          final String fieldName = parser.getCurrentName();
+          Integer index = columnIndexByName.get(fieldName);
+          if (index == null) {
+            index = columnIndexByName.get(fieldName.toLowerCase());
+          }
+          parser.nextToken();
+          if (index == null) {
+            if (INTERNAL_COLUMN_NAME.matcher(fieldName).matches()) {
+              return false;
+            }
+            parser.skipChildren();
+            continue;
+          }
+          if (!decodeValue(parser, batch.cols[columns[index]], categories[index], rowIndex)) {
+            return false;
+          }
+          decoded[index] = true;
+        }
+        if (token != JsonToken.END_OBJECT) {
+          return false;
+        }
+      } catch (IOException e) {
+        return false;
+      }
+      for (int i = 0; i < decoded.length; i++) {
+        if (!decoded[i]) {
+          setNull(batch.cols[columns[i]], rowIndex);
+        }
+      }
+      return true;
+    }
+
+    private static boolean decodeValue(JsonParser parser,
+        ColumnVector columnVector,
+        PrimitiveCategory category,
+        int rowIndex) throws IOException {
+      final JsonToken token = parser.getCurrentToken();
+      if (token == JsonToken.VALUE_NULL) {
+        setNull(columnVector, rowIndex);
+        return true;
+      }
+      switch (category) {
+      case BOOLEAN:
+        if (token != JsonToken.VALUE_TRUE && token != JsonToken.VALUE_FALSE) {
+          return false;
+        }
+        setLong(columnVector, rowIndex, token == JsonToken.VALUE_TRUE ? 1 : 0);
+        return true;
+      case BYTE:
+        if (token != JsonToken.VALUE_NUMBER_INT || parser.getNumberType() != JsonParser.NumberType.INT) {
+          return false;
+        }
+        setLong(columnVector, rowIndex, (byte) parser.getIntValue());
+        return true;
+      case SHORT:
+        if (token != JsonToken.VALUE_NUMBER_INT || parser.getNumberType() != JsonParser.NumberType.INT) {
+          return false;
+        }
+        setLong(columnVector, rowIndex, (short) parser.getIntValue());
+        return true;
+      case INT:
+        if (token != JsonToken.VALUE_NUMBER_INT || parser.getNumberType() != JsonParser.NumberType.INT) {
+          return false;
+        }
+        setLong(columnVector, rowIndex, parser.getIntValue());
+        return true;
+      case LONG:
+        if (token != JsonToken.VALUE_NUMBER_INT || parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER) {
+          return false;
+        }
+        setLong(columnVector, rowIndex, parser.getLongValue());
+        return true;
+      case FLOAT:
+        if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT) {
+          return false;
+        }
+        setDouble(columnVector, rowIndex, (float) parser.getDoubleValue());
+        return true;
+      case DOUBLE:
+        if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT) {
+          return false;
+        }
+        setDouble(columnVector, rowIndex, parser.getDoubleValue());
+        return true;
+      case STRING:
+        if (token != JsonToken.VALUE_STRING) {
+          return false;
+        }
+        final byte[] bytes = parser.getText().getBytes(StandardCharsets.UTF_8);
+        setBytes(columnVector, rowIndex, bytes, bytes.length);
+        return true;
+      default:
+        return false;
+      }
+    }
+  }
+
+  /**
+   * Reads the projected fields of the decoded Avro record by position, without converting the whole record.
+   */
+  private static final class AvroDecoder extends KafkaColumnarDecoder {
+    private final KafkaSerDe.AvroBytesConverter avroBytesConverter;
+    private final int[] fieldPositions;
+
+    private AvroDecoder(int[] columns,
+        PrimitiveCategory[] categories,
+        KafkaSerDe.AvroBytesConverter avroBytesConverter,
+        int[] fieldPositions) {
+      super(columns, categories);
+      this.avroBytesConverter = avroBytesConverter;
+      this.fieldPositions = fieldPositions;
+    }
+
+    @Override boolean decode(byte[] value, VectorizedRowBatch batch, int rowIndex) {
+      final GenericRecord record;
+      try {
+        record = avroBytesConverter.getWritable(value).getRecord();
+      } catch (RuntimeException e) {
+        return false;
+      }
+      for (int i = 0; i < columns.length; i++) {
+        final ColumnVector columnVector = batch.cols[columns[i]];
+        final Object datum = record.get(fieldPositions[i]);
+        if (datum == null) {
+          setNull(columnVector, rowIndex);
+          continue;
+        }
+        switch (categories[i]) {
+        case BOOLEAN:
+          if (!(datum instanceof Boolean)) {
+            return false;
+          }
+          setLong(columnVector, rowIndex, (Boolean) datum ? 1 : 0);
+          break;
+        case INT:
+          if (!(datum instanceof Integer)) {
+            return false;
+          }
+          setLong(columnVector, rowIndex, (Integer) datum);
+          break;
+        case LONG:
+          if (!(datum instanceof Long)) {
+            return false;
+          }
+          setLong(columnVector, rowIndex, (Long) datum);
+          break;
+        case FLOAT:
+          if (!(datum instanceof Float)) {
+            return false;
+          }
+          setDouble(columnVector, rowIndex, (Float) datum);
+          break;
+        case DOUBLE:
+          if (!(datum instanceof Double)) {
+            return false;
+          }
+          setDouble(columnVector, rowIndex, (Double) datum);
+          break;
+        case STRING:
+          if (datum instanceof Utf8) {
+            setBytes(columnVector, rowIndex, ((Utf8) datum).getBytes(), ((Utf8) datum).getByteLength());
+          } else if (datum instanceof String) {
+            final byte[] bytes = ((String) datum).getBytes(StandardCharsets.UTF_8);
+            setBytes(columnVector, rowIndex, bytes, bytes.length);
+          } else {
+            return false;
+          }
+          break;
+        default:
+          // Avro has no byte or short types, leave the conversion to the SerDe
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
@@ -18,6 +18,7 @@
 
 package org.apache.hadoop.hive.kafka;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableMap;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
@@ -119,6 +120,34 @@ private static List<KafkaInputSplit> buildFullScanFromKafka(String topic,
 
   private List<KafkaInputSplit> computeSplits(Configuration configuration)
       throws IOException, InterruptedException {
+    return sliceSplits(computeTopicPartitionSplits(configuration),
+        configuration.getLong(KafkaTableProperties.MAX_RECORDS_PER_SPLIT.getName(), -1));
+  }
+
+  /**
+   * Slices the offset range of every split into sub ranges of at most maxRecordsPerSplit records, so that a large
+   * topic partition is consumed by several tasks in parallel.
+   *
+   * @param splits             one split per topic partition
+   * @param maxRecordsPerSplit maximum number of records per split, non positive to keep the splits as they are
+   *
+   * @return sliced splits
+   */
+  @VisibleForTesting static List<KafkaInputSplit> sliceSplits(List<KafkaInputSplit> splits, long maxRecordsPerSplit) {
+    if (maxRecordsPerSplit <= 0) {
+      return splits;
+    }
+    // a slice holds sliceSize + 1 records
+    final List<KafkaInputSplit> slices = splits.stream()
+        .flatMap(split -> KafkaInputSplit.slice(maxRecordsPerSplit - 1, split).stream())
+        .collect(Collectors.toList());
+    LOG.info("Sliced [{}] splits into [{}] splits of at most [{}] records", splits.size(), slices.size(),
+        maxRecordsPerSplit);
+    return slices;
+  }
+
+  private List<KafkaInputSplit> computeTopicPartitionSplits(Configuration configuration)
+      throws IOException, InterruptedException {
     // ExecutorService is used to harness some KAFKA blocking calls and interrupt after some duration
     final ExecutorService execService = Executors.newSingleThreadExecutor();
 
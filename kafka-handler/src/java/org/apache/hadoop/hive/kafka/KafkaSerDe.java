@@ -47,6 +47,7 @@
 import org.apache.hadoop.io.Text;
 import org.apache.hadoop.io.Writable;
 
+import javax.annotation.Nullable;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.CharacterCodingException;
@@ -86,6 +87,10 @@
    */
   private ObjectInspector objectInspector;
   private final List<String> columnNames = new ArrayList<>();
+  /**
+   * Delegate struct fields of the payload columns, resolved once to avoid looking them up by name for every row.
+   */
+  private final List<StructField> delegateFields = new ArrayList<>();
   private BytesConverter bytesConverter;
   private int metadataStartIndex;
 
@@ -122,6 +127,9 @@ public void initialize(Configuration configuration, Properties tableProperties,
     inspectors.addAll(MetadataColumn.KAFKA_METADATA_INSPECTORS);
     objectInspector = ObjectInspectorFactory.getStandardStructObjectInspector(columnNames, inspectors);
     metadataStartIndex = columnNames.size() - MetadataColumn.values().length;
+    for (int i = 0; i < metadataStartIndex; i++) {
+      delegateFields.add(delegateDeserializerOI.getStructFieldRef(columnNames.get(i)));
+    }
     // Setup Read and Write Path From/To Kafka
     if (delegateSerDe.getSerializedClass() == Text.class) {
       bytesConverter = new TextBytesConverter();
@@ -244,8 +252,7 @@ void deserializeKWritable(KafkaWritable kafkaWritable, Object[] rowBoat) throws
     final Object row = delegateSerDe.deserialize(bytesConverter.getWritable(kafkaWritable.getValue()));
     //first add the value payload elements
     for (int i = 0; i < metadataStartIndex; i++) {
-      rowBoat[i] =
-          delegateDeserializerOI.getStructFieldData(row, delegateDeserializerOI.getStructFieldRef(columnNames.get(i)));
+      rowBoat[i] = delegateDeserializerOI.getStructFieldData(row, delegateFields.get(i));
     }
     //add the metadata columns
     for (int i = metadataStartIndex; i < columnNames.size(); i++) {
@@ -258,6 +265,24 @@ void deserializeKWritable(KafkaWritable kafkaWritable, Object[] rowBoat) throws
     return objectInspector;
   }
 
+  /**
+   * @return index of the first metadata column, all the columns before it come from the record payload.
+   */
+  int getMetadataStartIndex() {
+    return metadataStartIndex;
+  }
+
+  AbstractSerDe getDelegateSerDe() {
+    return delegateSerDe;
+  }
+
+  /**
+   * @return the converter decoding the Avro payload or null if the delegate is not an Avro SerDe.
+   */
+  @Nullable AvroBytesConverter getAvroBytesConverter() {
+    return bytesConverter instanceof AvroBytesConverter ? (AvroBytesConverter) bytesConverter : null;
+  }
+
   /**
    * Returns a view of input object inspector list between:
    * <tt>0</tt> inclusive and the specified <tt>toIndex</tt>, exclusive.
@@ -370,6 +395,10 @@ static class AvroBytesConverter implements BytesConverter<AvroGenericRecordWrita
       dataReader = new SpecificDatumReader<>(this.schema);
     }
 
+    Schema getSchema() {
+      return schema;
+    }
+
     @Override public byte[] getBytes(AvroGenericRecordWritable writable) {
       GenericRecord record = writable.getRecord();
       byte[] valueBytes = null;
@@ -44,6 +44,17 @@ enum KafkaTableProperties {
 
   MAX_RETRIES("hive.kafka.max.retries", "6"), KAFKA_FETCH_METADATA_TIMEOUT("hive.kafka.metadata.poll.timeout.ms",
       "30000"),
+  /**
+   * Table property indicating the maximum number of records read by a single split. Topic partitions holding more
+   * records within the scanned offsets are read by several tasks, each one consuming a sub range of the offsets.
+   * Non positive value means one split per topic partition.
+   */
+  MAX_RECORDS_PER_SPLIT("hive.kafka.max.records.per.split", "-1"),
+  /**
+   * Table property indicating if the vectorized reader decodes the metadata columns and flat JSON or Avro payloads
+   * directly into column vectors, instead of deserializing every record as a row first.
+   */
+  VECTORIZED_COLUMNAR_DECODE("hive.kafka.vectorized.columnar.decode", "true"),
   /**
    * Table property indicating the write semantic possible enum values are:
    * {@link KafkaOutputFormat.WriteSemantic}.
@@ -21,6 +21,7 @@
 import com.google.common.base.Preconditions;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.hive.ql.exec.Utilities;
+import org.apache.hadoop.hive.ql.exec.vector.ColumnVector;
 import org.apache.hadoop.hive.ql.exec.vector.VectorAssignRow;
 import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
 import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatchCtx;
@@ -36,7 +37,9 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.Properties;
 
@@ -57,6 +60,22 @@ class VectorizedKafkaRecordReader implements RecordReader<NullWritable, Vectoriz
    */
   private final int[] projectedColumns;
 
+  /**
+   * projected columns decoded from the record payload.
+   */
+  private final int[] payloadColumns;
+
+  /**
+   * projected metadata columns, filled straight from the consumer record.
+   */
+  private final int[] metadataColumns;
+  private final MetadataColumn[] metadataColumnKinds;
+
+  /**
+   * decoder filling the payload columns without the row deserializer, null if the payload format is not supported.
+   */
+  @Nullable private final KafkaColumnarDecoder columnarDecoder;
+
   /**
    * underlying row deserializer.
    */
@@ -81,13 +100,35 @@ class VectorizedKafkaRecordReader implements RecordReader<NullWritable, Vectoriz
     }
 
     // row parser and row assigner initializing
-    serDe = createAndInitializeSerde(jobConf);
+    final Properties tableProperties = getTableProperties(jobConf);
+    serDe = createAndInitializeSerde(jobConf, tableProperties);
     try {
       vectorAssignRow.init((StructObjectInspector) serDe.getObjectInspector());
     } catch (HiveException e) {
       throw new RuntimeException(e);
     }
 
+    // columnar decoding initializing
+    final int metadataStartIndex = serDe.getMetadataStartIndex();
+    payloadColumns = Arrays.stream(projectedColumns).filter(i -> i < metadataStartIndex).toArray();
+    metadataColumns = Arrays.stream(projectedColumns).filter(i -> i >= metadataStartIndex).toArray();
+    metadataColumnKinds = new MetadataColumn[metadataColumns.length];
+    for (int i = 0; i < metadataColumns.length; i++) {
+      metadataColumnKinds[i] =
+          Preconditions.checkNotNull(MetadataColumn.forName(rbCtx.getRowColumnNames()[metadataColumns[i]]));
+    }
+    if (payloadColumns.length > 0
+        && jobConf.getBoolean(KafkaTableProperties.VECTORIZED_COLUMNAR_DECODE.getName(), true)) {
+      columnarDecoder = KafkaColumnarDecoder.create(serDe,
+          tableProperties,
+          rbCtx.getRowColumnNames(),
+          rbCtx.getRowColumnTypeInfos(),
+          payloadColumns);
+    } else {
+      columnarDecoder = null;
+    }
+    LOG.debug("Columnar decoding of the payload [{}]", columnarDecoder != null);
+
     // Kafka iterator initializing
     long startOffset = inputSplit.getStartOffset();
     long endOffset = inputSplit.getEndOffset();
@@ -159,14 +200,19 @@ private int readNextBatch(VectorizedRowBatch vectorizedRowBatch,
     int rowsCount = 0;
     while (recordIterator.hasNext() && rowsCount < vectorizedRowBatch.getMaxSize()) {
       ConsumerRecord<byte[], byte[]> kRecord = recordIterator.next();
-      kafkaWritable.set(kRecord);
       readBytes += kRecord.serializedKeySize() + kRecord.serializedValueSize();
-      if (projectedColumns.length > 0) {
+      // the payload is only deserialized if some of its columns are needed
+      if (payloadColumns.length > 0 && (columnarDecoder == null || kRecord.value() == null
+          || !columnarDecoder.decode(kRecord.value(), vectorizedRowBatch, rowsCount))) {
+        kafkaWritable.set(kRecord);
         serDe.deserializeKWritable(kafkaWritable, row);
-        for (int i : projectedColumns) {
+        for (int i : payloadColumns) {
           vectorAssignRow.assignRowColumn(vectorizedRowBatch, rowsCount, i, row[i]);
         }
       }
+      for (int i = 0; i < metadataColumns.length; i++) {
+        assignMetadataColumn(vectorizedRowBatch.cols[metadataColumns[i]], rowsCount, metadataColumnKinds[i], kRecord);
+      }
       rowsCount++;
     }
     vectorizedRowBatch.size = rowsCount;
@@ -175,16 +221,44 @@ private int readNextBatch(VectorizedRowBatch vectorizedRowBatch,
     return rowsCount;
   }
 
-  @SuppressWarnings("Duplicates") private static KafkaSerDe createAndInitializeSerde(Configuration jobConf) {
-    KafkaSerDe serDe = new KafkaSerDe();
+  private static void assignMetadataColumn(ColumnVector columnVector,
+      int rowIndex,
+      MetadataColumn metadataColumn,
+      ConsumerRecord<byte[], byte[]> kRecord) {
+    switch (metadataColumn) {
+    case KEY:
+      if (kRecord.key() == null) {
+        KafkaColumnarDecoder.setNull(columnVector, rowIndex);
+      } else {
+        KafkaColumnarDecoder.setBytes(columnVector, rowIndex, kRecord.key(), kRecord.key().length);
+      }
+      break;
+    case PARTITION:
+      KafkaColumnarDecoder.setLong(columnVector, rowIndex, kRecord.partition());
+      break;
+    case OFFSET:
+      KafkaColumnarDecoder.setLong(columnVector, rowIndex, kRecord.offset());
+      break;
+    case TIMESTAMP:
+      KafkaColumnarDecoder.setLong(columnVector, rowIndex, kRecord.timestamp());
+      break;
+    default:
+      throw new IllegalArgumentException("Unknown metadata column [" + metadataColumn.getName() + "]");
+    }
+  }
+
+  private static Properties getTableProperties(Configuration jobConf) {
     MapWork mapWork = Preconditions.checkNotNull(Utilities.getMapWork(jobConf), "Map work is null");
-    Properties
-        properties =
-        mapWork.getPartitionDescs()
-            .stream()
-            .map(partitionDesc -> partitionDesc.getTableDesc().getProperties())
-            .findAny()
-            .orElseThrow(() -> new RuntimeException("Can not find table property at the map work"));
+    return mapWork.getPartitionDescs()
+        .stream()
+        .map(partitionDesc -> partitionDesc.getTableDesc().getProperties())
+        .findAny()
+        .orElseThrow(() -> new RuntimeException("Can not find table property at the map work"));
+  }
+
+  @SuppressWarnings("Duplicates") private static KafkaSerDe createAndInitializeSerde(Configuration jobConf,
+      Properties properties) {
+    KafkaSerDe serDe = new KafkaSerDe();
     try {
       serDe.initialize(jobConf, properties, null);
     } catch (SerDeException e) {
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.hive.kafka;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hive.ql.exec.vector.BytesColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.DoubleColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.LongColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
+import org.apache.hadoop.hive.serde.serdeConstants;
+import org.apache.hadoop.hive.serde2.SerDeException;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfo;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoFactory;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+
+/**
+ * Test class for the columnar decoding of Json payloads.
+ */
+public class KafkaColumnarDecoderTest {
+  private static final String[] COLUMN_NAMES = {"a", "b", "c"};
+  private static final TypeInfo[] COLUMN_TYPES =
+      {TypeInfoFactory.intTypeInfo, TypeInfoFactory.stringTypeInfo, TypeInfoFactory.doubleTypeInfo};
+
+  private KafkaColumnarDecoder decoder;
+  private VectorizedRowBatch batch;
+
+  @Before public void setUp() throws SerDeException {
+    Properties properties = new Properties();
+    properties.setProperty(serdeConstants.LIST_COLUMNS, String.join(",", COLUMN_NAMES));
+    properties.setProperty(serdeConstants.LIST_COLUMN_TYPES, "int,string,double");
+    KafkaSerDe serDe = new KafkaSerDe();
+    serDe.initialize(new Configuration(), properties, null);
+    decoder = KafkaColumnarDecoder.create(serDe, properties, COLUMN_NAMES, COLUMN_TYPES, new int[] {0, 1, 2});
+    batch = new VectorizedRowBatch(3);
+    batch.cols[0] = new LongColumnVector();
+    batch.cols[1] = new BytesColumnVector();
+    batch.cols[2] = new DoubleColumnVector();
+    batch.reset();
+  }
+
+  @Test public void testDecodeJson() {
+    Assert.assertNotNull(decoder);
+    // field names are case insensitive and unknown fields are skipped
+    Assert.assertTrue(decoder.decode(bytes("{\"A\":7,\"extra\":{\"n\":[1,2]},\"b\":\"x\",\"c\":2.5}"),
+        batch,
+        0));
+    Assert.assertEquals(7L, ((LongColumnVector) batch.cols[0]).vector[0]);
+    Assert.assertEquals("x", ((BytesColumnVector) batch.cols[1]).toString(0));
+    Assert.assertEquals(2.5d, ((DoubleColumnVector) batch.cols[2]).vector[0], 0d);
+    Assert.assertTrue(batch.cols[0].noNulls);
+
+    // missing and null fields are null
+    Assert.assertTrue(decoder.decode(bytes("{\"b\":null}"), batch, 1));
+    for (int i = 0; i < COLUMN_NAMES.length; i++) {
+      Assert.assertTrue(batch.cols[i].isNull[1]);
+    }
+  }
+
+  @Test public void testRejectUnexpectedShape() {
+    // conversions are left to the SerDe
+    Assert.assertFalse(decoder.decode(bytes("{\"a\":\"7\"}"), batch, 0));
+    Assert.assertFalse(decoder.decode(bytes("{\"a\":7.5}"), batch, 0));
+    Assert.assertFalse(decoder.decode(bytes("{\"b\":{}}"), batch, 0));
+    Assert.assertFalse(decoder.decode(bytes("[1,2]"), batch, 0));
+    Assert.assertFalse(decoder.decode(bytes("{\"a\":"), batch, 0));
+  }
+
+  private static byte[] bytes(String json) {
+    return json.getBytes(StandardCharsets.UTF_8);
+  }
+}
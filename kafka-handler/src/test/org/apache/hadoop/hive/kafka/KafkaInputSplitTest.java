@@ -25,6 +25,7 @@
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -123,4 +124,15 @@ public KafkaInputSplitTest() {
             .count());
 
   }
+
+  @Test public void testSliceSplits() {
+    List<KafkaInputSplit> splits = Arrays.asList(new KafkaInputSplit("test-topic", 0, 0, 250, new Path("/tmp")),
+        new KafkaInputSplit("test-topic", 1, 100, 150, new Path("/tmp")));
+    List<KafkaInputSplit> slices = KafkaInputFormat.sliceSplits(splits, 100);
+    Assert.assertEquals(Arrays.asList(new KafkaInputSplit("test-topic", 0, 0, 100, new Path("/tmp")),
+        new KafkaInputSplit("test-topic", 0, 100, 200, new Path("/tmp")),
+        new KafkaInputSplit("test-topic", 0, 200, 250, new Path("/tmp")),
+        new KafkaInputSplit("test-topic", 1, 100, 150, new Path("/tmp"))), slices);
+    Assert.assertSame(splits, KafkaInputFormat.sliceSplits(splits, -1));
+  }
 }
@@ -0,0 +1,82 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.apache.hadoop.hive.llap.registry;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.Collection;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.hive.common.util.BloomKFilter;
+
+/**
+ * Compact summary of the files cached by a daemon, published as a registry attribute. It is a
+ * bloom filter of the file paths, so it may report a file which is not cached, but never misses
+ * one which was cached when the summary was built.
+ */
+public final class LlapCacheSummary {
+
+  private final BloomKFilter filter;
+
+  private LlapCacheSummary(BloomKFilter filter) {
+    this.filter = filter;
+  }
+
+  public static LlapCacheSummary create(Collection<String> paths) {
+    return create(paths, BloomKFilter.DEFAULT_FPP);
+  }
+
+  /**
+   * @param fpp the probability of reporting a file which is not cached
+   */
+  public static LlapCacheSummary create(Collection<String> paths, double fpp) {
+    BloomKFilter filter = new BloomKFilter(Math.max(paths.size(), 1), fpp);
+    for (String path : paths) {
+      filter.addString(normalize(path));
+    }
+    return new LlapCacheSummary(filter);
+  }
+
+  /**
+   * @return the summary encoded by {@link #serialize()}, or null if it cannot be decoded
+   */
+  public static LlapCacheSummary deserialize(String encoded) {
+    if (encoded == null || encoded.isEmpty()) {
+      return null;
+    }
+    try {
+      byte[] bytes = Base64.getDecoder().decode(encoded);
+      return new LlapCacheSummary(BloomKFilter.deserialize(new ByteArrayInputStream(bytes)));
+    } catch (IOException | IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  public String serialize() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BloomKFilter.serialize(out, filter);
+    return Base64.getEncoder().encodeToString(out.toByteArray());
+  }
+
+  public boolean mightContain(String path) {
+    return filter.testString(normalize(path));
+  }
+
+  // The cache records the path it was asked to read, which may or may not be qualified
+  private static String normalize(String path) {
+    return new Path(path).toUri().getPath();
+  }
+}
@@ -45,6 +45,8 @@ public class LlapRegistryService extends AbstractService {
       "hive.llap.daemon.task.scheduler.enabled.wait.queue.size";
   public static final String LLAP_DAEMON_NUM_ENABLED_EXECUTORS =
       "hive.llap.daemon.num.enabled.executors";
+  public static final String LLAP_DAEMON_CACHE_SUMMARY =
+      "hive.llap.daemon.cache.summary";
 
   private static final Logger LOG = LoggerFactory.getLogger(LlapRegistryService.class);
 
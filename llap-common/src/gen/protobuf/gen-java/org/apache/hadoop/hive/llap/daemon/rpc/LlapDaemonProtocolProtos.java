@@ -7123,6 +7123,24 @@ public Builder clearVertexBinary() {
      * <code>optional int64 current_attempt_start_time = 6;</code>
      */
     long getCurrentAttemptStartTime();
+
+    // optional int64 memory_estimate_bytes = 7;
+    /**
+     * <code>optional int64 memory_estimate_bytes = 7;</code>
+     *
+     * <pre>
+     * Estimated memory needed by the fragment, e.g. for map join hash tables. 0 if unknown.
+     * </pre>
+     */
+    boolean hasMemoryEstimateBytes();
+    /**
+     * <code>optional int64 memory_estimate_bytes = 7;</code>
+     *
+     * <pre>
+     * Estimated memory needed by the fragment, e.g. for map join hash tables. 0 if unknown.
+     * </pre>
+     */
+    long getMemoryEstimateBytes();
   }
   /**
    * Protobuf type {@code FragmentRuntimeInfo}
@@ -7205,6 +7223,11 @@ private FragmentRuntimeInfo(
               currentAttemptStartTime_ = input.readInt64();
               break;
             }
+            case 56: {
+              bitField0_ |= 0x00000040;
+              memoryEstimateBytes_ = input.readInt64();
+              break;
+            }
           }
         }
       } catch (com.google.protobuf.InvalidProtocolBufferException e) {
@@ -7341,6 +7364,30 @@ public long getCurrentAttemptStartTime() {
       return currentAttemptStartTime_;
     }
 
+    // optional int64 memory_estimate_bytes = 7;
+    public static final int MEMORY_ESTIMATE_BYTES_FIELD_NUMBER = 7;
+    private long memoryEstimateBytes_;
+    /**
+     * <code>optional int64 memory_estimate_bytes = 7;</code>
+     *
+     * <pre>
+     * Estimated memory needed by the fragment, e.g. for map join hash tables. 0 if unknown.
+     * </pre>
+     */
+    public boolean hasMemoryEstimateBytes() {
+      return ((bitField0_ & 0x00000040) == 0x00000040);
+    }
+    /**
+     * <code>optional int64 memory_estimate_bytes = 7;</code>
+     *
+     * <pre>
+     * Estimated memory needed by the fragment, e.g. for map join hash tables. 0 if unknown.
+     * </pre>
+     */
+    public long getMemoryEstimateBytes() {
+      return memoryEstimateBytes_;
+    }
+
     private void initFields() {
       numSelfAndUpstreamTasks_ = 0;
       numSelfAndUpstreamCompletedTasks_ = 0;
@@ -7348,6 +7395,7 @@ private void initFields() {
       dagStartTime_ = 0L;
       firstAttemptStartTime_ = 0L;
       currentAttemptStartTime_ = 0L;
+      memoryEstimateBytes_ = 0L;
     }
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
@@ -7379,6 +7427,9 @@ public void writeTo(com.google.protobuf.CodedOutputStream output)
       if (((bitField0_ & 0x00000020) == 0x00000020)) {
         output.writeInt64(6, currentAttemptStartTime_);
       }
+      if (((bitField0_ & 0x00000040) == 0x00000040)) {
+        output.writeInt64(7, memoryEstimateBytes_);
+      }
       getUnknownFields().writeTo(output);
     }
 
@@ -7412,6 +7463,10 @@ public int getSerializedSize() {
         size += com.google.protobuf.CodedOutputStream
           .computeInt64Size(6, currentAttemptStartTime_);
       }
+      if (((bitField0_ & 0x00000040) == 0x00000040)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(7, memoryEstimateBytes_);
+      }
       size += getUnknownFields().getSerializedSize();
       memoizedSerializedSize = size;
       return size;
@@ -7465,6 +7520,11 @@ public boolean equals(final java.lang.Object obj) {
         result = result && (getCurrentAttemptStartTime()
             == other.getCurrentAttemptStartTime());
       }
+      result = result && (hasMemoryEstimateBytes() == other.hasMemoryEstimateBytes());
+      if (hasMemoryEstimateBytes()) {
+        result = result && (getMemoryEstimateBytes()
+            == other.getMemoryEstimateBytes());
+      }
       result = result &&
           getUnknownFields().equals(other.getUnknownFields());
       return result;
@@ -7502,6 +7562,10 @@ public int hashCode() {
         hash = (37 * hash) + CURRENT_ATTEMPT_START_TIME_FIELD_NUMBER;
         hash = (53 * hash) + hashLong(getCurrentAttemptStartTime());
       }
+      if (hasMemoryEstimateBytes()) {
+        hash = (37 * hash) + MEMORY_ESTIMATE_BYTES_FIELD_NUMBER;
+        hash = (53 * hash) + hashLong(getMemoryEstimateBytes());
+      }
       hash = (29 * hash) + getUnknownFields().hashCode();
       memoizedHashCode = hash;
       return hash;
@@ -7623,6 +7687,8 @@ public Builder clear() {
         bitField0_ = (bitField0_ & ~0x00000010);
         currentAttemptStartTime_ = 0L;
         bitField0_ = (bitField0_ & ~0x00000020);
+        memoryEstimateBytes_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000040);
         return this;
       }
 
@@ -7675,6 +7741,10 @@ public org.apache.hadoop.hive.llap.daemon.rpc.LlapDaemonProtocolProtos.FragmentR
           to_bitField0_ |= 0x00000020;
         }
         result.currentAttemptStartTime_ = currentAttemptStartTime_;
+        if (((from_bitField0_ & 0x00000040) == 0x00000040)) {
+          to_bitField0_ |= 0x00000040;
+        }
+        result.memoryEstimateBytes_ = memoryEstimateBytes_;
         result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
@@ -7709,6 +7779,9 @@ public Builder mergeFrom(org.apache.hadoop.hive.llap.daemon.rpc.LlapDaemonProtoc
         if (other.hasCurrentAttemptStartTime()) {
           setCurrentAttemptStartTime(other.getCurrentAttemptStartTime());
         }
+        if (other.hasMemoryEstimateBytes()) {
+          setMemoryEstimateBytes(other.getMemoryEstimateBytes());
+        }
         this.mergeUnknownFields(other.getUnknownFields());
         return this;
       }
@@ -7934,6 +8007,55 @@ public Builder clearCurrentAttemptStartTime() {
         return this;
       }
 
+      // optional int64 memory_estimate_bytes = 7;
+      private long memoryEstimateBytes_ ;
+      /**
+       * <code>optional int64 memory_estimate_bytes = 7;</code>
+       *
+       * <pre>
+       * Estimated memory needed by the fragment, e.g. for map join hash tables. 0 if unknown.
+       * </pre>
+       */
+      public boolean hasMemoryEstimateBytes() {
+        return ((bitField0_ & 0x00000040) == 0x00000040);
+      }
+      /**
+       * <code>optional int64 memory_estimate_bytes = 7;</code>
+       *
+       * <pre>
+       * Estimated memory needed by the fragment, e.g. for map join hash tables. 0 if unknown.
+       * </pre>
+       */
+      public long getMemoryEstimateBytes() {
+        return memoryEstimateBytes_;
+      }
+      /**
+       * <code>optional int64 memory_estimate_bytes = 7;</code>
+       *
+       * <pre>
+       * Estimated memory needed by the fragment, e.g. for map join hash tables. 0 if unknown.
+       * </pre>
+       */
+      public Builder setMemoryEstimateBytes(long value) {
+        bitField0_ |= 0x00000040;
+        memoryEstimateBytes_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional int64 memory_estimate_bytes = 7;</code>
+       *
+       * <pre>
+       * Estimated memory needed by the fragment, e.g. for map join hash tables. 0 if unknown.
+       * </pre>
+       */
+      public Builder clearMemoryEstimateBytes() {
+        bitField0_ = (bitField0_ & ~0x00000040);
+        memoryEstimateBytes_ = 0L;
+        onChanged();
+        return this;
+      }
+
       // @@protoc_insertion_point(builder_scope:FragmentRuntimeInfo)
     }
 
@@ -9726,6 +9848,21 @@ public Builder clearKeyId() {
      * <code>optional bool is_external_client_request = 14 [default = false];</code>
      */
     boolean getIsExternalClientRequest();
+
+    // optional string wm_pool = 15;
+    /**
+     * <code>optional string wm_pool = 15;</code>
+     */
+    boolean hasWmPool();
+    /**
+     * <code>optional string wm_pool = 15;</code>
+     */
+    java.lang.String getWmPool();
+    /**
+     * <code>optional string wm_pool = 15;</code>
+     */
+    com.google.protobuf.ByteString
+        getWmPoolBytes();
   }
   /**
    * Protobuf type {@code SubmitWorkRequestProto}
@@ -9864,6 +10001,11 @@ private SubmitWorkRequestProto(
               isExternalClientRequest_ = input.readBool();
               break;
             }
+            case 122: {
+              bitField0_ |= 0x00004000;
+              wmPool_ = input.readBytes();
+              break;
+            }
           }
         }
       } catch (com.google.protobuf.InvalidProtocolBufferException e) {
@@ -10249,6 +10391,49 @@ public boolean getIsExternalClientRequest() {
       return isExternalClientRequest_;
     }
 
+    // optional string wm_pool = 15;
+    public static final int WM_POOL_FIELD_NUMBER = 15;
+    private java.lang.Object wmPool_;
+    /**
+     * <code>optional string wm_pool = 15;</code>
+     */
+    public boolean hasWmPool() {
+      return ((bitField0_ & 0x00004000) == 0x00004000);
+    }
+    /**
+     * <code>optional string wm_pool = 15;</code>
+     */
+    public java.lang.String getWmPool() {
+      java.lang.Object ref = wmPool_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          wmPool_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>optional string wm_pool = 15;</code>
+     */
+    public com.google.protobuf.ByteString
+        getWmPoolBytes() {
+      java.lang.Object ref = wmPool_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        wmPool_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
     private void initFields() {
       workSpec_ = org.apache.hadoop.hive.llap.daemon.rpc.LlapDaemonProtocolProtos.VertexOrBinary.getDefaultInstance();
       workSpecSignature_ = com.google.protobuf.ByteString.EMPTY;
@@ -10264,6 +10449,7 @@ private void initFields() {
       isGuaranteed_ = false;
       jwt_ = "";
       isExternalClientRequest_ = false;
+      wmPool_ = "";
     }
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
@@ -10319,6 +10505,9 @@ public void writeTo(com.google.protobuf.CodedOutputStream output)
       if (((bitField0_ & 0x00002000) == 0x00002000)) {
         output.writeBool(14, isExternalClientRequest_);
       }
+      if (((bitField0_ & 0x00004000) == 0x00004000)) {
+        output.writeBytes(15, getWmPoolBytes());
+      }
       getUnknownFields().writeTo(output);
     }
 
@@ -10384,6 +10573,10 @@ public int getSerializedSize() {
         size += com.google.protobuf.CodedOutputStream
           .computeBoolSize(14, isExternalClientRequest_);
       }
+      if (((bitField0_ & 0x00004000) == 0x00004000)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBytesSize(15, getWmPoolBytes());
+      }
       size += getUnknownFields().getSerializedSize();
       memoizedSerializedSize = size;
       return size;
@@ -10477,6 +10670,11 @@ public boolean equals(final java.lang.Object obj) {
         result = result && (getIsExternalClientRequest()
             == other.getIsExternalClientRequest());
       }
+      result = result && (hasWmPool() == other.hasWmPool());
+      if (hasWmPool()) {
+        result = result && getWmPool()
+            .equals(other.getWmPool());
+      }
       result = result &&
           getUnknownFields().equals(other.getUnknownFields());
       return result;
@@ -10546,6 +10744,10 @@ public int hashCode() {
         hash = (37 * hash) + IS_EXTERNAL_CLIENT_REQUEST_FIELD_NUMBER;
         hash = (53 * hash) + hashBoolean(getIsExternalClientRequest());
       }
+      if (hasWmPool()) {
+        hash = (37 * hash) + WM_POOL_FIELD_NUMBER;
+        hash = (53 * hash) + getWmPool().hashCode();
+      }
       hash = (29 * hash) + getUnknownFields().hashCode();
       memoizedHashCode = hash;
       return hash;
@@ -10693,6 +10895,8 @@ public Builder clear() {
         bitField0_ = (bitField0_ & ~0x00001000);
         isExternalClientRequest_ = false;
         bitField0_ = (bitField0_ & ~0x00002000);
+        wmPool_ = "";
+        bitField0_ = (bitField0_ & ~0x00004000);
         return this;
       }
 
@@ -10785,6 +10989,10 @@ public org.apache.hadoop.hive.llap.daemon.rpc.LlapDaemonProtocolProtos.SubmitWor
           to_bitField0_ |= 0x00002000;
         }
         result.isExternalClientRequest_ = isExternalClientRequest_;
+        if (((from_bitField0_ & 0x00004000) == 0x00004000)) {
+          to_bitField0_ |= 0x00004000;
+        }
+        result.wmPool_ = wmPool_;
         result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
@@ -10849,6 +11057,11 @@ public Builder mergeFrom(org.apache.hadoop.hive.llap.daemon.rpc.LlapDaemonProtoc
         if (other.hasIsExternalClientRequest()) {
           setIsExternalClientRequest(other.getIsExternalClientRequest());
         }
+        if (other.hasWmPool()) {
+          bitField0_ |= 0x00004000;
+          wmPool_ = other.wmPool_;
+          onChanged();
+        }
         this.mergeUnknownFields(other.getUnknownFields());
         return this;
       }
@@ -11709,6 +11922,80 @@ public Builder clearIsExternalClientRequest() {
         return this;
       }
 
+      // optional string wm_pool = 15;
+      private java.lang.Object wmPool_ = "";
+      /**
+       * <code>optional string wm_pool = 15;</code>
+       */
+      public boolean hasWmPool() {
+        return ((bitField0_ & 0x00004000) == 0x00004000);
+      }
+      /**
+       * <code>optional string wm_pool = 15;</code>
+       */
+      public java.lang.String getWmPool() {
+        java.lang.Object ref = wmPool_;
+        if (!(ref instanceof java.lang.String)) {
+          java.lang.String s = ((com.google.protobuf.ByteString) ref)
+              .toStringUtf8();
+          wmPool_ = s;
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>optional string wm_pool = 15;</code>
+       */
+      public com.google.protobuf.ByteString
+          getWmPoolBytes() {
+        java.lang.Object ref = wmPool_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          wmPool_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>optional string wm_pool = 15;</code>
+       */
+      public Builder setWmPool(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00004000;
+        wmPool_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string wm_pool = 15;</code>
+       */
+      public Builder clearWmPool() {
+        bitField0_ = (bitField0_ & ~0x00004000);
+        wmPool_ = getDefaultInstance().getWmPool();
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string wm_pool = 15;</code>
+       */
+      public Builder setWmPoolBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00004000;
+        wmPool_ = value;
+        onChanged();
+        return this;
+      }
+
       // @@protoc_insertion_point(builder_scope:SubmitWorkRequestProto)
     }
 
@@ -30467,105 +30754,107 @@ public org.apache.hadoop.hive.llap.daemon.rpc.LlapDaemonProtocolProtos.GetCacheC
       "ertex_parallelism\030\r \001(\005\022%\n\026is_external_s" +
       "ubmission\030\016 \001(\010:\005false\"K\n\016VertexOrBinary" +
       "\022#\n\006vertex\030\001 \001(\0132\023.SignableVertexSpec\022\024\n" +
-      "\014vertexBinary\030\002 \001(\014\"\344\001\n\023FragmentRuntimeI" +
+      "\014vertexBinary\030\002 \001(\014\"\203\002\n\023FragmentRuntimeI" +
       "nfo\022#\n\033num_self_and_upstream_tasks\030\001 \001(\005" +
       "\022-\n%num_self_and_upstream_completed_task" +
       "s\030\002 \001(\005\022\033\n\023within_dag_priority\030\003 \001(\005\022\026\n\016" +
       "dag_start_time\030\004 \001(\003\022 \n\030first_attempt_st" +
       "art_time\030\005 \001(\003\022\"\n\032current_attempt_start_",
-      "time\030\006 \001(\003\"d\n\024QueryIdentifierProto\022\035\n\025ap" +
-      "plication_id_string\030\001 \001(\t\022\021\n\tdag_index\030\002" +
-      " \001(\005\022\032\n\022app_attempt_number\030\003 \001(\005\"l\n\013NotT" +
-      "ezEvent\022\037\n\027input_event_proto_bytes\030\001 \002(\014" +
-      "\022\023\n\013vertex_name\030\002 \002(\t\022\027\n\017dest_input_name" +
-      "\030\003 \002(\t\022\016\n\006key_id\030\004 \001(\005\"\256\003\n\026SubmitWorkReq" +
-      "uestProto\022\"\n\twork_spec\030\001 \001(\0132\017.VertexOrB" +
-      "inary\022\033\n\023work_spec_signature\030\002 \001(\014\022\027\n\017fr" +
-      "agment_number\030\003 \001(\005\022\026\n\016attempt_number\030\004 " +
-      "\001(\005\022\033\n\023container_id_string\030\005 \001(\t\022\017\n\007am_h",
-      "ost\030\006 \001(\t\022\017\n\007am_port\030\007 \001(\005\022\032\n\022credential" +
-      "s_binary\030\010 \001(\014\0223\n\025fragment_runtime_info\030" +
-      "\t \001(\0132\024.FragmentRuntimeInfo\022\033\n\023initial_e" +
-      "vent_bytes\030\n \001(\014\022\037\n\027initial_event_signat" +
-      "ure\030\013 \001(\014\022\034\n\ris_guaranteed\030\014 \001(\010:\005false\022" +
-      "\013\n\003jwt\030\r \001(\t\022)\n\032is_external_client_reque" +
-      "st\030\016 \001(\010:\005false\"t\n\027RegisterDagRequestPro" +
-      "to\022\014\n\004user\030\001 \001(\t\022/\n\020query_identifier\030\002 \002" +
-      "(\0132\025.QueryIdentifierProto\022\032\n\022credentials" +
-      "_binary\030\003 \001(\014\"\032\n\030RegisterDagResponseProt",
-      "o\"b\n\027SubmitWorkResponseProto\022/\n\020submissi" +
-      "on_state\030\001 \001(\0162\025.SubmissionStateProto\022\026\n" +
-      "\016unique_node_id\030\002 \001(\t\"\205\001\n\036SourceStateUpd" +
-      "atedRequestProto\022/\n\020query_identifier\030\001 \001" +
-      "(\0132\025.QueryIdentifierProto\022\020\n\010src_name\030\002 " +
-      "\001(\t\022 \n\005state\030\003 \001(\0162\021.SourceStateProto\"!\n" +
-      "\037SourceStateUpdatedResponseProto\"e\n\031Quer" +
-      "yCompleteRequestProto\022/\n\020query_identifie" +
-      "r\030\001 \001(\0132\025.QueryIdentifierProto\022\027\n\014delete" +
-      "_delay\030\002 \001(\003:\0010\"\034\n\032QueryCompleteResponse",
-      "Proto\"t\n\035TerminateFragmentRequestProto\022/" +
-      "\n\020query_identifier\030\001 \001(\0132\025.QueryIdentifi" +
-      "erProto\022\"\n\032fragment_identifier_string\030\002 " +
-      "\001(\t\" \n\036TerminateFragmentResponseProto\"\210\001" +
-      "\n\032UpdateFragmentRequestProto\022/\n\020query_id" +
-      "entifier\030\001 \001(\0132\025.QueryIdentifierProto\022\"\n" +
-      "\032fragment_identifier_string\030\002 \001(\t\022\025\n\ris_" +
-      "guaranteed\030\003 \001(\010\"D\n\033UpdateFragmentRespon" +
-      "seProto\022\016\n\006result\030\001 \001(\010\022\025\n\ris_guaranteed" +
-      "\030\002 \001(\010\"&\n\024GetTokenRequestProto\022\016\n\006app_id",
-      "\030\001 \001(\t\"&\n\025GetTokenResponseProto\022\r\n\005token" +
-      "\030\001 \001(\014\"A\n\033LlapOutputSocketInitMessage\022\023\n" +
-      "\013fragment_id\030\001 \002(\t\022\r\n\005token\030\002 \001(\014\"\030\n\026Pur" +
-      "geCacheRequestProto\"6\n\027PurgeCacheRespons" +
-      "eProto\022\033\n\023purged_memory_bytes\030\001 \001(\003\"&\n\010M" +
-      "apEntry\022\013\n\003key\030\001 \001(\t\022\r\n\005value\030\002 \001(\003\"\036\n\034G" +
-      "etDaemonMetricsRequestProto\";\n\035GetDaemon" +
-      "MetricsResponseProto\022\032\n\007metrics\030\001 \003(\0132\t." +
-      "MapEntry\"A\n\027SetCapacityRequestProto\022\023\n\013e" +
-      "xecutorNum\030\001 \001(\005\022\021\n\tqueueSize\030\002 \001(\005\"\032\n\030S",
-      "etCapacityResponseProto\"F\n\027EvictEntityRe" +
-      "questProto\022\017\n\007db_name\030\001 \002(\t\022\032\n\005table\030\002 \003" +
-      "(\0132\013.TableProto\"D\n\nTableProto\022\022\n\ntable_n" +
-      "ame\030\001 \002(\t\022\020\n\010part_key\030\002 \003(\t\022\020\n\010part_val\030" +
-      "\003 \003(\t\"1\n\030EvictEntityResponseProto\022\025\n\revi" +
-      "cted_bytes\030\001 \002(\003\"\035\n\033GetCacheContentReque" +
-      "stProto\"?\n\034GetCacheContentResponseProto\022" +
-      "\037\n\006result\030\001 \001(\0132\017.CacheEntryList\".\n\016Cach" +
-      "eEntryList\022\034\n\007entries\030\001 \003(\0132\013.CacheEntry" +
-      "\"q\n\nCacheEntry\022\020\n\010file_key\030\001 \001(\014\022\021\n\tfile",
-      "_path\030\002 \001(\t\022\034\n\tcache_tag\030\003 \001(\0132\t.CacheTa" +
-      "g\022 \n\006ranges\030\004 \003(\0132\020.CacheEntryRange\"6\n\010C" +
-      "acheTag\022\022\n\ntable_name\030\001 \001(\t\022\026\n\016partition" +
-      "_desc\030\002 \003(\t\"-\n\017CacheEntryRange\022\r\n\005start\030" +
-      "\001 \001(\003\022\013\n\003end\030\002 \001(\003*2\n\020SourceStateProto\022\017" +
-      "\n\013S_SUCCEEDED\020\001\022\r\n\tS_RUNNING\020\002*E\n\024Submis" +
-      "sionStateProto\022\014\n\010ACCEPTED\020\001\022\014\n\010REJECTED" +
-      "\020\002\022\021\n\rEVICTED_OTHER\020\0032\337\003\n\022LlapDaemonProt" +
-      "ocol\022B\n\013registerDag\022\030.RegisterDagRequest" +
-      "Proto\032\031.RegisterDagResponseProto\022?\n\nsubm",
-      "itWork\022\027.SubmitWorkRequestProto\032\030.Submit" +
-      "WorkResponseProto\022W\n\022sourceStateUpdated\022" +
-      "\037.SourceStateUpdatedRequestProto\032 .Sourc" +
-      "eStateUpdatedResponseProto\022H\n\rqueryCompl" +
-      "ete\022\032.QueryCompleteRequestProto\032\033.QueryC" +
-      "ompleteResponseProto\022T\n\021terminateFragmen" +
-      "t\022\036.TerminateFragmentRequestProto\032\037.Term" +
-      "inateFragmentResponseProto\022K\n\016updateFrag" +
-      "ment\022\033.UpdateFragmentRequestProto\032\034.Upda" +
-      "teFragmentResponseProto2\311\003\n\026LlapManageme",
-      "ntProtocol\022C\n\022getDelegationToken\022\025.GetTo" +
-      "kenRequestProto\032\026.GetTokenResponseProto\022" +
-      "?\n\npurgeCache\022\027.PurgeCacheRequestProto\032\030" +
-      ".PurgeCacheResponseProto\022Q\n\020getDaemonMet" +
-      "rics\022\035.GetDaemonMetricsRequestProto\032\036.Ge" +
-      "tDaemonMetricsResponseProto\022B\n\013setCapaci" +
-      "ty\022\030.SetCapacityRequestProto\032\031.SetCapaci" +
-      "tyResponseProto\022B\n\013evictEntity\022\030.EvictEn" +
-      "tityRequestProto\032\031.EvictEntityResponsePr" +
-      "oto\022N\n\017getCacheContent\022\034.GetCacheContent",
-      "RequestProto\032\035.GetCacheContentResponsePr" +
-      "otoBH\n&org.apache.hadoop.hive.llap.daemo" +
-      "n.rpcB\030LlapDaemonProtocolProtos\210\001\001\240\001\001"
+      "time\030\006 \001(\003\022\035\n\025memory_estimate_bytes\030\007 \001(" +
+      "\003\"d\n\024QueryIdentifierProto\022\035\n\025application" +
+      "_id_string\030\001 \001(\t\022\021\n\tdag_index\030\002 \001(\005\022\032\n\022a" +
+      "pp_attempt_number\030\003 \001(\005\"l\n\013NotTezEvent\022\037" +
+      "\n\027input_event_proto_bytes\030\001 \002(\014\022\023\n\013verte" +
+      "x_name\030\002 \002(\t\022\027\n\017dest_input_name\030\003 \002(\t\022\016\n" +
+      "\006key_id\030\004 \001(\005\"\277\003\n\026SubmitWorkRequestProto" +
+      "\022\"\n\twork_spec\030\001 \001(\0132\017.VertexOrBinary\022\033\n\023" +
+      "work_spec_signature\030\002 \001(\014\022\027\n\017fragment_nu" +
+      "mber\030\003 \001(\005\022\026\n\016attempt_number\030\004 \001(\005\022\033\n\023co",
+      "ntainer_id_string\030\005 \001(\t\022\017\n\007am_host\030\006 \001(\t" +
+      "\022\017\n\007am_port\030\007 \001(\005\022\032\n\022credentials_binary\030" +
+      "\010 \001(\014\0223\n\025fragment_runtime_info\030\t \001(\0132\024.F" +
+      "ragmentRuntimeInfo\022\033\n\023initial_event_byte" +
+      "s\030\n \001(\014\022\037\n\027initial_event_signature\030\013 \001(\014" +
+      "\022\034\n\ris_guaranteed\030\014 \001(\010:\005false\022\013\n\003jwt\030\r " +
+      "\001(\t\022)\n\032is_external_client_request\030\016 \001(\010:" +
+      "\005false\022\017\n\007wm_pool\030\017 \001(\t\"t\n\027RegisterDagRe" +
+      "questProto\022\014\n\004user\030\001 \001(\t\022/\n\020query_identi" +
+      "fier\030\002 \002(\0132\025.QueryIdentifierProto\022\032\n\022cre",
+      "dentials_binary\030\003 \001(\014\"\032\n\030RegisterDagResp" +
+      "onseProto\"b\n\027SubmitWorkResponseProto\022/\n\020" +
+      "submission_state\030\001 \001(\0162\025.SubmissionState" +
+      "Proto\022\026\n\016unique_node_id\030\002 \001(\t\"\205\001\n\036Source" +
+      "StateUpdatedRequestProto\022/\n\020query_identi" +
+      "fier\030\001 \001(\0132\025.QueryIdentifierProto\022\020\n\010src" +
+      "_name\030\002 \001(\t\022 \n\005state\030\003 \001(\0162\021.SourceState" +
+      "Proto\"!\n\037SourceStateUpdatedResponseProto" +
+      "\"e\n\031QueryCompleteRequestProto\022/\n\020query_i" +
+      "dentifier\030\001 \001(\0132\025.QueryIdentifierProto\022\027",
+      "\n\014delete_delay\030\002 \001(\003:\0010\"\034\n\032QueryComplete" +
+      "ResponseProto\"t\n\035TerminateFragmentReques" +
+      "tProto\022/\n\020query_identifier\030\001 \001(\0132\025.Query" +
+      "IdentifierProto\022\"\n\032fragment_identifier_s" +
+      "tring\030\002 \001(\t\" \n\036TerminateFragmentResponse" +
+      "Proto\"\210\001\n\032UpdateFragmentRequestProto\022/\n\020" +
+      "query_identifier\030\001 \001(\0132\025.QueryIdentifier" +
+      "Proto\022\"\n\032fragment_identifier_string\030\002 \001(" +
+      "\t\022\025\n\ris_guaranteed\030\003 \001(\010\"D\n\033UpdateFragme" +
+      "ntResponseProto\022\016\n\006result\030\001 \001(\010\022\025\n\ris_gu",
+      "aranteed\030\002 \001(\010\"&\n\024GetTokenRequestProto\022\016" +
+      "\n\006app_id\030\001 \001(\t\"&\n\025GetTokenResponseProto\022" +
+      "\r\n\005token\030\001 \001(\014\"A\n\033LlapOutputSocketInitMe" +
+      "ssage\022\023\n\013fragment_id\030\001 \002(\t\022\r\n\005token\030\002 \001(" +
+      "\014\"\030\n\026PurgeCacheRequestProto\"6\n\027PurgeCach" +
+      "eResponseProto\022\033\n\023purged_memory_bytes\030\001 " +
+      "\001(\003\"&\n\010MapEntry\022\013\n\003key\030\001 \001(\t\022\r\n\005value\030\002 " +
+      "\001(\003\"\036\n\034GetDaemonMetricsRequestProto\";\n\035G" +
+      "etDaemonMetricsResponseProto\022\032\n\007metrics\030" +
+      "\001 \003(\0132\t.MapEntry\"A\n\027SetCapacityRequestPr",
+      "oto\022\023\n\013executorNum\030\001 \001(\005\022\021\n\tqueueSize\030\002 " +
+      "\001(\005\"\032\n\030SetCapacityResponseProto\"F\n\027Evict" +
+      "EntityRequestProto\022\017\n\007db_name\030\001 \002(\t\022\032\n\005t" +
+      "able\030\002 \003(\0132\013.TableProto\"D\n\nTableProto\022\022\n" +
+      "\ntable_name\030\001 \002(\t\022\020\n\010part_key\030\002 \003(\t\022\020\n\010p" +
+      "art_val\030\003 \003(\t\"1\n\030EvictEntityResponseProt" +
+      "o\022\025\n\revicted_bytes\030\001 \002(\003\"\035\n\033GetCacheCont" +
+      "entRequestProto\"?\n\034GetCacheContentRespon" +
+      "seProto\022\037\n\006result\030\001 \001(\0132\017.CacheEntryList" +
+      "\".\n\016CacheEntryList\022\034\n\007entries\030\001 \003(\0132\013.Ca",
+      "cheEntry\"q\n\nCacheEntry\022\020\n\010file_key\030\001 \001(\014" +
+      "\022\021\n\tfile_path\030\002 \001(\t\022\034\n\tcache_tag\030\003 \001(\0132\t" +
+      ".CacheTag\022 \n\006ranges\030\004 \003(\0132\020.CacheEntryRa" +
+      "nge\"6\n\010CacheTag\022\022\n\ntable_name\030\001 \001(\t\022\026\n\016p" +
+      "artition_desc\030\002 \003(\t\"-\n\017CacheEntryRange\022\r" +
+      "\n\005start\030\001 \001(\003\022\013\n\003end\030\002 \001(\003*2\n\020SourceStat" +
+      "eProto\022\017\n\013S_SUCCEEDED\020\001\022\r\n\tS_RUNNING\020\002*E" +
+      "\n\024SubmissionStateProto\022\014\n\010ACCEPTED\020\001\022\014\n\010" +
+      "REJECTED\020\002\022\021\n\rEVICTED_OTHER\020\0032\337\003\n\022LlapDa" +
+      "emonProtocol\022B\n\013registerDag\022\030.RegisterDa",
+      "gRequestProto\032\031.RegisterDagResponseProto" +
+      "\022?\n\nsubmitWork\022\027.SubmitWorkRequestProto\032" +
+      "\030.SubmitWorkResponseProto\022W\n\022sourceState" +
+      "Updated\022\037.SourceStateUpdatedRequestProto" +
+      "\032 .SourceStateUpdatedResponseProto\022H\n\rqu" +
+      "eryComplete\022\032.QueryCompleteRequestProto\032" +
+      "\033.QueryCompleteResponseProto\022T\n\021terminat" +
+      "eFragment\022\036.TerminateFragmentRequestProt" +
+      "o\032\037.TerminateFragmentResponseProto\022K\n\016up" +
+      "dateFragment\022\033.UpdateFragmentRequestProt",
+      "o\032\034.UpdateFragmentResponseProto2\311\003\n\026Llap" +
+      "ManagementProtocol\022C\n\022getDelegationToken" +
+      "\022\025.GetTokenRequestProto\032\026.GetTokenRespon" +
+      "seProto\022?\n\npurgeCache\022\027.PurgeCacheReques" +
+      "tProto\032\030.PurgeCacheResponseProto\022Q\n\020getD" +
+      "aemonMetrics\022\035.GetDaemonMetricsRequestPr" +
+      "oto\032\036.GetDaemonMetricsResponseProto\022B\n\013s" +
+      "etCapacity\022\030.SetCapacityRequestProto\032\031.S" +
+      "etCapacityResponseProto\022B\n\013evictEntity\022\030" +
+      ".EvictEntityRequestProto\032\031.EvictEntityRe",
+      "sponseProto\022N\n\017getCacheContent\022\034.GetCach" +
+      "eContentRequestProto\032\035.GetCacheContentRe" +
+      "sponseProtoBH\n&org.apache.hadoop.hive.ll" +
+      "ap.daemon.rpcB\030LlapDaemonProtocolProtos\210" +
+      "\001\001\240\001\001"
     };
     com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner assigner =
       new com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner() {
@@ -30613,7 +30902,7 @@ public com.google.protobuf.ExtensionRegistry assignDescriptors(
           internal_static_FragmentRuntimeInfo_fieldAccessorTable = new
             com.google.protobuf.GeneratedMessage.FieldAccessorTable(
               internal_static_FragmentRuntimeInfo_descriptor,
-              new java.lang.String[] { "NumSelfAndUpstreamTasks", "NumSelfAndUpstreamCompletedTasks", "WithinDagPriority", "DagStartTime", "FirstAttemptStartTime", "CurrentAttemptStartTime", });
+              new java.lang.String[] { "NumSelfAndUpstreamTasks", "NumSelfAndUpstreamCompletedTasks", "WithinDagPriority", "DagStartTime", "FirstAttemptStartTime", "CurrentAttemptStartTime", "MemoryEstimateBytes", });
           internal_static_QueryIdentifierProto_descriptor =
             getDescriptor().getMessageTypes().get(7);
           internal_static_QueryIdentifierProto_fieldAccessorTable = new
@@ -30631,7 +30920,7 @@ public com.google.protobuf.ExtensionRegistry assignDescriptors(
           internal_static_SubmitWorkRequestProto_fieldAccessorTable = new
             com.google.protobuf.GeneratedMessage.FieldAccessorTable(
               internal_static_SubmitWorkRequestProto_descriptor,
-              new java.lang.String[] { "WorkSpec", "WorkSpecSignature", "FragmentNumber", "AttemptNumber", "ContainerIdString", "AmHost", "AmPort", "CredentialsBinary", "FragmentRuntimeInfo", "InitialEventBytes", "InitialEventSignature", "IsGuaranteed", "Jwt", "IsExternalClientRequest", });
+              new java.lang.String[] { "WorkSpec", "WorkSpecSignature", "FragmentNumber", "AttemptNumber", "ContainerIdString", "AmHost", "AmPort", "CredentialsBinary", "FragmentRuntimeInfo", "InitialEventBytes", "InitialEventSignature", "IsGuaranteed", "Jwt", "IsExternalClientRequest", "WmPool", });
           internal_static_RegisterDagRequestProto_descriptor =
             getDescriptor().getMessageTypes().get(10);
           internal_static_RegisterDagRequestProto_fieldAccessorTable = new
@@ -409,6 +409,22 @@ public static boolean isCloudDeployment(Configuration conf) {
     return HiveConf.getBoolVar(conf, ConfVars.LLAP_EXTERNAL_CLIENT_CLOUD_DEPLOYMENT_SETUP_ENABLED, false);
   }
 
+  /**
+   * Parses a comma-separated list of pool:value pairs, e.g. "bi:3,etl:1".
+   * @return the values by workload management pool, empty for an empty list
+   */
+  public static Map<String, String> parseWmPoolValues(String poolValues) {
+    Map<String, String> result = new HashMap<>();
+    for (String entry : StringUtils.split(poolValues, ',')) {
+      int separator = entry.lastIndexOf(':');
+      if (separator <= 0 || separator == entry.length() - 1) {
+        throw new IllegalArgumentException("Invalid pool:value pair " + entry + " in " + poolValues);
+      }
+      result.put(entry.substring(0, separator).trim(), entry.substring(separator + 1).trim());
+    }
+    return result;
+  }
+
   /**
    * @return returns the value of PUBLIC_HOSTNAME from either environment variable or system properties
    */
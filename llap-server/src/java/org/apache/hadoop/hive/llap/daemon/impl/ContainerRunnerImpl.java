@@ -639,6 +639,10 @@ public int getNumActive() {
     return executorService.getNumActiveForReporting();
   }
 
+  public long getAdmittedMemory() {
+    return executorService.getAdmittedMemoryForReporting();
+  }
+
   static class UgiPool {
     // Pool of UGI for a given appTokenIdentifier (AM). Expires after 3 hours of last access
     private final Cache<String, BlockingQueue<UserGroupInformation>> ugiPool =
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.hive.llap.daemon.impl;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hive.conf.HiveConf;
+import org.apache.hadoop.hive.conf.HiveConf.ConfVars;
+import org.apache.hadoop.hive.llap.daemon.rpc.LlapDaemonProtocolProtos.CacheEntry;
+import org.apache.hadoop.hive.llap.io.api.LlapIo;
+import org.apache.hadoop.hive.llap.registry.LlapCacheSummary;
+import org.apache.hadoop.hive.llap.registry.impl.LlapRegistryService;
+import org.apache.hadoop.service.AbstractService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Periodically publishes a {@link LlapCacheSummary} of the files in the IO cache to the registry,
+ * for split locations to favor this daemon for the data it holds. The summary is built from the
+ * hot data buffers of the cache policy whose file path is still known, so files cached only with
+ * their metadata, or whose path was dropped from the path cache, are not in it: their splits keep
+ * their consistent location.
+ */
+public class LlapCacheSummaryPublisher extends AbstractService {
+  private static final Logger LOG = LoggerFactory.getLogger(LlapCacheSummaryPublisher.class);
+
+  private final LlapRegistryService registry;
+  private final LlapIo<?> llapIo;
+  private long intervalSeconds;
+  private int maxFiles;
+  private double fpp;
+  private ScheduledExecutorService executor;
+  private String lastSummary;
+
+  public LlapCacheSummaryPublisher(LlapRegistryService registry, LlapIo<?> llapIo) {
+    super("LlapCacheSummaryPublisher");
+    this.registry = registry;
+    this.llapIo = llapIo;
+  }
+
+  @Override
+  protected void serviceInit(Configuration conf) throws Exception {
+    super.serviceInit(conf);
+    intervalSeconds = HiveConf.getTimeVar(conf, ConfVars.LLAP_DAEMON_CACHE_SUMMARY_INTERVAL, TimeUnit.SECONDS);
+    maxFiles = HiveConf.getIntVar(conf, ConfVars.LLAP_DAEMON_CACHE_SUMMARY_MAX_FILES);
+    fpp = HiveConf.getFloatVar(conf, ConfVars.LLAP_DAEMON_CACHE_SUMMARY_FPP);
+  }
+
+  @Override
+  protected void serviceStart() throws Exception {
+    executor = Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactoryBuilder().setDaemon(true).setNameFormat("LlapCacheSummaryPublisher").build());
+    executor.scheduleWithFixedDelay(this::publish, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+  }
+
+  @Override
+  protected void serviceStop() throws Exception {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  @VisibleForTesting
+  void publish() {
+    try {
+      Set<String> paths = new LinkedHashSet<>();
+      for (CacheEntry entry : llapIo.fetchCachedContentInfo().getEntriesList()) {
+        if (paths.size() >= maxFiles) {
+          break;
+        }
+        paths.add(entry.getFilePath());
+      }
+      String summary = LlapCacheSummary.create(paths, fpp).serialize();
+      if (summary.equals(lastSummary)) {
+        return;
+      }
+      registry.updateRegistration(
+          Collections.singletonMap(LlapRegistryService.LLAP_DAEMON_CACHE_SUMMARY, summary).entrySet());
+      lastSummary = summary;
+      LOG.debug("Published a cache summary of {} files", paths.size());
+    } catch (Exception e) {
+      // Split locations fall back to consistent hashing, keep trying
+      LOG.warn("Unable to publish the cache summary", e);
+    }
+  }
+}
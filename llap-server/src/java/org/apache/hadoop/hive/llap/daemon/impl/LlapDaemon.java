@@ -107,6 +107,7 @@ public class LlapDaemon extends CompositeService implements ContainerRunner, Lla
   private final LlapRegistryService registry;
   private final LlapWebServices webServices;
   private final LlapLoadGeneratorService llapLoadGeneratorService;
+  private LlapCacheSummaryPublisher cacheSummaryPublisher;
   private final AtomicLong numSubmissions = new AtomicLong(0);
   private final JvmPauseMonitor pauseMonitor;
   private final ObjectName llapDaemonInfoBean;
@@ -262,6 +263,8 @@ public LlapDaemon(Configuration daemonConf, int numExecutors, long executorMemor
         StringUtils.arrayToString(localDirs));
     this.shuffleHandlerConf.setBoolean(ShuffleHandler.SHUFFLE_DIR_WATCHER_ENABLED,
         HiveConf.getBoolVar(daemonConf, ConfVars.LLAP_DAEMON_SHUFFLE_DIR_WATCHER_ENABLED));
+    this.shuffleHandlerConf.setBoolean(ShuffleHandler.SHUFFLE_MERGE_ENABLED,
+        HiveConf.getBoolVar(daemonConf, ConfVars.LLAP_DAEMON_SHUFFLE_MERGE_ENABLED));
 
     // Less frequently set parameter, not passing in as a param.
     int numHandlers = HiveConf.getIntVar(daemonConf, ConfVars.LLAP_DAEMON_RPC_NUM_HANDLERS);
@@ -340,8 +343,22 @@ public LlapDaemon(Configuration daemonConf, int numExecutors, long executorMemor
     String waitQueueSchedulerClassName = HiveConf.getVar(
         daemonConf, ConfVars.LLAP_DAEMON_WAIT_QUEUE_COMPARATOR_CLASS_NAME);
 
+    boolean directDispatch = HiveConf.getBoolVar(
+        daemonConf, ConfVars.LLAP_DAEMON_TASK_SCHEDULER_DIRECT_DISPATCH);
+    long memoryBudget = HiveConf.getBoolVar(daemonConf, ConfVars.LLAP_DAEMON_TASK_SCHEDULER_MEMORY_ADMISSION)
+        ? executorMemoryPerInstance : 0L;
+    Map<String, Integer> poolWeights = null;
+    if (HiveConf.getBoolVar(daemonConf, ConfVars.LLAP_DAEMON_TASK_SCHEDULER_WM_POOL_FAIR_SHARING)) {
+      poolWeights = new HashMap<>();
+      for (Map.Entry<String, String> e : LlapUtil.parseWmPoolValues(HiveConf.getVar(
+          daemonConf, ConfVars.LLAP_DAEMON_TASK_SCHEDULER_WM_POOL_WEIGHTS)).entrySet()) {
+        poolWeights.put(e.getKey(), Integer.parseInt(e.getValue()));
+      }
+    }
+
     Scheduler<TaskRunnerCallable> executorService = new TaskExecutorService(numExecutors, waitQueueSize,
-        waitQueueSchedulerClassName, enablePreemption, executorClassLoader, metrics, null);
+        waitQueueSchedulerClassName, enablePreemption, directDispatch, memoryBudget, poolWeights,
+        executorClassLoader, metrics, null);
 
     addIfService(queryTracker);
     addIfService(executorService);
@@ -509,6 +526,13 @@ public void serviceStart() throws Exception {
 
     this.registry.init(getConfig());
     this.registry.start();
+    if (isIoEnabled()
+        && HiveConf.getTimeVar(getConfig(), ConfVars.LLAP_DAEMON_CACHE_SUMMARY_INTERVAL, TimeUnit.SECONDS) > 0) {
+      // Publishes to the registry, so it has to start after it
+      this.cacheSummaryPublisher = new LlapCacheSummaryPublisher(registry, LlapProxy.getIo());
+      this.cacheSummaryPublisher.init(getConfig());
+      this.cacheSummaryPublisher.start();
+    }
     LOG.info(
         "LlapDaemon serviceStart complete. RPC Port={}, ManagementPort={}, ShuflePort={}, WebPort={}",
         server.getBindAddress().getPort(), server.getManagementBindAddress().getPort(),
@@ -516,6 +540,9 @@ public void serviceStart() throws Exception {
   }
 
   public void serviceStop() throws Exception {
+    if (cacheSummaryPublisher != null) {
+      this.cacheSummaryPublisher.stop();
+    }
     if (registry != null) {
       this.registry.stop();
     }
@@ -727,6 +754,11 @@ public long getExecutorMemoryPerInstance() {
     return executorMemoryPerInstance;
   }
 
+  @Override
+  public long getExecutorMemoryAdmitted() {
+    return containerRunner.getAdmittedMemory();
+  }
+
   @Override
   public long getIoMemoryPerInstance() {
     return ioMemoryPerInstance;
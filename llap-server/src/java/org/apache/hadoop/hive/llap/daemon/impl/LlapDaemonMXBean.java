@@ -69,6 +69,13 @@ public interface LlapDaemonMXBean {
    */
   public long getExecutorMemoryPerInstance();
 
+  /**
+   * Gets the sum of the memory estimates of the running fragments, when the executor memory is
+   * used for memory admission.
+   * @return admitted executor memory
+   */
+  public long getExecutorMemoryAdmitted();
+
   /**
    * Gets llap daemon configured io memory per instance.
    * @return memory per instance
@@ -47,6 +47,11 @@ enum SubmissionState {
 
   int getNumActiveForReporting();
 
+  /**
+   * @return the sum of the memory estimates the running fragments were admitted with
+   */
+  long getAdmittedMemoryForReporting();
+
   QueryIdentifier findQueryByFragment(String fragmentId);
 
   boolean updateFragment(String fragmentId, boolean isGuaranteed);
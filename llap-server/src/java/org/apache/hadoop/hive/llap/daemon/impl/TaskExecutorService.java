@@ -23,6 +23,7 @@
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -104,6 +105,7 @@ public class TaskExecutorService extends AbstractService
   private final ListeningExecutorService executorService;
   @VisibleForTesting
   final EvictingPriorityBlockingQueue<TaskWrapper> waitQueue;
+  private final Comparator<TaskWrapper> waitQueueComparator;
   // Thread pool for taking entities off the wait queue.
   private final ListeningExecutorService waitQueueExecutorService;
   // Thread pool for callbacks on completion of execution of a work unit.
@@ -112,6 +114,22 @@ public class TaskExecutorService extends AbstractService
   @VisibleForTesting
   final BlockingQueue<TaskWrapper> preemptionQueue;
   private final boolean enablePreemption;
+  // Whether submitting and completing threads hand the wait queue head to a free executor
+  // themselves, instead of leaving it to the wait queue worker.
+  private final boolean directDispatch;
+  // When positive, fragments are only started if their memory estimates fit in this budget,
+  // together with the estimates of the running fragments.
+  private final long memoryBudget;
+  private final AtomicLong admittedMemory = new AtomicLong(0);
+  // Running fragments by query and vertex. The fragments of a vertex share their hash tables
+  // through the object cache, so the memory estimate of a vertex is only admitted once, by its
+  // first running fragment. Accessed under the epic lock.
+  private final Map<String, Integer> runningByVertex = new HashMap<>();
+  // When not null, the executors are shared between the WM pools of the fragments in proportion
+  // to these weights. Pools which are not listed have a weight of 1.
+  private final Map<String, Integer> poolWeights;
+  // Running fragments by WM pool, with fair sharing. Accessed under the epic lock.
+  private final Map<String, Integer> runningByPool = new HashMap<>();
   private final ThreadPoolExecutor threadPoolExecutor;
   @VisibleForTesting
   AtomicInteger numSlotsAvailable;
@@ -143,6 +161,14 @@ public class TaskExecutorService extends AbstractService
   public TaskExecutorService(int numExecutors, int waitQueueSize,
       String waitQueueComparatorClassName, boolean enablePreemption,
       ClassLoader classLoader, final LlapDaemonExecutorMetrics metrics, Clock clock) {
+    this(numExecutors, waitQueueSize, waitQueueComparatorClassName, enablePreemption, false, 0L,
+        null, classLoader, metrics, clock);
+  }
+
+  public TaskExecutorService(int numExecutors, int waitQueueSize,
+      String waitQueueComparatorClassName, boolean enablePreemption, boolean directDispatch,
+      long memoryBudget, Map<String, Integer> poolWeights, ClassLoader classLoader,
+      final LlapDaemonExecutorMetrics metrics, Clock clock) {
     super(TaskExecutorService.class.getSimpleName());
 
     checkNotNull(waitQueueComparatorClassName, "required argument 'waitQueueComparatorClassName' is null");
@@ -153,13 +179,17 @@ public TaskExecutorService(int numExecutors, int waitQueueSize,
         + "numExecutors=" + numExecutors
         + ", waitQueueSize=" + waitQueueSize
         + ", waitQueueComparatorClassName=" + waitQueueComparatorClassName
-        + ", enablePreemption=" + enablePreemption);
+        + ", enablePreemption=" + enablePreemption
+        + ", directDispatch=" + directDispatch
+        + ", memoryBudget=" + memoryBudget
+        + ", poolWeights=" + poolWeights);
 
     final LlapQueueComparatorBase waitQueueComparator = createComparator(
         waitQueueComparatorClassName);
     this.maxParallelExecutors = numExecutors;
     this.configuredMaxExecutors = numExecutors;
     this.configuredWaitingQueueSize = waitQueueSize;
+    this.waitQueueComparator = waitQueueComparator;
     this.waitQueue = new EvictingPriorityBlockingQueue<>(waitQueueComparator, waitQueueSize);
     this.clock = clock == null ? new MonotonicClock() : clock;
     this.threadPoolExecutor = new ThreadPoolExecutor(numExecutors, // core pool size
@@ -170,6 +200,9 @@ public TaskExecutorService(int numExecutors, int waitQueueSize,
     this.preemptionQueue = new PriorityBlockingQueue<>(numExecutors,
         new PreemptionQueueComparator());
     this.enablePreemption = enablePreemption;
+    this.directDispatch = directDispatch;
+    this.memoryBudget = memoryBudget;
+    this.poolWeights = poolWeights;
     this.numSlotsAvailable = new AtomicInteger(numExecutors);
     this.metrics = metrics;
     this.metrics.setNumExecutorsAvailable(numSlotsAvailable.get());
@@ -289,6 +322,11 @@ public int getNumActiveForReporting() {
     return result;
   }
 
+  @Override
+  public long getAdmittedMemoryForReporting() {
+    return admittedMemory.get();
+  }
+
   @Override
   public Set<String> getExecutorsStatusForReporting() {
     // TODO Change this method to make the output easier to parse (parse programmatically)
@@ -396,6 +434,7 @@ public void run() {
         SanityChecker sc = null;
         while (!isShutdown.get()) {
           RejectedExecutionException rejectedException = null;
+          boolean memoryBlocked = false;
           if (nextSanityCheck != null && ((nextSanityCheck - System.nanoTime()) <= 0)) {
             sc = sanityCheckQueue(sc);
             nextSanityCheck = null;
@@ -404,11 +443,21 @@ public void run() {
             // Since schedule() can be called from multiple threads, we peek the wait queue, try
             // scheduling the task and then remove the task if scheduling is successful. This
             // will make sure the task's place in the wait queue is held until it gets scheduled.
-            task = waitQueue.peek();
+            task = peekWaitQueueUnderLock();
             if (task == null) {
               waitOnLock();
               continue;
             }
+            // Without the memory for the task, the running fragments have to release some first.
+            // Only a task which could preempt one of them for a slot preempts it for its memory,
+            // otherwise the task waits for them to complete.
+            memoryBlocked = !hasMemoryFor(task);
+            if (memoryBlocked && !(enablePreemption
+                && (task.canFinishForPriority() || task.isGuaranteed())
+                && canPreempt(task, preemptionQueue.peek()))) {
+              waitOnLock();
+              continue;
+            }
             // If the task cannot finish and if no slots are available then don't schedule it.
             // Also don't wait if we have a task and we just killed something to schedule it.
             // (numSlotsAvailable can go negative, if the callback after the thread completes is delayed)
@@ -431,16 +480,18 @@ public void run() {
               continue;
             }
             nextSanityCheck = null; // We are going to do something useful now.
-            try {
-              tryScheduleUnderLock(task);
-              lastKillTimeMs = null; // We have filled the spot we may have killed for (if any).
-            } catch (RejectedExecutionException e) {
-              rejectedException = e;
+            if (!memoryBlocked) {
+              try {
+                tryScheduleUnderLock(task);
+                lastKillTimeMs = null; // We have filled the spot we may have killed for (if any).
+              } catch (RejectedExecutionException e) {
+                rejectedException = e;
+              }
             }
           } // synchronized (lock)
 
-          // Handle the rejection outside of the lock
-          if (rejectedException != null) {
+          // Handle the rejection, or the lack of memory, outside of the lock
+          if (rejectedException != null || memoryBlocked) {
             if (lastKillTimeMs != null
                 && (clock.getTime() - lastKillTimeMs) < PREEMPTION_KILL_GRACE_MS) {
               // We killed something, but still got rejected. Wait a bit to give a chance to our
@@ -618,6 +669,7 @@ public SubmissionState schedule(TaskRunnerCallable task) {
       metrics.incrTotalEvictedFromWaitQueue();
     }
     synchronized (lock) {
+      dispatchUnderLock();
       lock.notifyAll();
     }
     metrics.setExecutorNumQueuedRequests(waitQueue.size());
@@ -777,6 +829,12 @@ void tryScheduleUnderLock(final TaskWrapper taskWrapper) throws RejectedExecutio
     }
     numSlotsAvailable.decrementAndGet();
     metrics.setNumExecutorsAvailable(numSlotsAvailable.get());
+    if (runningByVertex.merge(getVertexKey(taskWrapper), 1, Integer::sum) == 1) {
+      admittedMemory.addAndGet(getAdmittedMemory(taskWrapper));
+    }
+    if (poolWeights != null) {
+      runningByPool.merge(getWmPool(taskWrapper), 1, Integer::sum);
+    }
     // Wait queue could have been re-ordered in the mean time because of concurrent task
     // submission. So remove the specific task instead of the head task.
     if (waitQueue.remove(taskWrapper)) {
@@ -784,6 +842,128 @@ void tryScheduleUnderLock(final TaskWrapper taskWrapper) throws RejectedExecutio
     }
   }
 
+  /**
+   * With direct dispatch, schedules the tasks at the head of the wait queue for as long as there
+   * are free slots, from the thread which submitted or completed a fragment. This takes the same
+   * decisions as the wait queue worker would with free slots, without the hand-off to the worker
+   * thread which limits the scheduling rate of short fragments. A rejection is left to the worker,
+   * which also remains responsible for preemption.
+   * Assumes the epic lock is already taken.
+   */
+  private void dispatchUnderLock() {
+    if (!directDispatch) {
+      return;
+    }
+    TaskWrapper task = peekWaitQueueUnderLock();
+    while (task != null && numSlotsAvailable.get() > 0 && hasMemoryFor(task) && !isShutdown.get()) {
+      try {
+        tryScheduleUnderLock(task);
+      } catch (RejectedExecutionException e) {
+        // An executor thread may not be back in the pool yet
+        LOG.debug("Direct dispatch of {} rejected, leaving it to the wait queue worker",
+            task.getRequestId());
+        return;
+      }
+      task = peekWaitQueueUnderLock();
+    }
+  }
+
+  /**
+   * @return the task to schedule next, i.e. the head of the wait queue, unless pool fair sharing
+   * is enabled and the pool of the head already has its share of the executors. The task is then
+   * taken from the pool using the smallest part of its share, among the waiting tasks with the
+   * same guaranteed and finishable state as the head. The head is returned when there is no such
+   * task, so that executors are never left idle, and when no executor is free, so that preemption
+   * is not affected.
+   * Assumes the epic lock is already taken.
+   */
+  @VisibleForTesting
+  TaskWrapper peekWaitQueueUnderLock() {
+    TaskWrapper head = waitQueue.peek();
+    if (poolWeights == null || head == null || numSlotsAvailable.get() <= 0) {
+      return head;
+    }
+    // Pools with running or waiting fragments share the executors
+    Map<String, List<TaskWrapper>> candidatesByPool = new HashMap<>();
+    Set<String> activePools = new HashSet<>(runningByPool.keySet());
+    waitQueue.apply(task -> {
+      String pool = getWmPool(task);
+      activePools.add(pool);
+      if (task.isGuaranteed() == head.isGuaranteed()
+          && task.canFinishForPriority() == head.canFinishForPriority()) {
+        candidatesByPool.computeIfAbsent(pool, p -> new ArrayList<>()).add(task);
+      }
+      return true;
+    });
+    int totalWeight = 0;
+    for (String pool : activePools) {
+      totalWeight += getPoolWeight(pool);
+    }
+    String headPool = getWmPool(head);
+    double headUsage = getShareUsage(headPool, totalWeight);
+    if (headUsage <= 1) {
+      return head;
+    }
+    String selectedPool = null;
+    double selectedUsage = headUsage;
+    for (String pool : candidatesByPool.keySet()) {
+      double usage = getShareUsage(pool, totalWeight);
+      if (usage < selectedUsage) {
+        selectedPool = pool;
+        selectedUsage = usage;
+      }
+    }
+    if (selectedPool == null) {
+      return head;
+    }
+    TaskWrapper selected = candidatesByPool.get(selectedPool).stream().min(waitQueueComparator).get();
+    LOG.debug("Pool {} is using its share of the executors, scheduling {} of pool {} before {}",
+        headPool, selected.getRequestId(), selectedPool, head.getRequestId());
+    return selected;
+  }
+
+  /**
+   * @return the fraction of its executor share the pool would use with one more running fragment
+   */
+  private double getShareUsage(String pool, int totalWeight) {
+    double share = (double) maxParallelExecutors * getPoolWeight(pool) / totalWeight;
+    return (runningByPool.getOrDefault(pool, 0) + 1) / share;
+  }
+
+  private int getPoolWeight(String pool) {
+    return poolWeights.getOrDefault(pool, 1);
+  }
+
+  private static String getWmPool(TaskWrapper taskWrapper) {
+    return taskWrapper.getTaskRunnerCallable().getRequest().getWmPool();
+  }
+
+  /**
+   * @return the memory the task is admitted with, 0 without a memory budget. An estimate above the
+   * budget is capped to it, for the task to still run when nothing else is running.
+   */
+  private long getAdmittedMemory(TaskWrapper taskWrapper) {
+    if (memoryBudget <= 0) {
+      return 0;
+    }
+    FragmentRuntimeInfo fragmentRuntimeInfo = taskWrapper.getTaskRunnerCallable().getFragmentRuntimeInfo();
+    return Math.min(Math.max(fragmentRuntimeInfo.getMemoryEstimateBytes(), 0), memoryBudget);
+  }
+
+  /**
+   * Assumes the epic lock is already taken.
+   */
+  private boolean hasMemoryFor(TaskWrapper taskWrapper) {
+    long memory = getAdmittedMemory(taskWrapper);
+    return memory == 0 || runningByVertex.containsKey(getVertexKey(taskWrapper))
+        || admittedMemory.get() + memory <= memoryBudget;
+  }
+
+  private static String getVertexKey(TaskWrapper taskWrapper) {
+    SignableVertexSpec vertex = taskWrapper.getTaskRunnerCallable().getFragmentInfo().getVertexSpec();
+    return vertex.getHiveQueryId() + "_" + vertex.getVertexIndex();
+  }
+
   private boolean handleScheduleAttemptedRejection(TaskWrapper rejected) {
     // TODO: is this check even needed given what the caller checks?
     if (!enablePreemption || preemptionQueue.isEmpty()) {
@@ -1065,6 +1245,14 @@ private void updatePreemptionListAndNotify(EndReason reason) {
           preemptionQueue.size());
       }
       synchronized (lock) {
+        if (runningByVertex.computeIfPresent(getVertexKey(taskWrapper),
+            (vertex, count) -> count > 1 ? count - 1 : null) == null) {
+          admittedMemory.addAndGet(-getAdmittedMemory(taskWrapper));
+        }
+        if (poolWeights != null) {
+          runningByPool.computeIfPresent(getWmPool(taskWrapper), (pool, count) -> count > 1 ? count - 1 : null);
+        }
+        dispatchUnderLock();
         if (!waitQueue.isEmpty()) {
           lock.notifyAll();
         }
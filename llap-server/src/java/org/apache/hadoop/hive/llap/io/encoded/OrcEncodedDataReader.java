@@ -163,6 +163,8 @@ public Pool<OrcEncodedColumnBatch> createEncodedColumnBatchPool() {
   private final UserGroupInformation ugi;
   private final SchemaEvolution evolution;
   private final PathCache pathCache;
+  // Null if the IO of the pool of the query is not limited
+  private final WmPoolIoThrottler.TokenBucket ioThrottle;
   private final boolean useCodecPool, useObjectPools;
   private static final String STRIPE_STATS_STREAM = "stripe stats";
 
@@ -199,7 +201,7 @@ public OrcEncodedDataReader(LowLevelCache lowLevelCache, BufferUsageManager buff
       MetadataCache metadataCache, Configuration daemonConf, Configuration jobConf,
       FileSplit split, Includes includes, SearchArgument sarg, OrcEncodedDataConsumer consumer,
       QueryFragmentCounters counters, SchemaEvolutionFactory sef, Pool<IoTrace> tracePool,
-      Map<Path, PartitionDesc> parts, PathCache pathCache)
+      Map<Path, PartitionDesc> parts, PathCache pathCache, WmPoolIoThrottler ioThrottler)
           throws IOException {
     this.lowLevelCache = lowLevelCache;
     this.metadataCache = metadataCache;
@@ -213,6 +215,8 @@ public OrcEncodedDataReader(LowLevelCache lowLevelCache, BufferUsageManager buff
     this.tracePool = tracePool;
     this.parts = parts;
     this.pathCache = pathCache;
+    this.ioThrottle = ioThrottler == null ? null
+        : ioThrottler.getBucket(HiveConf.getVar(jobConf, ConfVars.LLAP_QUERY_WM_POOL));
     try {
       this.ugi = UserGroupInformation.getCurrentUser();
     } catch (IOException e) {
@@ -1086,6 +1090,15 @@ public void close() throws IOException {
     @Override
     public DiskRangeList readFileData(DiskRangeList range, long baseOffset,
         boolean doForceDirect) throws IOException {
+      if (ioThrottle != null) {
+        long bytes = 0;
+        for (DiskRangeList current = range; current != null; current = current.next) {
+          if (!current.hasData()) {
+            bytes += current.getLength();
+          }
+        }
+        ioThrottle.acquire(bytes);
+      }
       long startTime = counters.startTimeCounter();
       DiskRangeList result = orcDataReaderRef.readFileData(range, baseOffset, doForceDirect);
       counters.recordHdfsTime(startTime);
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.hive.llap.io.encoded;
+
+import java.io.InterruptedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hive.conf.HiveConf;
+import org.apache.hadoop.hive.conf.HiveConf.ConfVars;
+import org.apache.hadoop.hive.llap.LlapUtil;
+
+import com.google.common.annotations.VisibleForTesting;
+
+/**
+ * Limits the bandwidth the IO elevator reads from the file system with, for the queries of each
+ * workload management pool. A limited pool has a token bucket holding up to one second of its
+ * bandwidth, shared by all its readers on the daemon. A read larger than the tokens left makes the
+ * reader wait until they are refilled.
+ */
+public final class WmPoolIoThrottler {
+
+  private final Map<String, TokenBucket> buckets;
+
+  private WmPoolIoThrottler(Map<String, TokenBucket> buckets) {
+    this.buckets = buckets;
+  }
+
+  /**
+   * @return the throttler for the bandwidths of the configuration, or null if no pool is limited
+   */
+  public static WmPoolIoThrottler create(Configuration conf) {
+    Map<String, TokenBucket> buckets = new HashMap<>();
+    for (Map.Entry<String, String> e : LlapUtil.parseWmPoolValues(
+        HiveConf.getVar(conf, ConfVars.LLAP_IO_WM_POOL_BANDWIDTH)).entrySet()) {
+      long bytesPerSecond = HiveConf.toSizeBytes(e.getValue());
+      if (bytesPerSecond <= 0) {
+        throw new IllegalArgumentException("Invalid bandwidth " + e.getValue() + " for pool " + e.getKey());
+      }
+      buckets.put(e.getKey(), new TokenBucket(bytesPerSecond, System.nanoTime()));
+    }
+    return buckets.isEmpty() ? null : new WmPoolIoThrottler(buckets);
+  }
+
+  /**
+   * @return the bucket of the pool, or null if its IO is not limited
+   */
+  TokenBucket getBucket(String pool) {
+    return buckets.get(pool);
+  }
+
+  static final class TokenBucket {
+    private final long bytesPerSecond;
+    private double tokens;
+    private long lastRefillNanos;
+
+    TokenBucket(long bytesPerSecond, long nowNanos) {
+      this.bytesPerSecond = bytesPerSecond;
+      this.tokens = bytesPerSecond;
+      this.lastRefillNanos = nowNanos;
+    }
+
+    void acquire(long bytes) throws InterruptedIOException {
+      long waitNanos = reserve(bytes, System.nanoTime());
+      if (waitNanos <= 0) {
+        return;
+      }
+      try {
+        TimeUnit.NANOSECONDS.sleep(waitNanos);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while throttled");
+      }
+    }
+
+    /**
+     * Takes the tokens for a read, going into debt if there are not enough of them.
+     * @return the time to wait for the debt to be repaid
+     */
+    @VisibleForTesting
+    synchronized long reserve(long bytes, long nowNanos) {
+      tokens = Math.min(bytesPerSecond,
+          tokens + (double) (nowNanos - lastRefillNanos) * bytesPerSecond / TimeUnit.SECONDS.toNanos(1));
+      lastRefillNanos = nowNanos;
+      tokens -= bytes;
+      return tokens >= 0 ? 0 : (long) (-tokens * TimeUnit.SECONDS.toNanos(1) / bytesPerSecond);
+    }
+  }
+}
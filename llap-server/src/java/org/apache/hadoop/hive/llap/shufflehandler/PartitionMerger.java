@@ -0,0 +1,341 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.hive.llap.shufflehandler;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.DataOutputBuffer;
+import org.apache.tez.runtime.library.common.shuffle.orderedgrouped.ShuffleHeader;
+import org.apache.tez.runtime.library.common.sort.impl.TezIndexRecord;
+import org.apache.tez.runtime.library.common.sort.impl.TezSpillRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Appends the partitions of the map outputs written on this daemon into one merged file per
+ * source output and partition, as soon as the outputs are complete. Each segment of a merged file
+ * is a {@link ShuffleHeader} followed by the partition data, i.e. exactly what the handler would
+ * send for the map output. A fetcher asking for the outputs of many attempts for a partition can
+ * then be served with a few sequential reads of one file, instead of one random read per attempt.
+ *
+ * Merging is best effort: requests for outputs which were not merged are served from the map
+ * output files, as before.
+ */
+class PartitionMerger {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PartitionMerger.class);
+
+  static final String MERGED_DIR_NAME = "merged";
+  private static final String MERGED_FILE_SUFFIX = ".out";
+  // The index file is reported as soon as it is created, it may still be written
+  private static final int MAX_TRIES = 3;
+  private static final long RETRY_DELAY_MS = 1000;
+
+  private final FileSystem rawFs;
+  private final long maxSegments;
+  private final ScheduledExecutorService executor;
+  private final AtomicLong numSegments = new AtomicLong();
+  private final ConcurrentMap<MergedPartitionKey, MergedPartition> partitions = new ConcurrentHashMap<>();
+
+  PartitionMerger(Configuration conf, int numThreads, long maxSegments) throws IOException {
+    this.rawFs = FileSystem.getLocal(conf).getRaw();
+    this.maxSegments = maxSegments;
+    this.executor = Executors.newScheduledThreadPool(numThreads,
+        new ThreadFactoryBuilder().setDaemon(true).setNameFormat("ShufflePartitionMerger %d").build());
+  }
+
+  /**
+   * Schedules the merge of the output of an attempt whose index and data files were found.
+   */
+  void merge(String jobId, int dagId, String user, String attemptId, Path indexPath, Path dataPath) {
+    executor.execute(() -> tryMerge(jobId, dagId, user, attemptId, indexPath, dataPath, 1));
+  }
+
+  @VisibleForTesting
+  void tryMerge(String jobId, int dagId, String user, String attemptId, Path indexPath, Path dataPath,
+      int tries) {
+    String outputGroup = getOutputGroup(attemptId);
+    if (outputGroup == null) {
+      LOG.debug("Not merging the output of {}, unexpected attempt id", attemptId);
+      return;
+    }
+    TezSpillRecord spillRecord;
+    try {
+      spillRecord = new TezSpillRecord(indexPath, rawFs, user);
+    } catch (IOException e) {
+      if (tries < MAX_TRIES) {
+        executor.schedule(() -> tryMerge(jobId, dagId, user, attemptId, indexPath, dataPath, tries + 1),
+            RETRY_DELAY_MS, TimeUnit.MILLISECONDS);
+      } else {
+        LOG.info("Not merging the output of {}, unable to read the index file", attemptId, e);
+      }
+      return;
+    }
+    if (numSegments.get() + spillRecord.size() > maxSegments) {
+      LOG.debug("Not merging the output of {}, too many merged segments", attemptId);
+      return;
+    }
+
+    // $x/$user/appcache/$appId/${dagId}/output/$mapId/file.out -> $x/$user/appcache/$appId/${dagId}/merged
+    File dagDir = new File(dataPath.toUri().getPath()).getParentFile().getParentFile().getParentFile();
+    File mergedDir = new File(new File(dagDir, MERGED_DIR_NAME), outputGroup);
+    if (!mergedDir.isDirectory() && !mergedDir.mkdirs() && !mergedDir.isDirectory()) {
+      LOG.warn("Unable to create " + mergedDir + ", not merging the output of " + attemptId);
+      return;
+    }
+    String mergedJobId = toJobId(jobId);
+    try (FileChannel data = FileChannel.open(new File(dataPath.toUri().getPath()).toPath(),
+        StandardOpenOption.READ)) {
+      for (int reduce = 0; reduce < spillRecord.size(); reduce++) {
+        final int partition = reduce;
+        MergedPartition mergedPartition = partitions.computeIfAbsent(
+            new MergedPartitionKey(mergedJobId, dagId, outputGroup, partition),
+            key -> new MergedPartition(new File(mergedDir, partition + MERGED_FILE_SUFFIX)));
+        if (mergedPartition.append(attemptId, partition, spillRecord.getIndex(partition), data)) {
+          numSegments.incrementAndGet();
+        }
+      }
+    } catch (IOException e) {
+      LOG.warn("Unable to merge the output of " + attemptId, e);
+    }
+  }
+
+  /**
+   * @return the regions of the merged file holding the given map outputs for the partition, or
+   * null if one of them was not merged
+   */
+  MergedRegions getMergedRegions(String jobId, int dagId, int reduce, List<String> mapIds) {
+    if (mapIds.isEmpty()) {
+      return null;
+    }
+    String outputGroup = getOutputGroup(mapIds.get(0));
+    if (outputGroup == null) {
+      return null;
+    }
+    MergedPartition mergedPartition =
+        partitions.get(new MergedPartitionKey(toJobId(jobId), dagId, outputGroup, reduce));
+    if (mergedPartition == null) {
+      return null;
+    }
+    List<Segment> segments = mergedPartition.getSegments(mapIds);
+    if (segments == null) {
+      return null;
+    }
+
+    // Coalesce the segments stored next to each other into one region
+    segments.sort(Comparator.comparingLong(segment -> segment.offset));
+    List<Segment> regions = new ArrayList<>();
+    long length = 0;
+    Segment current = null;
+    for (Segment segment : segments) {
+      length += segment.length;
+      if (current != null && current.offset + current.length == segment.offset) {
+        current = new Segment(current.offset, current.length + segment.length);
+        regions.set(regions.size() - 1, current);
+      } else {
+        current = segment;
+        regions.add(current);
+      }
+    }
+    return new MergedRegions(mergedPartition.file, regions, length);
+  }
+
+  void unregisterDag(String applicationIdString, int dagId) {
+    String jobId = toJobId(applicationIdString);
+    partitions.entrySet().removeIf(entry -> {
+      if (entry.getKey().dagId == dagId && entry.getKey().jobId.equals(jobId)) {
+        numSegments.addAndGet(-entry.getValue().getNumSegments());
+        return true;
+      }
+      return false;
+    });
+  }
+
+  void stop() {
+    executor.shutdownNow();
+  }
+
+  // Requests arrive with a job_ prefix, see ShuffleHandler#addJobToken
+  private static String toJobId(String appIdString) {
+    return appIdString.replace("application", "job");
+  }
+
+  /**
+   * Identifies the output the attempt produced for, i.e. the attempt id without the task and
+   * attempt numbers: attempt_${clusterTs}_${appId}_${dagId}_${vertexId}_${taskId}_${attempt}_${outputId}
+   */
+  @VisibleForTesting
+  static String getOutputGroup(String attemptId) {
+    String[] parts = attemptId.split("_");
+    if (parts.length < 8 || !"attempt".equals(parts[0])) {
+      return null;
+    }
+    StringBuilder sb = new StringBuilder(parts[3]).append('_').append(parts[4]);
+    for (int i = 7; i < parts.length; i++) {
+      sb.append('_').append(parts[i]);
+    }
+    return sb.toString();
+  }
+
+  private static final class MergedPartitionKey {
+    private final String jobId;
+    private final int dagId;
+    private final String outputGroup;
+    private final int reduce;
+
+    MergedPartitionKey(String jobId, int dagId, String outputGroup, int reduce) {
+      this.jobId = jobId;
+      this.dagId = dagId;
+      this.outputGroup = outputGroup;
+      this.reduce = reduce;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      MergedPartitionKey that = (MergedPartitionKey) o;
+      return dagId == that.dagId && reduce == that.reduce && jobId.equals(that.jobId)
+          && outputGroup.equals(that.outputGroup);
+    }
+
+    @Override
+    public int hashCode() {
+      int result = jobId.hashCode();
+      result = 31 * result + dagId;
+      result = 31 * result + outputGroup.hashCode();
+      result = 31 * result + reduce;
+      return result;
+    }
+  }
+
+  /**
+   * The segments are only appended by the merger threads, one at a time. The Netty I/O threads
+   * look them up without waiting for an append in progress: a segment is only published once it is
+   * completely written.
+   */
+  private static final class MergedPartition {
+    private final File file;
+    private final Object appendLock = new Object();
+    private final Map<String, Segment> segments = new ConcurrentHashMap<>();
+
+    MergedPartition(File file) {
+      this.file = file;
+    }
+
+    boolean append(String mapId, int reduce, TezIndexRecord indexRecord, FileChannel data)
+        throws IOException {
+      synchronized (appendLock) {
+        if (segments.containsKey(mapId)) {
+          return false;
+        }
+        ShuffleHeader header =
+            new ShuffleHeader(mapId, indexRecord.getPartLength(), indexRecord.getRawLength(), reduce);
+        DataOutputBuffer dob = new DataOutputBuffer();
+        header.write(dob);
+
+        Segment segment;
+        try (FileChannel out = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE)) {
+          // A failed append may have left some bytes behind, they are never served
+          long offset = out.size();
+          out.position(offset);
+          ByteBuffer headerBuffer = ByteBuffer.wrap(dob.getData(), 0, dob.getLength());
+          while (headerBuffer.hasRemaining()) {
+            out.write(headerBuffer);
+          }
+          long position = indexRecord.getStartOffset();
+          long remaining = indexRecord.getPartLength();
+          while (remaining > 0) {
+            long transferred = data.transferTo(position, remaining, out);
+            if (transferred <= 0) {
+              throw new IOException("Unexpected end of the output of " + mapId + " for partition " + reduce);
+            }
+            position += transferred;
+            remaining -= transferred;
+          }
+          segment = new Segment(offset, out.position() - offset);
+        }
+        segments.put(mapId, segment);
+      }
+      return true;
+    }
+
+    List<Segment> getSegments(List<String> mapIds) {
+      List<Segment> result = new ArrayList<>(mapIds.size());
+      for (String mapId : mapIds) {
+        Segment segment = segments.get(mapId);
+        if (segment == null) {
+          return null;
+        }
+        result.add(segment);
+      }
+      return result;
+    }
+
+    int getNumSegments() {
+      return segments.size();
+    }
+  }
+
+  static final class Segment {
+    final long offset;
+    final long length;
+
+    Segment(long offset, long length) {
+      this.offset = offset;
+      this.length = length;
+    }
+  }
+
+  static final class MergedRegions {
+    final File file;
+    final List<Segment> regions;
+    final long length;
+
+    MergedRegions(File file, List<Segment> regions, long length) {
+      this.file = file;
+      this.regions = regions;
+      this.length = length;
+    }
+  }
+}
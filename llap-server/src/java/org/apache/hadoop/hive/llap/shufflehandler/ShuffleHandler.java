@@ -144,6 +144,16 @@ public class ShuffleHandler implements AttemptRegistrationListener {
 
   public static final String SHUFFLE_DIR_WATCHER_ENABLED = "llap.shuffle.dir-watcher.enabled";
   public static final boolean SHUFFLE_DIR_WATCHER_ENABLED_DEFAULT = false;
+
+  // Merging relies on the dir watcher to find the completed map outputs
+  public static final String SHUFFLE_MERGE_ENABLED = "llap.shuffle.merge.enabled";
+  public static final boolean SHUFFLE_MERGE_ENABLED_DEFAULT = false;
+
+  public static final String SHUFFLE_MERGE_THREADS = "llap.shuffle.merge.threads";
+  public static final int SHUFFLE_MERGE_THREADS_DEFAULT = 2;
+
+  public static final String SHUFFLE_MERGE_MAX_SEGMENTS = "llap.shuffle.merge.max.segments";
+  public static final long SHUFFLE_MERGE_MAX_SEGMENTS_DEFAULT = 1000000;
   
   // pattern to identify errors related to the client closing the socket early
   // idea borrowed from Netty SslHandler
@@ -164,6 +174,7 @@ public class ShuffleHandler implements AttemptRegistrationListener {
   private final Configuration conf;
   private final String[] localDirs;
   private final DirWatcher dirWatcher;
+  private final PartitionMerger partitionMerger;
 
   /**
    * Should the shuffle use posix_fadvise calls to manage the OS cache during
@@ -241,6 +252,10 @@ public class ShuffleHandler implements AttemptRegistrationListener {
   public void registerAttemptDirs(AttemptPathIdentifier identifier,
                                   AttemptPathInfo pathInfo) {
     shuffle.registerAttemptDirs(identifier, pathInfo);
+    if (partitionMerger != null) {
+      partitionMerger.merge(identifier.jobId, identifier.dagId, identifier.user, identifier.attemptId,
+          pathInfo.indexPath, pathInfo.dataPath);
+    }
   }
 
 
@@ -340,6 +355,17 @@ public Thread newThread(Runnable r) {
       LOG.info("DirWatcher disabled by config");
       dirWatcher = null;
     }
+    PartitionMerger merger = null;
+    if (dirWatcher != null && conf.getBoolean(SHUFFLE_MERGE_ENABLED, SHUFFLE_MERGE_ENABLED_DEFAULT)) {
+      try {
+        merger = new PartitionMerger(conf,
+            Math.max(1, conf.getInt(SHUFFLE_MERGE_THREADS, SHUFFLE_MERGE_THREADS_DEFAULT)),
+            conf.getLong(SHUFFLE_MERGE_MAX_SEGMENTS, SHUFFLE_MERGE_MAX_SEGMENTS_DEFAULT));
+      } catch (IOException e) {
+        LOG.warn("Unable to start PartitionMerger. Map outputs will not be merged");
+      }
+    }
+    partitionMerger = merger;
     LOG.info("manageOsCache:{}, shouldAlwaysEvictOsCache:{}, readaheadLength:{}"
         + ", maxShuffleConnections:{}, localDirs:{}"
         + ", shuffleBufferSize:{}, shuffleTransferToAllowed:{}"
@@ -561,6 +587,10 @@ public void unregisterDag(String dir, String applicationIdString, int dagIdentif
     if (dirWatcher != null) {
       dirWatcher.unregisterDagDir(dir, applicationIdString, dagIdentifier);
     }
+    // The merged files are removed along with the dag directory
+    if (partitionMerger != null) {
+      partitionMerger.unregisterDag(applicationIdString, dagIdentifier);
+    }
   }
 
   protected void stop() throws Exception {
@@ -576,6 +606,14 @@ protected void stop() throws Exception {
     if (dirWatcher != null) {
       dirWatcher.stop();
     }
+    if (partitionMerger != null) {
+      partitionMerger.stop();
+    }
+  }
+
+  @VisibleForTesting
+  PartitionMerger getPartitionMerger() {
+    return partitionMerger;
   }
 
   @VisibleForTesting
@@ -810,6 +848,15 @@ private void handleRequest(ChannelHandlerContext ctx, FullHttpRequest request)
       timeoutHandler.setEnabledTimeout(false);
 
       String user = userRsrc.get(jobId);
+      if (partitionMerger != null) {
+        // Serve the outputs from the merged file of the partition if all of them were merged
+        ChannelFuture lastRegion = sendMergedOutputs(ch, mapIds, jobId, dagId, reduceId,
+            response, keepAliveParam);
+        if (lastRegion != null) {
+          finishResponse(ch, lastRegion, keepAliveParam, timeoutHandler);
+          return;
+        }
+      }
       try {
         populateHeaders(mapIds, jobId, dagId, user, reduceId,
             response, keepAliveParam, mapOutputInfoMap);
@@ -852,6 +899,11 @@ private void handleRequest(ChannelHandlerContext ctx, FullHttpRequest request)
           return;
         }
       }
+      finishResponse(ch, lastMap, keepAliveParam, timeoutHandler);
+    }
+
+    private void finishResponse(Channel ch, ChannelFuture lastMap, boolean keepAliveParam,
+        TimeoutHandler timeoutHandler) {
       // by this special message flushed, we can make sure the whole response is finished
       ch.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
       // If Keep alive is enabled, do not close the connection.
@@ -1046,6 +1098,52 @@ protected ChannelFuture sendMapOutput(ChannelHandlerContext ctx, Channel ch,
       return writeFuture;
     }
 
+    /**
+     * Sends the requested map outputs from the merged file of the partition.
+     *
+     * @return the future of the last write, or null if the outputs were not all merged, in which
+     * case nothing was written
+     */
+    protected ChannelFuture sendMergedOutputs(Channel ch, List<String> mapIds, String jobId,
+        int dagId, int reduce, HttpResponse response, boolean keepAliveParam) throws IOException {
+      PartitionMerger.MergedRegions merged =
+          partitionMerger.getMergedRegions(jobId, dagId, reduce, mapIds);
+      if (merged == null) {
+        return null;
+      }
+      // Open the file once per region, each region closes it when it is released
+      List<RandomAccessFile> files = new ArrayList<>(merged.regions.size());
+      try {
+        for (int i = 0; i < merged.regions.size(); i++) {
+          files.add(new RandomAccessFile(merged.file, "r"));
+        }
+      } catch (FileNotFoundException e) {
+        LOG.info(merged.file + " not found, serving the map outputs");
+        for (RandomAccessFile file : files) {
+          file.close();
+        }
+        return null;
+      }
+
+      setResponseHeaders(response, keepAliveParam, merged.length);
+      ch.write(response);
+      boolean canEvictAfterTransfer = shouldAlwaysEvictOsCache || reduce > 0;
+      ChannelFuture writeFuture = null;
+      for (int i = 0; i < merged.regions.size(); i++) {
+        PartitionMerger.Segment region = merged.regions.get(i);
+        if (ch.pipeline().get(SslHandler.class) == null) {
+          writeFuture = ch.write(new FadvisedFileRegion(files.get(i), region.offset, region.length,
+              manageOsCache, readaheadLength, readaheadPool, merged.file.getAbsolutePath(),
+              shuffleBufferSize, shuffleTransferToAllowed, canEvictAfterTransfer));
+        } else {
+          writeFuture = ch.write(new FadvisedChunkedFile(files.get(i), region.offset, region.length,
+              sslFileBufferSize, manageOsCache, readaheadLength, readaheadPool,
+              merged.file.getAbsolutePath()));
+        }
+      }
+      return writeFuture;
+    }
+
     protected void sendError(ChannelHandlerContext ctx, HttpResponseStatus status) {
       sendError(ctx, "", status);
     }
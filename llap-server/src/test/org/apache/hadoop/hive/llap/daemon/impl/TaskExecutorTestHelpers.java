@@ -79,6 +79,29 @@ public static MockRequest createMockRequest(int fragmentNum, int parallelism,
     return createMockRequest(canFinish, canFinish, workTime, request, isGuaranteed);
   }
 
+  public static MockRequest createMockRequest(int fragmentNum, int withinDagPriority, boolean canFinish,
+      long workTime, boolean isGuaranteed, long memoryEstimate) {
+    return createMockRequest(fragmentNum, withinDagPriority, canFinish, workTime, isGuaranteed,
+        memoryEstimate, 35);
+  }
+
+  public static MockRequest createMockRequest(int fragmentNum, int withinDagPriority, boolean canFinish,
+      long workTime, boolean isGuaranteed, long memoryEstimate, int dagId) {
+    SubmitWorkRequestProto request = createSubmitWorkRequestProto(fragmentNum, 1, 0, 100, 200,
+        withinDagPriority, "MockDag", dagId, isGuaranteed);
+    request = request.toBuilder().setFragmentRuntimeInfo(
+        request.getFragmentRuntimeInfo().toBuilder().setMemoryEstimateBytes(memoryEstimate)).build();
+    return createMockRequest(canFinish, canFinish, workTime, request, isGuaranteed);
+  }
+
+  public static MockRequest createMockRequest(int fragmentNum, int withinDagPriority, boolean canFinish,
+      long workTime, boolean isGuaranteed, String wmPool) {
+    SubmitWorkRequestProto request = createSubmitWorkRequestProto(fragmentNum, 1, 0, 100, 200,
+        withinDagPriority, isGuaranteed);
+    request = request.toBuilder().setWmPool(wmPool).build();
+    return createMockRequest(canFinish, canFinish, workTime, request, isGuaranteed);
+  }
+
   private static MockRequest createMockRequest(boolean canFinish, boolean canFinishQueue,
       long workTime, SubmitWorkRequestProto request, boolean isGuaranteed) {
     QueryFragmentInfo queryFragmentInfo = createQueryFragmentInfo(
@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.hive.llap.daemon.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.Map;
+
+import org.apache.hadoop.hive.conf.HiveConf;
+import org.apache.hadoop.hive.llap.daemon.rpc.LlapDaemonProtocolProtos.CacheEntry;
+import org.apache.hadoop.hive.llap.daemon.rpc.LlapDaemonProtocolProtos.CacheEntryList;
+import org.apache.hadoop.hive.llap.io.api.LlapIo;
+import org.apache.hadoop.hive.llap.registry.LlapCacheSummary;
+import org.apache.hadoop.hive.llap.registry.impl.LlapRegistryService;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+public class TestLlapCacheSummaryPublisher {
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testPublishChangedSummary() throws Exception {
+    LlapRegistryService registry = mock(LlapRegistryService.class);
+    LlapIo<?> llapIo = mock(LlapIo.class);
+    doReturn(CacheEntryList.newBuilder().addEntries(
+        CacheEntry.newBuilder().setFilePath("hdfs://nn/warehouse/t/000000_0")).build())
+        .when(llapIo).fetchCachedContentInfo();
+
+    LlapCacheSummaryPublisher publisher = new LlapCacheSummaryPublisher(registry, llapIo);
+    publisher.init(new HiveConf());
+    publisher.publish();
+    // Nothing changed, the summary is not published again
+    publisher.publish();
+
+    ArgumentCaptor<Iterable<Map.Entry<String, String>>> captor = ArgumentCaptor.forClass(Iterable.class);
+    verify(registry, times(1)).updateRegistration(captor.capture());
+    Map.Entry<String, String> attribute = captor.getValue().iterator().next();
+    assertEquals(LlapRegistryService.LLAP_DAEMON_CACHE_SUMMARY, attribute.getKey());
+    LlapCacheSummary summary = LlapCacheSummary.deserialize(attribute.getValue());
+    assertTrue(summary.mightContain("/warehouse/t/000000_0"));
+    assertFalse(summary.mightContain("/warehouse/t/000001_0"));
+
+    doReturn(CacheEntryList.getDefaultInstance()).when(llapIo).fetchCachedContentInfo();
+    publisher.publish();
+    verify(registry, times(2)).updateRegistration(any());
+  }
+}
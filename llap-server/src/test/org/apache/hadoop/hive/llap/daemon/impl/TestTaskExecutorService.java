@@ -34,6 +34,7 @@
 
 import org.apache.hadoop.yarn.util.Clock;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
@@ -427,6 +428,170 @@ public void testWaitQueueAcceptAfterAMTaskReport() throws
     }
   }
 
+  @Test(timeout = 10000)
+  public void testDirectDispatch() throws InterruptedException {
+    TaskExecutorServiceForTest taskExecutorService = new TaskExecutorServiceForTest(1, 2,
+        ShortestJobFirstComparator.class.getName(), true, true, 0L, mockMetrics, null);
+
+    MockRequest r1 = createMockRequest(1, 1, 100, 200, true, 20000l, false);
+    MockRequest r2 = createMockRequest(2, 1, 1, 200, 330, true, 20000l, false);
+
+    taskExecutorService.init(new Configuration());
+    taskExecutorService.start();
+    try {
+      Scheduler.SubmissionState submissionState = taskExecutorService.schedule(r1);
+      assertEquals(Scheduler.SubmissionState.ACCEPTED, submissionState);
+      // Handed to the executor by the submitting thread
+      assertEquals(0, taskExecutorService.waitQueue.size());
+      assertEquals(0, taskExecutorService.numSlotsAvailable.get());
+
+      submissionState = taskExecutorService.schedule(r2);
+      assertEquals(Scheduler.SubmissionState.ACCEPTED, submissionState);
+      assertEquals(1, taskExecutorService.waitQueue.size());
+
+      r1.complete();
+      r1.awaitEnd();
+      awaitStartAndSchedulerRun(r2, taskExecutorService);
+      assertEquals(0, taskExecutorService.waitQueue.size());
+      assertFalse(r1.wasPreempted());
+      r2.complete();
+      r2.awaitEnd();
+    } finally {
+      taskExecutorService.shutDown(false);
+    }
+  }
+
+  @Test(timeout = 10000)
+  public void testMemoryAdmission() throws InterruptedException {
+    // Direct dispatch, so that a fragment which fits is started by schedule()
+    TaskExecutorServiceForTest taskExecutorService = new TaskExecutorServiceForTest(2, 2,
+        ShortestJobFirstComparator.class.getName(), true, true, 1000L, mockMetrics, null);
+
+    MockRequest r1 = createMockRequest(1, 1, true, 20000l, false, 600L, 1);
+    MockRequest r2 = createMockRequest(2, 2, true, 20000l, false, 600L, 2);
+
+    taskExecutorService.init(new Configuration());
+    taskExecutorService.start();
+    try {
+      assertEquals(Scheduler.SubmissionState.ACCEPTED, taskExecutorService.schedule(r1));
+      assertEquals(0, taskExecutorService.waitQueue.size());
+      assertEquals(600L, taskExecutorService.getAdmittedMemoryForReporting());
+
+      // A slot is free, but the memory budget is not
+      assertEquals(Scheduler.SubmissionState.ACCEPTED, taskExecutorService.schedule(r2));
+      assertEquals(1, taskExecutorService.waitQueue.size());
+      assertEquals(1, taskExecutorService.numSlotsAvailable.get());
+      assertFalse(r2.hasStarted());
+
+      r1.complete();
+      r1.awaitEnd();
+      awaitStartAndSchedulerRun(r2, taskExecutorService);
+      assertEquals(600L, taskExecutorService.getAdmittedMemoryForReporting());
+      r2.complete();
+      r2.awaitEnd();
+    } finally {
+      taskExecutorService.shutDown(false);
+    }
+  }
+
+  @Test(timeout = 10000)
+  public void testMemoryAdmissionSharedByVertex() throws InterruptedException {
+    TaskExecutorServiceForTest taskExecutorService = new TaskExecutorServiceForTest(2, 2,
+        ShortestJobFirstComparator.class.getName(), true, true, 1000L, mockMetrics, null);
+
+    // Fragments of the same vertex, which share their hash tables
+    MockRequest r1 = createMockRequest(1, 1, true, 20000l, false, 600L, 1);
+    MockRequest r2 = createMockRequest(2, 1, true, 20000l, false, 600L, 1);
+
+    taskExecutorService.init(new Configuration());
+    taskExecutorService.start();
+    try {
+      assertEquals(Scheduler.SubmissionState.ACCEPTED, taskExecutorService.schedule(r1));
+      assertEquals(Scheduler.SubmissionState.ACCEPTED, taskExecutorService.schedule(r2));
+      awaitStartAndSchedulerRun(r1, taskExecutorService);
+      awaitStartAndSchedulerRun(r2, taskExecutorService);
+      assertEquals(0, taskExecutorService.waitQueue.size());
+      assertEquals(600L, taskExecutorService.getAdmittedMemoryForReporting());
+
+      // The memory is held until the last fragment of the vertex completes
+      r1.complete();
+      r1.awaitEnd();
+      assertEquals(600L, taskExecutorService.getAdmittedMemoryForReporting());
+      r2.complete();
+      r2.awaitEnd();
+    } finally {
+      taskExecutorService.shutDown(false);
+    }
+  }
+
+  @Test(timeout = 10000)
+  public void testMemoryAdmissionPreemption() throws InterruptedException {
+    TaskExecutorServiceForTest taskExecutorService = new TaskExecutorServiceForTest(2, 2,
+        ShortestJobFirstComparator.class.getName(), true, true, 1000L, mockMetrics, null);
+
+    // r1 cannot finish, r2 of another DAG can and is guaranteed, with a slot free for it
+    MockRequest r1 = createMockRequest(1, 1, false, 20000l, false, 600L, 1);
+    MockRequest r2 = createMockRequest(2, 1, true, 20000l, true, 600L, 2);
+
+    taskExecutorService.init(new Configuration());
+    taskExecutorService.start();
+    try {
+      taskExecutorService.schedule(r1);
+      awaitStartAndSchedulerRun(r1, taskExecutorService);
+      taskExecutorService.schedule(r2);
+
+      // r2 does not wait for r1, which may be waiting for r2, but preempts it for its memory
+      r1.awaitEnd();
+      assertTrue(r1.wasPreempted());
+      awaitStartAndSchedulerRun(r2, taskExecutorService);
+      assertEquals(600L, taskExecutorService.getAdmittedMemoryForReporting());
+      r2.complete();
+      r2.awaitEnd();
+    } finally {
+      taskExecutorService.shutDown(false);
+    }
+  }
+
+  @Test(timeout = 10000)
+  public void testPoolFairSharing() throws InterruptedException {
+    TaskExecutorServiceForTest taskExecutorService = new TaskExecutorServiceForTest(2, 2,
+        ShortestJobFirstComparator.class.getName(), true, false, 0L, Collections.emptyMap(),
+        mockMetrics, null);
+
+    MockRequest r1 = createMockRequest(1, 1, true, 20000l, false, "etl");
+    MockRequest r2 = createMockRequest(2, 2, true, 20000l, false, "etl");
+    MockRequest r3 = createMockRequest(3, 3, true, 20000l, false, "etl");
+    MockRequest r4 = createMockRequest(4, 4, true, 20000l, false, "bi");
+
+    taskExecutorService.init(new Configuration());
+    taskExecutorService.start();
+    try {
+      taskExecutorService.schedule(r1);
+      awaitStartAndSchedulerRun(r1, taskExecutorService);
+      taskExecutorService.schedule(r2);
+      awaitStartAndSchedulerRun(r2, taskExecutorService);
+      taskExecutorService.schedule(r3);
+      taskExecutorService.schedule(r4);
+      assertEquals(2, taskExecutorService.waitQueue.size());
+
+      // etl keeps one executor, its share; the free one goes to bi despite the priority of r3
+      r1.complete();
+      r1.awaitEnd();
+      awaitStartAndSchedulerRun(r4, taskExecutorService);
+      assertFalse(r3.hasStarted());
+
+      r2.complete();
+      r2.awaitEnd();
+      awaitStartAndSchedulerRun(r3, taskExecutorService);
+      r3.complete();
+      r3.awaitEnd();
+      r4.complete();
+      r4.awaitEnd();
+    } finally {
+      taskExecutorService.shutDown(false);
+    }
+  }
+
   @Test(timeout = 10000)
   public void testWaitQueuePreemption() throws InterruptedException {
     MockRequest r1 = createMockRequest(1, 1, 100, 200, true, 20000l, false);
@@ -817,8 +982,22 @@ public TaskExecutorServiceForTest(int numExecutors, int waitQueueSize,
 
     public TaskExecutorServiceForTest(int numExecutors, int waitQueueSize,
         String waitQueueComparatorClassName, boolean enablePreemption, LlapDaemonExecutorMetrics metrics, Clock clock) {
-      super(numExecutors, waitQueueSize, waitQueueComparatorClassName, enablePreemption,
-              Thread.currentThread().getContextClassLoader(), metrics, clock);
+      this(numExecutors, waitQueueSize, waitQueueComparatorClassName, enablePreemption, false, 0L, metrics, clock);
+    }
+
+    public TaskExecutorServiceForTest(int numExecutors, int waitQueueSize,
+        String waitQueueComparatorClassName, boolean enablePreemption, boolean directDispatch,
+        long memoryBudget, LlapDaemonExecutorMetrics metrics, Clock clock) {
+      this(numExecutors, waitQueueSize, waitQueueComparatorClassName, enablePreemption, directDispatch,
+          memoryBudget, null, metrics, clock);
+    }
+
+    public TaskExecutorServiceForTest(int numExecutors, int waitQueueSize,
+        String waitQueueComparatorClassName, boolean enablePreemption, boolean directDispatch,
+        long memoryBudget, Map<String, Integer> poolWeights, LlapDaemonExecutorMetrics metrics,
+        Clock clock) {
+      super(numExecutors, waitQueueSize, waitQueueComparatorClassName, enablePreemption, directDispatch,
+              memoryBudget, poolWeights, Thread.currentThread().getContextClassLoader(), metrics, clock);
     }
 
     private ConcurrentMap<String, InternalCompletionListenerForTest> completionListeners =
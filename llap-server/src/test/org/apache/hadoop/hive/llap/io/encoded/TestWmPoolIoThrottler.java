@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.hive.llap.io.encoded;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hadoop.hive.conf.HiveConf;
+import org.apache.hadoop.hive.conf.HiveConf.ConfVars;
+import org.junit.Test;
+
+public class TestWmPoolIoThrottler {
+
+  @Test
+  public void testCreate() {
+    HiveConf conf = new HiveConf();
+    assertNull(WmPoolIoThrottler.create(conf));
+
+    HiveConf.setVar(conf, ConfVars.LLAP_IO_WM_POOL_BANDWIDTH, "etl:100Mb, bi.adhoc:1Gb");
+    WmPoolIoThrottler throttler = WmPoolIoThrottler.create(conf);
+    assertNotNull(throttler.getBucket("etl"));
+    assertNotNull(throttler.getBucket("bi.adhoc"));
+    assertNull(throttler.getBucket("bi"));
+    assertNull(throttler.getBucket(""));
+  }
+
+  @Test
+  public void testTokenBucket() {
+    long second = TimeUnit.SECONDS.toNanos(1);
+    WmPoolIoThrottler.TokenBucket bucket = new WmPoolIoThrottler.TokenBucket(1000, 0);
+    // The bucket starts with a second of bandwidth
+    assertEquals(0, bucket.reserve(600, 0));
+    assertEquals(0, bucket.reserve(400, 0));
+    // Half a second more is needed for the next read
+    assertEquals(second / 2, bucket.reserve(500, 0));
+    // Half a second later, the debt is repaid and the next read waits for its own tokens
+    assertEquals(second / 10, bucket.reserve(100, second / 2));
+    // Tokens never exceed a second of bandwidth
+    assertEquals(second / 2, bucket.reserve(1500, 10 * second));
+  }
+}
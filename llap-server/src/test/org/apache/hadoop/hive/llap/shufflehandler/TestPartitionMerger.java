@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.hive.llap.shufflehandler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.input.BoundedInputStream;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.tez.runtime.library.common.shuffle.orderedgrouped.ShuffleHeader;
+import org.apache.tez.runtime.library.common.sort.impl.TezIndexRecord;
+import org.apache.tez.runtime.library.common.sort.impl.TezSpillRecord;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestPartitionMerger {
+
+  private static final String JOB_ID = "job_1491258958815_0008";
+  private static final String ATTEMPT_1 = "attempt_1491258958815_0008_1_02_000003_0_10002";
+  private static final String ATTEMPT_2 = "attempt_1491258958815_0008_1_02_000004_0_10002";
+
+  private final Configuration conf = new Configuration();
+  private File outputDir;
+  private PartitionMerger merger;
+
+  @Before
+  public void setUp() throws IOException {
+    File testDir = new File(System.getProperty("test.build.data", "target"),
+        TestPartitionMerger.class.getName()).getAbsoluteFile();
+    FileUtils.deleteDirectory(testDir);
+    outputDir = new File(testDir, "usercache/user/appcache/application_1491258958815_0008/1/output");
+    merger = new PartitionMerger(conf, 1, 1000);
+  }
+
+  @After
+  public void tearDown() {
+    merger.stop();
+  }
+
+  /**
+   * Writes a map output with one partition per given value.
+   * @return the paths of the index and data files
+   */
+  static Path[] writeMapOutput(Configuration conf, File outputDir, String attemptId, String... partitions)
+      throws IOException {
+    File attemptDir = new File(outputDir, attemptId);
+    attemptDir.mkdirs();
+    File dataFile = new File(attemptDir, ShuffleHandler.DATA_FILE_NAME);
+    TezSpillRecord spillRecord = new TezSpillRecord(partitions.length);
+    try (FileOutputStream out = new FileOutputStream(dataFile)) {
+      long offset = 0;
+      for (int i = 0; i < partitions.length; i++) {
+        byte[] bytes = partitions[i].getBytes(StandardCharsets.UTF_8);
+        out.write(bytes);
+        spillRecord.putIndex(new TezIndexRecord(offset, bytes.length, bytes.length), i);
+        offset += bytes.length;
+      }
+    }
+    Path indexPath = new Path(new File(attemptDir, ShuffleHandler.INDEX_FILE_NAME).getAbsolutePath());
+    spillRecord.writeToFile(indexPath, conf, FileSystem.getLocal(conf).getRaw());
+    return new Path[] { indexPath, new Path(dataFile.getAbsolutePath()) };
+  }
+
+  private void merge(String attemptId, String... partitions) throws IOException {
+    Path[] paths = writeMapOutput(conf, outputDir, attemptId, partitions);
+    merger.tryMerge("application_1491258958815_0008", 1, System.getProperty("user.name"), attemptId,
+        paths[0], paths[1], 1);
+  }
+
+  @Test
+  public void testMergedPartition() throws IOException {
+    merge(ATTEMPT_1, "a0", "a1");
+    merge(ATTEMPT_2, "b0", "bb1");
+
+    PartitionMerger.MergedRegions merged =
+        merger.getMergedRegions(JOB_ID, 1, 1, Arrays.asList(ATTEMPT_2, ATTEMPT_1));
+    // Both segments are next to each other in the merged file
+    assertEquals(1, merged.regions.size());
+    assertEquals(merged.length, merged.regions.get(0).length);
+
+    Map<String, String> outputs = new HashMap<>();
+    try (RandomAccessFile file = new RandomAccessFile(merged.file, "r")) {
+      file.seek(merged.regions.get(0).offset);
+      DataInputStream in = new DataInputStream(new BoundedInputStream(
+          new FileInputStream(file.getFD()), merged.length));
+      for (int i = 0; i < 2; i++) {
+        ShuffleHeader header = new ShuffleHeader();
+        header.readFields(in);
+        assertEquals(1, header.getPartition());
+        byte[] data = new byte[(int) header.getCompressedLength()];
+        in.readFully(data);
+        outputs.put(header.getMapId(), new String(data, StandardCharsets.UTF_8));
+      }
+    }
+    assertEquals("a1", outputs.get(ATTEMPT_1));
+    assertEquals("bb1", outputs.get(ATTEMPT_2));
+  }
+
+  @Test
+  public void testNotMergedOutput() throws IOException {
+    merge(ATTEMPT_1, "a0", "a1");
+
+    assertNull(merger.getMergedRegions(JOB_ID, 1, 0, Arrays.asList(ATTEMPT_1, ATTEMPT_2)));
+    assertNull(merger.getMergedRegions(JOB_ID, 2, 0, Arrays.asList(ATTEMPT_1)));
+
+    merger.unregisterDag("application_1491258958815_0008", 1);
+    assertNull(merger.getMergedRegions(JOB_ID, 1, 0, Arrays.asList(ATTEMPT_1)));
+  }
+
+  @Test
+  public void testOutputGroup() {
+    assertEquals("1_02_10002", PartitionMerger.getOutputGroup(ATTEMPT_1));
+    assertEquals(PartitionMerger.getOutputGroup(ATTEMPT_1), PartitionMerger.getOutputGroup(ATTEMPT_2));
+    assertNull(PartitionMerger.getOutputGroup("attempt_12345_1_m_1_0"));
+  }
+}
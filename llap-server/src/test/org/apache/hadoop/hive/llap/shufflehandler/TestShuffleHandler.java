@@ -25,11 +25,15 @@
 import java.net.HttpURLConnection;
 import java.net.SocketAddress;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.DataOutputBuffer;
 import org.apache.tez.runtime.library.common.shuffle.orderedgrouped.ShuffleHeader;
 import org.junit.Assert;
@@ -219,6 +223,82 @@ protected void sendError(ChannelHandlerContext ctx, String message,
         firstAddress, secondAddress);
   }
 
+  @Test(timeout = 10000)
+  public void testMergedOutputs() throws Exception {
+    final String attempt1 = "attempt_1491258958815_0008_1_02_000003_0_10002";
+    final String attempt2 = "attempt_1491258958815_0008_1_02_000004_0_10002";
+    Configuration conf = new Configuration();
+    conf.set(HADOOP_TMP_DIR, TEST_DIR.getAbsolutePath());
+    conf.setInt(ShuffleHandler.SHUFFLE_PORT_CONFIG_KEY, 0);
+    conf.setBoolean(ShuffleHandler.SHUFFLE_DIR_WATCHER_ENABLED, true);
+    conf.setBoolean(ShuffleHandler.SHUFFLE_MERGE_ENABLED, true);
+    ShuffleHandler shuffleHandler = new ShuffleHandler(conf) {
+      @Override
+      protected Shuffle getShuffle(final Configuration conf) {
+        return new Shuffle(conf) {
+          @Override
+          protected void verifyRequest(String appid, ChannelHandlerContext ctx,
+              HttpRequest request, HttpResponse response, URL requestUri)
+                  throws IOException {
+          }
+
+          @Override
+          protected void populateHeaders(List<String> mapIds, String jobId, int dagId, String user,
+              int reduce, HttpResponse response, boolean keepAliveParam,
+              Map<String, MapOutputInfo> mapOutputInfoMap) throws IOException {
+            throw new IOException("The merged outputs are expected to be served");
+          }
+        };
+      }
+    };
+    Assert.assertNotNull(shuffleHandler.getPartitionMerger());
+
+    File outputDir = new File(TEST_DIR,
+        "usercache/user/appcache/application_1491258958815_0008/1/output");
+    FileUtils.deleteDirectory(outputDir);
+    String user = System.getProperty("user.name");
+    Path[] paths = TestPartitionMerger.writeMapOutput(conf, outputDir, attempt1, "a0", "a1");
+    shuffleHandler.getPartitionMerger().tryMerge("application_1491258958815_0008", 1, user, attempt1,
+        paths[0], paths[1], 1);
+    paths = TestPartitionMerger.writeMapOutput(conf, outputDir, attempt2, "b0", "bb1");
+    shuffleHandler.getPartitionMerger().tryMerge("application_1491258958815_0008", 1, user, attempt2,
+        paths[0], paths[1], 1);
+
+    HttpURLConnection conn = null;
+    try {
+      shuffleHandler.start();
+      URL url = new URL("http://127.0.0.1:" + conf.get(ShuffleHandler.SHUFFLE_PORT_CONFIG_KEY)
+          + "/mapOutput?job=job_1491258958815_0008&dag=1&reduce=1&map=" + attempt1 + "," + attempt2);
+      conn = (HttpURLConnection) url.openConnection();
+      conn.setRequestProperty(ShuffleHeader.HTTP_HEADER_NAME,
+          ShuffleHeader.DEFAULT_HTTP_HEADER_NAME);
+      conn.setRequestProperty(ShuffleHeader.HTTP_HEADER_VERSION,
+          ShuffleHeader.DEFAULT_HTTP_HEADER_VERSION);
+      conn.connect();
+      Assert.assertEquals(HttpURLConnection.HTTP_OK, conn.getResponseCode());
+
+      Map<String, String> outputs = new HashMap<>();
+      try (DataInputStream input = new DataInputStream(conn.getInputStream())) {
+        for (int i = 0; i < 2; i++) {
+          ShuffleHeader header = new ShuffleHeader();
+          header.readFields(input);
+          Assert.assertEquals(1, header.getPartition());
+          byte[] data = new byte[(int) header.getCompressedLength()];
+          input.readFully(data);
+          outputs.put(header.getMapId(), new String(data, StandardCharsets.UTF_8));
+        }
+        Assert.assertEquals(-1, input.read());
+      }
+      Assert.assertEquals("a1", outputs.get(attempt1));
+      Assert.assertEquals("bb1", outputs.get(attempt2));
+    } finally {
+      if (conn != null) {
+        conn.disconnect();
+      }
+      shuffleHandler.stop();
+    }
+  }
+
   @Test
   public void testSocketKeepAlive() throws Exception {
     Configuration conf = new Configuration();
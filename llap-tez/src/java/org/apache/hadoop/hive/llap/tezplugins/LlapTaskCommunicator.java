@@ -125,6 +125,8 @@ public class LlapTaskCommunicator extends TezTaskCommunicatorImpl {
   private final EntityTracker entityTracker = new EntityTracker();
   private final SourceStateTracker sourceStateTracker;
   private final Set<LlapNodeId> nodesForQuery = new HashSet<>();
+  // Memory estimates of the vertices of the current DAG, read once from their configuration.
+  private final ConcurrentMap<String, Long> vertexMemoryEstimates = new ConcurrentHashMap<>();
 
   private LlapTaskSchedulerService scheduler;
   private LlapProtocolClientProxy communicator;
@@ -144,6 +146,7 @@ public class LlapTaskCommunicator extends TezTaskCommunicatorImpl {
 
   private volatile QueryIdentifierProto currentQueryIdentifierProto;
   private volatile String currentHiveQueryId;
+  private volatile String currentWmPool;
 
   // TODO: this is an ugly hack because Tez plugin isolation does not make sense for LLAP plugins.
   //       We are going to register a thread-local here for now, so that the scheduler, initializing
@@ -494,7 +497,7 @@ public void registerRunningTaskAttempt(final ContainerId containerId, final Task
     try {
       fragmentRuntimeInfo = sourceStateTracker.getFragmentRuntimeInfo(
           taskSpec.getVertexName(),
-          taskSpec.getTaskAttemptID().getTaskID().getId(), priority);
+          taskSpec.getTaskAttemptID().getTaskID().getId(), priority, getMemoryEstimate(taskSpec));
     } catch (Exception e) {
       LOG.error(
           "Error while trying to get runtimeFragmentInfo for fragmentId={}, containerId={}, currentQI={}, currentQueryId={}",
@@ -867,8 +870,10 @@ private void resetCurrentDag(int newDagId, String hiveQueryId) {
 
     currentQueryIdentifierProto = constructQueryIdentifierProto(newDagId);
     currentHiveQueryId = hiveQueryId;
+    currentWmPool = extractWmPoolFromContext();
     sourceStateTracker.resetState(currentQueryIdentifierProto);
     nodesForQuery.clear();
+    vertexMemoryEstimates.clear();
     LOG.info("CurrentDagId set to: " + newDagId + ", name=" +
         getContext().getCurrentDagInfo().getName() + ", queryId=" + hiveQueryId);
     // TODO Is it possible for heartbeats to come in from lost tasks - those should be told to die, which
@@ -882,6 +887,25 @@ private String extractQueryId(TaskSpec taskSpec) throws IOException {
     return HiveConf.getVar(conf, HiveConf.ConfVars.HIVEQUERYID);
   }
 
+  /**
+   * @return the memory estimate the compiler set in the configuration of the vertex of the task
+   */
+  private long getMemoryEstimate(TaskSpec taskSpec) {
+    return vertexMemoryEstimates.computeIfAbsent(taskSpec.getVertexName(), vertexName -> {
+      UserPayload processorPayload = taskSpec.getProcessorDescriptor().getUserPayload();
+      if (processorPayload == null || !processorPayload.hasPayload()) {
+        return 0L;
+      }
+      try {
+        Configuration conf = TezUtils.createConfFromUserPayload(processorPayload);
+        return HiveConf.getLongVar(conf, ConfVars.LLAP_FRAGMENT_MEMORY_ESTIMATE);
+      } catch (IOException e) {
+        LOG.warn("Unable to read the memory estimate of vertex " + vertexName, e);
+        return 0L;
+      }
+    });
+  }
+
   private String extractQueryIdFromContext() {
     //TODO: Remove following instance of check, When TEZ-2672 exposes getConf from DagInfo
     DagInfo dagInfo = getContext().getCurrentDagInfo();
@@ -891,6 +915,14 @@ private String extractQueryIdFromContext() {
     return null;
   }
 
+  private String extractWmPoolFromContext() {
+    DagInfo dagInfo = getContext().getCurrentDagInfo();
+    if (dagInfo instanceof DAG) {
+      return ((DAG)dagInfo).getConf().get(ConfVars.LLAP_QUERY_WM_POOL.varname);
+    }
+    return null;
+  }
+
   private SubmitWorkRequestProto constructSubmitWorkRequest(ContainerId containerId,
                                                             TaskSpec taskSpec,
                                                             FragmentRuntimeInfo fragmentRuntimeInfo,
@@ -914,6 +946,9 @@ private SubmitWorkRequestProto constructSubmitWorkRequest(ContainerId containerI
     // Don't call builder.setWorkSpecSignature() - Tez doesn't sign fragments
     builder.setFragmentRuntimeInfo(fragmentRuntimeInfo);
     builder.setIsGuaranteed(ContainerFactory.isContainerInitializedAsGuaranteed(containerId));
+    if (currentWmPool != null) {
+      builder.setWmPool(currentWmPool);
+    }
     return builder.build();
   }
 
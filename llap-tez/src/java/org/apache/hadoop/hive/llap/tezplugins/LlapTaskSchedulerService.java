@@ -39,6 +39,7 @@
 import java.util.Comparator;
 import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
@@ -1411,21 +1412,33 @@ private SelectHostResult selectHost(TaskInfo request, Map<String, List<NodeInfo>
       return SELECT_HOST_RESULT_DELAYED_RESOURCES;
     }
     String[] requestedHosts = request.requestedHosts;
-    // The requestedHostsDebugStr is merely used by debug-logging calls,
-    //   and it is properly assigned in the following isDebugEnabled block.
-    String requestedHostsDebugStr = null;
-    if (LOG.isDebugEnabled()) {
-      requestedHostsDebugStr = Arrays.toString(requestedHosts);
-      LOG.debug("selectingHost for task={} on hosts={}", request.task,
-          requestedHostsDebugStr);
-    }
     long schedulerAttemptTime = clock.getTime();
     readLock.lock(); // Read-lock. Not updating any stats at the moment.
     try {
+      Set<String> otherAttemptHosts = getHostsOfOtherAttempts(request);
+      if (!otherAttemptHosts.isEmpty()) {
+        // A speculative attempt is only useful away from the daemon running the original one
+        availableHostMap = new LinkedHashMap<>(availableHostMap);
+        availableHostMap.keySet().removeAll(otherAttemptHosts);
+        if (requestedHosts != null) {
+          requestedHosts = Arrays.stream(requestedHosts)
+              .filter(host -> !otherAttemptHosts.contains(host)).toArray(String[]::new);
+        }
+        LOG.debug("Not considering hosts={} for task={}, running other attempts", otherAttemptHosts,
+            request.task);
+      }
+      // The requestedHostsDebugStr is merely used by debug-logging calls,
+      //   and it is properly assigned in the following isDebugEnabled block.
+      String requestedHostsDebugStr = null;
+      if (LOG.isDebugEnabled()) {
+        requestedHostsDebugStr = Arrays.toString(requestedHosts);
+        LOG.debug("selectingHost for task={} on hosts={}", request.task,
+            requestedHostsDebugStr);
+      }
       boolean shouldDelayForLocality = request.shouldDelayForLocality(schedulerAttemptTime);
       LOG.debug("ShouldDelayForLocality={} for task={} on hosts={}", shouldDelayForLocality,
           request.task, requestedHostsDebugStr);
-      if (isRequestedHostPresent(request)) {
+      if (requestedHosts != null && requestedHosts.length > 0) {
         int prefHostCount = -1;
         boolean requestedHostsWillBecomeAvailable = false;
         for (String host : requestedHosts) {
@@ -1534,6 +1547,25 @@ private SelectHostResult selectHost(TaskInfo request, Map<String, List<NodeInfo>
     }
   }
 
+  /**
+   * @return the hosts running the other attempts of the task of the request. Expected to be
+   * invoked under the read lock.
+   */
+  private Set<String> getHostsOfOtherAttempts(TaskInfo request) {
+    TezTaskAttemptID attemptId = request.attemptId;
+    if (attemptId == null || attemptId.getId() == 0) {
+      return Collections.emptySet();
+    }
+    Set<String> hosts = new HashSet<>();
+    for (int i = 0; i < attemptId.getId(); i++) {
+      TaskInfo other = tasksById.get(TezTaskAttemptID.getInstance(attemptId.getTaskID(), i));
+      if (other != null && other.assignedNode != null) {
+        hosts.add(other.assignedNode.getHost());
+      }
+    }
+    return hosts;
+  }
+
   private SelectHostResult randomSelection(final List<NodeInfo> nodesWithFreeSlots) {
     if (nodesWithFreeSlots.isEmpty()) {
       return SELECT_HOST_RESULT_DELAYED_RESOURCES;
@@ -145,10 +145,11 @@ public synchronized void sourceStateUpdated(String sourceName, VertexState sourc
    * @param vertexName
    * @param fragmentNumber
    * @param priority
+   * @param memoryEstimate
    * @return
    */
   public synchronized FragmentRuntimeInfo getFragmentRuntimeInfo(String vertexName, int fragmentNumber,
-                                                                 int priority) {
+                                                                 int priority, long memoryEstimate) {
     FragmentRuntimeInfo.Builder builder = FragmentRuntimeInfo.newBuilder();
     maybeRegisterForVertexUpdates(vertexName);
 
@@ -162,6 +163,7 @@ public synchronized FragmentRuntimeInfo getFragmentRuntimeInfo(String vertexName
     builder.setWithinDagPriority(priority);
     builder.setFirstAttemptStartTime(taskCommunicatorContext.getFirstAttemptStartTime(vertexName, fragmentNumber));
     builder.setCurrentAttemptStartTime(System.currentTimeMillis());
+    builder.setMemoryEstimateBytes(memoryEstimate);
     return builder.build();
   }
 
@@ -1067,6 +1067,40 @@ public void testHostPreferenceMissesConsistentRollover() throws IOException, Int
     }
   }
 
+  @Test(timeout = 10000)
+  public void testSpeculativeAttemptOnOtherHost() throws IOException, InterruptedException {
+    Priority priority1 = Priority.newInstance(1);
+
+    String[] hosts = new String[]{HOST1, HOST2};
+    String[] hostsH1 = new String[]{HOST1};
+    TestTaskSchedulerServiceWrapper tsWrapper =
+      new TestTaskSchedulerServiceWrapper(2000, hosts, 2, 0, 0l, false, hosts, true);
+    try {
+      TezTaskAttemptID task1 = TestTaskSchedulerServiceWrapper.generateTaskAttemptId();
+      Object clientCookie1 = "cookie1";
+      TezTaskAttemptID task1Backup = TezTaskAttemptID.getInstance(task1.getTaskID(), 1);
+      Object clientCookie2 = "cookie2";
+
+      tsWrapper.controlScheduler(true);
+      tsWrapper.allocateTask(task1, hostsH1, priority1, clientCookie1);
+      tsWrapper.awaitLocalTaskAllocations(1);
+      // HOST1 still has a free executor, the backup attempt is placed on HOST2 regardless
+      tsWrapper.allocateTask(task1Backup, hostsH1, priority1, clientCookie2);
+      tsWrapper.awaitTotalTaskAllocations(2);
+
+      ArgumentCaptor<Object> argumentCaptor = ArgumentCaptor.forClass(Object.class);
+      ArgumentCaptor<Container> argumentCaptor2 = ArgumentCaptor.forClass(Container.class);
+      verify(tsWrapper.mockAppCallback, times(2))
+        .taskAllocated(argumentCaptor.capture(), any(Object.class), argumentCaptor2.capture());
+      assertEquals(task1, argumentCaptor.getAllValues().get(0));
+      assertEquals(HOST1, argumentCaptor2.getAllValues().get(0).getNodeId().getHost());
+      assertEquals(task1Backup, argumentCaptor.getAllValues().get(1));
+      assertEquals(HOST2, argumentCaptor2.getAllValues().get(1).getNodeId().getHost());
+    } finally {
+      tsWrapper.shutdown();
+    }
+  }
+
   @Test(timeout = 10000)
   public void testHostPreferenceMissesConsistentPartialAlive() throws IOException, InterruptedException {
     Priority priority1 = Priority.newInstance(1);
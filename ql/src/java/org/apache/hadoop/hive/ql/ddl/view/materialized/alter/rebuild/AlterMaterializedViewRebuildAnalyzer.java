@@ -298,7 +298,8 @@ private RelNode applyRecordIncrementalRebuildPlan(
               // if view definition does not have it incremental rebuild can not be performed, bail out
               return calcitePreMVRewritingPlan;
             }
-            return applyAggregateInsertDeleteIncremental(basePlan, mdProvider, executorProvider);
+            return applyAggregateInsertDeleteIncremental(
+                    basePlan, mdProvider, executorProvider, calcitePreMVRewritingPlan);
           } else {
             return applyJoinInsertDeleteIncremental(
                     basePlan, mdProvider, executorProvider, optCluster, calcitePreMVRewritingPlan);
@@ -306,6 +307,11 @@ private RelNode applyRecordIncrementalRebuildPlan(
         } else {
           // Trigger rewriting to remove UNION branch with MV
           if (visitor.isContainsAggregate()) {
+            if (!visitor.isInsertOnlyAggregateRewritingAllowed()) {
+              // Some aggregates can not be merged with the values stored in the view (e.g. COUNT(DISTINCT)),
+              // fall back to full rebuild
+              return calcitePreMVRewritingPlan;
+            }
             return applyAggregateInsertIncremental(basePlan, mdProvider, executorProvider, optCluster, calcitePreMVRewritingPlan);
           } else {
             return applyJoinInsertIncremental(basePlan, mdProvider, executorProvider);
@@ -321,10 +327,12 @@ private RelNode applyRecordIncrementalRebuildPlan(
     }
 
     private RelNode applyAggregateInsertDeleteIncremental(
-            RelNode basePlan, RelMetadataProvider mdProvider, RexExecutor executorProvider) {
+            RelNode basePlan, RelMetadataProvider mdProvider, RexExecutor executorProvider,
+            RelNode calcitePreMVRewritingPlan) {
       mvRebuildMode = MaterializationRebuildMode.AGGREGATE_INSERT_DELETE_REBUILD;
-      return applyIncrementalRebuild(
-              basePlan, mdProvider, executorProvider, HiveAggregateInsertDeleteIncrementalRewritingRule.INSTANCE);
+      // The plan of the view definition is used to recompute MIN, MAX, DISTINCT aggregates of the affected groups
+      return applyIncrementalRebuild(basePlan, mdProvider, executorProvider,
+              new HiveAggregateInsertDeleteIncrementalRewritingRule(calcitePreMVRewritingPlan));
     }
 
     private RelNode applyAggregateInsertIncremental(
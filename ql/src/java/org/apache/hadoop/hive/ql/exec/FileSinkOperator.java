@@ -52,7 +52,9 @@
 import org.apache.hadoop.hive.ql.ErrorMsg;
 import org.apache.hadoop.hive.ql.exec.Utilities.MissingBucketsContext;
 import org.apache.hadoop.hive.ql.exec.spark.SparkMetricUtils;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
 import org.apache.hadoop.hive.ql.io.AcidUtils;
+import org.apache.hadoop.hive.ql.io.BatchWritingRecordWriter;
 import org.apache.hadoop.hive.ql.io.BucketCodec;
 import org.apache.hadoop.hive.ql.io.HiveFileFormatUtils;
 import org.apache.hadoop.hive.ql.io.HiveKey;
@@ -115,6 +117,7 @@ public class FileSinkOperator extends TerminalOperator<FileSinkDesc> implements
   protected transient DynamicPartitionCtx dpCtx;
   protected transient boolean isCompressed;
   protected transient boolean isTemporary;
+  private transient StoragePolicyValue tmpStorage;
   protected transient Path parent;
   protected transient HiveOutputFormat<?, ?> hiveOutputFormat;
   protected transient Path specPath;
@@ -528,7 +531,7 @@ public int createDynamicBucket(int bucketNum) {
   private transient int numFiles;
   protected transient boolean multiFileSpray;
   protected transient final Map<Integer, Integer> bucketMap = new HashMap<Integer, Integer>();
-  private transient boolean isBucketed = false;
+  protected transient boolean isBucketed = false;
   private transient int bucketId;
 
   private transient ObjectInspector[] partitionObjectInspectors;
@@ -605,6 +608,7 @@ protected void initializeOp(Configuration hconf) throws HiveException {
       this.hconf = hconf;
       filesCreated = false;
       isTemporary = conf.isTemporary();
+      tmpStorage = StoragePolicyValue.lookup(HiveConf.getVar(hconf, HIVE_TEMPORARY_TABLE_STORAGE));
       multiFileSpray = conf.isMultiFileSpray();
       this.isBucketed = hconf.getInt(hive_metastoreConstants.BUCKET_COUNT, 0) > 0;
       totalFiles = conf.getTotalFiles();
@@ -692,19 +696,8 @@ protected void initializeOp(Configuration hconf) throws HiveException {
         }
       }
 
-      final StoragePolicyValue tmpStorage = StoragePolicyValue.lookup(HiveConf
-                                            .getVar(hconf, HIVE_TEMPORARY_TABLE_STORAGE));
-      if (isTemporary && fsp != null
-          && tmpStorage != StoragePolicyValue.DEFAULT) {
-        assert !conf.isMmTable(); // Not supported for temp tables.
-        final Path outputPath = fsp.buildTaskOutputTempPath();
-        StoragePolicyShim shim = ShimLoader.getHadoopShims()
-            .getStoragePolicyShim(fs);
-        if (shim != null) {
-          // directory creation is otherwise within the writers
-          fs.mkdirs(outputPath);
-          shim.setStoragePolicy(outputPath, tmpStorage);
-        }
+      if (fsp != null) {
+        setTemporaryStoragePolicy(fsp);
       }
 
       if (conf.getWriteType() == AcidUtils.Operation.UPDATE ||
@@ -1138,14 +1131,7 @@ public void process(Object row, int tag) throws HiveException {
         fpaths.addToStat(StatsSetupConst.ROW_COUNT, 1);
       }
 
-      if ((++numRows == cntr) && LOG.isInfoEnabled()) {
-        cntr = logEveryNRows == 0 ? cntr * 10 : numRows + logEveryNRows;
-        if (cntr < 0 || numRows < 0) {
-          cntr = 0;
-          numRows = 1;
-        }
-        LOG.info(toString() + ": records written - " + numRows);
-      }
+      logRecordsWritten();
 
       int writerOffset;
       // This if/else chain looks ugly in the inner loop, but given that it will be 100% the same
@@ -1172,30 +1158,7 @@ public void process(Object row, int tag) throws HiveException {
             bucketInspector.get(recIdInspector.getStructFieldData(recId, bucketField));
         int bucketNum =
           BucketCodec.determineVersion(bucketProperty).decodeWriterId(bucketProperty);
-        writerOffset = 0;
-        if (multiFileSpray) {
-          //bucket_num_reducers_acid.q, TestTxnCommands.testMoreBucketsThanReducers()
-          if (!bucketMap.containsKey(bucketNum)) {
-            String extraMsg = "  (no path info/)" + recId;
-            if (fpaths != null && fpaths.finalPaths != null && fpaths.finalPaths.length > 0) {
-              extraMsg = "  (finalPaths[0]=" + fpaths.finalPaths[0] + ")/" + recId;
-            }
-            throw new IllegalStateException("Found bucketNum=" + bucketNum +
-              " from data but no mapping in 'bucketMap'." + extraMsg);
-          }
-          writerOffset = bucketMap.get(bucketNum);
-        } else if (!isBucketed) {
-          writerOffset = fpaths.createDynamicBucket(bucketNum);
-        }
-        if (fpaths.updaters[writerOffset] == null) {
-          Integer attemptId = getAttemptIdFromTaskId(taskId);
-          fpaths.updaters[writerOffset] = HiveFileFormatUtils.getAcidRecordUpdater(jc, conf.getTableInfo(), bucketNum,
-              conf, fpaths.outPaths[writerOffset], rowInspector, reporter, 0, attemptId);
-          if (LOG.isDebugEnabled()) {
-            LOG.debug("Created updater for bucket number " + bucketNum + " using file " +
-              fpaths.outPaths[writerOffset]);
-          }
-        }
+        writerOffset = getAcidWriterOffset(bucketNum, recId, rowInspector);
         if (conf.getWriteType() == AcidUtils.Operation.UPDATE) {
           fpaths.updaters[writerOffset].update(conf.getTableWriteId(), row);
         } else if (conf.getWriteType() == AcidUtils.Operation.DELETE) {
@@ -1214,6 +1177,126 @@ public void process(Object row, int tag) throws HiveException {
     }
   }
 
+  /**
+   * Writes a delete event for the row identified by the given ROW__ID components. This is the
+   * counterpart of {@link #process(Object, int)} for DELETE statements on full ACID tables that
+   * doesn't need the row object; it is used by the vectorized file sink, which has the ROW__ID
+   * in columnar form. Not applicable with dynamic partitioning, list bucketing or compaction.
+   */
+  protected void processDelete(long originalWriteId, int bucketProperty, long rowId) throws HiveException {
+    runTimeNumRows++;
+    if (!filesCreated) {
+      createBucketFiles(fsp);
+    }
+    try {
+      updateProgress();
+      fpaths = fsp;
+      rowOutWriters = fpaths.outWriters;
+      logRecordsWritten();
+
+      int bucketNum = BucketCodec.determineVersion(bucketProperty).decodeWriterId(bucketProperty);
+      int writerOffset = getAcidWriterOffset(bucketNum, null, outputObjInspector);
+      if (!(fpaths.updaters[writerOffset] instanceof OrcRecordUpdater)) {
+        throw new HiveException("Deleting by ROW__ID is not supported by " + fpaths.updaters[writerOffset]);
+      }
+      ((OrcRecordUpdater) fpaths.updaters[writerOffset]).delete(conf.getTableWriteId(), originalWriteId,
+          bucketProperty, rowId);
+    } catch (IOException e) {
+      LOG.error("Trying to close the writers as an IOException occurred: " + e.getMessage());
+      closeWriters(true);
+      throw new HiveException(e);
+    }
+  }
+
+  /**
+   * Writes all the rows of the batch with a single call to the record writer. This is the counterpart of
+   * {@link #process(Object, int)} for non-ACID tables written by a {@link BatchWritingRecordWriter}; it is
+   * used by the vectorized file sink, which has the rows in columnar form already. Not applicable with
+   * dynamic partitioning, list bucketing, bucketed tables, multi file spray or compaction.
+   * @param batch the batch with the columns of the table, in the same order, and without selected rows
+   */
+  protected void processBatch(VectorizedRowBatch batch) throws HiveException {
+    runTimeNumRows += batch.size;
+    if (!filesCreated) {
+      createBucketFiles(fsp);
+    }
+    try {
+      updateProgress();
+      fpaths = fsp;
+      rowOutWriters = fpaths.outWriters;
+      isCollectRWStats = areAllTrue(statsFromRecordWriter);
+      if (conf.isGatherStats() && !isCollectRWStats) {
+        fpaths.addToStat(StatsSetupConst.ROW_COUNT, batch.size);
+      }
+      logRecordsWritten(batch.size);
+      ((BatchWritingRecordWriter) rowOutWriters[0]).write(batch, inputObjInspectors[0]);
+    } catch (IOException e) {
+      LOG.error("Trying to close the writers as an IOException occurred: " + e.getMessage());
+      closeWriters(true);
+      throw new HiveException(e);
+    }
+  }
+
+  private void logRecordsWritten() {
+    if ((++numRows == cntr) && LOG.isInfoEnabled()) {
+      cntr = logEveryNRows == 0 ? cntr * 10 : numRows + logEveryNRows;
+      if (cntr < 0 || numRows < 0) {
+        cntr = 0;
+        numRows = 1;
+      }
+      LOG.info(toString() + ": records written - " + numRows);
+    }
+  }
+
+  private void logRecordsWritten(int count) {
+    numRows += count;
+    if (cntr > 0 && numRows >= cntr && LOG.isInfoEnabled()) {
+      // The batch may step over several thresholds at once, log only once for them
+      while (cntr > 0 && cntr <= numRows) {
+        cntr = logEveryNRows == 0 ? cntr * 10 : numRows + logEveryNRows;
+      }
+      if (cntr < 0 || numRows < 0) {
+        cntr = 0;
+        numRows = count;
+      }
+      LOG.info(toString() + ": records written - " + numRows);
+    }
+  }
+
+  /**
+   * Finds the updater of the current paths for the given bucket of an UPDATE/DELETE, creating it
+   * if this is the first row of the bucket.
+   * @return offset of the updater in {@link FSPaths#updaters}
+   */
+  private int getAcidWriterOffset(int bucketNum, Object recId, ObjectInspector rowInspector)
+      throws HiveException, IOException {
+    int writerOffset = 0;
+    if (multiFileSpray) {
+      //bucket_num_reducers_acid.q, TestTxnCommands.testMoreBucketsThanReducers()
+      if (!bucketMap.containsKey(bucketNum)) {
+        String extraMsg = "  (no path info/)" + recId;
+        if (fpaths != null && fpaths.finalPaths != null && fpaths.finalPaths.length > 0) {
+          extraMsg = "  (finalPaths[0]=" + fpaths.finalPaths[0] + ")/" + recId;
+        }
+        throw new IllegalStateException("Found bucketNum=" + bucketNum +
+          " from data but no mapping in 'bucketMap'." + extraMsg);
+      }
+      writerOffset = bucketMap.get(bucketNum);
+    } else if (!isBucketed) {
+      writerOffset = fpaths.createDynamicBucket(bucketNum);
+    }
+    if (fpaths.updaters[writerOffset] == null) {
+      Integer attemptId = getAttemptIdFromTaskId(taskId);
+      fpaths.updaters[writerOffset] = HiveFileFormatUtils.getAcidRecordUpdater(jc, conf.getTableInfo(), bucketNum,
+          conf, fpaths.outPaths[writerOffset], rowInspector, reporter, 0, attemptId);
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("Created updater for bucket number " + bucketNum + " using file " +
+          fpaths.outPaths[writerOffset]);
+      }
+    }
+    return writerOffset;
+  }
+
   private void closeWriters(boolean abort) throws HiveException {
     fpaths.closeWriters(true, null);
     closeRecordwriters(true);
@@ -1289,6 +1372,11 @@ private FSPaths createNewPaths(String dpDir, String lbDir) throws HiveException
 
     if (bDynParts) {
       fsp2.dpDirForCounters = pathKey;
+      try {
+        setTemporaryStoragePolicy(fsp2);
+      } catch (IOException e) {
+        throw new HiveException(e);
+      }
     }
     if(!conf.getDpSortState().equals(DPSortState.PARTITION_BUCKET_SORTED)) {
       createBucketFiles(fsp2);
@@ -1297,6 +1385,25 @@ private FSPaths createNewPaths(String dpDir, String lbDir) throws HiveException
     return fsp2;
   }
 
+  /**
+   * Sets the storage policy of temporary tables (e.g. memory with a fall back to disk) on the output directory,
+   * so that the files written in it inherit it.
+   */
+  private void setTemporaryStoragePolicy(FSPaths fsPaths) throws IOException {
+    if (!isTemporary || tmpStorage == StoragePolicyValue.DEFAULT) {
+      return;
+    }
+    assert !conf.isMmTable(); // Not supported for temp tables.
+    final Path outputPath = fsPaths.buildTaskOutputTempPath();
+    StoragePolicyShim shim = ShimLoader.getHadoopShims()
+        .getStoragePolicyShim(fs);
+    if (outputPath != null && shim != null) {
+      // directory creation is otherwise within the writers
+      fs.mkdirs(outputPath);
+      shim.setStoragePolicy(outputPath, tmpStorage);
+    }
+  }
+
   private static String combinePathFragments(String first, String second) {
     return first == null ? second : (second == null ? first : first + Path.SEPARATOR + second);
   }
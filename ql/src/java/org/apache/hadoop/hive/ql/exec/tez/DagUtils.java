@@ -21,8 +21,11 @@
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Function;
 import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Iterators;
 import com.google.common.collect.Lists;
 
@@ -51,6 +54,7 @@
 import java.util.regex.Pattern;
 import java.util.zip.ZipOutputStream;
 
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.hive.common.util.HiveStringUtils;
@@ -72,6 +76,7 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
@@ -79,10 +84,12 @@
 import org.apache.hadoop.hive.common.FileUtils;
 import org.apache.hadoop.hive.conf.HiveConf;
 import org.apache.hadoop.hive.conf.HiveConf.ConfVars;
+import org.apache.hadoop.hive.llap.LlapUtil;
 import org.apache.hadoop.hive.ql.Context;
 import org.apache.hadoop.hive.ql.ErrorMsg;
 import org.apache.hadoop.hive.ql.QueryPlan;
 import org.apache.hadoop.hive.ql.exec.FileSinkOperator;
+import org.apache.hadoop.hive.ql.exec.MapJoinOperator;
 import org.apache.hadoop.hive.ql.exec.Operator;
 import org.apache.hadoop.hive.ql.exec.Utilities;
 import org.apache.hadoop.hive.ql.exec.mr.ExecMapper;
@@ -110,6 +117,7 @@
 import org.apache.hadoop.hive.ql.parse.SemanticException;
 import org.apache.hadoop.hive.ql.plan.BaseWork;
 import org.apache.hadoop.hive.ql.plan.FileSinkDesc;
+import org.apache.hadoop.hive.ql.plan.MapJoinDesc;
 import org.apache.hadoop.hive.ql.plan.MapWork;
 import org.apache.hadoop.hive.ql.plan.MergeJoinWork;
 import org.apache.hadoop.hive.ql.plan.OperatorDesc;
@@ -203,6 +211,7 @@ public class DagUtils {
    * to be performed to make sure the resource is there and matches the expected file.
    */
   private final ConcurrentHashMap<String, Object> copyNotifiers = new ConcurrentHashMap<>();
+  private static final Cache<String, String> shaCache = CacheBuilder.newBuilder().maximumSize(100).build();
 
   class CollectFileSinkUrisNodeProcessor implements SemanticNodeProcessor {
 
@@ -576,6 +585,9 @@ private EdgeProperty createEdgeProperty(Vertex w, TezEdgeProperty edgeProp,
                                           Configuration conf, BaseWork work, TezWork tezWork)
           throws IOException {
     MRHelpers.translateMRConfToTez(conf);
+    if (isRunInLlapDaemons(work, tezWork)) {
+      conf = createLlapEdgeConf(conf);
+    }
     String keyClass = conf.get(TezRuntimeConfiguration.TEZ_RUNTIME_KEY_CLASS);
     String valClass = conf.get(TezRuntimeConfiguration.TEZ_RUNTIME_VALUE_CLASS);
     String partitionerClassName = conf.get("mapred.partitioner.class");
@@ -666,6 +678,66 @@ private EdgeProperty createEdgeProperty(Vertex w, TezEdgeProperty edgeProp,
     }
   }
 
+  /**
+   * Estimates the memory a task of the work needs for the map join hash tables it loads, from the
+   * small table sizes the joins were planned with. Other buffering operators flush on their own
+   * memory thresholds and are not counted.
+   * @return the estimate in bytes, or 0 if there is nothing to estimate
+   */
+  @VisibleForTesting
+  static long estimateFragmentMemory(BaseWork work, Configuration conf) {
+    long dataSize = 0;
+    for (Operator<?> op : work.getAllOperators()) {
+      if (op instanceof MapJoinOperator) {
+        MapJoinDesc desc = ((MapJoinOperator) op).getConf();
+        for (Map.Entry<Integer, Long> entry : desc.getParentDataSizes().entrySet()) {
+          if (entry.getKey() != desc.getPosBigTable() && entry.getValue() > 0) {
+            dataSize += entry.getValue();
+          }
+        }
+      }
+    }
+    return (long) (dataSize * HiveConf.getFloatVar(conf, ConfVars.HIVE_HASH_TABLE_INFLATION_FACTOR));
+  }
+
+  /**
+   * @return whether the work and all the works it reads from run in LLAP daemons
+   */
+  private static boolean isRunInLlapDaemons(BaseWork work, TezWork tezWork) {
+    if (!(work instanceof UnionWork) && (!work.getLlapMode() || work.getUberMode())) {
+      return false;
+    }
+    for (BaseWork parent : tezWork.getParents(work)) {
+      if (parent instanceof UnionWork) {
+        if (!isRunInLlapDaemons(parent, tezWork)) {
+          return false;
+        }
+      } else if (!parent.getLlapMode() || parent.getUberMode()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * The fragments of a DAG running on the same LLAP daemon share its local directories, so the
+   * consumers of an edge between LLAP vertices can read the outputs produced on their daemon
+   * without going through the shuffle handler, and small outputs can be handed over in memory.
+   */
+  private static Configuration createLlapEdgeConf(Configuration conf) {
+    Configuration edgeConf = new Configuration(conf);
+    edgeConf.setBoolean(TezRuntimeConfiguration.TEZ_RUNTIME_OPTIMIZE_LOCAL_FETCH,
+        HiveConf.getBoolVar(conf, ConfVars.LLAP_SHUFFLE_LOCAL_FETCH));
+    long dataViaEventsMaxSize = HiveConf.getSizeVar(conf, ConfVars.LLAP_SHUFFLE_DATA_VIA_EVENTS_MAX_SIZE);
+    edgeConf.setBoolean(TezRuntimeConfiguration.TEZ_RUNTIME_TRANSFER_DATA_VIA_EVENTS_ENABLED,
+        dataViaEventsMaxSize > 0);
+    if (dataViaEventsMaxSize > 0) {
+      edgeConf.setInt(TezRuntimeConfiguration.TEZ_RUNTIME_TRANSFER_DATA_VIA_EVENTS_MAX_SIZE,
+          (int) dataViaEventsMaxSize);
+    }
+    return edgeConf;
+  }
+
   public static class ValueHashPartitioner implements Partitioner {
 
     @Override
@@ -1248,6 +1320,8 @@ private Map<String, LocalResource> addTempResources(Configuration conf, String h
         skipFileSet.add(new Path(skipFile));
       }
     }
+    boolean jarsByContent = HiveConf.getBoolVar(conf, ConfVars.HIVE_LOCALIZE_RESOURCE_JARS_BY_CONTENT);
+    Path hiveJarDir = null;
     for (String file : files) {
       if (!StringUtils.isNotBlank(file)) {
         continue;
@@ -1256,9 +1330,22 @@ private Map<String, LocalResource> addTempResources(Configuration conf, String h
         LOG.info("Skipping vertex resource " + file + " that already exists in the session");
         continue;
       }
-      Path hdfsFilePath = new Path(hdfsDirPathStr, getResourceBaseName(new Path(file)));
-      LocalResource localResource = localizeResource(new Path(file),
-          hdfsFilePath, type, conf);
+      Path src = new Path(file);
+      Path hdfsFilePath;
+      if (jarsByContent && type == LocalResourceType.FILE && isLocalJar(src)) {
+        // Shared by all the sessions, so that a new session does not upload the jar again
+        if (hiveJarDir == null) {
+          try {
+            hiveJarDir = getHiveJarDirectory(conf).getPath();
+          } catch (LoginException e) {
+            throw new IOException(e);
+          }
+        }
+        hdfsFilePath = new Path(hiveJarDir, getContentAddressedName(src, conf));
+      } else {
+        hdfsFilePath = new Path(hdfsDirPathStr, getResourceBaseName(src));
+      }
+      LocalResource localResource = localizeResource(src, hdfsFilePath, type, conf);
       tmpResourcesMap.put(file, localResource);
     }
     return tmpResourcesMap;
@@ -1284,6 +1371,43 @@ public FileStatus getHiveJarDirectory(Configuration conf) throws IOException, Lo
     return fstatus;
   }
 
+  private static boolean isLocalJar(Path path) {
+    String scheme = path.toUri().getScheme();
+    return (scheme == null || "file".equals(scheme)) && path.getName().endsWith(".jar");
+  }
+
+  /**
+   * @param localFile a local file
+   * @return the name of the file with the SHA-256 of its content appended, to localize the file
+   *         once for all the sessions in a shared directory.
+   * @throws IOException when the file cannot be read.
+   */
+  public String getContentAddressedName(Path localFile, Configuration conf) throws IOException {
+    String fileName = localFile.getName();
+    // Currently we require exact name match. We could also allow cutting off versions and other
+    // stuff provided that SHA matches...
+    return FilenameUtils.removeExtension(fileName) + "-" + getSha(localFile, conf)
+        + FilenameUtils.EXTENSION_SEPARATOR + FilenameUtils.getExtension(fileName);
+  }
+
+  private String getSha(Path localFile, Configuration conf) throws IOException {
+    FileSystem localFs = FileSystem.getLocal(conf);
+    FileStatus fileStatus = localFs.getFileStatus(localFile);
+    String key = fileStatus.getPath() + ":" + fileStatus.getLen() + ":" + fileStatus.getModificationTime();
+    String sha256 = shaCache.getIfPresent(key);
+    if (sha256 == null) {
+      try (FSDataInputStream is = localFs.open(localFile)) {
+        long start = System.currentTimeMillis();
+        sha256 = DigestUtils.sha256Hex(is);
+        long end = System.currentTimeMillis();
+        LOG.info("Computed sha: {} for file: {} of length: {} in {} ms", sha256, localFile,
+            LlapUtil.humanReadableByteCount(fileStatus.getLen()), end - start);
+        shaCache.put(key, sha256);
+      }
+    }
+    return sha256;
+  }
+
   @SuppressWarnings("deprecation")
   public static FileStatus validateTargetDir(Path path, Configuration conf) throws IOException {
     FileSystem fs = path.getFileSystem(conf);
@@ -1556,6 +1680,10 @@ public Vertex createVertex(JobConf conf, BaseWork workUnit, Path scratchDir,
       TezWork tezWork, Map<String, LocalResource> localResources) throws Exception {
 
     Vertex vertex;
+    if (workUnit.getLlapMode() && !workUnit.getUberMode()) {
+      // Read by the LLAP task communicator, before the conf is serialized into the vertex
+      conf.setLong(ConfVars.LLAP_FRAGMENT_MEMORY_ESTIMATE.varname, estimateFragmentMemory(workUnit, conf));
+    }
     // simply dispatch the call to the right method for the actual (sub-) type of
     // BaseWork.
     VertexType vertexType = tezWork.getVertexType(workUnit);
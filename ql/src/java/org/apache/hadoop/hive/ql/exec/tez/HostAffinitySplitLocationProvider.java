@@ -21,6 +21,7 @@
 import com.google.common.base.Preconditions;
 import com.google.common.hash.Hashing;
 
+import org.apache.hadoop.hive.llap.registry.LlapCacheSummary;
 import org.apache.hadoop.hive.serde2.SerDeUtils;
 import org.apache.hadoop.mapred.FileSplit;
 import org.apache.hadoop.mapred.InputSplit;
@@ -37,6 +38,10 @@
  * A big problem is when nodes change (added, removed, temporarily removed and re-added) etc. That changes
  * the number of locations / position of locations - and will cause the cache to be almost completely invalidated.
  *
+ * When the daemons publish a summary of their cache, a split whose file is not cached on the node it maps to is
+ * sent to another node holding the file, if any. This keeps the cache hits after the nodes changed, until the
+ * data is cached on the new node. The task scheduler falls back to other nodes after its locality delay.
+ *
  * TODO: Support for consistent hashing when combining the split location generator and the ServiceRegistry.
  *
  */
@@ -47,12 +52,20 @@ public class HostAffinitySplitLocationProvider implements SplitLocationProvider
 
   @VisibleForTesting
   final List<String> locations;
+  // Summary of the cache of each location, or null
+  private final List<LlapCacheSummary> cacheSummaries;
 
   public HostAffinitySplitLocationProvider(List<String> knownLocations) {
+    this(knownLocations, null);
+  }
+
+  public HostAffinitySplitLocationProvider(List<String> knownLocations, List<LlapCacheSummary> cacheSummaries) {
     Preconditions.checkState(knownLocations != null && !knownLocations.isEmpty(),
         HostAffinitySplitLocationProvider.class.getName() +
             " needs at least 1 location to function");
+    Preconditions.checkArgument(cacheSummaries == null || cacheSummaries.size() == knownLocations.size());
     this.locations = knownLocations;
+    this.cacheSummaries = cacheSummaries;
   }
 
   @Override
@@ -64,8 +77,12 @@ public String[] getLocations(InputSplit split) throws IOException {
     FileSplit fsplit = (FileSplit) split;
     String splitDesc = "Split at " + fsplit.getPath() + " with offset= " + fsplit.getStart()
         + ", length=" + fsplit.getLength();
-    String location = locations.get(determineLocation(
-        locations, fsplit.getPath().toString(), fsplit.getStart(), splitDesc));
+    String path = fsplit.getPath().toString();
+    int index = determineLocation(locations, path, fsplit.getStart(), splitDesc);
+    if (cacheSummaries != null) {
+      index = determineCachedLocation(locations, cacheSummaries, index, path, splitDesc);
+    }
+    String location = locations.get(index);
     return (location != null) ? new String[] { location } : null;
   }
 
@@ -93,6 +110,30 @@ public static int determineLocation(
     return index;
   }
 
+  /**
+   * The summaries may report files which are not cached. The consistent location is only overridden when its own
+   * summary does not have the file, which is never a false answer, and another location reports it.
+   * @return the given index if the file is cached there or the location has no summary, otherwise the first
+   * following location which has the file in its cache, if any
+   */
+  @VisibleForTesting
+  static int determineCachedLocation(List<String> locations, List<LlapCacheSummary> cacheSummaries,
+      int index, String path, String desc) {
+    LlapCacheSummary summary = cacheSummaries.get(index);
+    if (summary == null || summary.mightContain(path)) {
+      return index;
+    }
+    for (int i = 1; i < locations.size(); i++) {
+      int candidate = (index + i) % locations.size();
+      summary = cacheSummaries.get(candidate);
+      if (locations.get(candidate) != null && summary != null && summary.mightContain(path)) {
+        LOG.debug("{} cached at index={}, location={}", desc, candidate, locations.get(candidate));
+        return candidate;
+      }
+    }
+    return index;
+  }
+
   private static byte[] getHashInputForSplit(String path, long start) {
     // Explicitly using only the start offset of a split, and not the length. Splits generated on
     // block boundaries and stripe boundaries can vary slightly. Try hashing both to the same node.
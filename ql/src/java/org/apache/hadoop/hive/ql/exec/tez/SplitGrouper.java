@@ -52,6 +52,7 @@
 import org.apache.hadoop.mapred.InputSplit;
 import org.apache.hadoop.mapred.JobConf;
 import org.apache.hadoop.mapred.split.SplitLocationProvider;
+import org.apache.hadoop.mapred.split.SplitSizeEstimator;
 import org.apache.hadoop.mapred.split.TezGroupedSplit;
 import org.apache.hadoop.mapred.split.TezMapredSplitsGrouper;
 import org.apache.tez.dag.api.TaskLocationHint;
@@ -76,6 +77,8 @@ public class SplitGrouper {
 
   private final TezMapredSplitsGrouper tezGrouper = new TezMapredSplitsGrouper();
 
+  private final SplitSizeEstimator splitSizeEstimator = new ColumnarSplitSizeEstimator();
+
   /**
    * group splits for each bucket separately - while evenly filling all the
    * available slots with tasks
@@ -106,7 +109,7 @@ public Multimap<Integer, InputSplit> group(Configuration conf,
       InputSplit[] rawSplits = inputSplitCollection.toArray(new InputSplit[0]);
       InputSplit[] groupedSplits =
           tezGrouper.getGroupedSplits(conf, rawSplits, bucketTaskMap.get(bucketId),
-                  inputFormatClass.getName(), new ColumnarSplitSizeEstimator(), splitLocationProvider);
+                  inputFormatClass.getName(), splitSizeEstimator, splitLocationProvider);
 
       LOG.info("Original split count is " + rawSplits.length + " grouped split count is "
           + groupedSplits.length + ", for bucket: " + bucketId);
@@ -342,17 +345,17 @@ public int compare(HiveInputFormat.HiveInputSplit h1, HiveInputFormat.HiveInputS
    * we allocate the head room evenly
    */
   private Map<Integer, Integer> estimateBucketSizes(int availableSlots, float waves,
-                                                    Map<Integer, Collection<InputSplit>> bucketSplitMap) {
+                                                    Map<Integer, Collection<InputSplit>> bucketSplitMap)
+      throws IOException {
 
-    // mapping of bucket id to size of all splits in bucket in bytes
+    // mapping of bucket id to estimated size of the data read from all splits in bucket in bytes
     Map<Integer, Long> bucketSizeMap = new HashMap<Integer, Long>();
 
     // mapping of bucket id to number of required tasks to run
     Map<Integer, Integer> bucketTaskMap = new HashMap<Integer, Integer>();
 
-    // TODO HIVE-12255. Make use of SplitSizeEstimator.
-    // The actual task computation needs to be looked at as well.
-    // compute the total size per bucket
+    // TODO HIVE-12255. The actual task computation needs to be looked at as well.
+    // compute the total size per bucket, as estimated for grouping its splits
     long totalSize = 0;
     boolean earlyExit = false;
     for (int bucketId : bucketSplitMap.keySet()) {
@@ -367,9 +370,9 @@ private Map<Integer, Integer> estimateBucketSizes(int availableSlots, float wave
           earlyExit = true;
           continue;
         }
-        FileSplit fsplit = (FileSplit) s;
-        size += fsplit.getLength();
-        totalSize += fsplit.getLength();
+        long splitSize = getEstimatedSize((FileSplit) s);
+        size += splitSize;
+        totalSize += splitSize;
       }
       bucketSizeMap.put(bucketId, size);
     }
@@ -399,6 +402,13 @@ private Map<Integer, Integer> estimateBucketSizes(int availableSlots, float wave
     return bucketTaskMap;
   }
 
+  private long getEstimatedSize(FileSplit split) throws IOException {
+    long size = splitSizeEstimator.getEstimatedSize(split);
+    // Columnar splits of unknown size are estimated at worst case for grouping, which would leave
+    // no tasks to the other buckets. Weigh them by their length instead.
+    return size == Integer.MAX_VALUE ? split.getLength() : size;
+  }
+
   private static MapWork populateMapWork(JobConf jobConf, String inputName) {
     MapWork work = null;
     if (inputName != null) {
@@ -42,6 +42,7 @@
 import org.apache.hadoop.hive.ql.wm.Trigger;
 import org.apache.hadoop.hive.ql.wm.TriggerActionHandler;
 import org.apache.hadoop.hive.shims.Utils;
+import org.apache.hadoop.security.UserGroupInformation;
 import org.apache.tez.dag.api.TezConfiguration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -90,6 +91,7 @@ private enum CustomQueueAllowed {
   private TriggerActionHandler<?> triggerActionHandler;
   private TriggerValidatorRunnable triggerValidatorRunnable;
   private YarnQueueHelper yarnQueueChecker;
+  private TezSessionPrelauncher prelauncher;
 
   /** Note: this is not thread-safe. */
   public static TezSessionPoolManager getInstance() {
@@ -197,6 +199,10 @@ public void setupNonPool(HiveConf conf) {
     }
 
     restrictedConfig = new RestrictedConfigChecker(conf);
+    if (prelauncher == null) {
+      prelauncher = TezSessionPrelauncher.create(conf,
+          (queue, sessionConf) -> createAndInitSession(queue, false, sessionConf));
+    }
   }
 
   public void initTriggers(final HiveConf conf) {
@@ -290,6 +296,9 @@ private TezSessionState getSession(HiveConf conf, boolean doOpen) throws Excepti
       LOG.info("QueueName: {} nonDefaultUser: {} defaultQueuePool: {} hasInitialSessions: {}" +
                       " jobNameSet: ", queueName, nonDefaultUser, defaultSessionPool,
               hasInitialSessions, jobNameSet);
+      if (prelauncher != null && doOpen && !jobNameSet && prelauncher.canServe(conf)) {
+        return getPrelaunchedSessionState(conf, queueName);
+      }
       return getNewSessionState(conf, queueName, doOpen);
     }
 
@@ -318,6 +327,24 @@ private TezSessionState getNewSessionState(HiveConf conf,
     return retTezSessionState;
   }
 
+  /**
+   * Takes the spare session of the user and queue if there is one, and prelaunches the next one.
+   * @param conf HiveConf that is used to initialize the session
+   * @param queueName could be null. Set in the tez session.
+   */
+  private TezSessionState getPrelaunchedSessionState(HiveConf conf, String queueName) throws Exception {
+    UserGroupInformation ugi = Utils.getUGI();
+    TezSessionPoolSession session = prelauncher.claim(ugi.getShortUserName(), queueName);
+    prelauncher.prelaunch(ugi, queueName);
+    if (session == null) {
+      return getNewSessionState(conf, queueName, true);
+    }
+    if (queueName != null) {
+      conf.set(TezConfiguration.TEZ_QUEUE_NAME, queueName);
+    }
+    return session;
+  }
+
   @Override
   public void returnAfterUse(TezSessionPoolSession session) throws Exception {
     returnSession(session);
@@ -361,6 +388,10 @@ public static void closeIfNotDefault(
   }
 
   public void stop() throws Exception {
+    if (prelauncher != null) {
+      prelauncher.stop();
+      prelauncher = null;
+    }
     if ((instance == null) || !this.hasInitialSessions) {
       return;
     }
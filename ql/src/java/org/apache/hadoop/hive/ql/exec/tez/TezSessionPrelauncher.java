@@ -0,0 +1,246 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.hive.ql.exec.tez;
+
+import java.security.PrivilegedExceptionAction;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hive.conf.HiveConf;
+import org.apache.hadoop.hive.conf.HiveConf.ConfVars;
+import org.apache.hadoop.hive.ql.session.SessionState;
+import org.apache.hadoop.security.UserGroupInformation;
+import org.apache.tez.dag.api.TezConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Keeps an open Tez session ready for the next query of the users and queues that do not use the
+ * default sessions, so that the query does not wait for its AM to launch. An AM runs as the user
+ * and in the queue it was launched for, so the spare sessions are per user and queue. When a query
+ * takes the spare of its user and queue, another one is opened in the background; spares that are
+ * not taken within the idle timeout are closed.
+ * The spares are opened with the configuration of HS2, like the default sessions, and only serve
+ * the queries which do not change the configuration of the AM. They are not tied to the Hive
+ * session of the query which triggered the launch, which may close before the spare is taken.
+ */
+class TezSessionPrelauncher {
+  private static final Logger LOG = LoggerFactory.getLogger(TezSessionPrelauncher.class);
+
+  /** The prefixes of the Tez and YARN settings which apply to the AM rather than to a DAG. */
+  private static final String[] AM_CONF_PREFIXES = {
+      "tez.am.", "tez.session.", "tez.lib.", "tez.staging-dir", "yarn.app.mapreduce.am." };
+  private static final ConfVars[] AM_CONF_VARS = {
+      ConfVars.HIVE_EXECUTION_MODE, ConfVars.LLAP_DAEMON_SERVICE_HOSTS };
+
+  private final HiveConf baseConf;
+  private final Map<String, String> baseAmConf;
+  private final SessionState parentSessionState;
+  private final BiFunction<String, HiveConf, TezSessionPoolSession> sessionFactory;
+  private final int maxSessions;
+  private final long idleTimeoutMs;
+  private final ScheduledExecutorService executor;
+  private final Map<String, Spare> spares = new ConcurrentHashMap<>();
+  private final Set<String> launching = ConcurrentHashMap.newKeySet();
+
+  private static final class Spare {
+    private final TezSessionPoolSession session;
+    private final UserGroupInformation ugi;
+
+    private Spare(TezSessionPoolSession session, UserGroupInformation ugi) {
+      this.session = session;
+      this.ugi = ugi;
+    }
+  }
+
+  TezSessionPrelauncher(HiveConf baseConf,
+      BiFunction<String, HiveConf, TezSessionPoolSession> sessionFactory, int maxSessions,
+      long idleTimeoutMs) {
+    this.baseConf = baseConf;
+    this.baseAmConf = getAmConf(baseConf);
+    // Like the default sessions, the spares use the session state of HS2, which lives as long as
+    // they do, for the parts of the Tez session which still rely on a thread local session state.
+    this.parentSessionState = SessionState.get();
+    this.sessionFactory = sessionFactory;
+    this.maxSessions = maxSessions;
+    this.idleTimeoutMs = idleTimeoutMs;
+    this.executor = Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactoryBuilder().setDaemon(true).setNameFormat("TezSessionPrelauncher").build());
+  }
+
+  /**
+   * @param conf the configuration of HS2, which the spares are opened with
+   * @param sessionFactory creates a non-default session for a queue
+   * @return the prelauncher, or null if prelaunching is disabled
+   */
+  static TezSessionPrelauncher create(HiveConf conf,
+      BiFunction<String, HiveConf, TezSessionPoolSession> sessionFactory) {
+    int maxSessions = HiveConf.getIntVar(conf, ConfVars.HIVE_SERVER2_TEZ_SESSION_PRELAUNCH_MAX);
+    if (maxSessions <= 0) {
+      return null;
+    }
+    long idleTimeoutMs = HiveConf.getTimeVar(
+        conf, ConfVars.HIVE_SERVER2_TEZ_SESSION_PRELAUNCH_IDLE_TIMEOUT, TimeUnit.MILLISECONDS);
+    return new TezSessionPrelauncher(conf, sessionFactory, maxSessions, idleTimeoutMs);
+  }
+
+  /**
+   * @return whether a spare can serve a query with this configuration, i.e. whether the query
+   * leaves the settings of the AM as in the configuration of HS2
+   */
+  boolean canServe(HiveConf conf) {
+    return baseAmConf.equals(getAmConf(conf));
+  }
+
+  private static Map<String, String> getAmConf(HiveConf conf) {
+    Map<String, String> amConf = new HashMap<>();
+    for (String prefix : AM_CONF_PREFIXES) {
+      for (Map.Entry<String, String> entry : conf.getPropsWithPrefix(prefix).entrySet()) {
+        amConf.put(prefix + entry.getKey(), entry.getValue());
+      }
+    }
+    for (ConfVars var : AM_CONF_VARS) {
+      amConf.put(var.varname, HiveConf.getVar(conf, var));
+    }
+    return amConf;
+  }
+
+  /**
+   * @param queue the queue, or null for the default queue of the user
+   * @return the open spare session of the user and queue, or null if there is none
+   */
+  TezSessionPoolSession claim(String user, String queue) {
+    Spare spare = spares.remove(getKey(user, queue));
+    if (spare == null) {
+      return null;
+    }
+    if (!spare.session.isOpen()) {
+      LOG.info("The prelaunched session {} is no longer open", spare.session.getSessionId());
+      close(spare);
+      return null;
+    }
+    LOG.info("Using the prelaunched session {} for {}", spare.session.getSessionId(), getKey(user, queue));
+    return spare.session;
+  }
+
+  /**
+   * Opens a spare session for the user and queue in the background, unless there is one already
+   * or the maximum number of sessions is reached. The session is opened as the user, with a copy
+   * of the configuration of HS2. Its Tez directories are in the scratch directory of the user
+   * rather than in the one of the current Hive session.
+   * @return the future of the launch, or null if no session is launched
+   */
+  Future<?> prelaunch(UserGroupInformation ugi, String queue) {
+    String key = getKey(ugi.getShortUserName(), queue);
+    synchronized (this) {
+      if (spares.containsKey(key) || launching.contains(key)
+          || spares.size() + launching.size() >= maxSessions) {
+        return null;
+      }
+      launching.add(key);
+    }
+    HiveConf sessionConf = new HiveConf(baseConf);
+    if (queue != null) {
+      sessionConf.set(TezConfiguration.TEZ_QUEUE_NAME, queue);
+    }
+    Path tezDirRoot = new Path(HiveConf.getVar(baseConf, ConfVars.SCRATCHDIR), ugi.getShortUserName());
+    try {
+      return executor.submit(() -> launch(key, ugi, queue, sessionConf, tezDirRoot));
+    } catch (RejectedExecutionException e) {
+      // Stopped
+      launching.remove(key);
+      return null;
+    }
+  }
+
+  private void launch(String key, UserGroupInformation ugi, String queue, HiveConf conf,
+      Path tezDirRoot) {
+    try {
+      TezSessionPoolSession session = sessionFactory.apply(queue, conf);
+      session.setTezDirRoot(tezDirRoot);
+      ugi.doAs((PrivilegedExceptionAction<Void>) () -> {
+        if (parentSessionState != null) {
+          SessionState.setCurrentSessionState(parentSessionState);
+        }
+        try {
+          session.open();
+        } finally {
+          SessionState.detachSession();
+        }
+        return null;
+      });
+      Spare spare = new Spare(session, ugi);
+      if (executor.isShutdown()) {
+        close(spare);
+        return;
+      }
+      spares.put(key, spare);
+      LOG.info("Prelaunched the session {} for {}", session.getSessionId(), key);
+      executor.schedule(() -> closeIfIdle(key, spare), idleTimeoutMs, TimeUnit.MILLISECONDS);
+    } catch (Exception e) {
+      LOG.warn("Unable to prelaunch a session for " + key, e);
+    } finally {
+      launching.remove(key);
+    }
+  }
+
+  private void closeIfIdle(String key, Spare spare) {
+    if (spares.remove(key, spare)) {
+      LOG.info("Closing the idle prelaunched session {} of {}", spare.session.getSessionId(), key);
+      close(spare);
+    }
+  }
+
+  private static void close(Spare spare) {
+    try {
+      spare.ugi.doAs((PrivilegedExceptionAction<Void>) () -> {
+        spare.session.close(false);
+        return null;
+      });
+    } catch (Exception e) {
+      LOG.warn("Unable to close the prelaunched session " + spare.session.getSessionId(), e);
+    }
+  }
+
+  void stop() {
+    executor.shutdownNow();
+    List<Spare> toClose = new ArrayList<>(spares.values());
+    spares.clear();
+    for (Spare spare : toClose) {
+      close(spare);
+    }
+  }
+
+  private static String getKey(String user, String queue) {
+    return user + "@" + (queue == null ? "" : queue);
+  }
+}
@@ -39,17 +39,13 @@
 import java.util.concurrent.atomic.AtomicReference;
 import javax.security.auth.login.LoginException;
 
-import org.apache.commons.codec.digest.DigestUtils;
-import org.apache.commons.io.FilenameUtils;
 import org.apache.hadoop.conf.Configuration;
-import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.fs.permission.FsPermission;
 import org.apache.hadoop.hive.conf.HiveConf;
 import org.apache.hadoop.hive.conf.HiveConf.ConfVars;
-import org.apache.hadoop.hive.llap.LlapUtil;
 import org.apache.hadoop.hive.llap.coordinator.LlapCoordinator;
 import org.apache.hadoop.hive.llap.impl.LlapProtocolClientImpl;
 import org.apache.hadoop.hive.llap.security.LlapTokenClient;
@@ -91,8 +87,7 @@
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
+import com.google.common.annotations.VisibleForTesting;
 
 /**
  * Holds session state related to Tez
@@ -108,6 +103,8 @@ public class TezSessionState {
   private static final String LLAP_TASK_COMMUNICATOR = LlapTaskCommunicator.class.getName();
 
   private final HiveConf conf;
+  /** The directory to create the Tez directories in, if not the scratch directory of the Hive session. */
+  private Path tezDirRoot;
   private Path tezScratchDir;
   private LocalResource appJarLr;
   private TezClient session;
@@ -150,7 +147,6 @@ public String toString() {
   private WmContext wmContext;
   private KillQuery killQuery;
 
-  private static final Cache<String, String> shaCache = CacheBuilder.newBuilder().maximumSize(100).build();
   /**
    * Constructor. We do not automatically connect, because we only want to
    * load tez classes when the user has tez installed.
@@ -325,6 +321,13 @@ protected void openInternal(String[] additionalFilesNotFromConf,
         llapCredentials = new Credentials();
         llapCredentials.addToken(LlapTokenIdentifier.KIND_NAME, getLlapToken(user, tezConfig));
       }
+      if (HiveConf.getBoolVar(conf, ConfVars.LLAP_TASK_SCHEDULER_SPECULATION_ENABLED)) {
+        // Tez compares the progress of the attempts of a vertex, the LLAP scheduler places the
+        // backup attempts on other daemons.
+        tezConfig.setBoolean(TezConfiguration.TEZ_AM_SPECULATION_ENABLED, true);
+        tezConfig.setDouble(TezConfiguration.TEZ_AM_PROPORTION_RUNNING_TASKS_SPECULATABLE,
+            HiveConf.getFloatVar(conf, ConfVars.LLAP_TASK_SCHEDULER_SPECULATION_MAX_RUNNING_FRACTION));
+      }
       // TODO Change this to not serialize the entire Configuration - minor.
       UserPayload servicePluginPayload = TezUtils.createUserPayloadFromConf(tezConfig);
       // we need plugins to handle llap and uber mode
@@ -778,8 +781,13 @@ private Path createTezDir(String sessionId, String suffix) throws IOException {
     // tez needs its own scratch dir (per session)
     // TODO: De-link from SessionState. A TezSession can be linked to different Hive Sessions via the pool.
     SessionState sessionState = SessionState.get();
-    String hdfsScratchDir = sessionState == null ? HiveConf.getVar(conf, HiveConf.ConfVars.SCRATCHDIR) : sessionState
-      .getHdfsScratchDirURIString();
+    String hdfsScratchDir;
+    if (tezDirRoot != null) {
+      hdfsScratchDir = tezDirRoot.toString();
+    } else {
+      hdfsScratchDir = sessionState == null ? HiveConf.getVar(conf, HiveConf.ConfVars.SCRATCHDIR) : sessionState
+        .getHdfsScratchDirURIString();
+    }
     Path tezDir = new Path(hdfsScratchDir, TEZ_DIR);
     tezDir = new Path(tezDir, sessionId + ((suffix == null) ? "" : ("-" + suffix)));
     FileSystem fs = tezDir.getFileSystem(conf);
@@ -810,14 +818,7 @@ private LocalResource createJarLocalResource(String localJarPath)
     Path destDirPath = destDirStatus.getPath();
 
     Path localFile = new Path(localJarPath);
-    String sha = getSha(localFile);
-
-    String destFileName = localFile.getName();
-
-    // Now, try to find the file based on SHA and name. Currently we require exact name match.
-    // We could also allow cutting off versions and other stuff provided that SHA matches...
-    destFileName = FilenameUtils.removeExtension(destFileName) + "-" + sha
-        + FilenameUtils.EXTENSION_SEPARATOR + FilenameUtils.getExtension(destFileName);
+    String destFileName = utils.getContentAddressedName(localFile, conf);
 
     LOG.debug("The destination file name for [{}] is {}", localJarPath, destFileName);
 
@@ -827,10 +828,6 @@ private LocalResource createJarLocalResource(String localJarPath)
     return utils.localizeResource(localFile, destFile, LocalResourceType.FILE, conf);
   }
 
-  private String getKey(final FileStatus fileStatus) {
-    return fileStatus.getPath() + ":" + fileStatus.getLen() + ":" + fileStatus.getModificationTime();
-  }
-
   private void addJarLRByClassName(String className, final Map<String, LocalResource> lrMap) throws
       IOException, LoginException {
     Class<?> clazz;
@@ -854,33 +851,23 @@ private void addJarLRByClass(Class<?> clazz, final Map<String, LocalResource> lr
     lrMap.put(DagUtils.getBaseName(jarLr), jarLr);
   }
 
-  private String getSha(final Path localFile) throws IOException, IllegalArgumentException {
-    FileSystem localFs = FileSystem.getLocal(conf);
-    FileStatus fileStatus = localFs.getFileStatus(localFile);
-    String key = getKey(fileStatus);
-    String sha256 = shaCache.getIfPresent(key);
-    if (sha256 == null) {
-      FSDataInputStream is = null;
-      try {
-        is = localFs.open(localFile);
-        long start = System.currentTimeMillis();
-        sha256 = DigestUtils.sha256Hex(is);
-        long end = System.currentTimeMillis();
-        LOG.info("Computed sha: {} for file: {} of length: {} in {} ms", sha256, localFile,
-          LlapUtil.humanReadableByteCount(fileStatus.getLen()), end - start);
-        shaCache.put(key, sha256);
-      } finally {
-        if (is != null) {
-          is.close();
-        }
-      }
-    }
-    return sha256;
-  }
   public void setQueueName(String queueName) {
     this.queueName = queueName;
   }
 
+  /**
+   * Sets the directory to create the Tez directories of the session in, for a session which is
+   * not tied to the Hive session that opens it.
+   */
+  void setTezDirRoot(Path tezDirRoot) {
+    this.tezDirRoot = tezDirRoot;
+  }
+
+  @VisibleForTesting
+  Path getTezDirRoot() {
+    return tezDirRoot;
+  }
+
   public String getQueueName() {
     return queueName;
   }
@@ -204,6 +204,13 @@ public int execute() {
 
       try {
         ss.setTezSession(session);
+        if (session instanceof WmTezSession && ((WmTezSession) session).getPoolName() != null) {
+          // For the daemons to share executors and IO bandwidth between the pools
+          jobConf.set(HiveConf.ConfVars.LLAP_QUERY_WM_POOL.varname,
+              ((WmTezSession) session).getPoolName());
+        } else {
+          jobConf.unset(HiveConf.ConfVars.LLAP_QUERY_WM_POOL.varname);
+        }
         LOG.info("Subscribed to counters: {} for queryId: {}", wmContext.getSubscribedCounters(),
           wmContext.getQueryId());
 
@@ -483,6 +490,10 @@ DAG build(JobConf conf, TezWork tezWork, Path scratchDir, Context ctx,
 
     String queryId = HiveConf.getVar(conf, HiveConf.ConfVars.HIVEQUERYID);
     dag.setConf(HiveConf.ConfVars.HIVEQUERYID.varname, queryId);
+    String wmPool = HiveConf.getVar(conf, HiveConf.ConfVars.LLAP_QUERY_WM_POOL);
+    if (!wmPool.isEmpty()) {
+      dag.setConf(HiveConf.ConfVars.LLAP_QUERY_WM_POOL.varname, wmPool);
+    }
 
     LOG.debug("DagInfo: {}", dagInfo);
 
@@ -20,12 +20,14 @@
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.hive.conf.HiveConf;
+import org.apache.hadoop.hive.llap.registry.LlapCacheSummary;
 import org.apache.hadoop.hive.llap.registry.LlapServiceInstance;
 import org.apache.hadoop.hive.llap.registry.impl.LlapRegistryService;
 import org.apache.hadoop.hive.metastore.api.MetaException;
@@ -74,7 +76,8 @@ public static SplitLocationProvider getSplitLocationProvider(Configuration conf,
       return locationProviderImpl;
     } else if (useCustomLocations) {
       LlapRegistryService serviceRegistry = LlapRegistryService.getClient(conf);
-      return getCustomSplitLocationProvider(serviceRegistry, LOG);
+      return getCustomSplitLocationProvider(serviceRegistry,
+          HiveConf.getBoolVar(conf, HiveConf.ConfVars.LLAP_CLIENT_CACHE_AWARE_SPLITS), LOG);
     } else {
       splitLocationProvider = new SplitLocationProvider() {
         @Override
@@ -98,6 +101,12 @@ public String[] getLocations(InputSplit split) throws IOException {
   @VisibleForTesting
   static SplitLocationProvider getCustomSplitLocationProvider(LlapRegistryService serviceRegistry, Logger LOG) throws
       IOException {
+    return getCustomSplitLocationProvider(serviceRegistry, false, LOG);
+  }
+
+  @VisibleForTesting
+  static SplitLocationProvider getCustomSplitLocationProvider(LlapRegistryService serviceRegistry,
+      boolean useCacheSummaries, Logger LOG) throws IOException {
     LOG.info("Using LLAP instance " + serviceRegistry.getApplicationId());
 
     Collection<LlapServiceInstance> serviceInstances =
@@ -105,7 +114,16 @@ static SplitLocationProvider getCustomSplitLocationProvider(LlapRegistryService
     Preconditions.checkArgument(!serviceInstances.isEmpty(),
         "No running LLAP daemons! Please check LLAP service status and zookeeper configuration");
     ArrayList<String> locations = new ArrayList<>(serviceInstances.size());
+    List<LlapCacheSummary> cacheSummaries = new ArrayList<>(serviceInstances.size());
+    boolean hasCacheSummary = false;
     for (LlapServiceInstance serviceInstance : serviceInstances) {
+      LlapCacheSummary cacheSummary = null;
+      if (useCacheSummaries) {
+        cacheSummary = LlapCacheSummary.deserialize(
+            serviceInstance.getProperties().get(LlapRegistryService.LLAP_DAEMON_CACHE_SUMMARY));
+        hasCacheSummary |= cacheSummary != null;
+      }
+      cacheSummaries.add(cacheSummary);
       String executors =
           serviceInstance.getProperties().get(LlapRegistryService.LLAP_DAEMON_NUM_ENABLED_EXECUTORS);
       if (executors != null && Integer.parseInt(executors) == 0) {
@@ -123,7 +141,7 @@ static SplitLocationProvider getCustomSplitLocationProvider(LlapRegistryService
         }
       }
     }
-    return new HostAffinitySplitLocationProvider(locations);
+    return new HostAffinitySplitLocationProvider(locations, hasCacheSummary ? cacheSummaries : null);
   }
 
 
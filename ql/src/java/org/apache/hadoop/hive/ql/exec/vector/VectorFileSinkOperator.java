@@ -18,15 +18,26 @@
 
 package org.apache.hadoop.hive.ql.exec.vector;
 
+import java.util.List;
+
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hive.conf.HiveConf;
 import org.apache.hadoop.hive.ql.CompilationOpContext;
 import org.apache.hadoop.hive.ql.exec.FileSinkOperator;
+import org.apache.hadoop.hive.ql.io.AcidUtils;
+import org.apache.hadoop.hive.ql.io.orc.OrcOutputFormat;
 import org.apache.hadoop.hive.ql.metadata.HiveException;
 import org.apache.hadoop.hive.ql.plan.FileSinkDesc;
 import org.apache.hadoop.hive.ql.plan.OperatorDesc;
 import org.apache.hadoop.hive.ql.plan.VectorDesc;
 import org.apache.hadoop.hive.ql.plan.VectorFileSinkDesc;
+import org.apache.hadoop.hive.serde.serdeConstants;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.StructField;
 import org.apache.hadoop.hive.serde2.objectinspector.StructObjectInspector;
+import org.apache.hadoop.hive.serde2.typeinfo.PrimitiveTypeInfo;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfo;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoUtils;
 
 import com.google.common.annotations.VisibleForTesting;
 
@@ -51,6 +62,13 @@ public class VectorFileSinkOperator extends FileSinkOperator
 
   protected transient Object[] singleRow;
 
+  // DELETE on a full ACID ORC table, delete events are written from the ROW__ID column directly
+  private transient boolean isAcidDelete;
+
+  // Whole batches are handed to the ORC writer, with the projected columns in table order
+  private transient boolean isOrcBatchWrite;
+  private transient VectorizedRowBatch outputBatch;
+
   public VectorFileSinkOperator(CompilationOpContext ctx, OperatorDesc conf,
       VectorizationContext vContext, VectorDesc vectorDesc) {
     this(ctx);
@@ -84,11 +102,92 @@ protected void initializeOp(Configuration hconf) throws HiveException {
     super.initializeOp(hconf);
 
     firstBatch = true;
+    isAcidDelete = HiveConf.getBoolVar(hconf, HiveConf.ConfVars.HIVE_VECTORIZATION_FILESINK_ACID_DELETE_ENABLED)
+        && conf.getWriteType() == AcidUtils.Operation.DELETE
+        && !bDynParts && lbCtx == null && !conf.isMmTable() && !conf.isCompactionTable()
+        && OrcOutputFormat.class.isAssignableFrom(conf.getTableInfo().getOutputFileFormatClass())
+        && AcidUtils.getAcidOperationalProperties(conf.getTableInfo().getProperties()).isSplitUpdate();
+    isOrcBatchWrite = HiveConf.getBoolVar(hconf, HiveConf.ConfVars.HIVE_VECTORIZATION_FILESINK_ORC_BATCH_ENABLED)
+        && conf.getWriteType() == AcidUtils.Operation.NOT_ACID
+        && !bDynParts && lbCtx == null && !multiFileSpray && !isBucketed
+        && !conf.isMmTable() && !conf.isCompactionTable()
+        && OrcOutputFormat.class.isAssignableFrom(conf.getTableInfo().getOutputFileFormatClass())
+        && hasOrcBatchWritableColumns();
+    if (isOrcBatchWrite) {
+      outputBatch = new VectorizedRowBatch(vContext.getProjectedColumns().size());
+    }
+  }
+
+  /**
+   * The column vectors of the batches are written as they are, which gives the same files as writing the rows
+   * only for the types whose vectors do not carry any calendar or scale settings, and if the rows are of the
+   * types of the table.
+   */
+  private boolean hasOrcBatchWritableColumns() {
+    String columnTypes = conf.getTableInfo().getProperties().getProperty(serdeConstants.LIST_COLUMN_TYPES);
+    if (columnTypes == null) {
+      return false;
+    }
+    List<TypeInfo> tableTypes = TypeInfoUtils.getTypeInfosFromTypeString(columnTypes);
+    List<? extends StructField> fields = ((StructObjectInspector) inputObjInspectors[0]).getAllStructFieldRefs();
+    if (fields.size() != tableTypes.size() || fields.size() != vContext.getProjectedColumns().size()) {
+      return false;
+    }
+    for (int i = 0; i < fields.size(); i++) {
+      TypeInfo typeInfo = TypeInfoUtils.getTypeInfoFromObjectInspector(fields.get(i).getFieldObjectInspector());
+      if (!typeInfo.equals(tableTypes.get(i)) || typeInfo.getCategory() != ObjectInspector.Category.PRIMITIVE) {
+        return false;
+      }
+      switch (((PrimitiveTypeInfo) typeInfo).getPrimitiveCategory()) {
+      case BOOLEAN:
+      case BYTE:
+      case SHORT:
+      case INT:
+      case LONG:
+      case FLOAT:
+      case DOUBLE:
+      case STRING:
+      case BINARY:
+        break;
+      default:
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @VisibleForTesting
+  boolean isAcidDelete() {
+    return isAcidDelete;
+  }
+
+  @VisibleForTesting
+  boolean isOrcBatchWrite() {
+    return isOrcBatchWrite;
   }
 
   @Override
   public void process(Object data, int tag) throws HiveException {
     VectorizedRowBatch batch = (VectorizedRowBatch) data;
+    if (isAcidDelete) {
+      // ROW__ID is always the first column of the rows of an UPDATE/DELETE
+      ColumnVector recIdColumn = batch.cols[vContext.getProjectedColumns().get(0)];
+      if (recIdColumn instanceof StructColumnVector) {
+        processDeleteBatch(batch, (StructColumnVector) recIdColumn);
+        return;
+      }
+    }
+    if (isOrcBatchWrite && !batch.selectedInUse) {
+      if (batch.size > 0) {
+        List<Integer> projectedColumns = vContext.getProjectedColumns();
+        for (int i = 0; i < outputBatch.numCols; i++) {
+          outputBatch.cols[i] = batch.cols[projectedColumns.get(i)];
+        }
+        outputBatch.size = batch.size;
+        processBatch(outputBatch);
+      }
+      return;
+    }
     if (firstBatch) {
       vectorExtractRow = new VectorExtractRow();
       vectorExtractRow.init((StructObjectInspector) inputObjInspectors[0], vContext.getProjectedColumns());
@@ -113,6 +212,21 @@ public void process(Object data, int tag) throws HiveException {
     }
   }
 
+  private void processDeleteBatch(VectorizedRowBatch batch, StructColumnVector recIdColumn)
+      throws HiveException {
+    // The order of fields in RecordIdentifier is writeId, bucketId, rowId
+    LongColumnVector writeIds = (LongColumnVector) recIdColumn.fields[0];
+    LongColumnVector bucketIds = (LongColumnVector) recIdColumn.fields[1];
+    LongColumnVector rowIds = (LongColumnVector) recIdColumn.fields[2];
+    for (int logical = 0; logical < batch.size; logical++) {
+      int batchIndex = recIdColumn.isRepeating ? 0 : (batch.selectedInUse ? batch.selected[logical] : logical);
+      processDelete(
+          writeIds.vector[writeIds.isRepeating ? 0 : batchIndex],
+          (int) bucketIds.vector[bucketIds.isRepeating ? 0 : batchIndex],
+          rowIds.vector[rowIds.isRepeating ? 0 : batchIndex]);
+    }
+  }
+
   @Override
   public VectorDesc getVectorDesc() {
     return vectorDesc;
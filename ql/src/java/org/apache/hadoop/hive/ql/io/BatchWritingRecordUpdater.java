@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.hive.ql.io;
+
+import java.io.IOException;
+
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
+
+/**
+ * If a columnar file format (like ORC) can write vectorized row batches directly, it
+ * can expose it through this record updater interface, so that writers that buffer
+ * their rows (like streaming ingest) can insert them a batch at a time.
+ */
+public interface BatchWritingRecordUpdater extends RecordUpdater {
+  /**
+   * Creates an empty batch that {@link #insert(long, VectorizedRowBatch)} accepts.
+   * @param maxSize the maximum number of rows of the batch
+   * @return a batch with one column per column of the table, in the same order
+   */
+  VectorizedRowBatch createRowBatch(int maxSize) throws IOException;
+
+  /**
+   * Inserts all the rows of the batch.
+   * @param currentWriteId the current write id
+   * @param rows a batch created by {@link #createRowBatch(int)}, without selected rows
+   */
+  void insert(long currentWriteId, VectorizedRowBatch rows) throws IOException;
+}
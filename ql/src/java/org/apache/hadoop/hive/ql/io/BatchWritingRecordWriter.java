@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.hive.ql.io;
+
+import java.io.IOException;
+
+import org.apache.hadoop.hive.ql.exec.FileSinkOperator.RecordWriter;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+
+/**
+ * If a columnar file format (like ORC) can write vectorized row batches directly, it
+ * can expose it through this record writer interface, so that the vectorized FileSink
+ * does not have to extract and serialize the rows one by one.
+ */
+public interface BatchWritingRecordWriter extends RecordWriter {
+  /**
+   * Writes all the rows of the batch.
+   * @param batch the batch, with one column per column of the table, in the same order,
+   *              and without selected rows
+   * @param inspector the inspector of the rows the batch is equivalent to
+   */
+  void write(VectorizedRowBatch batch, ObjectInspector inspector) throws IOException;
+}
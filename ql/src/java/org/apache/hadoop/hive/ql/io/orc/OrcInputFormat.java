@@ -663,10 +663,12 @@ static class Context {
     static ExecutorService threadPool = null;
     private final int numBuckets;
     private final int splitStrategyBatchMs;
+    private final int bulkListingMinPaths;
     private final long maxSize;
     private final long minSize;
     private final int etlFileThreshold;
     private final boolean footerInSplits;
+    private final boolean projectionSizeOnDisk;
     private final boolean cacheStripeDetails;
     private final boolean forceThreadpool;
     private final AtomicInteger cacheHitCounter = new AtomicInteger(0);
@@ -704,9 +706,11 @@ static class Context {
       }
       footerInSplits = HiveConf.getBoolVar(conf,
           ConfVars.HIVE_ORC_INCLUDE_FILE_FOOTER_IN_SPLITS);
+      projectionSizeOnDisk = HiveConf.getBoolVar(conf, ConfVars.HIVE_ORC_SPLIT_PROJECTION_SIZE_ON_DISK);
       numBuckets =
           Math.max(conf.getInt(hive_metastoreConstants.BUCKET_COUNT, 0), 0);
       splitStrategyBatchMs = HiveConf.getIntVar(conf, ConfVars.HIVE_ORC_SPLIT_DIRECTORY_BATCH_MS);
+      bulkListingMinPaths = HiveConf.getIntVar(conf, ConfVars.HIVE_ORC_SPLIT_BULK_LISTING_MIN_PATHS);
       long cacheMemSize = HiveConf.getSizeVar(
           conf, ConfVars.HIVE_ORC_CACHE_STRIPE_DETAILS_MEMORY_SIZE);
       int numThreads = HiveConf.getIntVar(conf, ConfVars.HIVE_COMPUTE_SPLITS_NUM_THREADS);
@@ -1335,6 +1339,7 @@ static final class SplitGenerator implements Callable<List<OrcSplit>> {
     private final boolean hasBase;
     private OrcFile.WriterVersion writerVersion;
     private long projColsUncompressedSize;
+    private long projColsOnDiskSize;
     private final List<OrcSplit> deltaSplits;
     private final ByteBuffer ppdResult;
     private final UserGroupInformation ugi;
@@ -1362,6 +1367,7 @@ public SplitGenerator(SplitInfo splitInfo, UserGroupInformation ugi,
       this.hasBase = splitInfo.hasBase;
       this.rootDir = splitInfo.dir;
       this.projColsUncompressedSize = -1;
+      this.projColsOnDiskSize = -1;
       this.deltaSplits = splitInfo.getSplits();
       this.allowSyntheticFileIds = allowSyntheticFileIds;
       this.ppdResult = splitInfo.ppdResult;
@@ -1463,17 +1469,19 @@ OrcSplit createSplit(long offset, long length, OrcTail orcTail) throws IOExcepti
         hostList.toArray(hosts);
       }
 
-      // scale the raw data size to split level based on ratio of split wrt to file length
+      // scale the projected data size to split level based on ratio of split wrt to file length.
       final long fileLen = isAcidTableScan ? AcidUtils.getLogicalLength(fs, file) : file.getLen();
       final double splitRatio = (double) length / (double) fileLen;
       final long scaledProjSize = projColsUncompressedSize > 0 ?
           (long) (splitRatio * projColsUncompressedSize) : fileLen;
+      final long scaledProjOnDiskSize = projColsOnDiskSize > 0 ? (long) (splitRatio * projColsOnDiskSize) : -1;
       Object fileKey = fsFileId;
       if (fileKey == null && allowSyntheticFileIds) {
         fileKey = new SyntheticFileId(file);
       }
       return new OrcSplit(file.getPath(), fileKey, offset, length, hosts,
-          orcTail, isOriginal, hasBase, deltas, scaledProjSize, fileLen, rootDir, offsetAndBucket);
+          orcTail, isOriginal, hasBase, deltas, scaledProjSize, scaledProjOnDiskSize, fileLen, rootDir,
+          offsetAndBucket);
     }
 
     private static final class OffsetAndLength { // Java cruft; pair of long.
@@ -1695,6 +1703,9 @@ private void populateAndCacheStripeDetails() throws IOException {
         }
       }
       projColsUncompressedSize = computeProjectionSize(fileTypes, fileColStats, fileIncluded);
+      if (context.projectionSizeOnDisk) {
+        projColsOnDiskSize = computeProjectionSizeOnDisk(fileColStats, fileIncluded);
+      }
       if (!context.footerInSplits) {
         orcTail = null;
       }
@@ -1717,6 +1728,26 @@ private long computeProjectionSize(List<OrcProto.Type> fileTypes,
       }
       return ReaderImpl.getRawDataSizeFromColIndices(internalColIds, fileTypes, stats);
     }
+
+    /**
+     * Sums the on disk size of the streams of the projected columns, from the column statistics of
+     * the file footer. Returns -1 for files written by older writers, which do not record it.
+     */
+    private static long computeProjectionSizeOnDisk(List<OrcProto.ColumnStatistics> stats,
+        boolean[] fileIncluded) {
+      long size = 0;
+      for (int i = 0; i < stats.size(); i++) {
+        if (fileIncluded != null && (i >= fileIncluded.length || !fileIncluded[i])) {
+          continue;
+        }
+        OrcProto.ColumnStatistics colStats = stats.get(i);
+        if (!colStats.hasBytesOnDisk()) {
+          return -1;
+        }
+        size += colStats.getBytesOnDisk();
+      }
+      return size;
+    }
   }
 
   public static boolean[] shiftReaderIncludedForAcid(boolean[] included) {
@@ -1737,6 +1768,76 @@ static final class CombinedCtx {
     long combineStartUs;
   }
 
+  /**
+   * Lists the files of the directories of a non-transactional table on blob storage with a single
+   * recursive listing of their common parent, when there are enough of them for it to be cheaper
+   * than listing each of them. Blob stores list a whole prefix with a few paged requests, whatever
+   * its depth.
+   * @return the directories, keyed by input path, or an empty map if they are listed separately
+   */
+  @VisibleForTesting
+  static Map<Path, Directory> listOriginalDirectories(Context context, Path[] dirs)
+      throws IOException {
+    if (context.bulkListingMinPaths <= 0 || dirs.length < context.bulkListingMinPaths
+        || context.acidOperationalProperties != null) {
+      return Collections.emptyMap();
+    }
+    FileSystem fs = dirs[0].getFileSystem(context.conf);
+    if (!BlobStorageUtils.isBlobStorageFileSystem(context.conf, fs)) {
+      return Collections.emptyMap();
+    }
+    Map<Path, List<FileInfo>> filesByDir = new HashMap<>();
+    Path root = null;
+    for (Path dir : dirs) {
+      if (!fs.getUri().equals(dir.getFileSystem(context.conf).getUri())) {
+        return Collections.emptyMap();
+      }
+      Path qualifiedDir = fs.makeQualified(dir);
+      filesByDir.put(qualifiedDir, new ArrayList<>());
+      root = (root == null) ? qualifiedDir : getCommonAncestor(root, qualifiedDir);
+      if (root == null || root.isRoot()) {
+        // Never list a whole bucket
+        return Collections.emptyMap();
+      }
+    }
+    boolean isRecursive = context.conf.getBoolean(FileInputFormat.INPUT_DIR_RECURSIVE,
+        context.conf.getBoolean("mapred.input.dir.recursive", false));
+    for (FileStatus file : HdfsUtils.listLocatedFileStatus(fs, root, null, true)) {
+      // Without recursion, the files of the subdirectories of an input directory are not read
+      Path parent = file.getPath().getParent();
+      List<FileInfo> files = filesByDir.get(parent);
+      while (files == null && isRecursive && parent.depth() > root.depth()) {
+        parent = parent.getParent();
+        files = filesByDir.get(parent);
+      }
+      if (files != null) {
+        files.add(new FileInfo(new HdfsUtils.HdfsFileStatusWithoutId(file), ORIGINAL_BASE));
+      }
+    }
+    LOG.info("Listed {} directories with a single listing of {}", dirs.length, root);
+    Map<Path, Directory> result = new HashMap<>();
+    for (Path dir : dirs) {
+      result.put(dir, new OriginalDirectory(filesByDir.get(fs.makeQualified(dir)), fs, dir));
+    }
+    return result;
+  }
+
+  private static Path getCommonAncestor(Path ancestor, Path path) {
+    while (ancestor != null && !isAncestorOrSelf(ancestor, path)) {
+      ancestor = ancestor.getParent();
+    }
+    return ancestor;
+  }
+
+  private static boolean isAncestorOrSelf(Path ancestor, Path path) {
+    for (Path p = path; p != null; p = p.getParent()) {
+      if (p.equals(ancestor)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   static List<OrcSplit> generateSplitsInfo(Configuration conf, Context context)
       throws IOException {
     LOG.info("ORC pushdown predicate: " + context.sarg);
@@ -1756,8 +1857,14 @@ static List<OrcSplit> generateSplitsInfo(Configuration conf, Context context)
 
     // multi-threaded file statuses and split strategy
     Path[] paths = getInputPaths(conf);
+    Map<Path, Directory> listedDirs = listOriginalDirectories(context, paths);
     CompletionService<Directory> ecs = new ExecutorCompletionService<>(Context.threadPool);
     for (Path dir : paths) {
+      Directory listedDir = listedDirs.get(dir);
+      if (listedDir != null) {
+        pathFutures.add(ecs.submit(() -> listedDir));
+        continue;
+      }
       Supplier<FileSystem> fsSupplier = () -> {
         try {
           return dir.getFileSystem(conf);
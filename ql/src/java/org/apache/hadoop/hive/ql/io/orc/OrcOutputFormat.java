@@ -32,7 +32,9 @@
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hive.ql.io.AcidOutputFormat;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
 import org.apache.hadoop.hive.ql.io.AcidUtils;
+import org.apache.hadoop.hive.ql.io.BatchWritingRecordWriter;
 import org.apache.hadoop.hive.ql.io.IOConstants;
 import org.apache.hadoop.hive.ql.io.RecordUpdater;
 import org.apache.hadoop.hive.ql.io.StatsProvidingRecordWriter;
@@ -66,7 +68,7 @@ public class OrcOutputFormat extends FileOutputFormat<NullWritable, OrcSerdeRow>
 
   private static class OrcRecordWriter
       implements RecordWriter<NullWritable, OrcSerdeRow>,
-                 StatsProvidingRecordWriter {
+                 StatsProvidingRecordWriter, BatchWritingRecordWriter {
     private Writer writer = null;
     private final Path path;
     private final OrcFile.WriterOptions options;
@@ -96,6 +98,14 @@ public void write(Writable row) throws IOException {
       writer.addRow(serdeRow.getRow());
     }
 
+    @Override
+    public void write(VectorizedRowBatch batch, ObjectInspector inspector) throws IOException {
+      if (writer == null) {
+        init(inspector);
+      }
+      writer.addRowBatch(batch);
+    }
+
     @Override
     public void close(Reporter reporter) throws IOException {
       close(true);
@@ -121,7 +131,11 @@ public SerDeStats getStats() {
     }
 
     private void init(OrcSerdeRow serdeRow) throws IOException {
-      options.inspector(serdeRow.getInspector());
+      init(serdeRow.getInspector());
+    }
+
+    private void init(ObjectInspector inspector) throws IOException {
+      options.inspector(inspector);
       writer = OrcFile.createWriter(path, options);
       if (options.isCompaction()) {
         AcidUtils.OrcAcidVersion.setAcidVersionInDataFile(writer);
@@ -33,8 +33,12 @@
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hive.conf.HiveConf;
+import org.apache.hadoop.hive.ql.exec.vector.LongColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.StructColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
 import org.apache.hadoop.hive.ql.io.AcidOutputFormat;
 import org.apache.hadoop.hive.ql.io.AcidUtils;
+import org.apache.hadoop.hive.ql.io.BatchWritingRecordUpdater;
 import org.apache.hadoop.hive.ql.io.BucketCodec;
 import org.apache.hadoop.hive.ql.io.IOConstants;
 import org.apache.hadoop.hive.ql.io.RecordIdentifier;
@@ -70,7 +74,7 @@
  * * is &lt;op, owid, writerId, rowid, cwid, &lt;f1, ... fn&gt;&gt; (see {@link #createEventObjectInspector(ObjectInspector)})
  * So there are OIs here to make the translation.
  */
-public class OrcRecordUpdater implements RecordUpdater {
+public class OrcRecordUpdater implements BatchWritingRecordUpdater {
 
   private static final Logger LOG = LoggerFactory.getLogger(OrcRecordUpdater.class);
 
@@ -120,6 +124,10 @@ public class OrcRecordUpdater implements RecordUpdater {
   private Writer writer = null;
   private boolean writerClosed = false;
   private Writer deleteEventWriter = null;
+  // delete events are buffered here and written to deleteEventWriter a batch at a time
+  private VectorizedRowBatch deleteEventBatch = null;
+  // insert events of insert(long, VectorizedRowBatch), wrapping the columns of the inserted rows
+  private VectorizedRowBatch insertEventBatch = null;
   private final FSDataOutputStream flushLengths;
   private final OrcStruct item;
   private final IntWritable operation = new IntWritable();
@@ -451,44 +459,20 @@ private void addSplitUpdateEvent(int operation, long currentWriteId, long rowId,
       addSimpleEvent(operation, currentWriteId, rowId, row);
       return;
     }
-    this.operation.set(operation);
-    this.currentWriteId.set(currentWriteId);
     Object rowValue = rowInspector.getStructFieldData(row, recIdField);
     long originalWriteId = origWriteIdInspector.get(
             recIdInspector.getStructFieldData(rowValue, originalWriteIdField));
     rowId = rowIdInspector.get(
             recIdInspector.getStructFieldData(rowValue, rowIdField));
-    Integer currentBucket = null;
-
-    if (operation == DELETE_OPERATION || operation == UPDATE_OPERATION) {
-      /**
-       * make sure bucketProperty in the delete event is from the {@link row} rather than whatever
-       * {@link this#bucket} is.  For bucketed tables, the 2 must agree on bucketId encoded in it
-       * not for necessarily the whole value.  For unbucketed tables there is no relationship.
-       */
-      currentBucket = setBucket(bucketInspector.get(
-        recIdInspector.getStructFieldData(rowValue, bucketField)), operation);
-      // Initialize a deleteEventWriter if not yet done. (Lazy initialization)
-      if (deleteEventWriter == null) {
-        // Initialize an indexBuilder for deleteEvents. (HIVE-17284)
-        deleteEventIndexBuilder = new KeyIndexBuilder("delete");
-        this.deleteEventWriter = OrcFile.createWriter(deleteEventPath,
-            deleteWriterOptions.callback(deleteEventIndexBuilder));
-        AcidUtils.OrcAcidVersion.setAcidVersionInDataFile(deleteEventWriter);
-        if (options.isWriteVersionFile()) {
-          AcidUtils.OrcAcidVersion.writeVersionFile(this.deleteEventPath.getParent(), fs);
-        }
-      }
+    /**
+     * make sure bucketProperty in the delete event is from the {@link row} rather than whatever
+     * {@link this#bucket} is.  For bucketed tables, the 2 must agree on bucketId encoded in it
+     * not for necessarily the whole value.  For unbucketed tables there is no relationship.
+     */
+    int bucketProperty = bucketInspector.get(recIdInspector.getStructFieldData(rowValue, bucketField));
 
-      // A delete/update generates a delete event for the original row.
-      this.rowId.set(rowId);
-      this.originalWriteId.set(originalWriteId);
-      item.setFieldValue(OrcRecordUpdater.OPERATION, new IntWritable(DELETE_OPERATION));
-      item.setFieldValue(OrcRecordUpdater.ROW, null); // ROW is null for delete events.
-      deleteEventIndexBuilder.addKey(DELETE_OPERATION, originalWriteId, bucket.get(), rowId);
-      deleteEventWriter.addRow(item);
-      restoreBucket(currentBucket, operation);
-    }
+    // A delete/update generates a delete event for the original row.
+    addDeleteEvent(operation, currentWriteId, originalWriteId, bucketProperty, rowId);
 
     if (operation == UPDATE_OPERATION) {
       // A new row is also inserted in the usual delta file for an update event.
@@ -496,6 +480,57 @@ private void addSplitUpdateEvent(int operation, long currentWriteId, long rowId,
     }
   }
 
+  /**
+   * Appends a delete event to {@link #deleteEventBatch}. ROW is always null for delete events, so
+   * the event consists of the ROW__ID of the deleted row and the current write id only.
+   */
+  private void addDeleteEvent(int operation, long currentWriteId, long originalWriteId, int bucketProperty,
+      long rowId) throws IOException {
+    this.operation.set(operation);
+    this.currentWriteId.set(currentWriteId);
+    // Initialize a deleteEventWriter if not yet done. (Lazy initialization)
+    if (deleteEventWriter == null) {
+      // Initialize an indexBuilder for deleteEvents. (HIVE-17284)
+      deleteEventIndexBuilder = new KeyIndexBuilder("delete");
+      this.deleteEventWriter = OrcFile.createWriter(deleteEventPath,
+          deleteWriterOptions.callback(deleteEventIndexBuilder));
+      AcidUtils.OrcAcidVersion.setAcidVersionInDataFile(deleteEventWriter);
+      if (options.isWriteVersionFile()) {
+        AcidUtils.OrcAcidVersion.writeVersionFile(this.deleteEventPath.getParent(), fs);
+      }
+      deleteEventBatch = deleteEventWriter.getSchema().createRowBatch();
+      StructColumnVector rowColumn = (StructColumnVector) deleteEventBatch.cols[ROW];
+      rowColumn.noNulls = false;
+      Arrays.fill(rowColumn.isNull, true);
+    }
+    int eventIndex = deleteEventBatch.size++;
+    ((LongColumnVector) deleteEventBatch.cols[OPERATION]).vector[eventIndex] = DELETE_OPERATION;
+    ((LongColumnVector) deleteEventBatch.cols[ORIGINAL_WRITEID]).vector[eventIndex] = originalWriteId;
+    ((LongColumnVector) deleteEventBatch.cols[BUCKET]).vector[eventIndex] = bucketProperty;
+    ((LongColumnVector) deleteEventBatch.cols[ROW_ID]).vector[eventIndex] = rowId;
+    ((LongColumnVector) deleteEventBatch.cols[CURRENT_WRITEID]).vector[eventIndex] = currentWriteId;
+    if (deleteEventBatch.size == deleteEventBatch.getMaxSize()) {
+      flushDeleteEvents();
+    }
+  }
+
+  private void flushDeleteEvents() throws IOException {
+    if (deleteEventBatch == null || deleteEventBatch.size == 0) {
+      return;
+    }
+    long[] originalWriteIds = ((LongColumnVector) deleteEventBatch.cols[ORIGINAL_WRITEID]).vector;
+    long[] bucketProperties = ((LongColumnVector) deleteEventBatch.cols[BUCKET]).vector;
+    long[] rowIds = ((LongColumnVector) deleteEventBatch.cols[ROW_ID]).vector;
+    // Keys are added right before the rows are handed to the writer, so that a stripe flushed by the
+    // memory manager never records a key of an event it doesn't contain
+    for (int i = 0; i < deleteEventBatch.size; i++) {
+      deleteEventIndexBuilder.addKey(DELETE_OPERATION, originalWriteIds[i], (int) bucketProperties[i], rowIds[i]);
+    }
+    deleteEventWriter.addRowBatch(deleteEventBatch);
+    // Don't reset() the batch, that would clear the nulls of the ROW column
+    deleteEventBatch.size = 0;
+  }
+
   @Override
   public void insert(long currentWriteId, Object row) throws IOException {
     if (this.currentWriteId.get() != currentWriteId) {
@@ -510,6 +545,53 @@ public void insert(long currentWriteId, Object row) throws IOException {
     bufferedRows++;
   }
 
+  @Override
+  public VectorizedRowBatch createRowBatch(int maxSize) throws IOException {
+    initWriter();
+    VectorizedRowBatch rows = writer.getSchema().getChildren().get(ROW).createRowBatch(maxSize);
+    // initializes the buffers of the variable length columns, so that values can be set right away
+    rows.reset();
+    return rows;
+  }
+
+  /**
+   * Inserts a batch of rows. Unlike {@link #insert(long, Object)} the rows only have the columns
+   * of the table, without the record identifier.
+   */
+  @Override
+  public void insert(long currentWriteId, VectorizedRowBatch rows) throws IOException {
+    if (rows.size == 0) {
+      return;
+    }
+    if (this.currentWriteId.get() != currentWriteId) {
+      insertedRows = 0;
+    }
+    this.operation.set(INSERT_OPERATION);
+    this.currentWriteId.set(currentWriteId);
+    this.originalWriteId.set(currentWriteId);
+    initWriter();
+    if (insertEventBatch == null || insertEventBatch.getMaxSize() < rows.size) {
+      insertEventBatch = writer.getSchema().createRowBatch(rows.getMaxSize());
+    }
+    for (int i = OPERATION; i < ROW; i++) {
+      insertEventBatch.cols[i].isRepeating = i != ROW_ID;
+    }
+    ((LongColumnVector) insertEventBatch.cols[OPERATION]).vector[0] = INSERT_OPERATION;
+    ((LongColumnVector) insertEventBatch.cols[ORIGINAL_WRITEID]).vector[0] = currentWriteId;
+    ((LongColumnVector) insertEventBatch.cols[BUCKET]).vector[0] = bucket.get();
+    ((LongColumnVector) insertEventBatch.cols[CURRENT_WRITEID]).vector[0] = currentWriteId;
+    ((StructColumnVector) insertEventBatch.cols[ROW]).fields = rows.cols;
+    long[] rowIds = ((LongColumnVector) insertEventBatch.cols[ROW_ID]).vector;
+    for (int i = 0; i < rows.size; i++) {
+      rowIds[i] = insertedRows++;
+      indexBuilder.addKey(INSERT_OPERATION, currentWriteId, bucket.get(), rowIds[i]);
+    }
+    insertEventBatch.size = rows.size;
+    writer.addRowBatch(insertEventBatch);
+    rowCountDelta += rows.size;
+    bufferedRows += rows.size;
+  }
+
   @Override
   public void update(long currentWriteId, Object row) throws IOException {
     if (this.currentWriteId.get() != currentWriteId) {
@@ -535,6 +617,29 @@ public void delete(long currentWriteId, Object row) throws IOException {
     rowCountDelta--;
   }
 
+  /**
+   * Writes a delete event for the row identified by the given ROW__ID. Unlike
+   * {@link #delete(long, Object)} this doesn't need the row, so callers that have the ROW__ID at
+   * hand in columnar form (the vectorized file sink) can skip materializing it.
+   * Only supported with split-update, which is the case for all full ACID tables created since
+   * Hive 3.
+   * @param currentWriteId write id of the deleting transaction
+   * @param originalWriteId write id component of the ROW__ID
+   * @param bucketProperty bucket component of the ROW__ID
+   * @param rowId row id component of the ROW__ID
+   */
+  public void delete(long currentWriteId, long originalWriteId, int bucketProperty, long rowId)
+      throws IOException {
+    if (!acidOperationalProperties.isSplitUpdate()) {
+      throw new IllegalStateException("Deleting by ROW__ID requires split-update for " + path);
+    }
+    if (this.currentWriteId.get() != currentWriteId) {
+      insertedRows = 0;
+    }
+    addDeleteEvent(DELETE_OPERATION, currentWriteId, originalWriteId, bucketProperty, rowId);
+    rowCountDelta--;
+  }
+
   @Override
   public void flush() throws IOException {
     initWriter();
@@ -590,6 +695,7 @@ public void close(boolean abort) throws IOException {
         writer.close(); // normal close.
       }
       if (deleteEventWriter != null) {
+        flushDeleteEvents();
         if (deleteEventIndexBuilder.acidStats.deletes > 0) {
           LOG.debug("Closing delete event writer for path: {} acid stats: {}", path, indexBuilder.acidStats);
           // Only need to write out & close the delete_delta if there have been any.
@@ -608,6 +714,7 @@ public void close(boolean abort) throws IOException {
     }
     writer = null;
     deleteEventWriter = null;
+    deleteEventBatch = null;
     writerClosed = true;
   }
   private void initWriter() throws IOException {
@@ -66,6 +66,7 @@ public class OrcSplit extends FileSplit implements ColumnarSplit, LlapAwareSplit
   private Path rootDir;
   private final List<AcidInputFormat.DeltaMetaData> deltas = new ArrayList<>();
   private long projColsUncompressedSize;
+  private long projColsOnDiskSize;
   private transient Object fileKey;
   private long fileLen;
   private transient long writeId = 0;
@@ -95,6 +96,14 @@ public OrcSplit(Path path, Object fileId, long offset, long length, String[] hos
       OrcTail orcTail, boolean isOriginal, boolean hasBase,
       List<AcidInputFormat.DeltaMetaData> deltas, long projectedDataSize, long fileLen, Path rootDir,
       OffsetAndBucketProperty syntheticAcidProps) {
+    this(path, fileId, offset, length, hosts, orcTail, isOriginal, hasBase, deltas, projectedDataSize, -1,
+        fileLen, rootDir, syntheticAcidProps);
+  }
+
+  public OrcSplit(Path path, Object fileId, long offset, long length, String[] hosts,
+      OrcTail orcTail, boolean isOriginal, boolean hasBase,
+      List<AcidInputFormat.DeltaMetaData> deltas, long projectedDataSize, long projectedOnDiskSize,
+      long fileLen, Path rootDir, OffsetAndBucketProperty syntheticAcidProps) {
     super(path, offset, length, hosts);
     // For HDFS, we could avoid serializing file ID and just replace the path with inode-based
     // path. However, that breaks bunch of stuff because Hive later looks up things by split path.
@@ -106,6 +115,7 @@ public OrcSplit(Path path, Object fileId, long offset, long length, String[] hos
     this.rootDir = rootDir;
     this.deltas.addAll(filterDeltasByBucketId(deltas, AcidUtils.parseBucketId(path)));
     this.projColsUncompressedSize = projectedDataSize <= 0 ? length : projectedDataSize;
+    this.projColsOnDiskSize = projectedOnDiskSize < 0 ? -1 : projectedOnDiskSize;
     // setting file length to Long.MAX_VALUE will let orc reader read file length from file system
     this.fileLen = fileLen <= 0 ? Long.MAX_VALUE : fileLen;
     this.syntheticAcidProps = syntheticAcidProps;
@@ -293,6 +303,13 @@ public long getProjectedColumnsUncompressedSize() {
     return projColsUncompressedSize;
   }
 
+  /**
+   * @return the on disk size of the projected columns in the split, or -1 if it is not known
+   */
+  public long getProjectedColumnsOnDiskSize() {
+    return projColsOnDiskSize;
+  }
+
   public Object getFileKey() {
     return fileKey;
   }
@@ -303,7 +320,8 @@ public OffsetAndBucketProperty getSyntheticAcidProps() {
 
   @Override
   public long getColumnarProjectionSize() {
-    return projColsUncompressedSize;
+    // The size on disk is what the split reads, the raw data size is only an upper bound of it
+    return projColsOnDiskSize >= 0 ? projColsOnDiskSize : projColsUncompressedSize;
   }
 
   @Override
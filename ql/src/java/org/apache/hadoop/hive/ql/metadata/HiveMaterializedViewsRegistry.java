@@ -247,7 +247,9 @@ private HiveRelOptMaterialization.IncrementalRebuildMode determineIncrementalReb
       return HiveRelOptMaterialization.IncrementalRebuildMode.NOT_AVAILABLE;
     }
     if (visitor.isContainsAggregate() && !visitor.hasCountStar()) {
-      return HiveRelOptMaterialization.IncrementalRebuildMode.INSERT_ONLY;
+      return visitor.isInsertOnlyAggregate() ?
+          HiveRelOptMaterialization.IncrementalRebuildMode.INSERT_ONLY :
+          HiveRelOptMaterialization.IncrementalRebuildMode.NOT_AVAILABLE;
     }
     return HiveRelOptMaterialization.IncrementalRebuildMode.AVAILABLE;
   }
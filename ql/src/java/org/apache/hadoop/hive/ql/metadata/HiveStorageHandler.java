@@ -23,6 +23,7 @@
 import org.apache.hadoop.hive.common.classification.InterfaceAudience;
 import org.apache.hadoop.hive.common.classification.InterfaceStability;
 import org.apache.hadoop.hive.metastore.HiveMetaHook;
+import org.apache.hadoop.hive.metastore.api.ColumnStatisticsObj;
 import org.apache.hadoop.hive.metastore.api.LockType;
 import org.apache.hadoop.hive.metastore.api.MetaException;
 import org.apache.hadoop.hive.metastore.api.Table;
@@ -39,6 +40,7 @@
 import org.apache.hadoop.mapred.JobConf;
 import org.apache.hadoop.mapred.OutputFormat;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -228,6 +230,39 @@ default boolean canProvideBasicStatistics() {
     return false;
   }
 
+  /**
+   * Check if the statistics provided by the storage handler are accurate for the current state of the table, so that
+   * aggregate queries (count, min, max) can be answered from them without scanning the table.
+   * The row count is taken from {@link #getRowCount(org.apache.hadoop.hive.ql.metadata.Table)}, the column statistics
+   * from {@link #getColumnStatistics(org.apache.hadoop.hive.ql.metadata.Table, List)}.
+   * @param table the table
+   * @return true if the statistics can be used for answering queries
+   */
+  default boolean canComputeQueryUsingStats(org.apache.hadoop.hive.ql.metadata.Table table) {
+    return false;
+  }
+
+  /**
+   * Return the exact number of rows of the table, as of the state of the table the current query reads.
+   * @param table the table
+   * @return the number of rows, or null if it can not be provided without scanning the table
+   */
+  default Long getRowCount(org.apache.hadoop.hive.ql.metadata.Table table) {
+    return null;
+  }
+
+  /**
+   * Return accurate column statistics (number of nulls, low and high values) calculated by the underlying storage
+   * handler implementation, as of the state of the table the current query reads.
+   * @param table the table
+   * @param colNames the columns to return the statistics for
+   * @return the column statistics; columns for which accurate statistics can not be provided are left out
+   */
+  default List<ColumnStatisticsObj> getColumnStatistics(org.apache.hadoop.hive.ql.metadata.Table table,
+      List<String> colNames) {
+    return Collections.emptyList();
+  }
+
   /**
    * Check if CTAS operations should behave in a direct-insert manner (i.e. no move task).
    *
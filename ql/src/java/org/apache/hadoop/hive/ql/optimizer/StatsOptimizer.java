@@ -295,16 +295,18 @@ public Object process(Node nd, Stack<Node> stack, NodeProcessorCtx procCtx,
           tbl = hive.getTable(tbl.getDbName(), tbl.getTableName(), true, true);
         }
 
-        if (MetaStoreUtils.isExternalTable(tbl.getTTable())) {
+        // Storage handlers may track accurate statistics of (external) non native tables themselves
+        boolean useStorageHandlerStats = canUseStorageHandlerStats(tsOp, tbl);
+        if (MetaStoreUtils.isExternalTable(tbl.getTTable()) && !useStorageHandlerStats) {
           Logger.info("Table " + tbl.getTableName() + " is external. Skip StatsOptimizer.");
           return null;
         }
-        if (MetaStoreUtils.isNonNativeTable(tbl.getTTable())) {
+        if (MetaStoreUtils.isNonNativeTable(tbl.getTTable()) && !useStorageHandlerStats) {
           Logger.info("Table " + tbl.getTableName() + " is non Native table. Skip StatsOptimizer.");
           return null;
         }
 
-        Long rowCnt = getRowCnt(pctx, tsOp, tbl);
+        Long rowCnt = getRowCnt(pctx, tsOp, tbl, useStorageHandlerStats);
         // if we can not have correct table stats, then both the table stats and column stats are not useful.
         if (rowCnt == null) {
           return null;
@@ -434,14 +436,14 @@ else if (udaf instanceof GenericUDAFCount) {
             rowCnt = 0L;
             if (aggr.getParameters().isEmpty()) {
               // Its either count (*) or count() case
-              rowCnt = getRowCnt(pctx, tsOp, tbl);
+              rowCnt = getRowCnt(pctx, tsOp, tbl, useStorageHandlerStats);
               if (rowCnt == null) {
                 return null;
               }
             } else if (aggr.getParameters().get(0) instanceof ExprNodeConstantDesc) {
               if (((ExprNodeConstantDesc) aggr.getParameters().get(0)).getValue() != null) {
                 // count (1)
-                rowCnt = getRowCnt(pctx, tsOp, tbl);
+                rowCnt = getRowCnt(pctx, tsOp, tbl, useStorageHandlerStats);
                 if (rowCnt == null) {
                   return null;
                 }
@@ -451,7 +453,7 @@ else if (udaf instanceof GenericUDAFCount) {
                 && exprMap.get(((ExprNodeColumnDesc) aggr.getParameters().get(0)).getColumn()) instanceof ExprNodeConstantDesc) {
               if (((ExprNodeConstantDesc) (exprMap.get(((ExprNodeColumnDesc) aggr.getParameters()
                   .get(0)).getColumn()))).getValue() != null) {
-                rowCnt = getRowCnt(pctx, tsOp, tbl);
+                rowCnt = getRowCnt(pctx, tsOp, tbl, useStorageHandlerStats);
                 if (rowCnt == null) {
                   return null;
                 }
@@ -463,22 +465,16 @@ else if (udaf instanceof GenericUDAFCount) {
               String colName = desc.getColumn();
               StatType type = getType(desc.getTypeString());
               if (!tbl.isPartitioned()) {
-                if (!StatsUtils.areBasicStatsUptoDateForQueryAnswering(tbl, tbl.getParameters())) {
+                rowCnt = getRowCnt(pctx, tsOp, tbl, useStorageHandlerStats);
+                if (rowCnt == null) {
                   Logger.debug("Stats for table : " + tbl.getTableName() + " are not up to date.");
                   return null;
                 }
-                rowCnt = Long.valueOf(tbl.getProperty(StatsSetupConst.ROW_COUNT));
-                if (!StatsUtils.areColumnStatsUptoDateForQueryAnswering(tbl, tbl.getParameters(), colName)) {
-                  Logger.debug("Stats for table : " + tbl.getTableName() + " column " + colName
-                      + " are not up to date.");
-                  return null;
-                }
-
                 List<ColumnStatisticsObj> stats =
-                    hive.getMSC().getTableColumnStatistics(
-                      tbl.getDbName(), tbl.getTableName(),
-                      Lists.newArrayList(colName),
-                      Constants.HIVE_ENGINE, tableSnapshot != null ? tableSnapshot.getValidWriteIdList() : null);
+                    getTableColumnStats(hive, tbl, colName, tableSnapshot, useStorageHandlerStats);
+                if (stats == null) {
+                  return null; // logging inside
+                }
                 if (stats.isEmpty()) {
                   Logger.debug("No stats for " + tbl.getTableName() + " column " + colName);
                   return null;
@@ -529,17 +525,11 @@ else if (udaf instanceof GenericUDAFCount) {
             String colName = colDesc.getColumn();
             StatType type = getType(colDesc.getTypeString());
             if(!tbl.isPartitioned()) {
-              if (!StatsUtils.areColumnStatsUptoDateForQueryAnswering(tbl, tbl.getParameters(), colName)) {
-                Logger.debug("Stats for table : " + tbl.getTableName() + " column " + colName
-                    + " are not up to date.");
-                return null;
-              }
-
               List<ColumnStatisticsObj> stats =
-                  hive.getMSC().getTableColumnStatistics(
-                    tbl.getDbName(), tbl.getTableName(),
-                    Lists.newArrayList(colName),
-                    Constants.HIVE_ENGINE, tableSnapshot != null ? tableSnapshot.getValidWriteIdList() : null);
+                  getTableColumnStats(hive, tbl, colName, tableSnapshot, useStorageHandlerStats);
+              if (stats == null) {
+                return null; // logging inside
+              }
               if (stats.isEmpty()) {
                 Logger.debug("No stats for " + tbl.getTableName() + " column " + colName);
                 return null;
@@ -674,16 +664,16 @@ else if (udaf instanceof GenericUDAFCount) {
             String colName = colDesc.getColumn();
             StatType type = getType(colDesc.getTypeString());
             if (!tbl.isPartitioned()) {
-              if (!StatsUtils.areColumnStatsUptoDateForQueryAnswering(tbl, tbl.getParameters(), colName)) {
-                Logger.debug("Stats for table : " + tbl.getTableName() + " column " + colName
-                    + " are not up to date.");
+              List<ColumnStatisticsObj> stats =
+                  getTableColumnStats(hive, tbl, colName, tableSnapshot, useStorageHandlerStats);
+              if (stats == null) {
+                return null; // logging inside
+              }
+              if (stats.isEmpty()) {
+                Logger.debug("No stats for " + tbl.getTableName() + " column " + colName);
                 return null;
               }
-              ColumnStatisticsData statData =
-                  hive.getMSC().getTableColumnStatistics(
-                    tbl.getDbName(), tbl.getTableName(), Lists.newArrayList(colName),
-                    Constants.HIVE_ENGINE, tableSnapshot != null ? tableSnapshot.getValidWriteIdList() : null)
-                    .get(0).getStatsData();
+              ColumnStatisticsData statData = stats.get(0).getStatsData();
               String name = colDesc.getTypeString().toUpperCase();
               switch (type) {
                 case Integer: {
@@ -927,8 +917,37 @@ private Collection<List<ColumnStatisticsObj>> verifyAndGetPartColumnStats(
       return result.values();
     }
 
-    private Long getRowCnt(
-        ParseContext pCtx, TableScanOperator tsOp, Table tbl) throws HiveException {
+    private boolean canUseStorageHandlerStats(TableScanOperator tsOp, Table tbl) {
+      if (!MetaStoreUtils.isNonNativeTable(tbl.getTTable()) || tbl.getStorageHandler() == null) {
+        return false;
+      }
+      // the storage handler provides the statistics of the current state of the table only
+      if (tsOp.getConf().getAsOfVersion() != -1 || tsOp.getConf().getAsOfTimestamp() != -1) {
+        return false;
+      }
+      return tbl.getStorageHandler().canComputeQueryUsingStats(tbl);
+    }
+
+    private List<ColumnStatisticsObj> getTableColumnStats(Hive hive, Table tbl, String colName,
+        AcidUtils.TableSnapshot tableSnapshot, boolean useStorageHandlerStats) throws TException {
+      if (useStorageHandlerStats) {
+        return tbl.getStorageHandler().getColumnStatistics(tbl, Lists.newArrayList(colName));
+      }
+      if (!StatsUtils.areColumnStatsUptoDateForQueryAnswering(tbl, tbl.getParameters(), colName)) {
+        Logger.debug("Stats for table : " + tbl.getTableName() + " column " + colName
+            + " are not up to date.");
+        return null;
+      }
+      return hive.getMSC().getTableColumnStatistics(
+          tbl.getDbName(), tbl.getTableName(), Lists.newArrayList(colName),
+          Constants.HIVE_ENGINE, tableSnapshot != null ? tableSnapshot.getValidWriteIdList() : null);
+    }
+
+    private Long getRowCnt(ParseContext pCtx, TableScanOperator tsOp, Table tbl, boolean useStorageHandlerStats)
+        throws HiveException {
+      if (useStorageHandlerStats) {
+        return tbl.getStorageHandler().getRowCount(tbl);
+      }
       Long rowCnt = 0L;
       if (tbl.isPartitioned()) {
         for (Partition part : pctx.getPrunedPartitions(
@@ -30,14 +30,19 @@
 import org.apache.calcite.rel.RelVisitor;
 import org.apache.calcite.rel.RelWriter;
 import org.apache.calcite.rel.convert.ConverterImpl;
+import org.apache.calcite.rel.core.Aggregate;
 import org.apache.calcite.rel.core.Filter;
 import org.apache.calcite.rel.core.Project;
 import org.apache.calcite.rel.core.TableScan;
 import org.apache.calcite.rex.RexBuilder;
+import org.apache.calcite.rex.RexInputRef;
 import org.apache.calcite.rex.RexNode;
 import org.apache.calcite.sql.SqlDialect;
 
 import org.apache.calcite.util.ControlFlowException;
+import org.apache.hadoop.hive.conf.Constants;
+import org.apache.hadoop.hive.ql.metadata.Table;
+import org.apache.hadoop.hive.ql.optimizer.calcite.RelOptHiveTable;
 import org.apache.hadoop.hive.ql.optimizer.calcite.reloperators.HiveRelNode;
 import org.apache.hadoop.hive.ql.optimizer.calcite.rules.jdbc.HiveJdbcImplementor;
 
@@ -130,7 +135,41 @@ public String generateSql() {
   public boolean splittingAllowed() {
     JdbcRelVisitor visitor = new JdbcRelVisitor();
     visitor.go(getInput());
-    return visitor.splittingAllowed;
+    if (!visitor.splittingAllowed) {
+      return false;
+    }
+    String partitionColumn = getPartitionColumn(getTableScan());
+    if (partitionColumn == null) {
+      return true;
+    }
+    // The ranges of the splits are applied to the output of the query when it has a column
+    // named like the partition column, hence that column has to be the partition column itself.
+    // The output of an aggregate query must contain it since the groups cannot be split.
+    int outputIndex = -1;
+    List<String> fieldNames = getRowType().getFieldNames();
+    for (int i = 0; i < fieldNames.size(); i++) {
+      if (fieldNames.get(i).equalsIgnoreCase(partitionColumn)) {
+        outputIndex = i;
+        break;
+      }
+    }
+    if (outputIndex < 0) {
+      return !visitor.aggregate;
+    }
+    return outputIndex == JdbcRelVisitor.partitionColumnIndex(getInput());
+  }
+
+  /**
+   * Returns the column the query on the given table is split on, or null if there is
+   * none. Only tables given by name are considered, since the ranges of the splits of
+   * a table given by a query are always applied to the output of the query.
+   */
+  private static String getPartitionColumn(JdbcHiveTableScan scan) {
+    Table table = ((RelOptHiveTable) scan.getHiveTableScan().getTable()).getHiveTableMD();
+    if (table.getParameters().get(Constants.JDBC_TABLE) == null) {
+      return null;
+    }
+    return table.getParameters().get(Constants.JDBC_PARTITION_COLUMN);
   }
 
   public JdbcHiveTableScan getTableScan() {
@@ -158,6 +197,7 @@ public void visit(
   private static class JdbcRelVisitor extends RelVisitor {
 
     private boolean splittingAllowed;
+    private boolean aggregate;
 
     public JdbcRelVisitor() {
       this.splittingAllowed = true;
@@ -170,11 +210,63 @@ public void visit(RelNode node, int ordinal, RelNode parent) {
           node instanceof TableScan) {
         // We can continue
         super.visit(node, ordinal, parent);
+      } else if (node instanceof Aggregate && partitionColumnIndex(node) >= 0) {
+        // Every group falls into a single range of the partition column, hence
+        // each split can compute its groups independently
+        aggregate = true;
+        super.visit(node, ordinal, parent);
       } else {
         throw new ReturnedValue(false);
       }
     }
 
+    /**
+     * Returns the position of the column the query is split on in the output of the
+     * given node, or -1 if the column is not passed through unchanged.
+     */
+    private static int partitionColumnIndex(RelNode node) {
+      if (node instanceof JdbcHiveTableScan) {
+        String partitionColumn = getPartitionColumn((JdbcHiveTableScan) node);
+        if (partitionColumn == null) {
+          return -1;
+        }
+        List<String> fieldNames = node.getRowType().getFieldNames();
+        for (int i = 0; i < fieldNames.size(); i++) {
+          if (fieldNames.get(i).equalsIgnoreCase(partitionColumn)) {
+            return i;
+          }
+        }
+        return -1;
+      }
+      if (node instanceof Filter) {
+        return partitionColumnIndex(((Filter) node).getInput());
+      }
+      if (node instanceof Project) {
+        Project project = (Project) node;
+        int inputIndex = partitionColumnIndex(project.getInput());
+        if (inputIndex < 0) {
+          return -1;
+        }
+        List<RexNode> projects = project.getProjects();
+        for (int i = 0; i < projects.size(); i++) {
+          if (projects.get(i) instanceof RexInputRef && ((RexInputRef) projects.get(i)).getIndex() == inputIndex) {
+            return i;
+          }
+        }
+        return -1;
+      }
+      if (node instanceof Aggregate) {
+        Aggregate aggregate = (Aggregate) node;
+        int inputIndex = partitionColumnIndex(aggregate.getInput());
+        if (inputIndex < 0 || aggregate.getGroupType() != Aggregate.Group.SIMPLE
+            || !aggregate.getGroupSet().get(inputIndex)) {
+          return -1;
+        }
+        return aggregate.getGroupSet().asList().indexOf(inputIndex);
+      }
+      return -1;
+    }
+
     /**
      * Starts an iteration.
      */
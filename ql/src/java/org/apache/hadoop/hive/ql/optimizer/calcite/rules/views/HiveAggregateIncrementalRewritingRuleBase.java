@@ -135,17 +135,7 @@ public void onMatch(RelOptRuleCall call) {
           joinRightInput.rightInput.getRowType().getFieldList().get(leftPos).getType(), rightPos);
       // Generate SQLOperator for merging the aggregations
       SqlAggFunction aggCall = agg.getAggCallList().get(i).getAggregation();
-      RexNode elseReturn = createAggregateNode(aggCall, leftRef, rightRef, rexBuilder);
-      // According to SQL standard (and Hive) Aggregate functions eliminates null values however operators used in
-      // elseReturn expressions returns null if one of their operands is null
-      // hence we need a null check of both operands.
-      // Note: If both are null, we will fall into branch    WHEN leftNull THEN rightRef
-      RexNode leftNull = rexBuilder.makeCall(SqlStdOperatorTable.IS_NULL, leftRef);
-      RexNode rightNull = rexBuilder.makeCall(SqlStdOperatorTable.IS_NULL, rightRef);
-      projExprs.add(rexBuilder.makeCall(SqlStdOperatorTable.CASE,
-              leftNull, rightRef,
-              rightNull, leftRef,
-              elseReturn));
+      projExprs.add(createMergeNode(joinRightInput, leftPos, aggCall, leftRef, rightRef, rexBuilder));
     }
 
     int flagIndex = joinLeftInput.getRowType().getFieldCount() - 1;
@@ -171,6 +161,27 @@ public IncrementalComputePlan(RelNode rightInput) {
     }
   }
 
+  /**
+   * Creates the expression which computes the new value of an aggregate column of the view from its current value
+   * (leftRef) and the value coming from the right input of the join (rightRef).
+   *
+   * @param fieldIndex index of the aggregate column in the view
+   */
+  protected RexNode createMergeNode(T incrementalComputePlan, int fieldIndex,
+          SqlAggFunction aggCall, RexNode leftRef, RexNode rightRef, RexBuilder rexBuilder) {
+    RexNode elseReturn = createAggregateNode(aggCall, leftRef, rightRef, rexBuilder);
+    // According to SQL standard (and Hive) Aggregate functions eliminates null values however operators used in
+    // elseReturn expressions returns null if one of their operands is null
+    // hence we need a null check of both operands.
+    // Note: If both are null, we will fall into branch    WHEN leftNull THEN rightRef
+    RexNode leftNull = rexBuilder.makeCall(SqlStdOperatorTable.IS_NULL, leftRef);
+    RexNode rightNull = rexBuilder.makeCall(SqlStdOperatorTable.IS_NULL, rightRef);
+    return rexBuilder.makeCall(SqlStdOperatorTable.CASE,
+            leftNull, rightRef,
+            rightNull, leftRef,
+            elseReturn);
+  }
+
   protected RexNode createAggregateNode(
           SqlAggFunction aggCall, RexNode leftRef, RexNode rightRef, RexBuilder rexBuilder) {
     switch (aggCall.getKind()) {
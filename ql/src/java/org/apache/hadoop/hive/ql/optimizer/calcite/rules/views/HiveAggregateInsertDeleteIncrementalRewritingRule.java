@@ -19,17 +19,22 @@
 import java.util.ArrayList;
 import java.util.List;
 
+import com.google.common.collect.ImmutableList;
 import org.apache.calcite.plan.RelOptRuleCall;
 import org.apache.calcite.rel.RelNode;
 import org.apache.calcite.rel.core.Aggregate;
 import org.apache.calcite.rel.core.AggregateCall;
+import org.apache.calcite.rel.core.JoinRelType;
+import org.apache.calcite.rel.core.Project;
 import org.apache.calcite.rel.core.Union;
 import org.apache.calcite.rex.RexBuilder;
+import org.apache.calcite.rex.RexInputRef;
 import org.apache.calcite.rex.RexNode;
 import org.apache.calcite.sql.SqlAggFunction;
 import org.apache.calcite.sql.SqlKind;
 import org.apache.calcite.sql.fun.SqlStdOperatorTable;
 import org.apache.calcite.tools.RelBuilder;
+import org.apache.calcite.util.ImmutableBitSet;
 import org.apache.hadoop.hive.ql.optimizer.calcite.HiveRelFactories;
 
 import org.apache.hadoop.hive.ql.optimizer.calcite.rules.HiveHepExtractRelNodeRule;
@@ -91,18 +96,59 @@
  *   WHERE mv.flag AND countStar = 0
  *   SORT BY mv.ROW__ID;
  *
+ * Aggregates like MIN, MAX or COUNT(DISTINCT) can not be maintained from the deleted rows only, e.g. the current
+ * minimum of a group may be deleted. If the plan of the view definition is provided, these aggregates are
+ * recomputed from the source tables for the groups which have delta records, and the recomputed values replace the
+ * values stored in the view:
+ * USING (
+ *   SELECT delta.a, delta.b, delta.s, delta.c, recomputed.m
+ *   FROM (...) delta
+ *   LEFT OUTER JOIN (
+ *     SELECT a, b, MIN(y) AS m
+ *     FROM TAB_A
+ *     JOIN TAB_B ON (TAB_A.a = TAB_B.z)
+ *     LEFT SEMI JOIN (...) delta ON (TAB_A.a <=> delta.a AND TAB_B.b <=> delta.b)
+ *     GROUP BY a, b) recomputed
+ *   ON (delta.a <=> recomputed.a AND delta.b <=> recomputed.b)) source
+ *
  * {@see CalcitePlanner#fixUpASTAggregateInsertDeleteIncrementalRebuild}
  */
 public class HiveAggregateInsertDeleteIncrementalRewritingRule extends HiveAggregateIncrementalRewritingRuleBase<
         HiveAggregateInsertDeleteIncrementalRewritingRule.IncrementalComputePlanWithDeletedRows> {
 
   public static final HiveAggregateInsertDeleteIncrementalRewritingRule INSTANCE =
-      new HiveAggregateInsertDeleteIncrementalRewritingRule();
+      new HiveAggregateInsertDeleteIncrementalRewritingRule(null);
+
+  private final RelNode definitionPlan;
 
-  private HiveAggregateInsertDeleteIncrementalRewritingRule() {
+  /**
+   * @param definitionPlan plan of the view definition over the current contents of the source tables. It is used to
+   *                       recompute the aggregates which can not be derived from the delta records (MIN, MAX,
+   *                       DISTINCT aggregates, ...) for the groups affected by the delta. If it is null, the rule
+   *                       bails out when it finds such aggregates.
+   */
+  public HiveAggregateInsertDeleteIncrementalRewritingRule(RelNode definitionPlan) {
     super(operand(Aggregate.class, operand(Union.class, operand(Aggregate.class, any()))),
         HiveRelFactories.HIVE_BUILDER,
         "HiveAggregateInsertDeleteIncrementalRewritingRule", 2);
+    this.definitionPlan = definitionPlan;
+  }
+
+  /**
+   * Returns true if the aggregate can be computed from the values of the inserted and deleted rows only.
+   */
+  public static boolean isDecomposable(AggregateCall aggregateCall) {
+    if (aggregateCall.isDistinct()) {
+      return false;
+    }
+    switch (aggregateCall.getAggregation().getKind()) {
+      case COUNT:
+      case SUM:
+      case SUM0:
+        return true;
+      default:
+        return false;
+    }
   }
 
   @Override
@@ -126,30 +172,35 @@ protected IncrementalComputePlanWithDeletedRows createJoinRightInput(RelOptRuleC
     // SELECT
     //   sum(case when t1.ROW__IS__DELETED then -b else b end) sumb,
     //   sum(case when t1.ROW__IS__DELETED then -1 else 1 end) countStar
+    //
+    // Aggregates which can not be computed this way are recomputed later for the affected groups.
+    int groupCount = aggregate.getGroupCount();
     int countIdx = -1;
     List<RelBuilder.AggCall> newAggregateCalls = new ArrayList<>(aggregate.getAggCallList().size());
+    ImmutableBitSet.Builder recomputed = ImmutableBitSet.builder();
     for (int i = 0; i < aggregate.getAggCallList().size(); ++i) {
       AggregateCall aggregateCall = aggregate.getAggCallList().get(i);
       if (aggregateCall.getAggregation().getKind() == SqlKind.COUNT && aggregateCall.getArgList().size() == 0) {
-        countIdx = i + aggregate.getGroupCount();
+        countIdx = i + groupCount;
+      }
+
+      if (!isDecomposable(aggregateCall)) {
+        if (definitionPlan == null) {
+          // Can not rewrite, bail out
+          return null;
+        }
+        recomputed.set(i + groupCount);
+        continue;
       }
 
       RexNode argument;
-      SqlAggFunction aggFunction;
-      switch (aggregateCall.getAggregation().getKind()) {
-        case COUNT:
-          aggFunction = SqlStdOperatorTable.SUM;
-          argument = relBuilder.literal(1);
-          break;
-        case SUM:
-          aggFunction = SqlStdOperatorTable.SUM;
-          Integer argumentIdx = aggregateCall.getArgList().get(0);
-          argument = rexBuilder.makeInputRef(
-                  aggInput.getRowType().getFieldList().get(argumentIdx).getType(), argumentIdx);
-          break;
-        default:
-          throw new AssertionError("Found an aggregation that could not be"
-                  + " recognized: " + aggregateCall);
+      SqlAggFunction aggFunction = SqlStdOperatorTable.SUM;
+      if (aggregateCall.getAggregation().getKind() == SqlKind.COUNT) {
+        argument = relBuilder.literal(1);
+      } else {
+        Integer argumentIdx = aggregateCall.getArgList().get(0);
+        argument = rexBuilder.makeInputRef(
+                aggInput.getRowType().getFieldList().get(argumentIdx).getType(), argumentIdx);
       }
 
       RexNode minus = rexBuilder.makeCall(SqlStdOperatorTable.MULTIPLY, relBuilder.literal(-1), argument);
@@ -164,24 +215,122 @@ protected IncrementalComputePlanWithDeletedRows createJoinRightInput(RelOptRuleC
       return null;
     }
 
-    return new IncrementalComputePlanWithDeletedRows(relBuilder
+    RelNode deltaAggregate = relBuilder
             .push(aggInput)
             .aggregate(relBuilder.groupKey(aggregate.getGroupSet()), newAggregateCalls)
-            .build(),
-            countIdx);
+            .build();
+
+    ImmutableBitSet recomputedColumns = recomputed.build();
+    if (recomputedColumns.isEmpty()) {
+      return new IncrementalComputePlanWithDeletedRows(deltaAggregate, countIdx, recomputedColumns);
+    }
+
+    // Join the delta with the definition of the view restricted to the groups which have delta records:
+    //
+    // SELECT delta.a, delta.sumb, delta.countStar, recomputed.minc
+    // FROM (...) delta
+    // LEFT OUTER JOIN (
+    //   SELECT a, min(c) minc FROM ... WHERE a IN (SELECT a FROM delta) GROUP BY a) recomputed
+    // ON (delta.a <=> recomputed.a)
+    RelNode recomputePlan = createRecomputePlan(relBuilder, deltaAggregate, groupCount);
+    relBuilder.push(deltaAggregate).push(recomputePlan);
+    List<RexNode> joinConjs = new ArrayList<>(groupCount);
+    for (int i = 0; i < groupCount; ++i) {
+      joinConjs.add(relBuilder.call(SqlStdOperatorTable.IS_NOT_DISTINCT_FROM,
+              relBuilder.field(2, 0, i), relBuilder.field(2, 1, i)));
+    }
+    relBuilder.join(JoinRelType.LEFT, joinConjs);
+
+    int deltaFieldCount = deltaAggregate.getRowType().getFieldCount();
+    List<RexNode> projExprs = new ArrayList<>(groupCount + aggregate.getAggCallList().size());
+    for (int i = 0; i < groupCount; ++i) {
+      projExprs.add(relBuilder.field(i));
+    }
+    for (int i = groupCount, deltaPos = groupCount; i < groupCount + aggregate.getAggCallList().size(); ++i) {
+      if (recomputedColumns.get(i)) {
+        projExprs.add(relBuilder.field(deltaFieldCount + i));
+      } else {
+        projExprs.add(relBuilder.field(deltaPos++));
+      }
+    }
+
+    return new IncrementalComputePlanWithDeletedRows(relBuilder.project(projExprs).build(),
+            countIdx, recomputedColumns);
+  }
+
+  /**
+   * Restricts the view definition to the groups present in the delta by pushing a semi join below its top aggregate.
+   * If the plan does not have the expected shape the whole definition is used, the left outer join on top of it
+   * still gives the right result.
+   */
+  private RelNode createRecomputePlan(RelBuilder relBuilder, RelNode deltaAggregate, int groupCount) {
+    RelNode definition = definitionPlan;
+    Project project = null;
+    if (definition instanceof Project) {
+      project = (Project) definition;
+      definition = project.getInput();
+    }
+    if (!(definition instanceof Aggregate) || ((Aggregate) definition).getGroupType() != Aggregate.Group.SIMPLE) {
+      return definitionPlan;
+    }
+    Aggregate aggregate = (Aggregate) definition;
+
+    int[] groupKeys = new int[groupCount];
+    for (int i = 0; i < groupCount; ++i) {
+      int aggregateField = i;
+      if (project != null) {
+        RexNode projExpr = project.getProjects().get(i);
+        if (!(projExpr instanceof RexInputRef)) {
+          return definitionPlan;
+        }
+        aggregateField = ((RexInputRef) projExpr).getIndex();
+      }
+      if (aggregateField >= aggregate.getGroupCount()) {
+        return definitionPlan;
+      }
+      groupKeys[i] = aggregate.getGroupSet().nth(aggregateField);
+    }
+
+    relBuilder.push(aggregate.getInput()).push(deltaAggregate);
+    List<RexNode> conditions = new ArrayList<>(groupCount);
+    for (int i = 0; i < groupCount; ++i) {
+      conditions.add(relBuilder.call(SqlStdOperatorTable.IS_NOT_DISTINCT_FROM,
+              relBuilder.field(2, 0, groupKeys[i]), relBuilder.field(2, 1, i)));
+    }
+    RelNode semiJoin = relBuilder.semiJoin(conditions).build();
+
+    RelNode recomputed = aggregate.copy(aggregate.getTraitSet(), ImmutableList.of(semiJoin));
+    if (project != null) {
+      recomputed = project.copy(project.getTraitSet(), ImmutableList.of(recomputed));
+    }
+    return recomputed;
+  }
+
+  @Override
+  protected RexNode createMergeNode(IncrementalComputePlanWithDeletedRows incrementalComputePlan, int fieldIndex,
+          SqlAggFunction aggCall, RexNode leftRef, RexNode rightRef, RexBuilder rexBuilder) {
+    if (incrementalComputePlan.recomputedColumns.get(fieldIndex)) {
+      // The value was recomputed from the current contents of the source tables, it replaces the value in the view
+      return rightRef;
+    }
+    return super.createMergeNode(incrementalComputePlan, fieldIndex, aggCall, leftRef, rightRef, rexBuilder);
   }
 
   /**
    * Extend {@link HiveAggregateIncrementalRewritingRuleBase.IncrementalComputePlan} with countStarIndex. It is
    * required for building the filter condition that distribute the rows to the insert/update/delete branches.
+   * recomputedColumns holds the indexes of the aggregates which are recomputed instead of merged with the view.
    */
   static class IncrementalComputePlanWithDeletedRows
           extends HiveAggregateIncrementalRewritingRuleBase.IncrementalComputePlan {
     private final int countStarIndex;
+    private final ImmutableBitSet recomputedColumns;
 
-    public IncrementalComputePlanWithDeletedRows(RelNode rightInput, int countStarIndex) {
+    public IncrementalComputePlanWithDeletedRows(RelNode rightInput, int countStarIndex,
+                                                 ImmutableBitSet recomputedColumns) {
       super(rightInput);
       this.countStarIndex = countStarIndex;
+      this.recomputedColumns = recomputedColumns;
     }
   }
 
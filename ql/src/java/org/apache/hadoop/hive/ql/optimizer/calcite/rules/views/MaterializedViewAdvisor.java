@@ -0,0 +1,330 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.hive.ql.optimizer.calcite.rules.views;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.core.Aggregate;
+import org.apache.calcite.rel.core.Aggregate.Group;
+import org.apache.calcite.rel.core.Filter;
+import org.apache.calcite.rel.core.Join;
+import org.apache.calcite.rel.core.Project;
+import org.apache.calcite.rel.core.TableScan;
+import org.apache.calcite.rel.metadata.RelMetadataQuery;
+import org.apache.hadoop.hive.conf.HiveConf;
+import org.apache.hadoop.hive.ql.DriverFactory;
+import org.apache.hadoop.hive.ql.IDriver;
+import org.apache.hadoop.hive.ql.io.AcidUtils;
+import org.apache.hadoop.hive.ql.metadata.Table;
+import org.apache.hadoop.hive.ql.optimizer.calcite.RelOptHiveTable;
+import org.apache.hadoop.hive.ql.session.SessionState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Recommends materialized views from the history of the queries compiled by this process.
+ *
+ * The advisor records the join and aggregate subplans (an aggregate over projects, filters and at least one join
+ * of table scans) of the optimized plans, keyed by their SQL text. The benefit of materializing one of them is
+ * estimated from the row counts of the cost model: every query computing it would read the rows of the
+ * materialized view instead of processing the rows of all its operators. When a subplan has been computed often
+ * enough and is worth materializing, a CREATE MATERIALIZED VIEW statement is suggested, and optionally executed
+ * in the background, within a budget of estimated materialized view size. The history and the used budget are
+ * kept in memory only, per process: they start over when the process restarts, and every HiveServer2 instance
+ * has its own.
+ */
+public final class MaterializedViewAdvisor {
+
+  private static final Logger LOG = LoggerFactory.getLogger(MaterializedViewAdvisor.class);
+
+  static final String NAME_PREFIX = "mv_advisor_";
+
+  private static volatile MaterializedViewAdvisor instance;
+
+  private final Cache<String, Candidate> candidates;
+  private final AtomicLong usedBudget = new AtomicLong();
+  private volatile ExecutorService executor;
+
+  @VisibleForTesting
+  MaterializedViewAdvisor(HiveConf conf) {
+    candidates = CacheBuilder.newBuilder()
+        .maximumSize(HiveConf.getIntVar(conf, HiveConf.ConfVars.HIVE_MATERIALIZED_VIEW_ADVISOR_MAX_CANDIDATES))
+        .build();
+  }
+
+  private static MaterializedViewAdvisor get(HiveConf conf) {
+    if (instance == null) {
+      synchronized (MaterializedViewAdvisor.class) {
+        if (instance == null) {
+          instance = new MaterializedViewAdvisor(conf);
+        }
+      }
+    }
+    return instance;
+  }
+
+  /**
+   * Records the subplans of an optimized plan, if the advisor is enabled.
+   * @param conf the configuration of the query
+   * @param plan the optimized plan of the query
+   * @param toSql generates the SQL text of a subplan, or null if it cannot be generated
+   */
+  public static void recordPlan(HiveConf conf, RelNode plan, Function<RelNode, String> toSql) {
+    if (!HiveConf.getBoolVar(conf, HiveConf.ConfVars.HIVE_MATERIALIZED_VIEW_ADVISOR_ENABLED)) {
+      return;
+    }
+    try {
+      get(conf).record(conf, plan, toSql);
+    } catch (RuntimeException e) {
+      // Recommendations are best effort, they must never make a query fail
+      LOG.warn("Could not record the plan for materialized view recommendations", e);
+    }
+  }
+
+  /**
+   * Returns the current recommendations of the advisor of this process, the most beneficial first.
+   */
+  public static List<Candidate> getRecommendations(HiveConf conf) {
+    return get(conf).recommendations(conf);
+  }
+
+  @VisibleForTesting
+  void record(HiveConf conf, RelNode plan, Function<RelNode, String> toSql) {
+    List<Aggregate> subplans = new ArrayList<>();
+    collectCandidates(plan, subplans);
+    for (Aggregate subplan : subplans) {
+      String sql = toSql.apply(subplan);
+      if (sql == null) {
+        continue;
+      }
+      Candidate candidate;
+      try {
+        candidate = candidates.get(sql, () -> new Candidate(sql, subplan));
+      } catch (ExecutionException e) {
+        throw new RuntimeException(e.getCause());
+      }
+      int occurrences = candidate.occurrences.incrementAndGet();
+      if (occurrences == HiveConf.getIntVar(conf, HiveConf.ConfVars.HIVE_MATERIALIZED_VIEW_ADVISOR_MIN_OCCURRENCES)
+          && candidate.getBenefit() > 0) {
+        recommend(conf, candidate);
+      }
+    }
+  }
+
+  @VisibleForTesting
+  List<Candidate> recommendations(HiveConf conf) {
+    int minOccurrences = HiveConf.getIntVar(conf, HiveConf.ConfVars.HIVE_MATERIALIZED_VIEW_ADVISOR_MIN_OCCURRENCES);
+    return candidates.asMap().values().stream()
+        .filter(c -> c.getOccurrences() >= minOccurrences && c.getBenefit() > 0)
+        .sorted(Comparator.comparingDouble(Candidate::getBenefit).reversed())
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Collects the aggregates over projects, filters and joins of scans of transactional tables. Scans of
+   * materialized views, temporary tables, non-transactional tables and tables of storage handlers cannot be part
+   * of a new materialized view, or would make the recommendation pointless.
+   */
+  @VisibleForTesting
+  static void collectCandidates(RelNode node, List<Aggregate> result) {
+    if (node instanceof Aggregate && ((Aggregate) node).getGroupType() == Group.SIMPLE) {
+      AtomicInteger joins = new AtomicInteger();
+      if (isJoinSubplan(node.getInput(0), joins) && joins.get() > 0) {
+        result.add((Aggregate) node);
+      }
+    }
+    for (RelNode input : node.getInputs()) {
+      collectCandidates(input, result);
+    }
+  }
+
+  private static boolean isJoinSubplan(RelNode node, AtomicInteger joins) {
+    if (node instanceof TableScan) {
+      if (!(node.getTable() instanceof RelOptHiveTable)) {
+        return false;
+      }
+      Table table = ((RelOptHiveTable) node.getTable()).getHiveTableMD();
+      // Materialized views with rewriting enabled can only be created over transactional tables
+      return table != null && !table.isMaterializedView() && !table.isTemporary() && !table.isNonNative()
+          && AcidUtils.isTransactionalTable(table);
+    }
+    if (node instanceof Join) {
+      joins.incrementAndGet();
+    } else if (!(node instanceof Project) && !(node instanceof Filter)) {
+      return false;
+    }
+    for (RelNode input : node.getInputs()) {
+      if (!isJoinSubplan(input, joins)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void recommend(HiveConf conf, Candidate candidate) {
+    String statement = candidate.getCreateStatement(
+        HiveConf.getVar(conf, HiveConf.ConfVars.HIVE_MATERIALIZED_VIEW_ADVISOR_DATABASE));
+    String message = String.format("Materialized view recommendation (computed %d times, about %.0f rows "
+        + "processed per computation instead of %.0f): %s", candidate.getOccurrences(), candidate.getProcessedRows(),
+        candidate.getRowCount(), statement);
+    LOG.info(message);
+    SessionState.getConsole().printInfo(message);
+
+    if (!HiveConf.getBoolVar(conf, HiveConf.ConfVars.HIVE_MATERIALIZED_VIEW_ADVISOR_AUTO_CREATE)) {
+      return;
+    }
+    long size = (long) Math.ceil(candidate.getSize());
+    long budget = HiveConf.getSizeVar(conf, HiveConf.ConfVars.HIVE_MATERIALIZED_VIEW_ADVISOR_AUTO_CREATE_BUDGET);
+    if (usedBudget.addAndGet(size) > budget) {
+      usedBudget.addAndGet(-size);
+      LOG.info("Not creating the recommended materialized view, its estimated size of {} bytes exceeds the "
+          + "remaining budget", size);
+      return;
+    }
+    HiveConf createConf = new HiveConf(conf);
+    createConf.setBoolVar(HiveConf.ConfVars.HIVE_MATERIALIZED_VIEW_ADVISOR_ENABLED, false);
+    createConf.unset(HiveConf.ConfVars.HIVESESSIONID.varname);
+    SessionState ss = SessionState.get();
+    String user = ss == null ? null : ss.getUserName();
+    getExecutor().execute(() -> create(createConf, user, statement, size));
+  }
+
+  private ExecutorService getExecutor() {
+    if (executor == null) {
+      synchronized (this) {
+        if (executor == null) {
+          executor = Executors.newSingleThreadExecutor(
+              new ThreadFactoryBuilder().setDaemon(true).setNameFormat("Materialized View Advisor").build());
+        }
+      }
+    }
+    return executor;
+  }
+
+  private void create(HiveConf conf, String user, String statement, long size) {
+    SessionState state = null;
+    try {
+      state = new SessionState(conf, user);
+      state.setIsHiveServerQuery(true);
+      SessionState.start(state);
+      try (IDriver driver = DriverFactory.newDriver(DriverFactory.getNewQueryState(conf), null)) {
+        driver.run(statement);
+      }
+      LOG.info("Created recommended materialized view: {}", statement);
+    } catch (Throwable t) {
+      usedBudget.addAndGet(-size);
+      LOG.warn("Could not create recommended materialized view: " + statement, t);
+    } finally {
+      if (state != null) {
+        try {
+          state.close();
+        } catch (Throwable e) {
+          LOG.debug("Could not close the session", e);
+        }
+      }
+    }
+  }
+
+  /**
+   * A subplan computed by the recorded queries.
+   */
+  public static final class Candidate {
+    private final String sql;
+    private final double processedRows;
+    private final double rowCount;
+    private final double size;
+    private final AtomicInteger occurrences = new AtomicInteger();
+
+    Candidate(String sql, RelNode subplan) {
+      this.sql = sql;
+      RelMetadataQuery mq = subplan.getCluster().getMetadataQuery();
+      this.processedRows = getProcessedRows(subplan, mq);
+      this.rowCount = nonNull(mq.getRowCount(subplan));
+      this.size = rowCount * nonNull(mq.getAverageRowSize(subplan));
+    }
+
+    private static double getProcessedRows(RelNode node, RelMetadataQuery mq) {
+      double rows = nonNull(mq.getRowCount(node));
+      for (RelNode input : node.getInputs()) {
+        rows += getProcessedRows(input, mq);
+      }
+      return rows;
+    }
+
+    private static double nonNull(Double value) {
+      return value == null ? 0 : value;
+    }
+
+    public String getSql() {
+      return sql;
+    }
+
+    public int getOccurrences() {
+      return occurrences.get();
+    }
+
+    /**
+     * @return the estimated number of rows processed by every computation of the subplan
+     */
+    public double getProcessedRows() {
+      return processedRows;
+    }
+
+    /**
+     * @return the estimated number of rows of the materialized view
+     */
+    public double getRowCount() {
+      return rowCount;
+    }
+
+    /**
+     * @return the estimated size of the materialized view, in bytes
+     */
+    public double getSize() {
+      return size;
+    }
+
+    /**
+     * @return the estimated number of rows which would not have been processed by the recorded queries if the
+     * materialized view had existed since the first one
+     */
+    public double getBenefit() {
+      return (processedRows - rowCount) * (getOccurrences() - 1);
+    }
+
+    public String getCreateStatement(String database) {
+      String name = NAME_PREFIX + Hashing.sha256().hashString(sql, StandardCharsets.UTF_8).toString().substring(0, 16);
+      return "CREATE MATERIALIZED VIEW IF NOT EXISTS `" + database + "`.`" + name + "` AS " + sql;
+    }
+  }
+}
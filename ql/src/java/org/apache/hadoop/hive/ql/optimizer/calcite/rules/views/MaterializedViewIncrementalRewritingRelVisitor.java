@@ -22,6 +22,7 @@
 import org.apache.calcite.rel.core.AggregateCall;
 import org.apache.calcite.rel.core.Filter;
 import org.apache.calcite.rel.core.Join;
+import org.apache.calcite.rel.core.JoinRelType;
 import org.apache.calcite.rel.core.Project;
 import org.apache.calcite.rel.core.TableScan;
 import org.apache.calcite.rel.core.Union;
@@ -38,20 +39,24 @@
  *
  * We are verifying that:
  *   1) Plan only uses legal operators (i.e., Filter, Project,
- *   Join, and TableScan)
+ *   inner Join, and TableScan)
  *   2) Whether the plane has aggregate
  *   3) Whether the plane has an count(*) aggregate function call
+ *   4) Whether the aggregates can be maintained when only inserts happened
+ *   in the source tables
  */
 public class MaterializedViewIncrementalRewritingRelVisitor extends RelVisitor {
 
   private boolean containsAggregate;
   private boolean rewritingAllowed;
   private boolean hasCountStar;
+  private boolean insertOnlyAggregate;
 
   public MaterializedViewIncrementalRewritingRelVisitor() {
     this.containsAggregate = false;
     this.rewritingAllowed = true;
     this.hasCountStar = false;
+    this.insertOnlyAggregate = true;
   }
 
   @Override
@@ -60,6 +65,9 @@ public void visit(RelNode node, int ordinal, RelNode parent) {
       this.containsAggregate = true;
       check((Aggregate) node);
       super.visit(node, ordinal, parent);
+    } else if (node instanceof Join && ((Join) node).getJoinType() != JoinRelType.INNER) {
+      // Materialized view rewriting only produces incremental plans for inner joins
+      rewritingAllowed = false;
     } else if (node instanceof TableScan ||
             node instanceof Filter ||
             node instanceof Project ||
@@ -75,7 +83,9 @@ private void check(Aggregate aggregate) {
       AggregateCall aggregateCall = aggregate.getAggCallList().get(i);
       if (aggregateCall.getAggregation().getKind() == SqlKind.COUNT && aggregateCall.getArgList().size() == 0) {
         hasCountStar = true;
-        break;
+      }
+      if (!MaterializedViewRewritingRelVisitor.isInsertOnlyIncremental(aggregateCall)) {
+        insertOnlyAggregate = false;
       }
     }
   }
@@ -99,4 +109,8 @@ public boolean isRewritingAllowed() {
   public boolean hasCountStar() {
     return hasCountStar;
   }
+
+  public boolean isInsertOnlyAggregate() {
+    return insertOnlyAggregate;
+  }
 }
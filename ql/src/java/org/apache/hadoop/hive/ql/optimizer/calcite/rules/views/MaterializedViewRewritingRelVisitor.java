@@ -56,11 +56,13 @@ public class MaterializedViewRewritingRelVisitor extends RelVisitor {
   private boolean containsAggregate;
   private boolean rewritingAllowed;
   private int countIndex;
+  private boolean insertOnlyAggregateRewritingAllowed;
 
   public MaterializedViewRewritingRelVisitor() {
     this.containsAggregate = false;
     this.rewritingAllowed = false;
     this.countIndex = -1;
+    this.insertOnlyAggregateRewritingAllowed = true;
   }
 
   @Override
@@ -103,9 +105,12 @@ public void visit(RelNode node, int ordinal, RelNode parent) {
           Aggregate aggregate = (Aggregate) node;
           for (int i = 0; i < aggregate.getAggCallList().size(); ++i) {
             AggregateCall aggregateCall = aggregate.getAggCallList().get(i);
-            if (aggregateCall.getAggregation().getKind() == SqlKind.COUNT && aggregateCall.getArgList().size() == 0) {
+            if (countIndex < 0 &&
+                aggregateCall.getAggregation().getKind() == SqlKind.COUNT && aggregateCall.getArgList().size() == 0) {
               countIndex = i + aggregate.getGroupCount();
-              break;
+            }
+            if (!isInsertOnlyIncremental(aggregateCall)) {
+              insertOnlyAggregateRewritingAllowed = false;
             }
           }
           // We can continue
@@ -144,6 +149,26 @@ public void visit(RelNode node, int ordinal, RelNode parent) {
     throw new ReturnedValue(true);
   }
 
+  /**
+   * Aggregates that can be merged with the values stored in the view when only new rows were inserted into the
+   * source tables.
+   */
+  static boolean isInsertOnlyIncremental(AggregateCall aggregateCall) {
+    if (aggregateCall.isDistinct()) {
+      return false;
+    }
+    switch (aggregateCall.getAggregation().getKind()) {
+      case COUNT:
+      case SUM:
+      case SUM0:
+      case MIN:
+      case MAX:
+        return true;
+      default:
+        return false;
+    }
+  }
+
   /**
    * Starts an iteration.
    */
@@ -169,6 +194,10 @@ public int getCountIndex() {
     return countIndex;
   }
 
+  public boolean isInsertOnlyAggregateRewritingAllowed() {
+    return insertOnlyAggregateRewritingAllowed;
+  }
+
   /**
    * Exception used to interrupt a visitor walk.
    */
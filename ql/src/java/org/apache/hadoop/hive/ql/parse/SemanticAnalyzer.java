@@ -13550,7 +13550,7 @@ ASTNode analyzeCreateTable(
       ConstraintsUtils.validateCheckConstraint(cols, checkConstraints, ctx.getConf());
     }
 
-    storageFormat.fillDefaultStorageFormat(isExt, false);
+    storageFormat.fillDefaultStorageFormat(isExt, false, isTemporary);
 
     // check for existence of table
     if (ifNotExists) {
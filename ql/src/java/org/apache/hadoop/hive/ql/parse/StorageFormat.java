@@ -174,6 +174,11 @@ protected void processStorageFormat(String name) throws SemanticException {
 
   public void fillDefaultStorageFormat(boolean isExternal, boolean isMaterializedView)
       throws  SemanticException {
+    fillDefaultStorageFormat(isExternal, isMaterializedView, false);
+  }
+
+  public void fillDefaultStorageFormat(boolean isExternal, boolean isMaterializedView, boolean isTemporary)
+      throws  SemanticException {
     if ((inputFormat == null) && (storageHandler == null)) {
       String defaultFormat;
       String defaultManagedFormat;
@@ -190,6 +195,13 @@ public void fillDefaultStorageFormat(boolean isExternal, boolean isMaterializedV
         defaultFormat = defaultManagedFormat;
       }
 
+      if (isTemporary) {
+        String defaultTemporaryFormat = HiveConf.getVar(conf, HiveConf.ConfVars.HIVE_TEMPORARY_TABLE_FILE_FORMAT);
+        if (!"none".equals(defaultTemporaryFormat)) {
+          defaultFormat = defaultTemporaryFormat;
+        }
+      }
+
       if (StringUtils.isBlank(defaultFormat)) {
         inputFormat = IOConstants.TEXTFILE_INPUT;
         outputFormat = IOConstants.TEXTFILE_OUTPUT;
@@ -58,10 +58,13 @@
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import static org.apache.hadoop.hive.conf.Constants.COMPACTOR_CLEANER_DELETE_THREAD_NAME_FORMAT;
 import static org.apache.hadoop.hive.conf.Constants.COMPACTOR_CLEANER_THREAD_NAME_FORMAT;
 import static org.apache.hadoop.hive.conf.HiveConf.ConfVars.HIVE_COMPACTOR_CLEANER_RETENTION_TIME;
 import static org.apache.hadoop.hive.conf.HiveConf.ConfVars.HIVE_COMPACTOR_DELAYED_CLEANUP_ENABLED;
@@ -80,6 +83,7 @@ public class Cleaner extends MetaStoreCompactorThread {
 
   private ReplChangeManager replChangeManager;
   private ExecutorService cleanerExecutor;
+  private ExecutorService deleteExecutor;
 
   @Override
   public void init(AtomicBoolean stop) throws Exception {
@@ -90,6 +94,11 @@ public void init(AtomicBoolean stop) throws Exception {
     cleanerExecutor = CompactorUtil.createExecutorWithThreadFactory(
             conf.getIntVar(HiveConf.ConfVars.HIVE_COMPACTOR_CLEANER_THREADS_NUM),
             COMPACTOR_CLEANER_THREAD_NAME_FORMAT);
+    int deleteThreads = conf.getIntVar(HiveConf.ConfVars.HIVE_COMPACTOR_CLEANER_DELETE_THREADS_NUM);
+    if (deleteThreads > 1) {
+      deleteExecutor = CompactorUtil.createExecutorWithThreadFactory(deleteThreads,
+          COMPACTOR_CLEANER_DELETE_THREAD_NAME_FORMAT);
+    }
   }
 
   @Override
@@ -115,6 +124,9 @@ public void run() {
           long minOpenTxnId = txnHandler.findMinOpenTxnIdForCleaner();
 
           List<CompactionInfo> readyToClean = txnHandler.findReadyToClean(minOpenTxnId, retentionTime);
+          if (metricsEnabled) {
+            Metrics.getOrCreateGauge(MetricsConstants.COMPACTION_CLEANER_QUEUE_SIZE).set(readyToClean.size());
+          }
           if (!readyToClean.isEmpty()) {
             long minTxnIdSeenOpen = txnHandler.findMinTxnIdSeenOpen();
             final long cleanerWaterMark = minTxnIdSeenOpen < 0 ? minOpenTxnId : Math.min(minOpenTxnId, minTxnIdSeenOpen);
@@ -159,6 +171,9 @@ public void run() {
       if (cleanerExecutor != null) {
         this.cleanerExecutor.shutdownNow();
       }
+      if (deleteExecutor != null) {
+        this.deleteExecutor.shutdownNow();
+      }
     }
   }
 
@@ -343,13 +358,45 @@ private boolean removeFiles(String location, ValidWriteIdList writeIdList, Compa
     FileSystem fs = dir.getFs();
     Database db = getMSForConf(conf).getDatabase(getDefaultCatalog(conf), ci.dbname);
 
+    boolean shouldEnableCm = ReplChangeManager.shouldEnableCm(db, table);
+    List<Future<Boolean>> deletes = new ArrayList<>(filesToDelete.size());
     for (Path dead : filesToDelete) {
       LOG.debug("Going to delete path " + dead.toString());
-      if (ReplChangeManager.shouldEnableCm(db, table)) {
+      if (shouldEnableCm) {
         replChangeManager.recycle(dead, ReplChangeManager.RecycleType.MOVE, true);
       }
-      fs.delete(dead, true);
+      if (deleteExecutor == null) {
+        fs.delete(dead, true);
+      } else {
+        // fs was created for the user the cleaning runs as, so it can be used from the delete threads
+        deletes.add(deleteExecutor.submit(() -> fs.delete(dead, true)));
+      }
+    }
+    waitForDeletes(deletes);
+    if (MetastoreConf.getBoolVar(conf, MetastoreConf.ConfVars.METRICS_ENABLED) &&
+        MetastoreConf.getBoolVar(conf, MetastoreConf.ConfVars.METASTORE_ACIDMETRICS_EXT_ON)) {
+      Metrics.getOrCreateCounter(MetricsConstants.COMPACTION_CLEANER_REMOVED_DIRS_COUNTER).inc(filesToDelete.size());
     }
     return true;
   }
+
+  private static void waitForDeletes(List<Future<Boolean>> deletes) throws IOException {
+    IOException failure = null;
+    for (Future<Boolean> delete : deletes) {
+      try {
+        delete.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException("Interrupted while waiting for obsolete directories to be deleted", e);
+      } catch (ExecutionException e) {
+        // Wait for the rest of the deletes anyway, the queue entry stays in ready for cleaning state
+        if (failure == null) {
+          failure = e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
 }
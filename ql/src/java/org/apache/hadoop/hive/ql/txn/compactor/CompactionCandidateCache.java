@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.hive.ql.txn.compactor;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers the outcome of the last directory scan the Initiator did for a table or partition that
+ * did not need compaction, so that subsequent cycles can skip the (expensive) listing as long as the
+ * writes committed since then cannot plausibly have pushed the table/partition over a threshold.
+ * <p>
+ * The number of writes since the last scan is bounded by the write id of the latest write to the
+ * table/partition, which the metastore returns with the potential compactions. Every write can add
+ * at most an insert and a delete delta, and the size growth is estimated from the average size of
+ * the deltas seen during the last scan. A write much larger than that average can therefore delay a
+ * major compaction, until the entry expires after a configurable age and the candidate is listed again.
+ */
+class CompactionCandidateCache {
+
+  /**
+   * Directory statistics of a table/partition as observed by the last scan.
+   */
+  static final class DirStats {
+    private final long highWatermark;
+    private final long baseSize;
+    private final long deltaSize;
+    private final int numDeltas;
+    private final long createdAt;
+
+    DirStats(long highWatermark, long baseSize, long deltaSize, int numDeltas, long createdAt) {
+      this.highWatermark = highWatermark;
+      this.baseSize = baseSize;
+      this.deltaSize = deltaSize;
+      this.numDeltas = numDeltas;
+      this.createdAt = createdAt;
+    }
+  }
+
+  private final Map<String, DirStats> cache = new ConcurrentHashMap<>();
+  private final long maxAgeMs;
+
+  CompactionCandidateCache(long maxAgeMs) {
+    this.maxAgeMs = maxAgeMs;
+  }
+
+  /**
+   * Records the result of a directory scan that did not lead to a compaction request.
+   */
+  void put(String fullPartitionName, long highWatermark, long baseSize, long deltaSize, int numDeltas) {
+    cache.put(fullPartitionName,
+        new DirStats(highWatermark, baseSize, deltaSize, numDeltas, System.currentTimeMillis()));
+  }
+
+  void invalidate(String fullPartitionName) {
+    cache.remove(fullPartitionName);
+  }
+
+  int size() {
+    return cache.size();
+  }
+
+  /**
+   * Decides whether the directory scan can be skipped for the given table/partition.
+   * @param fullPartitionName key of the table/partition
+   * @param highWatermark write id of the latest write to the table/partition
+   * @param deltaNumThreshold number of deltas that triggers a minor compaction
+   * @param deltaPctThreshold delta/base size ratio that triggers a major compaction
+   * @return true if none of the thresholds can have been crossed since the last scan
+   */
+  boolean canSkipScan(String fullPartitionName, long highWatermark, int deltaNumThreshold,
+      float deltaPctThreshold) {
+    DirStats stats = cache.get(fullPartitionName);
+    if (stats == null) {
+      return false;
+    }
+    if (System.currentTimeMillis() - stats.createdAt > maxAgeMs || highWatermark < stats.highWatermark) {
+      // Stale, or the table was dropped and re-created in the meantime
+      cache.remove(fullPartitionName);
+      return false;
+    }
+    long newWrites = highWatermark - stats.highWatermark;
+    if (newWrites == 0) {
+      return true;
+    }
+    if (stats.numDeltas == 0 || stats.baseSize == 0) {
+      // Nothing to estimate the growth of the deltas from
+      return false;
+    }
+    long estimatedNumDeltas = stats.numDeltas + 2 * newWrites;
+    if (estimatedNumDeltas > deltaNumThreshold) {
+      return false;
+    }
+    long avgDeltaSize = stats.deltaSize / stats.numDeltas;
+    long estimatedDeltaSize = stats.deltaSize + avgDeltaSize * newWrites;
+    return (float) estimatedDeltaSize / (float) stats.baseSize <= deltaPctThreshold;
+  }
+}
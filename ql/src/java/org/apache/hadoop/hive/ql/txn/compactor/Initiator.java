@@ -89,6 +89,7 @@ public class Initiator extends MetaStoreCompactorThread {
   private long checkInterval;
   private long prevStart = -1;
   private ExecutorService compactionExecutor;
+  private CompactionCandidateCache candidateCache;
 
   @Override
   public void run() {
@@ -216,6 +217,9 @@ private void scheduleCompactionIfRequired(CompactionInfo ci, Table t, Partition
       ValidWriteIdList validWriteIds = resolveValidWriteIds(t);
       CompactionType type = checkForCompaction(ci, validWriteIds, sd, t.getParameters(), runAs);
       if (type != null) {
+        if (candidateCache != null) {
+          candidateCache.invalidate(ci.getFullPartitionName());
+        }
         requestCompaction(ci, runAs, type);
       }
     } catch (Throwable ex) {
@@ -260,6 +264,10 @@ public void init(AtomicBoolean stop) throws Exception {
     compactionExecutor = CompactorUtil.createExecutorWithThreadFactory(
             conf.getIntVar(HiveConf.ConfVars.HIVE_COMPACTOR_REQUEST_QUEUE),
             COMPACTOR_INTIATOR_THREAD_NAME_FORMAT);
+    if (candidateCache == null && conf.getBoolVar(HiveConf.ConfVars.HIVE_COMPACTOR_INITIATOR_INCREMENTAL_CHECK)) {
+      candidateCache = new CompactionCandidateCache(conf.getTimeVar(
+          HiveConf.ConfVars.HIVE_COMPACTOR_INITIATOR_INCREMENTAL_CHECK_MAX_AGE, TimeUnit.MILLISECONDS));
+    }
   }
 
   private void recoverFailedCompactions(boolean remoteOnly) throws MetaException {
@@ -338,6 +346,27 @@ private CompactionType determineCompactionType(CompactionInfo ci, ValidWriteIdLi
                                                  StorageDescriptor sd, Map<String, String> tblproperties)
       throws IOException {
 
+    String deltaPctProp = tblproperties.get(COMPACTORTHRESHOLD_PREFIX +
+        HiveConf.ConfVars.HIVE_COMPACTOR_DELTA_PCT_THRESHOLD);
+    float deltaPctThreshold = deltaPctProp == null ?
+        HiveConf.getFloatVar(conf, HiveConf.ConfVars.HIVE_COMPACTOR_DELTA_PCT_THRESHOLD) :
+        Float.parseFloat(deltaPctProp);
+    String deltaNumProp = tblproperties.get(COMPACTORTHRESHOLD_PREFIX +
+        HiveConf.ConfVars.HIVE_COMPACTOR_DELTA_NUM_THRESHOLD);
+    int deltaNumThreshold = deltaNumProp == null ?
+        HiveConf.getIntVar(conf, HiveConf.ConfVars.HIVE_COMPACTOR_DELTA_NUM_THRESHOLD) :
+        Integer.parseInt(deltaNumProp);
+
+    // The latest write to the partition, so that writes to the other partitions of the table do not count.
+    // Falls back to the table's high watermark when it is not known, e.g. for a candidate with aborts only.
+    long highWatermark = ci.highestWriteId > 0 ? ci.highestWriteId : writeIds.getHighWatermark();
+    if (candidateCache != null && candidateCache.canSkipScan(ci.getFullPartitionName(),
+        highWatermark, deltaNumThreshold, deltaPctThreshold)) {
+      LOG.debug("Skipping directory scan of " + ci.getFullPartitionName() + ", the writes since the last " +
+          "scan are not enough to cross any of the compaction thresholds");
+      return null;
+    }
+
     boolean noBase = false;
     Path location = new Path(sd.getLocation());
     FileSystem fs = location.getFileSystem(conf);
@@ -360,11 +389,6 @@ private CompactionType determineCompactionType(CompactionInfo ci, ValidWriteIdLi
     if (baseSize == 0 && deltaSize > 0) {
       noBase = true;
     } else {
-      String deltaPctProp = tblproperties.get(COMPACTORTHRESHOLD_PREFIX +
-          HiveConf.ConfVars.HIVE_COMPACTOR_DELTA_PCT_THRESHOLD);
-      float deltaPctThreshold = deltaPctProp == null ?
-          HiveConf.getFloatVar(conf, HiveConf.ConfVars.HIVE_COMPACTOR_DELTA_PCT_THRESHOLD) :
-          Float.parseFloat(deltaPctProp);
       boolean bigEnough =   (float)deltaSize/(float)baseSize > deltaPctThreshold;
       boolean multiBase = dir.getObsolete().stream()
               .filter(path -> path.getName().startsWith(AcidUtils.BASE_PREFIX)).findAny().isPresent();
@@ -394,13 +418,12 @@ private CompactionType determineCompactionType(CompactionInfo ci, ValidWriteIdLi
       if (initiateMajor) return CompactionType.MAJOR;
     }
 
-    String deltaNumProp = tblproperties.get(COMPACTORTHRESHOLD_PREFIX +
-        HiveConf.ConfVars.HIVE_COMPACTOR_DELTA_NUM_THRESHOLD);
-    int deltaNumThreshold = deltaNumProp == null ?
-        HiveConf.getIntVar(conf, HiveConf.ConfVars.HIVE_COMPACTOR_DELTA_NUM_THRESHOLD) :
-        Integer.parseInt(deltaNumProp);
     boolean enough = deltas.size() > deltaNumThreshold;
     if (!enough) {
+      if (candidateCache != null) {
+        candidateCache.put(ci.getFullPartitionName(), highWatermark, baseSize, deltaSize,
+            deltas.size());
+      }
       LOG.debug("Not enough deltas to initiate compaction for table=" + ci.tableName + "partition=" + ci.partName
           + ". Found: " + deltas.size() + " deltas, threshold is " + deltaNumThreshold);
       return null;
@@ -53,6 +53,8 @@
 import org.apache.hadoop.hive.ql.processors.CommandProcessorException;
 import org.apache.hadoop.hive.ql.session.SessionState;
 import org.apache.hadoop.hive.ql.stats.StatsUtils;
+import org.apache.hadoop.hive.shims.HadoopShims.HdfsFileStatusWithId;
+import org.apache.hadoop.mapreduce.MRConfig;
 import org.apache.hadoop.security.UserGroupInformation;
 
 import java.io.IOException;
@@ -532,13 +534,17 @@ protected Boolean findNextCompactionAndExecute(boolean computeStats) {
         task (currently we're using Tez split grouping).
         */
         QueryCompactor queryCompactor = QueryCompactorFactory.getQueryCompactor(t, conf, ci);
-        if (queryCompactor != null) {
+        if (queryCompactor != null && isSmallCrudMinorCompaction(ci, t, dir)) {
+          LOG.info("Will compact id: " + ci.id + " in-process, the deltas are smaller than "
+              + HiveConf.ConfVars.COMPACTOR_MINOR_IN_PROCESS_MAX_SIZE.varname);
+          runCompactionViaMrJob(ci, t, p, sd, tblValidWriteIds, jobName, dir, su, true);
+        } else if (queryCompactor != null) {
           LOG.info("Will compact id: " + ci.id + " with query-based compactor class: "
               + queryCompactor.getClass().getName());
           queryCompactor.runCompaction(conf, t, p, sd, tblValidWriteIds, ci, dir);
         } else {
           LOG.info("Will compact id: " + ci.id + " via MR job");
-          runCompactionViaMrJob(ci, t, p, sd, tblValidWriteIds, jobName, dir, su);
+          runCompactionViaMrJob(ci, t, p, sd, tblValidWriteIds, jobName, dir, su, false);
         }
         heartbeater.interrupt();
 
@@ -645,16 +651,69 @@ private void failCompactionIfSetForTest() {
     }
   }
 
-  private void runCompactionViaMrJob(CompactionInfo ci, Table t, Partition p, StorageDescriptor sd,
-      ValidCompactorWriteIdList tblValidWriteIds, StringBuilder jobName, AcidDirectory dir, StatsUpdater su)
+  /**
+   * Checks whether a minor compaction of a full ACID table is small enough to merge the deltas in the
+   * Worker itself instead of launching a query (and a Tez DAG) for it.
+   */
+  private boolean isSmallCrudMinorCompaction(CompactionInfo ci, Table t, AcidDirectory dir)
       throws IOException, InterruptedException {
+    long maxSize = conf.getSizeVar(HiveConf.ConfVars.COMPACTOR_MINOR_IN_PROCESS_MAX_SIZE);
+    if (maxSize <= 0 || ci.isMajorCompaction() || AcidUtils.isInsertOnlyTable(t.getParameters())) {
+      return false;
+    }
+    List<AcidUtils.ParsedDelta> deltas = dir.getCurrentDirectories();
+    if (deltas.size() > conf.getIntVar(HiveConf.ConfVars.COMPACTOR_MAX_NUM_DELTA)) {
+      return false;
+    }
+    if (runJobAsSelf(ci.runAs)) {
+      return isSmallerThan(deltas, maxSize);
+    }
+
+    UserGroupInformation ugi = UserGroupInformation.createProxyUser(ci.runAs, UserGroupInformation.getLoginUser());
+    try {
+      return ugi.doAs((PrivilegedExceptionAction<Boolean>) () -> isSmallerThan(deltas, maxSize));
+    } finally {
+      try {
+        FileSystem.closeAllForUGI(ugi);
+      } catch (IOException exception) {
+        LOG.error("Could not clean up file-system handles for UGI: " + ugi + " for " + ci.getFullPartitionName(),
+                exception);
+      }
+    }
+  }
+
+  private boolean isSmallerThan(List<AcidUtils.ParsedDelta> deltas, long maxSize) throws IOException {
+    long size = 0;
+    for (AcidUtils.ParsedDelta delta : deltas) {
+      FileSystem fs = delta.getPath().getFileSystem(conf);
+      for (HdfsFileStatusWithId file : delta.getFiles(fs, Ref.from(false))) {
+        size += file.getFileStatus().getLen();
+        if (size > maxSize) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private void runCompactionViaMrJob(CompactionInfo ci, Table t, Partition p, StorageDescriptor sd,
+      ValidCompactorWriteIdList tblValidWriteIds, StringBuilder jobName, AcidDirectory dir, StatsUpdater su,
+      boolean inProcess) throws IOException, InterruptedException {
     final CompactorMR mr = new CompactorMR();
+    final HiveConf jobConf;
+    if (inProcess) {
+      // Run the merge in the local job runner of this process
+      jobConf = new HiveConf(conf);
+      jobConf.set(MRConfig.FRAMEWORK_NAME, MRConfig.LOCAL_FRAMEWORK_NAME);
+    } else {
+      jobConf = conf;
+    }
     if (runJobAsSelf(ci.runAs)) {
-      mr.run(conf, jobName.toString(), t, p, sd, tblValidWriteIds, ci, su, msc, dir);
+      mr.run(jobConf, jobName.toString(), t, p, sd, tblValidWriteIds, ci, su, msc, dir);
     } else {
       UserGroupInformation ugi = UserGroupInformation.createProxyUser(ci.runAs, UserGroupInformation.getLoginUser());
       ugi.doAs((PrivilegedExceptionAction<Object>) () -> {
-        mr.run(conf, jobName.toString(), t, p, sd, tblValidWriteIds, ci, su, msc, dir);
+        mr.run(jobConf, jobName.toString(), t, p, sd, tblValidWriteIds, ci, su, msc, dir);
         return null;
       });
       try {
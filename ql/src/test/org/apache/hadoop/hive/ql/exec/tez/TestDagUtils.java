@@ -17,21 +17,38 @@
 package org.apache.hadoop.hive.ql.exec.tez;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 
 import java.io.IOException;
 import java.security.PrivilegedExceptionAction;
 
+import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.hive.conf.HiveConf;
+import org.apache.hadoop.hive.ql.CompilationOpContext;
+import org.apache.hadoop.hive.ql.exec.OperatorFactory;
 import org.apache.hadoop.hive.ql.io.HiveFileFormatUtils;
 import org.apache.hadoop.hive.ql.plan.BaseWork;
+import org.apache.hadoop.hive.ql.plan.MapJoinDesc;
+import org.apache.hadoop.hive.ql.plan.MapWork;
+import org.apache.hadoop.hive.ql.plan.ReduceWork;
+import org.apache.hadoop.hive.ql.plan.TezEdgeProperty;
+import org.apache.hadoop.hive.ql.plan.TezEdgeProperty.EdgeType;
+import org.apache.hadoop.hive.ql.plan.TezWork;
+import org.apache.hadoop.io.BytesWritable;
 import org.apache.hadoop.io.Text;
 import org.apache.hadoop.mapred.JobConf;
 import org.apache.hadoop.security.Credentials;
 import org.apache.hadoop.security.UserGroupInformation;
 import org.apache.hadoop.security.token.Token;
 import org.apache.hadoop.security.token.TokenIdentifier;
+import org.apache.tez.common.TezUtils;
 import org.apache.tez.dag.api.DAG;
+import org.apache.tez.dag.api.Edge;
+import org.apache.tez.dag.api.ProcessorDescriptor;
+import org.apache.tez.dag.api.Vertex;
+import org.apache.tez.runtime.library.api.TezRuntimeConfiguration;
 import org.junit.Test;
 
 /**
@@ -92,5 +109,66 @@ public void outputCommitterNotOverriddenIfPresent() throws IOException {
     assertEquals(TestTezOutputCommitter.CountingOutputCommitter.class.getName(),
         configuration.get("mapred.output.committer.class"));
   }
-  
+
+  @Test
+  public void testLlapEdgeConfiguration() throws IOException {
+    TezWork tezWork = new TezWork("test");
+    MapWork mapWork = new MapWork("Map 1");
+    ReduceWork reduceWork = new ReduceWork("Reducer 2");
+    TezEdgeProperty edgeProp = new TezEdgeProperty(EdgeType.BROADCAST_EDGE);
+    tezWork.add(mapWork);
+    tezWork.add(reduceWork);
+    tezWork.connect(mapWork, reduceWork, edgeProp);
+    mapWork.setLlapMode(true);
+    reduceWork.setLlapMode(true);
+
+    JobConf conf = new JobConf(new HiveConf());
+    conf.set(TezRuntimeConfiguration.TEZ_RUNTIME_KEY_CLASS, BytesWritable.class.getName());
+    conf.set(TezRuntimeConfiguration.TEZ_RUNTIME_VALUE_CLASS, BytesWritable.class.getName());
+    conf.setBoolean(TezRuntimeConfiguration.TEZ_RUNTIME_OPTIMIZE_LOCAL_FETCH, false);
+    conf.set(HiveConf.ConfVars.LLAP_SHUFFLE_DATA_VIA_EVENTS_MAX_SIZE.varname, "4Kb");
+
+    Edge edge = createEdge(conf, edgeProp, reduceWork, tezWork);
+    Configuration sourceConf = getConf(edge, true);
+    assertTrue(sourceConf.getBoolean(TezRuntimeConfiguration.TEZ_RUNTIME_TRANSFER_DATA_VIA_EVENTS_ENABLED, false));
+    assertEquals(4096, sourceConf.getInt(TezRuntimeConfiguration.TEZ_RUNTIME_TRANSFER_DATA_VIA_EVENTS_MAX_SIZE, -1));
+    assertTrue(getConf(edge, false).getBoolean(TezRuntimeConfiguration.TEZ_RUNTIME_OPTIMIZE_LOCAL_FETCH, false));
+    // The configuration of the source vertex is left untouched
+    assertFalse(conf.getBoolean(TezRuntimeConfiguration.TEZ_RUNTIME_OPTIMIZE_LOCAL_FETCH, true));
+
+    // The producer runs in a container
+    mapWork.setLlapMode(false);
+    edge = createEdge(conf, edgeProp, reduceWork, tezWork);
+    assertEquals(-1, getConf(edge, true).getInt(TezRuntimeConfiguration.TEZ_RUNTIME_TRANSFER_DATA_VIA_EVENTS_MAX_SIZE, -1));
+    assertFalse(getConf(edge, false).getBoolean(TezRuntimeConfiguration.TEZ_RUNTIME_OPTIMIZE_LOCAL_FETCH, true));
+  }
+
+  @Test
+  public void testFragmentMemoryEstimate() {
+    MapJoinDesc mapJoinDesc = new MapJoinDesc();
+    mapJoinDesc.setPosBigTable(0);
+    mapJoinDesc.getParentDataSizes().put(0, 1000000L);
+    mapJoinDesc.getParentDataSizes().put(1, 100L);
+    mapJoinDesc.getParentDataSizes().put(2, 50L);
+    MapWork mapWork = new MapWork();
+    mapWork.getAliasToWork().put("t", OperatorFactory.get(new CompilationOpContext(), mapJoinDesc));
+
+    HiveConf conf = new HiveConf();
+    conf.setFloatVar(HiveConf.ConfVars.HIVE_HASH_TABLE_INFLATION_FACTOR, 2.0f);
+    // The big table is streamed, only the small tables are loaded
+    assertEquals(300L, DagUtils.estimateFragmentMemory(mapWork, conf));
+    assertEquals(0L, DagUtils.estimateFragmentMemory(new MapWork(), conf));
+  }
+
+  private static Edge createEdge(JobConf conf, TezEdgeProperty edgeProp, BaseWork work, TezWork tezWork)
+      throws IOException {
+    return DagUtils.getInstance().createEdge(conf, Vertex.create("Map 1", ProcessorDescriptor.create("p")),
+        Vertex.create("Reducer 2", ProcessorDescriptor.create("p")), edgeProp, work, tezWork);
+  }
+
+  private static Configuration getConf(Edge edge, boolean source) throws IOException {
+    return TezUtils.createConfFromUserPayload(source
+        ? edge.getEdgeProperty().getEdgeSource().getUserPayload()
+        : edge.getEdgeProperty().getEdgeDestination().getUserPayload());
+  }
 }
@@ -21,6 +21,7 @@
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -28,6 +29,7 @@
 
 import org.apache.commons.math3.stat.descriptive.SummaryStatistics;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hive.llap.registry.LlapCacheSummary;
 import org.apache.hadoop.hive.ql.io.orc.OrcSplit;
 import org.apache.hadoop.mapred.FileSplit;
 import org.apache.hadoop.mapred.InputSplit;
@@ -300,6 +302,50 @@ public void testOrcSplitsLocationAffinity() throws IOException {
   }
 
 
+  @Test (timeout = 5000)
+  public void testCacheAwareLocations() throws IOException {
+    InputSplit split = createMockFileSplit(true, "/warehouse/t/path1", 0, 1000, new String[] {});
+    String primary = new HostAffinitySplitLocationProvider(executorLocations).getLocations(split)[0];
+    int primaryIndex = executorLocations.indexOf(primary);
+    int cachedIndex = (primaryIndex + 3) % executorLocations.size();
+
+    List<LlapCacheSummary> summaries = new ArrayList<>();
+    for (int i = 0; i < executorLocations.size(); i++) {
+      summaries.add(LlapCacheSummary.create(i == cachedIndex
+          ? Collections.singletonList("hdfs://nn:8020/warehouse/t/path1") : Collections.emptyList()));
+    }
+    HostAffinitySplitLocationProvider locationProvider =
+        new HostAffinitySplitLocationProvider(executorLocations, summaries);
+    assertArrayEquals(new String[] {executorLocations.get(cachedIndex)}, locationProvider.getLocations(split));
+
+    // Keep the consistent location when it has the file, or did not publish a summary
+    summaries.set(primaryIndex, LlapCacheSummary.create(Collections.singletonList("/warehouse/t/path1")));
+    assertArrayEquals(new String[] {primary}, locationProvider.getLocations(split));
+    summaries.set(primaryIndex, null);
+    assertArrayEquals(new String[] {primary}, locationProvider.getLocations(split));
+
+    // Summaries survive the round trip through the registry
+    LlapCacheSummary summary = LlapCacheSummary.deserialize(summaries.get(cachedIndex).serialize());
+    assertTrue(summary.mightContain("/warehouse/t/path1"));
+    assertFalse(summary.mightContain("/warehouse/t/path2"));
+    assertNull(LlapCacheSummary.deserialize("not a summary"));
+  }
+
+  @Test (timeout = 5000)
+  public void testUncachedSplitKeepsLocation() throws IOException {
+    InputSplit split = createMockFileSplit(true, "/warehouse/t/path1", 0, 1000, new String[] {});
+    String primary = new HostAffinitySplitLocationProvider(executorLocations).getLocations(split)[0];
+
+    // No daemon reports the file, the split stays where it hashes to
+    List<LlapCacheSummary> summaries = new ArrayList<>();
+    for (int i = 0; i < executorLocations.size(); i++) {
+      summaries.add(LlapCacheSummary.create(Collections.singletonList("/warehouse/t/other" + i), 0.001));
+    }
+    HostAffinitySplitLocationProvider locationProvider =
+        new HostAffinitySplitLocationProvider(executorLocations, summaries);
+    assertArrayEquals(new String[] {primary}, locationProvider.getLocations(split));
+  }
+
   private InputSplit createMockInputSplit(String[] locations) throws IOException {
     InputSplit inputSplit = mock(InputSplit.class);
     doReturn(locations).when(inputSplit).getLocations();
@@ -19,15 +19,22 @@
 package org.apache.hadoop.hive.ql.exec.tez;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.hadoop.hive.conf.HiveConf;
 import org.apache.hadoop.hive.conf.HiveConf.ConfVars;
+import org.apache.hadoop.hive.ql.session.SessionState;
+import org.apache.hadoop.hive.shims.Utils;
+import org.apache.hadoop.security.UserGroupInformation;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
@@ -341,4 +348,67 @@ public void testSessionDestroy() throws Exception {
 
     poolManager.destroy(session);
   }
+
+  @Test
+  public void testPrelaunchedSession() throws Exception {
+    poolManager = new TestTezSessionPoolManager();
+    TezSessionPrelauncher prelauncher = new TezSessionPrelauncher(conf, (queue, sessionConf) -> {
+      TezSessionPoolSession session = poolManager.createSession(TezSessionState.makeSessionId(), sessionConf);
+      session.setQueueName(queue);
+      return session;
+    }, 1, TimeUnit.HOURS.toMillis(1));
+    UserGroupInformation ugi = Utils.getUGI();
+    String user = ugi.getShortUserName();
+    assertNull(prelauncher.claim(user, "a"));
+
+    prelauncher.prelaunch(ugi, "a").get();
+    // There is a spare already, and it is the maximum
+    assertNull(prelauncher.prelaunch(ugi, "a"));
+    assertNull(prelauncher.prelaunch(ugi, "b"));
+    assertNull(prelauncher.claim(user, "b"));
+
+    TezSessionState session = prelauncher.claim(user, "a");
+    assertTrue(session.isOpen());
+    assertEquals("a", session.getQueueName());
+    assertNull(prelauncher.claim(user, "a"));
+
+    prelauncher.prelaunch(ugi, "b").get();
+    prelauncher.stop();
+    assertNull(prelauncher.claim(user, "b"));
+    assertTrue(session.isOpen());
+  }
+
+  @Test
+  public void testPrelaunchedSessionOutlivesTriggeringSession() throws Exception {
+    poolManager = new TestTezSessionPoolManager();
+    TezSessionPrelauncher prelauncher = new TezSessionPrelauncher(conf, (queue, sessionConf) -> {
+      TezSessionPoolSession session = poolManager.createSession(TezSessionState.makeSessionId(), sessionConf);
+      session.setQueueName(queue);
+      return session;
+    }, 1, TimeUnit.HOURS.toMillis(1));
+    UserGroupInformation ugi = Utils.getUGI();
+    String user = ugi.getShortUserName();
+
+    HiveConf queryConf = new HiveConf(conf);
+    queryConf.set("hive.query.test.setting", "query");
+    SessionState triggering = SessionState.start(queryConf);
+    String triggeringScratchDir = triggering.getHdfsScratchDirURIString();
+    try {
+      assertTrue(prelauncher.canServe(queryConf));
+      prelauncher.prelaunch(ugi, "a").get();
+    } finally {
+      triggering.close();
+    }
+
+    TezSessionState session = prelauncher.claim(user, "a");
+    assertTrue(session.isOpen());
+    // The spare is opened with the configuration of HS2, and outside of the triggering session
+    assertNull(session.getConf().get("hive.query.test.setting"));
+    assertFalse(session.getTezDirRoot().toString().startsWith(triggeringScratchDir));
+    prelauncher.stop();
+
+    // A query changing the settings of the AM does not take a spare
+    queryConf.set("tez.am.resource.memory.mb", "12345");
+    assertFalse(prelauncher.canServe(queryConf));
+  }
 }
@@ -0,0 +1,308 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.hive.ql.exec.vector;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hive.conf.HiveConf;
+import org.apache.hadoop.hive.metastore.api.hive_metastoreConstants;
+import org.apache.hadoop.hive.ql.CompilationOpContext;
+import org.apache.hadoop.hive.ql.io.AcidOutputFormat;
+import org.apache.hadoop.hive.ql.io.AcidUtils;
+import org.apache.hadoop.hive.ql.io.BucketCodec;
+import org.apache.hadoop.hive.ql.io.RecordIdentifier;
+import org.apache.hadoop.hive.ql.io.orc.OrcFile;
+import org.apache.hadoop.hive.ql.io.orc.OrcInputFormat;
+import org.apache.hadoop.hive.ql.io.orc.OrcOutputFormat;
+import org.apache.hadoop.hive.ql.io.orc.OrcSerde;
+import org.apache.hadoop.hive.ql.io.orc.Reader;
+import org.apache.hadoop.hive.ql.io.orc.RecordReader;
+import org.apache.hadoop.hive.ql.plan.FileSinkDesc;
+import org.apache.hadoop.hive.ql.plan.TableDesc;
+import org.apache.hadoop.hive.ql.plan.VectorFileSinkDesc;
+import org.apache.hadoop.hive.serde.serdeConstants;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorFactory;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory;
+import org.apache.hadoop.mapred.JobConf;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Unit test for the vectorized FileSink operator.
+ */
+public class TestVectorFileSinkOperator {
+
+  private static final List<String> COLUMN_NAMES = Arrays.asList("a", "b");
+
+  private static File tmpdir;
+  private static TableDesc orcTableDescriptor;
+  private static ObjectInspector inspector;
+  private static ObjectInspector recIdInspector;
+
+  @BeforeClass
+  public static void classSetup() {
+    Properties properties = new Properties();
+    properties.setProperty(serdeConstants.SERIALIZATION_LIB, OrcSerde.class.getName());
+    properties.setProperty(hive_metastoreConstants.META_TABLE_NAME, "tvfs");
+    properties.setProperty(serdeConstants.LIST_COLUMNS, "a,b");
+    properties.setProperty(serdeConstants.LIST_COLUMN_TYPES, "bigint:string");
+    orcTableDescriptor = new TableDesc(OrcInputFormat.class, OrcOutputFormat.class, properties);
+    inspector = ObjectInspectorFactory.getStandardStructObjectInspector(COLUMN_NAMES, Arrays.asList(
+        PrimitiveObjectInspectorFactory.writableLongObjectInspector,
+        PrimitiveObjectInspectorFactory.writableStringObjectInspector));
+    recIdInspector = ObjectInspectorFactory.getStandardStructObjectInspector(
+        Arrays.asList("ROW__ID"), Arrays.asList(RecordIdentifier.StructInfo.oi));
+    tmpdir = new File(System.getProperty("java.io.tmpdir") + System.getProperty("file.separator") +
+        "testVectorFileSinkOperator");
+    tmpdir.mkdir();
+    tmpdir.deleteOnExit();
+  }
+
+  @Test
+  public void testOrcBatchWrite() throws Exception {
+    Path batchFile = writeBatches("testOrcBatchWrite", true);
+    Path rowFile = writeBatches("testOrcRowWrite", false);
+
+    JobConf jc = new JobConf();
+    Reader batchReader = OrcFile.createReader(batchFile, OrcFile.readerOptions(jc));
+    Reader rowReader = OrcFile.createReader(rowFile, OrcFile.readerOptions(jc));
+    List<String> rows = readRows(rowReader);
+    Assert.assertEquals(Arrays.asList(
+        "{1, x}", "{null, y}", "{3, null}", "{4, z}",
+        "{7, null}", "{7, null}", "{7, null}",
+        "{11, v}", "{13, null}"), rows);
+    Assert.assertEquals(rows, readRows(batchReader));
+    Assert.assertEquals(Arrays.toString(rowReader.getStatistics()), Arrays.toString(batchReader.getStatistics()));
+  }
+
+  @Test
+  public void testDeleteBatch() throws Exception {
+    Path batchFile = writeDeleteBatches("testDeleteBatch", true);
+    Path rowFile = writeDeleteBatches("testDeleteRow", false);
+
+    JobConf jc = new JobConf();
+    int bucketProperty = BucketCodec.V1.encode(new AcidOutputFormat.Options(jc).bucket(0));
+    List<String> rows = readRows(OrcFile.createReader(rowFile, OrcFile.readerOptions(jc)));
+    Assert.assertEquals(Arrays.asList(
+        "{2, 1, " + bucketProperty + ", 0, 5, null}",
+        "{2, 1, " + bucketProperty + ", 1, 5, null}",
+        "{2, 2, " + bucketProperty + ", 0, 5, null}",
+        "{2, 3, " + bucketProperty + ", 5, 5, null}",
+        "{2, 3, " + bucketProperty + ", 7, 5, null}"), rows);
+    Assert.assertEquals(rows, readRows(OrcFile.createReader(batchFile, OrcFile.readerOptions(jc))));
+  }
+
+  private Path writeDeleteBatches(String testName, boolean deleteBatch) throws Exception {
+    File testDir = new File(tmpdir, testName);
+    Path basePath = new Path(new File(testDir, "out").getPath());
+    JobConf jc = new JobConf();
+    HiveConf.setBoolVar(jc, HiveConf.ConfVars.HIVE_VECTORIZATION_FILESINK_ACID_DELETE_ENABLED, deleteBatch);
+    FileSinkDesc desc = new FileSinkDesc(basePath, orcTableDescriptor, false);
+    desc.setWriteType(AcidUtils.Operation.DELETE);
+    desc.setTableWriteId(5L);
+    VectorFileSinkOperator op = new VectorFileSinkOperator(new CompilationOpContext(), desc,
+        new VectorizationContext("name", Arrays.asList("ROW__ID")), new VectorFileSinkDesc());
+    op.initialize(jc, new ObjectInspector[]{recIdInspector});
+    Assert.assertEquals(deleteBatch, op.isAcidDelete());
+    int bucketProperty = BucketCodec.V1.encode(new AcidOutputFormat.Options(jc).bucket(0));
+    for (VectorizedRowBatch batch : createDeleteBatches(bucketProperty)) {
+      op.process(batch, 0);
+    }
+    op.close(false);
+
+    List<Path> files = new ArrayList<>();
+    findDeleteDeltaFiles(new Path(testDir.getPath()).getFileSystem(jc), new Path(testDir.getPath()), files);
+    Assert.assertEquals(1, files.size());
+    return files.get(0);
+  }
+
+  private static void findDeleteDeltaFiles(FileSystem fs, Path dir, List<Path> files) throws Exception {
+    for (FileStatus status : fs.listStatus(dir)) {
+      Path path = status.getPath();
+      if (status.isDirectory()) {
+        findDeleteDeltaFiles(fs, path, files);
+      } else if (path.getName().startsWith("bucket_")
+          && path.getParent().getName().startsWith(AcidUtils.DELETE_DELTA_PREFIX)) {
+        files.add(path);
+      }
+    }
+  }
+
+  /**
+   * @return a batch of ROW__IDs with a repeating bucket and a batch of ROW__IDs with selected rows
+   */
+  private static List<VectorizedRowBatch> createDeleteBatches(int bucketProperty) {
+    List<VectorizedRowBatch> batches = new ArrayList<>();
+
+    VectorizedRowBatch batch = createDeleteBatch();
+    StructColumnVector recId = (StructColumnVector) batch.cols[0];
+    LongColumnVector writeIds = (LongColumnVector) recId.fields[0];
+    LongColumnVector buckets = (LongColumnVector) recId.fields[1];
+    LongColumnVector rowIds = (LongColumnVector) recId.fields[2];
+    writeIds.vector[0] = 1;
+    writeIds.vector[1] = 1;
+    writeIds.vector[2] = 2;
+    buckets.isRepeating = true;
+    buckets.vector[0] = bucketProperty;
+    rowIds.vector[0] = 0;
+    rowIds.vector[1] = 1;
+    rowIds.vector[2] = 0;
+    batch.size = 3;
+    batches.add(batch);
+
+    batch = createDeleteBatch();
+    recId = (StructColumnVector) batch.cols[0];
+    writeIds = (LongColumnVector) recId.fields[0];
+    buckets = (LongColumnVector) recId.fields[1];
+    rowIds = (LongColumnVector) recId.fields[2];
+    writeIds.isRepeating = true;
+    writeIds.vector[0] = 3;
+    for (int i = 0; i < 4; i++) {
+      buckets.vector[i] = bucketProperty;
+      rowIds.vector[i] = 4 + i;
+    }
+    batch.selectedInUse = true;
+    batch.selected[0] = 1;
+    batch.selected[1] = 3;
+    batch.size = 2;
+    batches.add(batch);
+    return batches;
+  }
+
+  private static VectorizedRowBatch createDeleteBatch() {
+    VectorizedRowBatch batch = new VectorizedRowBatch(1, 4);
+    batch.cols[0] = new StructColumnVector(4, new LongColumnVector(4), new LongColumnVector(4),
+        new LongColumnVector(4));
+    batch.reset();
+    return batch;
+  }
+
+  private Path writeBatches(String testName, boolean orcBatchWrite) throws Exception {
+    Path basePath = new Path(new File(tmpdir, testName).getPath());
+    JobConf jc = new JobConf();
+    HiveConf.setBoolVar(jc, HiveConf.ConfVars.HIVE_VECTORIZATION_FILESINK_ORC_BATCH_ENABLED, orcBatchWrite);
+    FileSinkDesc desc = new FileSinkDesc(basePath, orcTableDescriptor, false);
+    desc.setWriteType(AcidUtils.Operation.NOT_ACID);
+    VectorFileSinkOperator op = new VectorFileSinkOperator(new CompilationOpContext(), desc,
+        new VectorizationContext("name", COLUMN_NAMES), new VectorFileSinkDesc());
+    op.initialize(jc, new ObjectInspector[]{inspector});
+    Assert.assertEquals(orcBatchWrite, op.isOrcBatchWrite());
+    for (VectorizedRowBatch batch : createBatches()) {
+      op.process(batch, 0);
+    }
+    op.close(false);
+
+    // The file of the task is moved to the temporary directory of the job on commit
+    Path tmpPath = new Path(basePath.getParent(), "_tmp." + basePath.getName());
+    FileSystem fs = tmpPath.getFileSystem(jc);
+    List<Path> files = new ArrayList<>();
+    for (FileStatus status : fs.listStatus(tmpPath)) {
+      if (status.isFile()) {
+        files.add(status.getPath());
+      }
+    }
+    Assert.assertEquals(1, files.size());
+    return files.get(0);
+  }
+
+  /**
+   * @return a batch with nulls, a batch with repeating vectors and a batch with selected rows
+   */
+  private static List<VectorizedRowBatch> createBatches() {
+    List<VectorizedRowBatch> batches = new ArrayList<>();
+
+    VectorizedRowBatch batch = createBatch();
+    LongColumnVector a = (LongColumnVector) batch.cols[0];
+    BytesColumnVector b = (BytesColumnVector) batch.cols[1];
+    a.vector[0] = 1;
+    a.noNulls = false;
+    a.isNull[1] = true;
+    a.vector[2] = 3;
+    a.vector[3] = 4;
+    setVal(b, 0, "x");
+    setVal(b, 1, "y");
+    b.noNulls = false;
+    b.isNull[2] = true;
+    setVal(b, 3, "z");
+    batch.size = 4;
+    batches.add(batch);
+
+    batch = createBatch();
+    a = (LongColumnVector) batch.cols[0];
+    b = (BytesColumnVector) batch.cols[1];
+    a.isRepeating = true;
+    a.vector[0] = 7;
+    b.isRepeating = true;
+    b.noNulls = false;
+    b.isNull[0] = true;
+    batch.size = 3;
+    batches.add(batch);
+
+    batch = createBatch();
+    a = (LongColumnVector) batch.cols[0];
+    b = (BytesColumnVector) batch.cols[1];
+    for (int i = 0; i < 4; i++) {
+      a.vector[i] = 10 + i;
+      setVal(b, i, "uvwx".substring(i, i + 1));
+    }
+    b.noNulls = false;
+    b.isNull[3] = true;
+    batch.selectedInUse = true;
+    batch.selected[0] = 1;
+    batch.selected[1] = 3;
+    batch.size = 2;
+    batches.add(batch);
+    return batches;
+  }
+
+  private static VectorizedRowBatch createBatch() {
+    VectorizedRowBatch batch = new VectorizedRowBatch(2, 4);
+    batch.cols[0] = new LongColumnVector(4);
+    batch.cols[1] = new BytesColumnVector(4);
+    batch.reset();
+    return batch;
+  }
+
+  private static void setVal(BytesColumnVector vector, int elementNum, String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    vector.setVal(elementNum, bytes, 0, bytes.length);
+  }
+
+  private static List<String> readRows(Reader reader) throws Exception {
+    List<String> rows = new ArrayList<>();
+    RecordReader recordReader = reader.rows();
+    Object row = null;
+    while (recordReader.hasNext()) {
+      row = recordReader.next(row);
+      rows.add(row.toString());
+    }
+    recordReader.close();
+    return rows;
+  }
+}
@@ -77,6 +77,7 @@
 import org.apache.hadoop.hive.ql.io.AcidOutputFormat;
 import org.apache.hadoop.hive.ql.io.AcidUtils;
 import org.apache.hadoop.hive.ql.io.AcidUtils.Directory;
+import org.apache.hadoop.hive.ql.io.BatchWritingRecordWriter;
 import org.apache.hadoop.hive.ql.io.BucketCodec;
 import org.apache.hadoop.hive.ql.io.CombineHiveInputFormat;
 import org.apache.hadoop.hive.ql.io.HiveInputFormat;
@@ -590,6 +591,34 @@ public void testFileGenerator() throws Exception {
     assertEquals(true, splitStrategies.get(0) instanceof OrcInputFormat.ETLSplitStrategy);
   }
 
+  @Test
+  public void testBulkListing() throws Exception {
+    final MockFileSystem fs = new MockFileSystem(conf,
+        new MockFile("mock:/a/p=1/part-00", 1000, new byte[1]),
+        new MockFile("mock:/a/p=1/_SUCCESS", 1000, new byte[1]),
+        new MockFile("mock:/a/p=1/.hive-staging/part-00", 1000, new byte[1]),
+        new MockFile("mock:/a/p=2/part-00", 1000, new byte[1]),
+        new MockFile("mock:/a/p=2/part-01", 1000, new byte[1]),
+        new MockFile("mock:/a/p=3/part-00", 1000, new byte[1]));
+    Path[] dirs = new Path[] { new MockPath(fs, "mock:/a/p=1"), new MockPath(fs, "mock:/a/p=2") };
+    conf.set(HiveConf.ConfVars.HIVE_BLOBSTORE_SUPPORTED_SCHEMES.varname, "mock");
+    HiveConf.setIntVar(conf, HiveConf.ConfVars.HIVE_ORC_SPLIT_BULK_LISTING_MIN_PATHS, 2);
+    Map<Path, Directory> listed =
+        OrcInputFormat.listOriginalDirectories(new OrcInputFormat.Context(conf), dirs);
+    assertEquals(2, listed.size());
+    List<AcidUtils.FileInfo> files = listed.get(dirs[0]).getFiles();
+    assertEquals(1, files.size());
+    assertEquals("mock:/a/p=1/part-00", files.get(0).getHdfsFileStatusWithId().getFileStatus().getPath().toString());
+    files = listed.get(dirs[1]).getFiles();
+    assertEquals(2, files.size());
+    assertEquals("mock:/a/p=2/part-00", files.get(0).getHdfsFileStatusWithId().getFileStatus().getPath().toString());
+    assertEquals("mock:/a/p=2/part-01", files.get(1).getHdfsFileStatusWithId().getFileStatus().getPath().toString());
+
+    // Too few directories are listed separately
+    HiveConf.setIntVar(conf, HiveConf.ConfVars.HIVE_ORC_SPLIT_BULK_LISTING_MIN_PATHS, 3);
+    assertTrue(OrcInputFormat.listOriginalDirectories(new OrcInputFormat.Context(conf), dirs).isEmpty());
+  }
+
   @Test
   public void testACIDSplitStrategy() throws Exception {
     conf.set("bucket_count", "2");
@@ -1629,6 +1658,15 @@ static void fill(DataOutputBuffer out, long length) throws IOException {
    * @throws IOException
    */
   static byte[] createMockOrcFile(long... stripeLengths) throws IOException {
+    return createMockOrcFileWithBytesOnDisk(-1, stripeLengths);
+  }
+
+  /**
+   * Create the binary contents of an ORC file like {@link #createMockOrcFile(long...)}, with the
+   * on disk size of its column in the column statistics if it is not negative.
+   */
+  static byte[] createMockOrcFileWithBytesOnDisk(long bytesOnDisk, long... stripeLengths)
+      throws IOException {
     OrcProto.Footer.Builder footer = OrcProto.Footer.newBuilder();
     final long headerLen = 3;
     long offset = headerLen;
@@ -1652,9 +1690,9 @@ static byte[] createMockOrcFile(long... stripeLengths) throws IOException {
     footer.setNumberOfRows(1000 * stripeLengths.length)
           .setHeaderLength(headerLen)
           .setContentLength(offset - headerLen);
-    footer.addStatistics(OrcProto.ColumnStatistics.newBuilder()
-        .setNumberOfValues(1000 * stripeLengths.length).build());
-    footer.addStatistics(OrcProto.ColumnStatistics.newBuilder()
+    OrcProto.ColumnStatistics.Builder rootStats = OrcProto.ColumnStatistics.newBuilder()
+        .setNumberOfValues(1000 * stripeLengths.length);
+    OrcProto.ColumnStatistics.Builder colStats = OrcProto.ColumnStatistics.newBuilder()
         .setNumberOfValues(1000 * stripeLengths.length)
         .setStringStatistics(
             OrcProto.StringStatistics.newBuilder()
@@ -1662,7 +1700,13 @@ static byte[] createMockOrcFile(long... stripeLengths) throws IOException {
                 .setMinimum("aaa")
                 .setSum(1000 * 3 * stripeLengths.length)
                 .build()
-        ).build());
+        );
+    if (bytesOnDisk >= 0) {
+      rootStats.setBytesOnDisk(0);
+      colStats.setBytesOnDisk(bytesOnDisk);
+    }
+    footer.addStatistics(rootStats.build());
+    footer.addStatistics(colStats.build());
     footer.build().writeTo(buffer);
     int footerEnd = buffer.getLength();
     OrcProto.PostScript ps =
@@ -1837,6 +1881,48 @@ public void testProjectedColumnSize() throws Exception {
     assertEquals(394128, result.getProjectedColumnsUncompressedSize());
   }
 
+  @Test
+  public void testProjectedColumnSizeOnDisk() throws Exception {
+    long[] stripeSizes = new long[]{200, 200, 200, 200, 100};
+    MockFileSystem fs = new MockFileSystem(conf,
+        new MockFile("mock:/a/file", 500,
+            createMockOrcFileWithBytesOnDisk(4500, stripeSizes),
+            new MockBlock("host1-1", "host1-2", "host1-3"),
+            new MockBlock("host2-1", "host0", "host2-3")));
+    HiveConf.setLongVar(conf, HiveConf.ConfVars.MAPREDMAXSPLITSIZE, 0);
+    HiveConf.setLongVar(conf, HiveConf.ConfVars.MAPREDMINSPLITSIZE, 0);
+    conf.setBoolean(ColumnProjectionUtils.READ_ALL_COLUMNS, false);
+    conf.set(ColumnProjectionUtils.READ_COLUMN_IDS_CONF_STR, "0");
+    long fileLen = fs.getFileStatus(new Path("/a/file")).getLen();
+    OrcInputFormat.Context context = new OrcInputFormat.Context(conf);
+    OrcInputFormat.SplitGenerator splitter =
+        new OrcInputFormat.SplitGenerator(new OrcInputFormat.SplitInfo(context, fs,
+            fs.getFileStatus(new Path("/a/file")), null, null, true,
+            new ArrayList<AcidInputFormat.DeltaMetaData>(), true, null, null), null, true, true);
+    List<OrcSplit> results = splitter.call();
+    assertEquals(5, results.size());
+    ColumnarSplitSizeEstimator splitSizeEstimator = new ColumnarSplitSizeEstimator();
+    for (int i = 0; i < stripeSizes.length; ++i) {
+      // The split reads its share of the on disk size of the column, not of its raw data size
+      assertEquals("checking stripe " + i + " size", (long) ((double) stripeSizes[i] / fileLen * 4500),
+          splitSizeEstimator.getEstimatedSize(results.get(i)));
+      assertEquals(results.get(i).getProjectedColumnsOnDiskSize(), results.get(i).getColumnarProjectionSize());
+    }
+    // The uncompressed size is still the raw data size
+    assertTrue(results.get(0).getProjectedColumnsUncompressedSize()
+        > results.get(0).getProjectedColumnsOnDiskSize());
+
+    // The raw data size is used when disabled
+    HiveConf.setBoolVar(conf, HiveConf.ConfVars.HIVE_ORC_SPLIT_PROJECTION_SIZE_ON_DISK, false);
+    context = new OrcInputFormat.Context(conf);
+    splitter = new OrcInputFormat.SplitGenerator(new OrcInputFormat.SplitInfo(context, fs,
+        fs.getFileStatus(new Path("/a/file")), null, null, true,
+        new ArrayList<AcidInputFormat.DeltaMetaData>(), true, null, null), null, true, true);
+    results = splitter.call();
+    assertEquals(-1, results.get(0).getProjectedColumnsOnDiskSize());
+    assertTrue(results.get(0).getColumnarProjectionSize() > 4500);
+  }
+
   @Test
   public void testInOutFormat() throws Exception {
     Properties properties = new Properties();
@@ -2160,6 +2246,63 @@ public void testDefaultTypes() throws Exception {
     reader.close();
   }
 
+  @Test
+  public void testBatchWrite() throws Exception {
+    Properties properties = new Properties();
+    properties.setProperty("columns", "str,str2");
+    properties.setProperty("columns.types", "string:string");
+    StructObjectInspector inspector;
+    synchronized (TestOrcFile.class) {
+      inspector = (StructObjectInspector)
+          ObjectInspectorFactory.getReflectionObjectInspector(StringRow.class,
+              ObjectInspectorFactory.ObjectInspectorOptions.JAVA);
+    }
+    AbstractSerDe serde = new OrcSerde();
+    HiveOutputFormat<?, ?> outFormat = new OrcOutputFormat();
+    org.apache.hadoop.hive.ql.exec.FileSinkOperator.RecordWriter writer =
+        outFormat.getHiveRecordWriter(conf, testFilePath, StringRow.class,
+            true, properties, Reporter.NULL);
+    writer.write(serde.serialize(new StringRow("owen"), inspector));
+    VectorizedRowBatch batch = new VectorizedRowBatch(2);
+    BytesColumnVector column = new BytesColumnVector();
+    column.initBuffer();
+    for (String value : new String[] {"beth", "laurel"}) {
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      column.setVal(batch.size++, bytes, 0, bytes.length);
+    }
+    batch.cols[0] = column;
+    batch.cols[1] = column;
+    ((BatchWritingRecordWriter) writer).write(batch, inspector);
+    writer.write(serde.serialize(new StringRow("hazen"), inspector));
+    writer.close(true);
+
+    serde = new OrcSerde();
+    serde.initialize(conf, properties, null);
+    inspector = (StructObjectInspector) serde.getObjectInspector();
+    InputFormat<?,?> in = new OrcInputFormat();
+    FileInputFormat.setInputPaths(conf, testFilePath.toString());
+    InputSplit[] splits = in.getSplits(conf, 1);
+    assertEquals(1, splits.length);
+
+    // the rows are in the order they were written
+    conf.set("columns", StringRow.getColumnNamesProperty());
+    conf.set("columns.types", StringRow.getColumnTypesProperty());
+    org.apache.hadoop.mapred.RecordReader reader =
+        in.getRecordReader(splits[0], conf, Reporter.NULL);
+    Object key = reader.createKey();
+    Writable value = (Writable) reader.createValue();
+    List<? extends StructField> fields = inspector.getAllStructFieldRefs();
+    StringObjectInspector strInspector = (StringObjectInspector)
+        fields.get(1).getFieldObjectInspector();
+    for (String expected : new String[] {"owen", "beth", "laurel", "hazen"}) {
+      assertEquals(true, reader.next(key, value));
+      assertEquals(expected, strInspector.getPrimitiveJavaObject(inspector.
+          getStructFieldData(value, fields.get(1))));
+    }
+    assertEquals(false, reader.next(key, value));
+    reader.close();
+  }
+
   /**
    * Create a mock execution environment that has enough detail that
    * ORC, vectorization, HiveInputFormat, and CombineHiveInputFormat don't
@@ -19,6 +19,7 @@
 package org.apache.hadoop.hive.ql.io.orc;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 
 import static org.mockito.Mockito.mock;
@@ -29,6 +30,7 @@
 import java.io.File;
 import java.io.PrintStream;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Properties;
@@ -41,6 +43,8 @@
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hive.conf.HiveConf;
+import org.apache.hadoop.hive.ql.exec.vector.BytesColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
 import org.apache.hadoop.hive.ql.io.AcidOutputFormat;
 import org.apache.hadoop.hive.ql.io.AcidUtils;
 import org.apache.hadoop.hive.ql.io.BucketCodec;
@@ -325,6 +329,124 @@ public void testUpdates() throws Exception {
     assertEquals(false, rows.hasNext());
   }
 
+  @Test
+  public void testDeleteByRowId() throws Exception {
+    Path root = new Path(workDir, "testDeleteByRowId");
+    Configuration conf = new Configuration();
+    FileSystem fs = root.getFileSystem(conf);
+    ObjectInspector inspector;
+    synchronized (TestOrcFile.class) {
+      inspector = ObjectInspectorFactory.getReflectionObjectInspector
+          (MyRow.class, ObjectInspectorFactory.ObjectInspectorOptions.JAVA);
+    }
+    int bucket = 20;
+    AcidOutputFormat.Options options = new AcidOutputFormat.Options(conf)
+        .filesystem(fs)
+        .bucket(bucket)
+        .writingBase(false)
+        .minimumWriteId(100)
+        .maximumWriteId(100)
+        .inspector(inspector)
+        .reporter(Reporter.NULL)
+        .recordIdColumn(1)
+        .finalDestination(root);
+    OrcRecordUpdater updater = new OrcRecordUpdater(root, options);
+    updater.delete(100, 10, bucket, 30);
+    updater.delete(100, new MyRow("", 40, 20, bucket));
+    updater.delete(100, 30, bucket, 50);
+    assertEquals(-3L, updater.getStats().getRowCount());
+    updater.close(false);
+
+    // no inserts, so no insert delta file
+    assertFalse(fs.exists(AcidUtils.createFilename(root, options)));
+
+    options.writingDeleteDelta(true);
+    Path bucketPath = AcidUtils.createFilename(root, options);
+    Reader reader = OrcFile.createReader(bucketPath,
+        new OrcFile.ReaderOptions(conf).filesystem(fs));
+    assertEquals(3, reader.getNumberOfRows());
+    RecordIdentifier[] keys = OrcRecordUpdater.parseKeyIndex(reader);
+    assertEquals(1, keys.length);
+    assertEquals(new RecordIdentifier(30, bucket, 50), keys[0]);
+
+    RecordReader rows = reader.rows();
+    long[][] expected = {{10, 30}, {20, 40}, {30, 50}};
+    for (long[] event : expected) {
+      assertEquals(true, rows.hasNext());
+      OrcStruct row = (OrcStruct) rows.next(null);
+      assertEquals(OrcRecordUpdater.DELETE_OPERATION, OrcRecordUpdater.getOperation(row));
+      assertEquals(100, OrcRecordUpdater.getCurrentTransaction(row));
+      assertEquals(event[0], OrcRecordUpdater.getOriginalTransaction(row));
+      int bucketProperty = OrcRecordUpdater.getBucket(row);
+      assertEquals(bucket, BucketCodec.determineVersion(bucketProperty).decodeWriterId(bucketProperty));
+      assertEquals(event[1], OrcRecordUpdater.getRowId(row));
+      assertNull(OrcRecordUpdater.getRow(row));
+    }
+    assertEquals(false, rows.hasNext());
+    rows.close();
+  }
+
+  @Test
+  public void testInsertBatch() throws Exception {
+    Path root = new Path(workDir, "testInsertBatch");
+    Configuration conf = new Configuration();
+    FileSystem fs = root.getFileSystem(conf);
+    ObjectInspector inspector;
+    synchronized (TestOrcFile.class) {
+      inspector = ObjectInspectorFactory.getReflectionObjectInspector
+          (MyRow.class, ObjectInspectorFactory.ObjectInspectorOptions.JAVA);
+    }
+    int bucket = 10;
+    AcidOutputFormat.Options options = new AcidOutputFormat.Options(conf)
+        .filesystem(fs)
+        .bucket(bucket)
+        .writingBase(false)
+        .minimumWriteId(11)
+        .maximumWriteId(11)
+        .inspector(inspector)
+        .reporter(Reporter.NULL)
+        .finalDestination(root);
+    OrcRecordUpdater updater = new OrcRecordUpdater(root, options);
+    VectorizedRowBatch batch = updater.createRowBatch(4);
+    assertEquals(2, batch.numCols);
+    BytesColumnVector field = (BytesColumnVector) batch.cols[0];
+    String[] values = {"first", "second", "third"};
+    for (String value : values) {
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      field.setVal(batch.size++, bytes, 0, bytes.length);
+    }
+    batch.cols[1].noNulls = false;
+    Arrays.fill(batch.cols[1].isNull, true);
+    updater.insert(11, batch);
+    updater.insert(11, new MyRow("fourth"));
+    assertEquals(4L, updater.getStats().getRowCount());
+    updater.close(false);
+
+    Path bucketPath = AcidUtils.createFilename(root, options);
+    Reader reader = OrcFile.createReader(bucketPath,
+        new OrcFile.ReaderOptions(conf).filesystem(fs));
+    assertEquals(4, reader.getNumberOfRows());
+    RecordIdentifier[] keys = OrcRecordUpdater.parseKeyIndex(reader);
+    assertEquals(1, keys.length);
+    assertEquals(new RecordIdentifier(11, BucketCodec.V1.encode(options), 3), keys[0]);
+
+    RecordReader rows = reader.rows();
+    String[] expected = {"first", "second", "third", "fourth"};
+    for (int i = 0; i < expected.length; i++) {
+      assertEquals(true, rows.hasNext());
+      OrcStruct row = (OrcStruct) rows.next(null);
+      assertEquals(OrcRecordUpdater.INSERT_OPERATION, OrcRecordUpdater.getOperation(row));
+      assertEquals(11, OrcRecordUpdater.getCurrentTransaction(row));
+      assertEquals(11, OrcRecordUpdater.getOriginalTransaction(row));
+      assertEquals(bucket, getBucketId(row));
+      assertEquals(i, OrcRecordUpdater.getRowId(row));
+      assertEquals(expected[i], OrcRecordUpdater.getRow(row).getFieldValue(0).toString());
+      assertNull(OrcRecordUpdater.getRow(row).getFieldValue(1));
+    }
+    assertEquals(false, rows.hasNext());
+    rows.close();
+  }
+
   /*
     CharsetDecoder instances are not thread safe, so it can end up in an inconsistent state when reading multiple
     buffers parallel.
@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.hive.ql.optimizer.calcite.rules.views;
+
+import org.apache.calcite.jdbc.JavaTypeFactoryImpl;
+import org.apache.calcite.plan.RelOptCluster;
+import org.apache.calcite.plan.RelOptSchema;
+import org.apache.calcite.plan.RelOptUtil;
+import org.apache.calcite.plan.hep.HepPlanner;
+import org.apache.calcite.plan.hep.HepProgramBuilder;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.core.Aggregate;
+import org.apache.calcite.rel.core.Join;
+import org.apache.calcite.rel.core.JoinRelType;
+import org.apache.calcite.rel.core.Project;
+import org.apache.calcite.rel.logical.LogicalTableScan;
+import org.apache.calcite.rex.RexBuilder;
+import org.apache.calcite.rex.RexInputRef;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.sql.SqlKind;
+import org.apache.calcite.sql.type.SqlTypeName;
+import org.apache.calcite.tools.RelBuilder;
+import org.apache.hadoop.hive.ql.optimizer.calcite.HiveRelFactories;
+import org.apache.hadoop.hive.ql.optimizer.calcite.RelOptHiveTable;
+import org.apache.hadoop.hive.ql.optimizer.calcite.reloperators.HiveSemiJoin;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doReturn;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TestHiveAggregateInsertDeleteIncrementalRewritingRule {
+
+  @Mock
+  private RelOptSchema schemaMock;
+  @Mock
+  RelOptHiveTable tableMock;
+  @Mock
+  RelOptHiveTable viewMock;
+
+  private RelBuilder builder;
+
+  @Before
+  public void before() {
+    HepPlanner planner = new HepPlanner(new HepProgramBuilder().build());
+    JavaTypeFactoryImpl typeFactory = new JavaTypeFactoryImpl();
+    RexBuilder rexBuilder = new RexBuilder(typeFactory);
+    final RelOptCluster optCluster = RelOptCluster.create(planner, rexBuilder);
+
+    // Source table, with the deleted flag of the rows as the last column
+    doReturn(typeFactory.builder()
+        .add("f1", SqlTypeName.INTEGER)
+        .add("f2", SqlTypeName.INTEGER)
+        .add("ROW__IS__DELETED", SqlTypeName.BOOLEAN)
+        .build()).when(tableMock).getRowType();
+    LogicalTableScan tableScan = LogicalTableScan.create(optCluster, tableMock, Collections.emptyList());
+    doReturn(tableScan).when(tableMock).toRel(ArgumentMatchers.any());
+    doReturn(tableMock).when(schemaMock).getTableForMember(Collections.singletonList("t"));
+
+    // Materialized view: SELECT f1, COUNT(*) c, MIN(f2) m FROM t GROUP BY f1
+    doReturn(typeFactory.builder()
+        .add("f1", SqlTypeName.INTEGER)
+        .add("c", SqlTypeName.BIGINT)
+        .add("m", SqlTypeName.INTEGER)
+        .build()).when(viewMock).getRowType();
+    LogicalTableScan viewScan = LogicalTableScan.create(optCluster, viewMock, Collections.emptyList());
+    doReturn(viewScan).when(viewMock).toRel(ArgumentMatchers.any());
+    doReturn(viewMock).when(schemaMock).getTableForMember(Collections.singletonList("mv"));
+
+    builder = HiveRelFactories.HIVE_BUILDER.create(optCluster, schemaMock);
+  }
+
+  private RelNode definition() {
+    return builder
+        .scan("t")
+        .aggregate(builder.groupKey(builder.field("f1")),
+            builder.count(false, "c"), builder.min("m", builder.field("f2")))
+        .build();
+  }
+
+  private RelNode rebuildPlan() {
+    // @formatter:off
+    return builder
+        .push(definition())
+        .scan("mv")
+        .union(true)
+        .aggregate(builder.groupKey(builder.field("f1")),
+            builder.sum(false, "c", builder.field("c")), builder.min("m", builder.field("m")))
+        .build();
+    // @formatter:on
+  }
+
+  private static RelNode rewrite(RelNode plan, RelNode definition) {
+    HepProgramBuilder programBuilder = new HepProgramBuilder();
+    programBuilder.addRuleInstance(new HiveAggregateInsertDeleteIncrementalRewritingRule(definition));
+    HepPlanner planner = new HepPlanner(programBuilder.build());
+    planner.setRoot(plan);
+    return planner.findBestExp();
+  }
+
+  private static <T extends RelNode> T find(RelNode node, Class<T> clazz) {
+    if (clazz.isInstance(node)) {
+      return clazz.cast(node);
+    }
+    for (RelNode input : node.getInputs()) {
+      T result = find(input, clazz);
+      if (result != null) {
+        return result;
+      }
+    }
+    return null;
+  }
+
+  @Test
+  public void testMinIsNotRewrittenWithoutDefinition() {
+    RelNode plan = rebuildPlan();
+    assertEquals(RelOptUtil.toString(plan), RelOptUtil.toString(rewrite(plan, null)));
+  }
+
+  @Test
+  public void testMinIsRecomputedForAffectedGroups() {
+    RelNode optimized = rewrite(rebuildPlan(), definition());
+
+    // MERGE source: the view right outer joined with the delta
+    Join mergeJoin = find(optimized, Join.class);
+    assertNotNull(mergeJoin);
+    assertEquals(JoinRelType.RIGHT, mergeJoin.getJoinType());
+    int viewFieldCount = mergeJoin.getLeft().getRowType().getFieldCount();
+
+    // The delta count is added to the count of the view, the recomputed minimum replaces the one of the view
+    Project top = (Project) optimized;
+    assertEquals(3, top.getProjects().size());
+    RexNode countMerge = top.getProjects().get(1);
+    assertEquals(SqlKind.CASE, countMerge.getKind());
+    RexNode minMerge = top.getProjects().get(2);
+    assertTrue(minMerge instanceof RexInputRef);
+    assertEquals(viewFieldCount + 2, ((RexInputRef) minMerge).getIndex());
+
+    // The delta is left outer joined with the recomputed aggregates, MIN is taken from the recomputed side
+    Project delta = (Project) mergeJoin.getRight();
+    Join recomputeJoin = (Join) delta.getInput();
+    assertEquals(JoinRelType.LEFT, recomputeJoin.getJoinType());
+    int deltaFieldCount = recomputeJoin.getLeft().getRowType().getFieldCount();
+    assertEquals(2, deltaFieldCount);
+    assertEquals(0, ((RexInputRef) delta.getProjects().get(0)).getIndex());
+    assertEquals(1, ((RexInputRef) delta.getProjects().get(1)).getIndex());
+    assertEquals(deltaFieldCount + 2, ((RexInputRef) delta.getProjects().get(2)).getIndex());
+
+    // The view definition is recomputed only for the groups of the delta
+    Aggregate recomputed = (Aggregate) recomputeJoin.getRight();
+    assertEquals(SqlKind.MIN, recomputed.getAggCallList().get(1).getAggregation().getKind());
+    HiveSemiJoin semiJoin = (HiveSemiJoin) recomputed.getInput();
+    Aggregate deltaAggregate = find(semiJoin.getRight(), Aggregate.class);
+    assertNotNull(deltaAggregate);
+    assertEquals(1, deltaAggregate.getAggCallList().size());
+    assertEquals(SqlKind.SUM, deltaAggregate.getAggCallList().get(0).getAggregation().getKind());
+  }
+}
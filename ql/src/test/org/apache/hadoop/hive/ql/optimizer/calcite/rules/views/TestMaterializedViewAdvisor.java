@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.hive.ql.optimizer.calcite.rules.views;
+
+import org.apache.calcite.jdbc.JavaTypeFactoryImpl;
+import org.apache.calcite.plan.RelOptCluster;
+import org.apache.calcite.plan.RelOptSchema;
+import org.apache.calcite.plan.RelOptUtil;
+import org.apache.calcite.plan.hep.HepPlanner;
+import org.apache.calcite.plan.hep.HepProgramBuilder;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.core.Aggregate;
+import org.apache.calcite.rel.core.JoinRelType;
+import org.apache.calcite.rel.logical.LogicalTableScan;
+import org.apache.calcite.rel.type.RelDataType;
+import org.apache.calcite.rex.RexBuilder;
+import org.apache.calcite.tools.RelBuilder;
+import org.apache.hadoop.hive.conf.HiveConf;
+import org.apache.hadoop.hive.metastore.api.hive_metastoreConstants;
+import org.apache.hadoop.hive.ql.metadata.Table;
+import org.apache.hadoop.hive.ql.optimizer.calcite.HiveRelFactories;
+import org.apache.hadoop.hive.ql.optimizer.calcite.RelOptHiveTable;
+import org.apache.hadoop.hive.ql.session.SessionState;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.lenient;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TestMaterializedViewAdvisor {
+
+  @Mock
+  private RelOptSchema schemaMock;
+  @Mock
+  RelOptHiveTable tableMock;
+  @Mock
+  Table hiveTableMDMock;
+
+  private RelBuilder builder;
+
+  @SuppressWarnings("unused")
+  private static class MyRecord {
+    public int f1;
+    public int f2;
+  }
+
+  @Before
+  public void before() {
+    HepPlanner planner = new HepPlanner(new HepProgramBuilder().build());
+    JavaTypeFactoryImpl typeFactory = new JavaTypeFactoryImpl();
+    RexBuilder rexBuilder = new RexBuilder(typeFactory);
+    final RelOptCluster optCluster = RelOptCluster.create(planner, rexBuilder);
+    RelDataType rowTypeMock = typeFactory.createStructType(MyRecord.class);
+    doReturn(rowTypeMock).when(tableMock).getRowType();
+    LogicalTableScan tableScan = LogicalTableScan.create(optCluster, tableMock, Collections.emptyList());
+    doReturn(tableScan).when(tableMock).toRel(ArgumentMatchers.any());
+    doReturn(tableMock).when(schemaMock).getTableForMember(any());
+    lenient().doReturn(hiveTableMDMock).when(tableMock).getHiveTableMD();
+    lenient().doReturn(100.0).when(tableMock).getRowCount();
+    org.apache.hadoop.hive.metastore.api.Table tTable = new org.apache.hadoop.hive.metastore.api.Table();
+    tTable.putToParameters(hive_metastoreConstants.TABLE_IS_TRANSACTIONAL, "true");
+    lenient().doReturn(tTable).when(hiveTableMDMock).getTTable();
+
+    builder = HiveRelFactories.HIVE_BUILDER.create(optCluster, schemaMock);
+  }
+
+  private RelNode joinAggregate() {
+    // @formatter:off
+    return builder
+        .scan("t")
+        .scan("t")
+        .join(JoinRelType.INNER,
+            builder.equals(builder.field(2, 0, "f1"), builder.field(2, 1, "f1")))
+        .aggregate(builder.groupKey(builder.field("f1")), builder.count(false, "c"))
+        .build();
+    // @formatter:on
+  }
+
+  @Test
+  public void testJoinAggregateIsCandidate() {
+    List<Aggregate> candidates = new ArrayList<>();
+    MaterializedViewAdvisor.collectCandidates(joinAggregate(), candidates);
+    assertEquals(1, candidates.size());
+  }
+
+  @Test
+  public void testAggregateWithoutJoinIsNotCandidate() {
+    RelNode plan = builder
+        .scan("t")
+        .aggregate(builder.groupKey(builder.field("f1")), builder.count(false, "c"))
+        .build();
+    List<Aggregate> candidates = new ArrayList<>();
+    MaterializedViewAdvisor.collectCandidates(plan, candidates);
+    assertEquals(0, candidates.size());
+  }
+
+  @Test
+  public void testMaterializedViewScanIsNotCandidate() {
+    doReturn(true).when(hiveTableMDMock).isMaterializedView();
+    List<Aggregate> candidates = new ArrayList<>();
+    MaterializedViewAdvisor.collectCandidates(joinAggregate(), candidates);
+    assertEquals(0, candidates.size());
+  }
+
+  @Test
+  public void testNonTransactionalTableScanIsNotCandidate() {
+    doReturn(new org.apache.hadoop.hive.metastore.api.Table()).when(hiveTableMDMock).getTTable();
+    List<Aggregate> candidates = new ArrayList<>();
+    MaterializedViewAdvisor.collectCandidates(joinAggregate(), candidates);
+    assertEquals(0, candidates.size());
+  }
+
+  @Test
+  public void testRecommendation() {
+    HiveConf conf = new HiveConf();
+    conf.setIntVar(HiveConf.ConfVars.HIVE_MATERIALIZED_VIEW_ADVISOR_MIN_OCCURRENCES, 3);
+    SessionState.start(conf);
+    MaterializedViewAdvisor advisor = new MaterializedViewAdvisor(conf);
+
+    RelNode plan = joinAggregate();
+    advisor.record(conf, plan, RelOptUtil::toString);
+    advisor.record(conf, plan, RelOptUtil::toString);
+    assertEquals(0, advisor.recommendations(conf).size());
+
+    advisor.record(conf, plan, RelOptUtil::toString);
+    List<MaterializedViewAdvisor.Candidate> recommendations = advisor.recommendations(conf);
+    assertEquals(1, recommendations.size());
+    MaterializedViewAdvisor.Candidate candidate = recommendations.get(0);
+    assertEquals(3, candidate.getOccurrences());
+    assertTrue(candidate.getBenefit() > 0);
+    assertTrue(candidate.getCreateStatement("db").startsWith(
+        "CREATE MATERIALIZED VIEW IF NOT EXISTS `db`.`" + MaterializedViewAdvisor.NAME_PREFIX));
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.hive.ql.optimizer.calcite.rules.views;
+
+import org.apache.calcite.jdbc.JavaTypeFactoryImpl;
+import org.apache.calcite.plan.RelOptCluster;
+import org.apache.calcite.plan.RelOptSchema;
+import org.apache.calcite.plan.hep.HepPlanner;
+import org.apache.calcite.plan.hep.HepProgramBuilder;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.core.JoinRelType;
+import org.apache.calcite.rel.logical.LogicalTableScan;
+import org.apache.calcite.rel.type.RelDataType;
+import org.apache.calcite.rex.RexBuilder;
+import org.apache.calcite.tools.RelBuilder;
+import org.apache.hadoop.hive.ql.optimizer.calcite.HiveRelFactories;
+import org.apache.hadoop.hive.ql.optimizer.calcite.RelOptHiveTable;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TestMaterializedViewIncrementalRewritingRelVisitor {
+
+  @Mock
+  private RelOptSchema schemaMock;
+  @Mock
+  RelOptHiveTable tableMock;
+
+  private RelBuilder builder;
+
+  @SuppressWarnings("unused")
+  private static class MyRecord {
+    public int f1;
+    public int f2;
+  }
+
+  @Before
+  public void before() {
+    HepPlanner planner = new HepPlanner(new HepProgramBuilder().build());
+    JavaTypeFactoryImpl typeFactory = new JavaTypeFactoryImpl();
+    RexBuilder rexBuilder = new RexBuilder(typeFactory);
+    final RelOptCluster optCluster = RelOptCluster.create(planner, rexBuilder);
+    RelDataType rowTypeMock = typeFactory.createStructType(MyRecord.class);
+    doReturn(rowTypeMock).when(tableMock).getRowType();
+    LogicalTableScan tableScan = LogicalTableScan.create(optCluster, tableMock, Collections.emptyList());
+    doReturn(tableScan).when(tableMock).toRel(ArgumentMatchers.any());
+    doReturn(tableMock).when(schemaMock).getTableForMember(any());
+
+    builder = HiveRelFactories.HIVE_BUILDER.create(optCluster, schemaMock);
+  }
+
+  private RelNode joinAggregate(JoinRelType joinType, RelBuilder.AggCall... aggCalls) {
+    // @formatter:off
+    return builder
+        .scan("t")
+        .scan("t")
+        .join(joinType,
+            builder.equals(builder.field(2, 0, "f1"), builder.field(2, 1, "f1")))
+        .aggregate(builder.groupKey(builder.field("f1")), aggCalls)
+        .build();
+    // @formatter:on
+  }
+
+  @Test
+  public void testInnerJoinAggregate() {
+    RelNode plan = joinAggregate(JoinRelType.INNER,
+        builder.count(false, "c"), builder.min("m", builder.field("f2")));
+    MaterializedViewIncrementalRewritingRelVisitor visitor = new MaterializedViewIncrementalRewritingRelVisitor();
+    visitor.go(plan);
+    assertTrue(visitor.isRewritingAllowed());
+    assertTrue(visitor.isContainsAggregate());
+    assertTrue(visitor.hasCountStar());
+    assertTrue(visitor.isInsertOnlyAggregate());
+  }
+
+  @Test
+  public void testLeftOuterJoinIsNotAllowed() {
+    RelNode plan = joinAggregate(JoinRelType.LEFT, builder.count(false, "c"));
+    MaterializedViewIncrementalRewritingRelVisitor visitor = new MaterializedViewIncrementalRewritingRelVisitor();
+    visitor.go(plan);
+    assertFalse(visitor.isRewritingAllowed());
+  }
+
+  @Test
+  public void testCountDistinctIsNotInsertOnlyAggregate() {
+    RelNode plan = joinAggregate(JoinRelType.INNER, builder.count(true, "c", builder.field("f2")));
+    MaterializedViewIncrementalRewritingRelVisitor visitor = new MaterializedViewIncrementalRewritingRelVisitor();
+    visitor.go(plan);
+    assertTrue(visitor.isRewritingAllowed());
+    assertFalse(visitor.hasCountStar());
+    assertFalse(visitor.isInsertOnlyAggregate());
+  }
+}
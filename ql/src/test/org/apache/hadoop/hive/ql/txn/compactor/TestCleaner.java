@@ -89,6 +89,32 @@ public void cleanupAfterMajorTableCompaction() throws Exception {
     Assert.assertEquals("base_25_v26", paths.get(0).getName());
   }
 
+  @Test
+  public void cleanupAfterMajorTableCompactionWithParallelDeletes() throws Exception {
+    conf.setIntVar(HiveConf.ConfVars.HIVE_COMPACTOR_CLEANER_DELETE_THREADS_NUM, 3);
+    Table t = newTable("default", "camtcpd", false);
+
+    addBaseFile(t, null, 20L, 20);
+    addDeltaFile(t, null, 21L, 22L, 2);
+    addDeltaFile(t, null, 23L, 24L, 2);
+
+    burnThroughTransactions("default", "camtcpd", 25);
+
+    CompactionRequest rqst = new CompactionRequest("default", "camtcpd", CompactionType.MAJOR);
+    long compactTxn = compactInTxn(rqst);
+    addBaseFile(t, null, 25L, 25, compactTxn);
+
+    startCleaner();
+
+    ShowCompactResponse rsp = txnHandler.showCompact(new ShowCompactRequest());
+    Assert.assertEquals(1, rsp.getCompactsSize());
+    Assert.assertEquals(TxnStore.SUCCEEDED_RESPONSE, rsp.getCompacts().get(0).getState());
+
+    List<Path> paths = getDirectories(conf, t, null);
+    Assert.assertEquals(1, paths.size());
+    Assert.assertEquals("base_25_v26", paths.get(0).getName());
+  }
+
   @Test
   public void cleanupAfterMajorTableCompactionWithLongRunningQuery() throws Exception {
     Table t = newTable("default", "camtc", false);
@@ -1068,6 +1068,99 @@ public void testInitiatorHostAndVersion() throws Exception {
     Assert.assertEquals(ServerUtils.hostname(), String.join("-", Arrays.copyOfRange(parts, 0, parts.length - 1)));
   }
 
+  @Test
+  public void incrementalCheckSkipsScanBelowThresholds() throws Exception {
+    CompactionCandidateCache cache = new CompactionCandidateCache(TimeUnit.HOURS.toMillis(1));
+    String key = "default.ic.ds=today";
+    Assert.assertFalse(cache.canSkipScan(key, 10L, 10, 0.1f));
+
+    // 2 deltas of 10 bytes each over a 1000 bytes base
+    cache.put(key, 10L, 1000L, 20L, 2);
+    Assert.assertTrue(cache.canSkipScan(key, 10L, 10, 0.1f));
+    // 2 new writes: at most 6 deltas, ~40 bytes
+    Assert.assertTrue(cache.canSkipScan(key, 12L, 10, 0.1f));
+    // 5 new writes: the delta count threshold may be crossed
+    Assert.assertFalse(cache.canSkipScan(key, 15L, 10, 0.1f));
+    // 2 new writes, but the delta size threshold may be crossed
+    Assert.assertFalse(cache.canSkipScan(key, 12L, 10, 0.03f));
+
+    // No base, so the size of the deltas can't be estimated
+    cache.put(key, 10L, 0L, 20L, 2);
+    Assert.assertFalse(cache.canSkipScan(key, 11L, 10, 0.1f));
+
+    cache.invalidate(key);
+    Assert.assertFalse(cache.canSkipScan(key, 10L, 10, 0.1f));
+
+    CompactionCandidateCache expired = new CompactionCandidateCache(-1L);
+    expired.put(key, 10L, 1000L, 20L, 2);
+    Assert.assertFalse(expired.canSkipScan(key, 10L, 10, 0.1f));
+    Assert.assertEquals(0, expired.size());
+  }
+
+  @Test
+  public void incrementalCheckUsesLatestWriteToPartition() throws Exception {
+    conf.setBoolVar(HiveConf.ConfVars.HIVE_COMPACTOR_INITIATOR_INCREMENTAL_CHECK, true);
+    conf.setIntVar(HiveConf.ConfVars.HIVE_COMPACTOR_DELTA_NUM_THRESHOLD, 4);
+    Table t = newTable("default", "icultp", true);
+    Partition today = newPartition(t, "today");
+    newPartition(t, "yesterday");
+
+    addBaseFile(t, today, 20L, 100);
+    addDeltaFile(t, today, 21L, 22L, 1);
+    addDeltaFile(t, today, 23L, 24L, 1);
+    burnThroughTransactions("default", "icultp", 23);
+    Assert.assertEquals(24, commitWrite("icultp", "ds=today"));
+
+    Initiator initiator = new Initiator();
+    initiator.setThreadId((int) t.getId());
+    initiator.setConf(conf);
+    initiator.init(new AtomicBoolean(true));
+    initiator.run();
+    Assert.assertEquals(0, txnHandler.showCompact(new ShowCompactRequest()).getCompactsSize());
+
+    // Deltas the remembered statistics do not account for, a scan would request a compaction
+    addDeltaFile(t, today, 25L, 25L, 1);
+    addDeltaFile(t, today, 26L, 26L, 1);
+    addDeltaFile(t, today, 27L, 27L, 1);
+    // One write to today, then writes to the other partition only
+    Assert.assertEquals(25, commitWrite("icultp", "ds=today"));
+    commitWrite("icultp", "ds=yesterday");
+    commitWrite("icultp", "ds=yesterday");
+    commitWrite("icultp", "ds=yesterday");
+
+    // A single write cannot add more than 2 deltas, so the scan of today is skipped
+    initiator.init(new AtomicBoolean(true));
+    initiator.run();
+    Assert.assertEquals(0, txnHandler.showCompact(new ShowCompactRequest()).getCompactsSize());
+
+    // With 3 more writes to today, the delta count threshold may be crossed
+    commitWrite("icultp", "ds=today");
+    commitWrite("icultp", "ds=today");
+    commitWrite("icultp", "ds=today");
+    initiator.init(new AtomicBoolean(true));
+    initiator.run();
+    List<ShowCompactResponseElement> compacts = txnHandler.showCompact(new ShowCompactRequest()).getCompacts();
+    Assert.assertEquals(1, compacts.size());
+    Assert.assertEquals("initiated", compacts.get(0).getState());
+    Assert.assertEquals("ds=today", compacts.get(0).getPartitionname());
+    Assert.assertEquals(CompactionType.MINOR, compacts.get(0).getType());
+  }
+
+  private long commitWrite(String tableName, String partName) throws Exception {
+    long txnid = openTxn();
+    // Allocated before the lock, like the driver does, so that the write id is recorded with the partition
+    long writeid = allocateWriteId("default", tableName, txnid);
+    LockComponent comp = new LockComponent(LockType.SHARED_WRITE, LockLevel.PARTITION, "default");
+    comp.setTablename(tableName);
+    comp.setPartitionname(partName);
+    comp.setOperationType(DataOperationType.UPDATE);
+    LockRequest req = new LockRequest(Collections.singletonList(comp), "me", "localhost");
+    req.setTxnid(txnid);
+    txnHandler.lock(req);
+    txnHandler.commitTxn(new CommitTxnRequest(txnid));
+    return writeid;
+  }
+
   @Override
   boolean useHive130DeltaDirName() {
     return false;
@@ -1083,6 +1083,41 @@ public void oneDeltaWithAbortedTxn() throws Exception {
     verifyTxn1IsAborted(0, t, CompactionType.MAJOR);
     verifyTxn1IsAborted(1, t, CompactionType.MINOR);
   }
+
+  @Test
+  public void minorInProcessWhenQueryBased() throws Exception {
+    Table t = newTable("default", "mipqb", false);
+
+    addBaseFile(t, null, 20L, 20);
+    addDeltaFile(t, null, 21L, 22L, 2);
+    addDeltaFile(t, null, 23L, 24L, 2);
+
+    burnThroughTransactions("default", "mipqb", 25);
+
+    conf.setBoolVar(HiveConf.ConfVars.COMPACTOR_CRUD_QUERY_BASED, true);
+    conf.setVar(HiveConf.ConfVars.HIVE_EXECUTION_ENGINE, "tez");
+    conf.setVar(HiveConf.ConfVars.COMPACTOR_MINOR_IN_PROCESS_MAX_SIZE, "1Mb");
+    CompactionRequest rqst = new CompactionRequest("default", "mipqb", CompactionType.MINOR);
+    txnHandler.compact(rqst);
+
+    startWorker();
+
+    ShowCompactResponse rsp = txnHandler.showCompact(new ShowCompactRequest());
+    List<ShowCompactResponseElement> compacts = rsp.getCompacts();
+    Assert.assertEquals(1, compacts.size());
+    Assert.assertEquals("ready for cleaning", compacts.get(0).getState());
+
+    FileSystem fs = FileSystem.get(conf);
+    FileStatus[] stat = fs.listStatus(new Path(t.getSd().getLocation()));
+    boolean sawNewDelta = false;
+    for (FileStatus status : stat) {
+      if (status.getPath().getName().equals(makeDeltaDirNameCompacted(21, 24) + "_v0000026")) {
+        sawNewDelta = true;
+      }
+    }
+    Assert.assertTrue(toString(stat), sawNewDelta);
+  }
+
   @Test
   public void insertOnlyDisabled() throws Exception {
     Map<String, String> parameters = new HashMap<>();
@@ -0,0 +1,8 @@
+/*
+ * Generated by saveVersion.sh
+ */
+@MetastoreVersionAnnotation(version="4.0.0-SNAPSHOT", shortVersion="4.0.0",
+                         revision="31bd30d8013f9a5446c611c6a8039a2618368f81", branch="master",
+                         user="root", date="Mon Oct 19 16:59:46 UTC 2026", url="git://vm/root/project/standalone-metastore",
+                         srcChecksum="58faa846a8e7db1d0ae2a67bc577dc84")
+package org.apache.hadoop.hive.metastore.annotation;
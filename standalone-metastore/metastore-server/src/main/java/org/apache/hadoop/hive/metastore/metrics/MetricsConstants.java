@@ -26,6 +26,8 @@ public class MetricsConstants {
   public static final String COMPACTION_INITIATOR_FAILURE_COUNTER = "compaction_initiator_failure_counter";
   public static final String COMPACTION_CLEANER_CYCLE = "compaction_cleaner_cycle";
   public static final String COMPACTION_CLEANER_FAILURE_COUNTER = "compaction_cleaner_failure_counter";
+  public static final String COMPACTION_CLEANER_QUEUE_SIZE = "compaction_cleaner_queue_size";
+  public static final String COMPACTION_CLEANER_REMOVED_DIRS_COUNTER = "compaction_cleaner_removed_dirs_counter";
   public static final String COMPACTION_WORKER_CYCLE = "compaction_worker_cycle";
 
   public static final String OLDEST_OPEN_REPL_TXN_ID = "oldest_open_repl_txn_id";
@@ -60,8 +60,13 @@ private static void checkArgument(boolean expression, String message) {
   }
 
   public BloomKFilter(long maxNumEntries) {
+    this(maxNumEntries, DEFAULT_FPP);
+  }
+
+  public BloomKFilter(long maxNumEntries, double fpp) {
     checkArgument(maxNumEntries > 0, "expectedEntries should be > 0");
-    long numBits = optimalNumOfBits(maxNumEntries, DEFAULT_FPP);
+    checkArgument(fpp > 0.0 && fpp < 1.0, "False positive probability should be > 0.0 & < 1.0");
+    long numBits = optimalNumOfBits(maxNumEntries, fpp);
     this.k = optimalNumOfHashFunctions(maxNumEntries, numBits);
     long nLongs = (long) Math.ceil((double) numBits / (double) Long.SIZE);
     // additional bits to pad long array to block size
@@ -27,8 +27,10 @@
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -44,23 +46,30 @@
 import org.apache.hadoop.hive.common.JavaUtils;
 import org.apache.hadoop.hive.conf.HiveConf;
 import org.apache.hadoop.hive.llap.LlapUtil;
+import org.apache.hadoop.hive.ql.util.JavaDataModel;
 import org.apache.hadoop.hive.metastore.Warehouse;
 import org.apache.hadoop.hive.metastore.api.FieldSchema;
 import org.apache.hadoop.hive.metastore.api.MetaException;
 import org.apache.hadoop.hive.metastore.api.hive_metastoreConstants;
 import org.apache.hadoop.hive.ql.exec.Utilities;
+import org.apache.hadoop.hive.ql.exec.vector.VectorAssignRow;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
 import org.apache.hadoop.hive.ql.io.AcidOutputFormat;
 import org.apache.hadoop.hive.ql.io.AcidUtils;
+import org.apache.hadoop.hive.ql.io.BatchWritingRecordUpdater;
 import org.apache.hadoop.hive.ql.io.RecordUpdater;
+import org.apache.hadoop.hive.ql.metadata.HiveException;
 import org.apache.hadoop.hive.ql.metadata.Table;
 import org.apache.hadoop.hive.serde2.AbstractSerDe;
 import org.apache.hadoop.hive.serde2.SerDeException;
 import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
 import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorUtils;
+import org.apache.hadoop.hive.serde2.objectinspector.PrimitiveObjectInspector;
 import org.apache.hadoop.hive.serde2.objectinspector.StructField;
 import org.apache.hadoop.hive.serde2.objectinspector.StructObjectInspector;
 import org.apache.hadoop.hive.serde2.objectinspector.SubStructObjectInspector;
 import org.apache.hadoop.util.ReflectionUtils;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -106,12 +115,47 @@ public abstract class AbstractRecordWriter implements RecordWriter {
   protected float memoryUsageThreshold;
   protected long ingestSizeThreshold;
   protected FileSystem fs;
+  // batching mode: records are buffered per record updater in columnar batches
+  protected boolean batching;
+  protected int batchSize;
+  protected long batchMemoryBudget;
+  // estimated heap size of the column vectors of a batch, on top of the records buffered in it
+  protected long batchAllocationBytes;
+  private VectorAssignRow batchRowAssigner;
+  private Object[] batchRowFields;
+  private final Map<RecordUpdater, RecordBatch> pendingBatches = new IdentityHashMap<>();
+  private long bufferedBatchBytes = 0;
 
   public AbstractRecordWriter(final String lineDelimiter) {
     this.lineDelimiter = lineDelimiter == null || lineDelimiter.isEmpty() ?
       DEFAULT_LINE_DELIMITER_PATTERN : lineDelimiter;
   }
 
+  /**
+   * Records of a single write id buffered for a single record updater.
+   */
+  private static final class RecordBatch {
+    private final BatchWritingRecordUpdater updater;
+    private final VectorizedRowBatch rows;
+    private long writeId;
+    private long sizeBytes;
+
+    RecordBatch(BatchWritingRecordUpdater updater, VectorizedRowBatch rows, long sizeBytes) {
+      this.updater = updater;
+      this.rows = rows;
+      this.sizeBytes = sizeBytes;
+    }
+
+    boolean isFull() {
+      return rows.size == rows.getMaxSize();
+    }
+
+    void writeTo() throws IOException {
+      updater.insert(writeId, rows);
+      rows.reset();
+    }
+  }
+
   protected static class OrcMemoryPressureMonitor implements HeapMemoryMonitor.Listener {
     private static final Logger LOG = LoggerFactory.getLogger(OrcMemoryPressureMonitor.class.getName());
     private final AtomicBoolean lowMemoryCanary;
@@ -204,6 +248,37 @@ public void init(StreamingConnection conn, long minWriteId, long maxWriteId,
     } catch (SerDeException e) {
       throw new StreamingException("Unable to create SerDe", e);
     }
+    setupBatching();
+  }
+
+  protected void setupBatching() throws StreamingException {
+    this.batching = conf.getBoolVar(HiveConf.ConfVars.HIVE_STREAMING_BATCHING_ENABLED);
+    if (!batching) {
+      return;
+    }
+    this.batchSize = Math.max(1, conf.getIntVar(HiveConf.ConfVars.HIVE_STREAMING_BATCHING_BATCH_SIZE));
+    this.batchMemoryBudget = conf.getSizeVar(HiveConf.ConfVars.HIVE_STREAMING_BATCHING_MEMORY_BUDGET);
+    StructObjectInspector rowObjectInspector = (StructObjectInspector) outputRowObjectInspector;
+    this.batchRowAssigner = new VectorAssignRow();
+    try {
+      batchRowAssigner.init(rowObjectInspector);
+    } catch (HiveException e) {
+      throw new StreamingException("Unable to initialize batching for " + rowObjectInspector.getTypeName(), e);
+    }
+    this.batchRowFields = new Object[rowObjectInspector.getAllStructFieldRefs().size()];
+    this.batchAllocationBytes = estimateBatchAllocation(batchSize, batchRowFields.length);
+    LOG.info("Batching settings - batchSize: {} memoryBudget: {}", batchSize,
+      LlapUtil.humanReadableByteCount(batchMemoryBudget));
+  }
+
+  /**
+   * Every column of a batch allocates a value and a null flag per row up front, most of them as longs. The
+   * values of variable length columns are copied into the batch, they are counted as the length of the records.
+   * Nested types are counted as a single column, so batches with complex columns are still underestimated.
+   */
+  private static long estimateBatchAllocation(int batchSize, int numColumns) {
+    JavaDataModel jdm = JavaDataModel.get();
+    return (long) numColumns * (jdm.lengthForLongArrayOfSize(batchSize) + jdm.lengthForBooleanArrayOfSize(batchSize));
   }
 
   protected void setupMemoryMonitoring() {
@@ -341,6 +416,9 @@ protected List<String> getPartitionValues(final Object row) {
 
   @Override
   public void flush() throws StreamingIOFailure {
+    if (batching) {
+      writeBatches();
+    }
     try {
       if (LOG.isDebugEnabled()) {
         logStats("Stats before flush:");
@@ -371,6 +449,8 @@ public void close() throws StreamingIOFailure {
     }
     boolean haveError = false;
     String partition = null;
+    // committed records have been flushed, whatever is still buffered belongs to an aborted transaction
+    discard();
     if (LOG.isDebugEnabled()) {
       logStats("Stats before close:");
     }
@@ -452,7 +532,12 @@ public void write(final long writeId, final byte[] record) throws StreamingExcep
       Object encodedRow = encode(record);
       int bucket = getBucket(encodedRow);
       List<String> partitionValues = getPartitionValues(encodedRow);
-      getRecordUpdater(partitionValues, bucket).insert(writeId, encodedRow);
+      RecordUpdater recordUpdater = getRecordUpdater(partitionValues, bucket);
+      if (batching && recordUpdater instanceof BatchWritingRecordUpdater) {
+        bufferRecord((BatchWritingRecordUpdater) recordUpdater, writeId, encodedRow, record.length);
+      } else {
+        recordUpdater.insert(writeId, encodedRow);
+      }
 
       // ingest size bytes gets resetted on flush() whereas connection stats is not
       conn.getConnectionStats().incrementRecordsWritten();
@@ -463,6 +548,94 @@ public void write(final long writeId, final byte[] record) throws StreamingExcep
     }
   }
 
+  /**
+   * Buffers the row in the batch of the given record updater, full batches are written right away. When the
+   * memory budget is exceeded the largest batches are written and released first.
+   */
+  protected void bufferRecord(BatchWritingRecordUpdater recordUpdater, long writeId, Object row, long rowSize)
+      throws IOException {
+    RecordBatch batch = pendingBatches.get(recordUpdater);
+    if (batch == null) {
+      batch = new RecordBatch(recordUpdater, recordUpdater.createRowBatch(batchSize), batchAllocationBytes);
+      pendingBatches.put(recordUpdater, batch);
+      bufferedBatchBytes += batchAllocationBytes;
+    } else if (batch.rows.size > 0 && batch.writeId != writeId) {
+      writeBatch(batch);
+    }
+    batch.writeId = writeId;
+    StructObjectInspector rowObjectInspector = (StructObjectInspector) outputRowObjectInspector;
+    List<? extends StructField> fields = rowObjectInspector.getAllStructFieldRefs();
+    for (int i = 0; i < batchRowFields.length; i++) {
+      Object data = rowObjectInspector.getStructFieldData(row, fields.get(i));
+      ObjectInspector fieldObjectInspector = fields.get(i).getFieldObjectInspector();
+      // primitive values are copied into the batch, only complex ones need to be converted to standard objects
+      batchRowFields[i] = fieldObjectInspector.getCategory() == ObjectInspector.Category.PRIMITIVE ?
+        ((PrimitiveObjectInspector) fieldObjectInspector).getPrimitiveWritableObject(data) :
+        ObjectInspectorUtils.copyToStandardObject(data, fieldObjectInspector,
+          ObjectInspectorUtils.ObjectInspectorCopyOption.WRITABLE);
+    }
+    batchRowAssigner.assignRow(batch.rows, batch.rows.size, batchRowFields);
+    batch.rows.size++;
+    batch.sizeBytes += rowSize;
+    bufferedBatchBytes += rowSize;
+    if (batch.isFull()) {
+      writeBatch(batch);
+    }
+    if (bufferedBatchBytes > batchMemoryBudget) {
+      spillLargestBatches();
+    }
+  }
+
+  private void spillLargestBatches() throws IOException {
+    List<RecordBatch> batches = new ArrayList<>(pendingBatches.values());
+    batches.sort(Comparator.comparingLong((RecordBatch b) -> b.sizeBytes).reversed());
+    int spilled = 0;
+    for (RecordBatch batch : batches) {
+      if (bufferedBatchBytes <= batchMemoryBudget / 2) {
+        break;
+      }
+      writeBatch(batch);
+      pendingBatches.remove(batch.updater);
+      bufferedBatchBytes -= batch.sizeBytes;
+      spilled++;
+    }
+    conn.getConnectionStats().incrementBatchSpills(spilled);
+  }
+
+  private void writeBatch(RecordBatch batch) throws IOException {
+    if (batch.rows.size == 0) {
+      return;
+    }
+    long start = System.nanoTime();
+    batch.writeTo();
+    conn.getConnectionStats().incrementBatchFlushes(System.nanoTime() - start);
+    bufferedBatchBytes -= batch.sizeBytes - batchAllocationBytes;
+    batch.sizeBytes = batchAllocationBytes;
+  }
+
+  /**
+   * Writes the records buffered in all batches to their record updaters.
+   */
+  protected void writeBatches() throws StreamingIOFailure {
+    for (RecordBatch batch : pendingBatches.values()) {
+      try {
+        writeBatch(batch);
+      } catch (IOException e) {
+        throw new StreamingIOFailure("Unable to write buffered records in transaction write id ("
+          + batch.writeId + ")", e);
+      }
+    }
+  }
+
+  /**
+   * Drops the records buffered for the aborted transaction.
+   */
+  @Override
+  public void discard() {
+    pendingBatches.clear();
+    bufferedBatchBytes = 0;
+  }
+
   protected void checkAutoFlush() throws StreamingIOFailure {
     if (!autoFlush) {
       return;
@@ -30,6 +30,10 @@ public class ConnectionStats {
   private LongAdder abortedTransactions = new LongAdder();
   private LongAdder autoFlushCount = new LongAdder();
   private LongAdder metastoreCalls = new LongAdder();
+  private LongAdder batchFlushCount = new LongAdder();
+  private LongAdder batchSpillCount = new LongAdder();
+  private LongAdder batchFlushTimeNanos = new LongAdder();
+  private final long startTimeNanos = System.nanoTime();
 
   /**
    * Total partitions that have been affected.
@@ -65,6 +69,23 @@ public void incrementRecordsSize(long delta) {
     recordsSize.add(delta);
   }
 
+  /**
+   * Account a record batch written by the background writer thread in batching mode.
+   * @param elapsedNanos time spent writing the batch.
+   */
+  public void incrementBatchFlushes(long elapsedNanos) {
+    batchFlushCount.increment();
+    batchFlushTimeNanos.add(elapsedNanos);
+  }
+
+  /**
+   * Increment the number of batches that were handed over early because the memory budget was exceeded.
+   * @param delta to increment by.
+   */
+  public void incrementBatchSpills(long delta) {
+    batchSpillCount.add(delta);
+  }
+
   /**
    * Increment by delta the number of created partitions.
    * @param delta to increment by.
@@ -105,6 +126,37 @@ public long getMetastoreCalls() {
     return metastoreCalls.longValue();
   }
 
+  public long getBatchFlushCount() {
+    return batchFlushCount.longValue();
+  }
+
+  public long getBatchSpillCount() {
+    return batchSpillCount.longValue();
+  }
+
+  public long getBatchFlushTimeNanos() {
+    return batchFlushTimeNanos.longValue();
+  }
+
+  /**
+   * @return records written per second since the connection was opened.
+   */
+  public double getRecordsPerSecond() {
+    return perSecond(recordsWritten.longValue());
+  }
+
+  /**
+   * @return bytes ingested per second since the connection was opened.
+   */
+  public double getBytesPerSecond() {
+    return perSecond(recordsSize.longValue());
+  }
+
+  private double perSecond(long value) {
+    long elapsedNanos = System.nanoTime() - startTimeNanos;
+    return elapsedNanos <= 0 ? 0 : value * 1_000_000_000d / elapsedNanos;
+  }
+
   public LongAdder getTotalPartitions() {
     return totalPartitions;
   }
@@ -118,6 +170,8 @@ public String toString() {
     return "{records-written: " + recordsWritten + ", records-size: "+ recordsSize + ", committed-transactions: " +
       committedTransactions + ", aborted-transactions: " + abortedTransactions + ", auto-flushes: " + autoFlushCount +
       ", metastore-calls: " + metastoreCalls
+        + ", batch-flushes: " + batchFlushCount + ", batch-spills: " + batchSpillCount
+        + ", records-per-second: " + String.format("%.2f", getRecordsPerSecond())
         + ", created-partitions: " + createdPartitions
         + ", total-partitions: " + totalPartitions + " }";
   }
@@ -79,6 +79,12 @@ default void init(StreamingConnection connection, long minWriteId,
    */
   void flush() throws StreamingException;
 
+  /**
+   * Discard records buffered for the current transaction. Invoked by TransactionBatch.abortTransaction()
+   */
+  default void discard() {
+  }
+
   /**
    * Close the RecordUpdater. Invoked by TransactionBatch.close()
    *
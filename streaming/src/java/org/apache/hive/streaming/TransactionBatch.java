@@ -344,6 +344,7 @@ public void abort() throws StreamingException {
   }
 
   private void abort(final boolean abortAllRemaining) throws StreamingException {
+    recordWriter.discard();
     abortImpl(abortAllRemaining);
   }
 
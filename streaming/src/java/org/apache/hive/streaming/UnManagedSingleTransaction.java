@@ -93,6 +93,7 @@ public void abort() {
     if (isTxnClosed.get()) {
       return;
     }
+    recordWriter.discard();
     state = HiveStreamingConnection.TxnState.ABORTED;
   }
 
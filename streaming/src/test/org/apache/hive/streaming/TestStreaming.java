@@ -1555,6 +1555,54 @@ public void testTransactionBatchCommitDelimited() throws Exception {
     connection.close();
   }
 
+  @Test
+  public void testTransactionBatchCommitDelimitedWithBatching() throws Exception {
+    conf.setBoolVar(HiveConf.ConfVars.HIVE_STREAMING_BATCHING_ENABLED, true);
+    conf.setIntVar(HiveConf.ConfVars.HIVE_STREAMING_BATCHING_BATCH_SIZE, 2);
+    StrictDelimitedInputWriter writer = StrictDelimitedInputWriter.newBuilder()
+      .withFieldDelimiter(',')
+      .build();
+
+    HiveStreamingConnection connection = HiveStreamingConnection.newBuilder()
+      .withDatabase(dbName)
+      .withTable(tblName)
+      .withStaticPartitionValues(partitionVals)
+      .withAgentInfo("UT_" + Thread.currentThread().getName())
+      .withHiveConf(conf)
+      .withRecordWriter(writer)
+      .withTransactionBatchSize(10)
+      .connect();
+
+    // 1st Txn, one full batch and one partial batch which is written on commit
+    connection.beginTransaction();
+    connection.write("1,Hello streaming".getBytes());
+    connection.write("2,Welcome to streaming".getBytes());
+    connection.write("3,Batching streaming".getBytes());
+    connection.commitTransaction();
+
+    checkDataWritten(partLoc, 1, 10, 1, 1, "{1, Hello streaming}",
+      "{2, Welcome to streaming}", "{3, Batching streaming}");
+    Assert.assertEquals(2, connection.getConnectionStats().getBatchFlushCount());
+
+    // 2nd Txn, the partial batch is dropped on abort
+    connection.beginTransaction();
+    connection.write("5,Aborted streaming".getBytes());
+    connection.abortTransaction();
+    Assert.assertEquals(2, connection.getConnectionStats().getBatchFlushCount());
+
+    // 3rd Txn
+    connection.beginTransaction();
+    connection.write("4,Bye streaming".getBytes());
+    connection.commitTransaction();
+
+    checkDataWritten(partLoc, 1, 10, 1, 1, "{1, Hello streaming}",
+      "{2, Welcome to streaming}", "{3, Batching streaming}", "{4, Bye streaming}");
+
+    Assert.assertEquals(5, connection.getConnectionStats().getRecordsWritten());
+    Assert.assertEquals(3, connection.getConnectionStats().getBatchFlushCount());
+    connection.close();
+  }
+
   @Test
   public void testTransactionBatchCommitRegex() throws Exception {
     String regex = "([^,]*),(.*)";